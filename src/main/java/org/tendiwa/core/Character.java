@@ -79,6 +79,14 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 		return new BasicCell(x, y);
 	}
 
+	/**
+	 * @return An object to synchronize on while this character changes the world: the lock of its TimeStream, so
+	 * characters of different TimeStreams act in parallel, or the backend's lock if it is in no TimeStream.
+	 */
+	private Object lock() {
+		return timeStream == null ? backend.getLock() : timeStream.getLock();
+	}
+
 	public PathWalkerOverCharacters getPathWalkerOverCharacters() {
 		if (pathWalkerOverCharacters == null) {
 			pathWalkerOverCharacters = new PathWalkerOverCharacters();
@@ -88,7 +96,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 
 	/* Actions */
 	public void attack(Character aim) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventAttack(this, aim));
 		}
 		backend.waitForAnimationToStartAndComplete();
@@ -101,7 +109,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void actAndWait(Runnable runnable) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			runnable.run();
 		}
 		backend.waitForAnimationToStartAndComplete();
@@ -136,7 +144,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	protected void die() {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			isAlive = false;
 			timeStream.claimCharacterDisappearance(this);
 			plane.getChunkWithCell(x, y).removeCharacter(this);
@@ -146,7 +154,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void putOn(UniqueItem item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			inventory.removeUnique(item);
 			equipment.putOn(item);
 //		if (isPlayer()) {
@@ -157,7 +165,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void wield(Item item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			if (item.getType().isStackable()) {
 				ItemPile itemPile = (ItemPile) item;
 				ItemPile pile = new ItemPile(itemPile.getType(), 1);
@@ -172,7 +180,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void cease(Item item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			inventory.add(item);
 			equipment.cease(item);
 			backend.emitEvent(new EventUnwield(this, item));
@@ -180,7 +188,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void takeOff(UniqueItem item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			inventory.add(item);
 			equipment.takeOff(item);
 			backend.emitEvent(new EventTakeOff(this, item));
@@ -327,7 +335,11 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public int increaseActionPoints(int value) {
-		return actionPoints += value;
+		actionPoints += value;
+		if (timeStream != null) {
+			timeStream.actionPointsChanged(this);
+		}
+		return actionPoints;
 	}
 
 	public int getFraction() {
@@ -357,26 +369,32 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	public void move(int x, int y, MovingStyle movingStyle) {
 		int xPrev = this.x;
 		int yPrev = this.y;
-		synchronized (backend.getLock()) {
+		if (timeStream != null && !timeStream.claimTerritoryAround(plane, x, y)) {
+			timeStream.defer(() -> move(x, y, movingStyle));
+			return;
+		}
+		synchronized (lock()) {
 			plane.removeCharacter(this);
 			this.x = x;
 			this.y = y;
 			plane.addCharacter(this);
+			if (timeStream != null) {
+				timeStream.moveCharacter(this, xPrev, yPrev);
+				timeStream.releaseChunksAround(plane, xPrev, yPrev);
+			}
 			backend.emitEvent(new EventMove(xPrev, yPrev, this, movingStyle));
 		}
 		backend.waitForAnimationToStartAndComplete();
 		timeStream.notifyNeighborsVisiblilty(this);
 		if (singlePlayerMode.isPlayer(this)) {
-			synchronized (backend.getLock()) {
+			synchronized (lock()) {
 				seer.storeVisionCacheToPreviousVisionCache();
 				seer.invalidateVisionCache();
 				seer.computeFullVisionCache();
 				VisibilityChange visibilityChange = new VisibilityChange(
-					world,
 					this,
 					xPrev,
 					yPrev,
-					seer,
 					seer.getPreviousVisionCache(),
 					seer.getVisionCache(),
 					seer.getPreviousBorderVisionCache(),
@@ -398,10 +416,19 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	 * 	How many planes to go up. May be negative to go down.
 	 */
 	public void moveByPlane(int dz) {
-		synchronized (backend.getLock()) {
+		HorizontalPlane newPlane = world.getPlane(plane.getLevel() + dz);
+		if (timeStream != null && !timeStream.claimTerritoryAround(newPlane, x, y)) {
+			timeStream.defer(() -> moveByPlane(dz));
+			return;
+		}
+		synchronized (lock()) {
+			HorizontalPlane previousPlane = plane;
 			plane.removeCharacter(this);
-			plane = world.getPlane(plane.getLevel() + dz);
+			plane = newPlane;
 			plane.addCharacter(this);
+			if (timeStream != null) {
+				timeStream.releaseChunksAround(previousPlane, x, y);
+			}
 			seer.invalidateVisionCache();
 			seer.storeVisionCacheToPreviousVisionCache();
 			seer.computeFullVisionCache();
@@ -413,11 +440,14 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 
 	public void spendActionPoints(int amount) {
 		actionPoints -= amount;
+		if (timeStream != null) {
+			timeStream.actionPointsChanged(this);
+		}
 	}
 
 	public void getDamage(int amount, DamageType type, DamageSource damageSource) {
 		this.hp -= amount;
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventGetDamage(this, amount, damageSource, type));
 		}
 		backend.waitForAnimationToStartAndComplete();
@@ -443,14 +473,14 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void say(String message) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventSay(message, this));
 		}
 		backend.waitForAnimationToStartAndComplete();
 	}
 
 	public void getItem(Item item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			inventory.add(item);
 		}
 		backend.waitForAnimationToStartAndComplete();
@@ -469,7 +499,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void loseItem(Item item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventLoseItem(item));
 			if (item.getType().isStackable()) {
 				inventory.removePile((ItemPile) item);
@@ -537,10 +567,21 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 
 	@Override
 	public void place(HorizontalPlane plane, int x, int y) {
+		int xPrev = this.x;
+		int yPrev = this.y;
+		if (timeStream != null && !timeStream.claimTerritoryAround(plane, x, y)) {
+			timeStream.defer(() -> place(plane, x, y));
+			return;
+		}
+		HorizontalPlane previousPlane = this.plane;
+		previousPlane.removeCharacter(this);
 		this.x = x;
 		this.y = y;
-		this.plane.removeCharacter(this);
 		plane.addCharacter(this);
+		if (timeStream != null) {
+			timeStream.moveCharacter(this, xPrev, yPrev);
+			timeStream.releaseChunksAround(previousPlane, xPrev, yPrev);
+		}
 	}
 
 	@Override
@@ -565,12 +606,12 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 	}
 
 	public void pickUp(Item item) {
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventItemDisappear(x, y, item));
 			plane.getItems(x, y).removeItem(item);
 		}
 		backend.waitForAnimationToStartAndComplete();
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventGetItem(item));
 			getItem(item);
 		}
@@ -591,15 +632,15 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 
 	public void propel(Item item, int x, int y) {
 		assert inventory.contains(item);
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			loseItem(item);
 		}
 		backend.waitForAnimationToStartAndComplete();
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventProjectileFly(item, this.x, this.y, x, y, EventProjectileFly.FlightStyle.CAST));
 		}
 		backend.waitForAnimationToStartAndComplete();
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventItemAppear(item, x, y));
 			Chunk chunkWithCell = plane.getChunkWithCell(x, y);
 			chunkWithCell.addItem(item, x, y);
@@ -623,7 +664,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 		loseItem(projectile);
 
 		ProjectileFlight flight = computeProjectileFlightEndCoordinate(weapon, projectile, toX, toY);
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventProjectileFly(
 				projectile,
 				x,
@@ -638,7 +679,7 @@ public class Character implements Cell, PlaceableInCell, DamageSource {
 		if (flight.characterHit != null) {
 			flight.characterHit.getDamage(10, DamageType.PLAIN, this);
 		}
-		synchronized (backend.getLock()) {
+		synchronized (lock()) {
 			backend.emitEvent(new EventItemAppear(projectile, toX, toY));
 			Chunk chunkWithCell = plane.getChunkWithCell(toX, toY);
 			chunkWithCell.addItem(projectile, toX, toY);
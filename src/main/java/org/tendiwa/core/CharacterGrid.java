@@ -0,0 +1,138 @@
+package org.tendiwa.core;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Characters of a {@link TimeStream} bucketed by {@link Chunk#SIZE}x{@link Chunk#SIZE} squares of cells, so characters
+ * around a cell can be found by looking into a few buckets instead of at every character of a TimeStream.
+ * <p>
+ * Must be told about every move of a character it holds.
+ */
+final class CharacterGrid {
+	private final TLongObjectMap<List<Character>> buckets = new TLongObjectHashMap<>();
+
+	private static long bucketKey(int x, int y) {
+		return ((long) Math.floorDiv(x, Chunk.SIZE) << 32) | (Math.floorDiv(y, Chunk.SIZE) & 0xFFFFFFFFL);
+	}
+
+	void add(Character character) {
+		add(character, bucketKey(character.x, character.y));
+	}
+
+	void remove(Character character) {
+		remove(character, bucketKey(character.x, character.y));
+	}
+
+	/**
+	 * Moves a character to the bucket of its current cell.
+	 *
+	 * @param character
+	 * 	A character in this grid that has already changed its coordinates.
+	 * @param xPrev
+	 * 	X coordinate of the character's previous cell.
+	 * @param yPrev
+	 * 	Y coordinate of the character's previous cell.
+	 */
+	void move(Character character, int xPrev, int yPrev) {
+		long previousKey = bucketKey(xPrev, yPrev);
+		long key = bucketKey(character.x, character.y);
+		if (previousKey != key) {
+			remove(character, previousKey);
+			add(character, key);
+		}
+	}
+
+	/**
+	 * Finds characters in a square around a cell.
+	 *
+	 * @param x
+	 * 	X coordinate of the square's center.
+	 * @param y
+	 * 	Y coordinate of the square's center.
+	 * @param radius
+	 * 	Greatest distance by x or y axis from the center to a character.
+	 * @param answer
+	 * 	Where found characters are added.
+	 */
+	void collectInSquare(int x, int y, int radius, Collection<? super Character> answer) {
+		int startX = Math.floorDiv(x - radius, Chunk.SIZE);
+		int startY = Math.floorDiv(y - radius, Chunk.SIZE);
+		int endX = Math.floorDiv(x + radius, Chunk.SIZE);
+		int endY = Math.floorDiv(y + radius, Chunk.SIZE);
+		for (int bucketX = startX; bucketX <= endX; bucketX++) {
+			for (int bucketY = startY; bucketY <= endY; bucketY++) {
+				List<Character> bucket = buckets.get(((long) bucketX << 32) | (bucketY & 0xFFFFFFFFL));
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = 0, size = bucket.size(); i < size; i++) {
+					Character character = bucket.get(i);
+					if (Math.abs(character.x - x) <= radius && Math.abs(character.y - y) <= radius) {
+						answer.add(character);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells if there is a character in a rectangle of cells on a plane.
+	 *
+	 * @param plane
+	 * 	A plane.
+	 * @param minX
+	 * 	Least x coordinate of a cell in the rectangle.
+	 * @param minY
+	 * 	Least y coordinate of a cell in the rectangle.
+	 * @param maxX
+	 * 	Greatest x coordinate of a cell in the rectangle.
+	 * @param maxY
+	 * 	Greatest y coordinate of a cell in the rectangle.
+	 * @return true if there is at least one character of this grid in that rectangle.
+	 */
+	boolean hasAnyInRectangle(HorizontalPlane plane, int minX, int minY, int maxX, int maxY) {
+		for (int bucketX = Math.floorDiv(minX, Chunk.SIZE); bucketX <= Math.floorDiv(maxX, Chunk.SIZE); bucketX++) {
+			for (int bucketY = Math.floorDiv(minY, Chunk.SIZE); bucketY <= Math.floorDiv(maxY, Chunk.SIZE); bucketY++) {
+				List<Character> bucket = buckets.get(((long) bucketX << 32) | (bucketY & 0xFFFFFFFFL));
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = 0, size = bucket.size(); i < size; i++) {
+					Character character = bucket.get(i);
+					if (character.getPlane() == plane
+						&& character.x >= minX && character.x <= maxX
+						&& character.y >= minY && character.y <= maxY) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private void add(Character character, long key) {
+		List<Character> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new ArrayList<>();
+			buckets.put(key, bucket);
+		}
+		bucket.add(character);
+	}
+
+	private void remove(Character character, long key) {
+		List<Character> bucket = buckets.get(key);
+		assert bucket != null && bucket.contains(character) : character + " is not in its bucket";
+		int index = bucket.indexOf(character);
+		int last = bucket.size() - 1;
+		bucket.set(index, bucket.get(last));
+		bucket.remove(last);
+		if (bucket.isEmpty()) {
+			buckets.remove(key);
+		}
+	}
+}
@@ -1,32 +1,55 @@
 package org.tendiwa.core;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
+/**
+ * A square piece of a {@link HorizontalPlane} {@link #SIZE} cells wide.
+ * <p>
+ * Floors and objects are stored as {@code short} indices into per-chunk {@link ChunkPalette}s over a flat {@code
+ * SIZE*SIZE} array, so a cell costs 4 bytes regardless of how many types there are in the world. Items, characters and
+ * border objects are sparse and live in primitive-keyed maps.
+ */
 public class Chunk implements Serializable {
 	public static final byte SIZE = 32;
 	public final int x;
 	public final int y;
 	public HorizontalPlane plane;
-	protected HashMap<Integer, ItemCollection> items = new HashMap<>();
-	protected Table<Integer, CardinalDirection, BorderObject> borderObjects = HashBasedTable.create();
-	Map<Integer, Character> characters = new HashMap<>();
-	FloorType[][] floors;
-	GameObject[][] objects;
+	protected final TIntObjectMap<ItemCollection> items = new TIntObjectHashMap<>();
+	/**
+	 * Keys are produced by {@link #borderKey(int, int, CardinalDirection)}.
+	 */
+	protected final TIntObjectMap<BorderObject> borderObjects = new TIntObjectHashMap<>();
+	final TIntObjectMap<Character> characters = new TIntObjectHashMap<>();
+	final ChunkPalette<FloorType> floorPalette = new ChunkPalette<>();
+	final ChunkPalette<GameObject> objectPalette = new ChunkPalette<>();
+	final short[] floors = new short[SIZE * SIZE];
+	final short[] objects = new short[SIZE * SIZE];
+	final ChunkObstacles obstacles = new ChunkObstacles();
 	private ArrayList<SoundSource> soundSources = new ArrayList<>();
 	transient private TimeStream timeStream;
+	/**
+	 * Whether terrain of this chunk changed since it was loaded or last saved into a {@link ChunkStorage}.
+	 */
+	transient boolean dirty;
+	/**
+	 * Changes each time an object is placed into or removed from a cell of this chunk, and when this chunk is
+	 * unloaded.
+	 */
+	transient volatile int objectsVersion;
+	/**
+	 * Neighbours of this chunk in its plane's list of loaded chunks ordered from most to least recently used.
+	 */
+	transient Chunk moreRecentlyUsed;
+	transient Chunk lessRecentlyUsed;
 
 	public Chunk(HorizontalPlane plane, int x, int y) {
 		this.x = x;
 		this.y = y;
-		this.floors = new FloorType[SIZE][SIZE];
-		this.objects = new GameObject[SIZE][SIZE];
 		this.plane = plane;
 	}
 
@@ -76,12 +99,11 @@ public class Chunk implements Serializable {
 			}
 		}
 		// At this point, side is either N or W
-		int key = cellHash(x, y);
-		return borderObjects.get(key, side);
+		return borderObjects.get(borderKey(x, y, side));
 	}
 
 	public BorderObject getBorderObject(Border border) {
-		return borderObjects.get(cellHash(border.x, border.y), border.side);
+		return borderObjects.get(borderKey(border.x, border.y, border.side));
 	}
 
 	public BorderObject setBorderObject(int x, int y, CardinalDirection side, BorderObjectType type) {
@@ -97,13 +119,16 @@ public class Chunk implements Serializable {
 				y += 1;
 			}
 		}
-		int key = cellHash(x, y);
+		int key = borderKey(x, y, side);
+		dirty = true;
 		if (type == BorderObjectType.VOID) {
-			borderObjects.remove(key, side);
+			borderObjects.remove(key);
+			obstacles.removeBorderObject(key);
 			return null;
 		} else {
 			BorderObject value = new BorderObject(type);
-			borderObjects.put(key, side, value);
+			borderObjects.put(key, value);
+			obstacles.addBorderObject(key, new Border(x, y, side));
 			return value;
 		}
 	}
@@ -117,7 +142,7 @@ public class Chunk implements Serializable {
 	}
 
 	void addCharacter(Character character) {
-		int key = cellHash(character.x, character.y);
+		int key = cellIndex(character.x, character.y);
 		if (characters.containsKey(key)) {
 			throw new RuntimeException("Trying to place character " + character + " in cell " + character.x + ":" + character.y + " where there is already character " + characters.get(key));
 		} else {
@@ -128,14 +153,18 @@ public class Chunk implements Serializable {
 	}
 
 	void removeCharacter(Character character) {
-		Character removedCharacter = characters.remove(character.x * Chunk.SIZE + character.y);
+		Character removedCharacter = characters.remove(cellIndex(character.x, character.y));
 		if (removedCharacter == null) {
 			throw new RuntimeException("Character " + character + " can't be removed from chunk because it doesn't contain that character");
 		}
 	}
 
 	public void removeObject(int x, int y) {
-		objects[x - this.x][y - this.y] = null;
+		int index = cellIndex(x, y);
+		objects[index] = ChunkPalette.EMPTY;
+		obstacles.removeObject(index);
+		objectsVersion++;
+		dirty = true;
 //	if (playerSeer.canSee(x, y) && playerSeer.getVisionCache().isVisionCacheEmpty()) {
 //		playerSeer.invalidateVisionCache();
 //	}
@@ -173,6 +202,13 @@ public class Chunk implements Serializable {
 		this.timeStream = timeStream;
 	}
 
+	/**
+	 * @return A TimeStream this Chunk belongs to, or null if it belongs to no TimeStream.
+	 */
+	public TimeStream getTimeStream() {
+		return timeStream;
+	}
+
 	public String toString() {
 		return "Chunk-" + x + ":" + y;
 	}
@@ -188,15 +224,19 @@ public class Chunk implements Serializable {
 	}
 
 	public void setFloor(FloorType floor, int x, int y) {
-		floors[x - this.x][y - this.y] = floor;
+		floors[cellIndex(x, y)] = floorPalette.indexOf(floor);
+		dirty = true;
+		if (floorPalette.size() > SIZE * SIZE) {
+			floorPalette.compact(floors);
+		}
 	}
 
 	public Character getCharacter(int x, int y) {
-		return characters.get(cellHash(x, y));
+		return characters.get(cellIndex(x, y));
 	}
 
 	public GameObject getGameObject(int x, int y) {
-		return objects[x - this.x][y - this.y];
+		return objectPalette.get(objects[cellIndex(x, y)]);
 	}
 
 	/**
@@ -208,7 +248,7 @@ public class Chunk implements Serializable {
 	 * 	Y coordinate of a cell in chunk coordinates.
 	 */
 	public void addItem(Item item, int x, int y) {
-		int key = cellHash(x, y);
+		int key = cellIndex(x, y);
 		ItemCollection itemsInCell = items.get(key);
 		if (itemsInCell == null) {
 			itemsInCell = new ItemCollection();
@@ -218,20 +258,15 @@ public class Chunk implements Serializable {
 	}
 
 	public boolean hasObject(int x, int y) {
-		return objects[x - this.x][y - this.y] != null;
+		return objects[cellIndex(x, y)] != ChunkPalette.EMPTY;
 	}
 
 	public boolean hasCharacter(int x, int y) {
-		for (Character character : characters.values()) {
-			if (character.x() == x && character.y() == y) {
-				return true;
-			}
-		}
-		return false;
+		return characters.containsKey(cellIndex(x, y));
 	}
 
 	public ItemCollection getItems(int x, int y) {
-		return items.get(cellHash(x, y));
+		return items.get(cellIndex(x, y));
 	}
 
 	public float distance(int startX, int startY, int endX, int endY) {
@@ -240,15 +275,11 @@ public class Chunk implements Serializable {
 	}
 
 	public void removeItem(UniqueItem item, int x, int y) {
-		items.get(cellHash(x, y)).removeUnique(item);
+		items.get(cellIndex(x, y)).removeUnique(item);
 	}
 
 	public void removeItem(ItemPile item, int x, int y) {
-		items.get(cellHash(x, y)).removePile(item);
-	}
-
-	private GameObject getObject(int x, int y) {
-		return objects[x - this.x][y - this.y];
+		items.get(cellIndex(x, y)).removePile(item);
 	}
 
 	/**
@@ -259,7 +290,7 @@ public class Chunk implements Serializable {
 	 * @return Id of {@link FloorType} in that cell.
 	 */
 	public FloorType getFloor(int x, int y) {
-		return floors[x - this.x][y - this.y];
+		return floorPalette.get(floors[cellIndex(x, y)]);
 	}
 
 	/**
@@ -272,11 +303,11 @@ public class Chunk implements Serializable {
 	 * @return Id of a wall in the specified cell.
 	 */
 	public GameObject getWall(int x, int y) {
-		return objects[x - this.x][y - this.y];
+		return objectPalette.get(objects[cellIndex(x, y)]);
 	}
 
 	public void setWall(WallType wall, int x, int y) {
-		objects[x - this.x][y - this.y] = wall;
+		setObject(wall, x, y);
 	}
 
 	/**
@@ -289,24 +320,137 @@ public class Chunk implements Serializable {
 	 * @return Id of a wall in the specified cell.
 	 */
 	public boolean hasAnyItems(int x, int y) {
-		int key = cellHash(x, y);
-		return items.containsKey(key) && items.get(key).size() > 0;
+		ItemCollection itemsInCell = items.get(cellIndex(x, y));
+		return itemsInCell != null && itemsInCell.size() > 0;
 	}
 
 	public void setObject(GameObject object, int x, int y) {
-		objects[x - this.x][y - this.y] = object;
+		int index = cellIndex(x, y);
+		objects[index] = objectPalette.indexOf(object);
+		if (object == null) {
+			obstacles.removeObject(index);
+		} else {
+			obstacles.addObject(index, x, y);
+		}
+		objectsVersion++;
+		dirty = true;
+		if (objectPalette.size() > SIZE * SIZE) {
+			objectPalette.compact(objects);
+		}
+	}
+
+	/**
+	 * Returns index of a cell in flat per-cell arrays of this chunk.
+	 *
+	 * @param x
+	 * 	Absolute x coordinate of a cell inside this chunk.
+	 * @param y
+	 * 	Absolute y coordinate of a cell inside this chunk.
+	 * @return Index in [0..SIZE*SIZE).
+	 */
+	int cellIndex(int x, int y) {
+		return (x - this.x) * SIZE + (y - this.y);
+	}
+
+	/**
+	 * Returns a key of a border in {@link #borderObjects}. Borders with E or S sides normalized into N and W sides may
+	 * lie one cell beyond this chunk's east or south edge, so the key has room for {@code (SIZE+1)^2} cells.
+	 *
+	 * @param x
+	 * 	Absolute x coordinate of a cell.
+	 * @param y
+	 * 	Absolute y coordinate of a cell.
+	 * @param side
+	 * 	Either {@link Directions#N} or {@link Directions#W}.
+	 * @return Key unique for each border of this chunk.
+	 */
+	private int borderKey(int x, int y, CardinalDirection side) {
+		assert side == Directions.N || side == Directions.W;
+		return (((x - this.x) * (SIZE + 1) + (y - this.y)) << 1) | (side == Directions.N ? 0 : 1);
+	}
+
+	/**
+	 * Restores {@link #obstacles} from objects and border objects after they were written directly into this chunk's
+	 * arrays and maps.
+	 */
+	void rebuildObstacles() {
+		for (int i = 0; i < objects.length; i++) {
+			if (objects[i] != ChunkPalette.EMPTY) {
+				obstacles.addObject(i, x + i / SIZE, y + i % SIZE);
+			}
+		}
+		for (int key : borderObjects.keys()) {
+			int cell = key >> 1;
+			obstacles.addBorderObject(
+				key,
+				new Border(
+					x + cell / (SIZE + 1),
+					y + cell % (SIZE + 1),
+					(key & 1) == 0 ? Directions.N : Directions.W
+				)
+			);
+		}
 	}
 
-	private int cellHash(int x, int y) {
-		return x * SIZE + y;
+	/**
+	 * @return A number that changes each time an object is placed into or removed from a cell of this chunk, so
+	 * whatever is computed from passability of this chunk's cells knows when to be recomputed. It also changes when
+	 * this chunk is unloaded from its plane, so whoever keeps this chunk needs not look it up in the plane again to
+	 * know it is still the plane's chunk.
+	 */
+	public int getObjectsVersion() {
+		return objectsVersion;
+	}
+
+	/**
+	 * @return Vision obstacles of this chunk.
+	 */
+	public ChunkObstacles getObstacles() {
+		return obstacles;
+	}
+
+	/**
+	 * Finds an obstacle held by this chunk on a border. Only obstacles held by this chunk are searched: a border
+	 * shared with a cell of another chunk may also have obstacles held by that chunk.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell in this chunk.
+	 * @param y
+	 * 	Y coordinate of a cell in this chunk.
+	 * @param side
+	 * 	Any side of the cell.
+	 * @return A side of an object in x:y if there is an object, otherwise an obstacle of a border object on that side
+	 * if it is held by this chunk, otherwise null.
+	 */
+	ObstacleBorder findObstacle(int x, int y, CardinalDirection side) {
+		int index = cellIndex(x, y);
+		ObstacleBorder objectSide = obstacles.getObjectSide(index, side);
+		if (objectSide != null) {
+			return objectSide;
+		}
+		if (side == Directions.N || side == Directions.W) {
+			return obstacles.getBorderObject(borderKey(x, y, side));
+		}
+		return null;
 	}
 
 	public boolean hasBorderObject(int x, int y, CardinalDirection side) {
 		assert side == Directions.N || side == Directions.W;
-		return borderObjects.contains(cellHash(x, y), side);
+		return borderObjects.containsKey(borderKey(x, y, side));
+	}
+
+	/**
+	 * Checks if this chunk holds nothing but terrain, so it can be dropped from memory once its terrain is saved.
+	 *
+	 * @return true if there are no characters or items in this chunk and it belongs to no {@link TimeStream}. A
+	 * TimeStream releases a chunk once its characters walk away from it (see {@link
+	 * TimeStream#releaseChunksAround(HorizontalPlane, int, int)}), so chunks are held only around characters.
+	 */
+	boolean holdsOnlyTerrain() {
+		return characters.isEmpty() && items.isEmpty() && timeStream == null;
 	}
 
 	public Collection<Character> getCharacters() {
-		return characters.values();
+		return characters.valueCollection();
 	}
 }
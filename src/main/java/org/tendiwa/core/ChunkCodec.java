@@ -0,0 +1,113 @@
+package org.tendiwa.core;
+
+import gnu.trove.iterator.TIntObjectIterator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary format of terrain of a {@link Chunk}: palettes of type names followed by per-cell palette indices and border
+ * objects, all deflated.
+ * <p>
+ * Characters, items and sound sources are not a part of terrain and are not encoded.
+ */
+final class ChunkCodec {
+	private static final byte VERSION = 1;
+
+	private ChunkCodec() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Checks if terrain of a chunk can be restored by {@link #decode(byte[], HorizontalPlane, int, int,
+	 * TerrainTypes)}.
+	 *
+	 * @param chunk
+	 * 	A chunk.
+	 * @return true if all objects in the chunk are {@link Resourceable}, false otherwise.
+	 */
+	static boolean canEncode(Chunk chunk) {
+		for (short i = 1; i < chunk.objectPalette.size(); i++) {
+			if (!(chunk.objectPalette.get(i) instanceof Resourceable)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static byte[] encode(Chunk chunk) {
+		assert canEncode(chunk);
+		chunk.floorPalette.compact(chunk.floors);
+		chunk.objectPalette.compact(chunk.objects);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+			out.writeByte(VERSION);
+			out.writeShort(chunk.floorPalette.size());
+			for (short i = 1; i < chunk.floorPalette.size(); i++) {
+				out.writeUTF(chunk.floorPalette.get(i).getResourceName());
+			}
+			writeCells(out, chunk.floors);
+			out.writeShort(chunk.objectPalette.size());
+			for (short i = 1; i < chunk.objectPalette.size(); i++) {
+				out.writeUTF(((Resourceable) chunk.objectPalette.get(i)).getResourceName());
+			}
+			writeCells(out, chunk.objects);
+			out.writeInt(chunk.borderObjects.size());
+			TIntObjectIterator<BorderObject> iterator = chunk.borderObjects.iterator();
+			while (iterator.hasNext()) {
+				iterator.advance();
+				out.writeInt(iterator.key());
+				out.writeUTF(iterator.value().getType().getResourceName());
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	static Chunk decode(byte[] data, HorizontalPlane plane, int x, int y, TerrainTypes types) {
+		Chunk chunk = new Chunk(plane, x, y);
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw new RuntimeException("Unknown chunk format version " + version + " in " + chunk);
+			}
+			short[] floorRemap = new short[in.readShort()];
+			for (int i = 1; i < floorRemap.length; i++) {
+				floorRemap[i] = chunk.floorPalette.indexOf(types.floorType(in.readUTF()));
+			}
+			readCells(in, chunk.floors, floorRemap);
+			short[] objectRemap = new short[in.readShort()];
+			for (int i = 1; i < objectRemap.length; i++) {
+				objectRemap[i] = chunk.objectPalette.indexOf(types.gameObject(in.readUTF()));
+			}
+			readCells(in, chunk.objects, objectRemap);
+			int numberOfBorderObjects = in.readInt();
+			for (int i = 0; i < numberOfBorderObjects; i++) {
+				int key = in.readInt();
+				chunk.borderObjects.put(key, new BorderObject(types.borderObjectType(in.readUTF())));
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Could not decode " + chunk, e);
+		}
+		chunk.rebuildObstacles();
+		return chunk;
+	}
+
+	private static void writeCells(DataOutputStream out, short[] cells) throws IOException {
+		for (short cell : cells) {
+			out.writeShort(cell);
+		}
+	}
+
+	private static void readCells(DataInputStream in, short[] cells, short[] remap) throws IOException {
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = remap[in.readShort()];
+		}
+	}
+}
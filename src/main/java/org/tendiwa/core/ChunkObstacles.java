@@ -0,0 +1,117 @@
+package org.tendiwa.core;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Vision obstacles of a single {@link Chunk}, kept up to date by the chunk as objects and {@link BorderObject}s are
+ * placed and removed. Lets a {@link org.tendiwa.core.vision.Seer} collect obstacles around it by walking a few chunks
+ * instead of testing every cell in its vision range.
+ * <p>
+ * Sides of objects are held by the chunk with the object's cell; border objects are held by the chunk with the cell
+ * whose {@link Directions#N} or {@link Directions#W} side the border is.
+ */
+public final class ChunkObstacles {
+	private ObstacleBorder[] obstacles = new ObstacleBorder[8];
+	private int size;
+	/**
+	 * Sides of objects in order of {@link CardinalDirection#values()} by {@link Chunk#cellIndex(int, int)}.
+	 */
+	private final TIntObjectMap<ObstacleBorder[]> objectSides = new TIntObjectHashMap<>();
+	private final TIntObjectMap<ObstacleBorder> borderObjects = new TIntObjectHashMap<>();
+
+	ChunkObstacles() {
+	}
+
+	/**
+	 * @return Number of obstacles in this chunk.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index
+	 * 	Index in [0..size()).
+	 * @return An obstacle.
+	 */
+	public ObstacleBorder get(int index) {
+		assert index < size;
+		return obstacles[index];
+	}
+
+	void addObject(int cellIndex, int x, int y) {
+		if (objectSides.containsKey(cellIndex)) {
+			return;
+		}
+		CardinalDirection[] sides = CardinalDirection.values();
+		ObstacleBorder[] borders = new ObstacleBorder[sides.length];
+		for (int i = 0; i < sides.length; i++) {
+			borders[i] = new ObstacleBorder(x, y, sides[i]);
+			add(borders[i]);
+		}
+		objectSides.put(cellIndex, borders);
+	}
+
+	void removeObject(int cellIndex) {
+		ObstacleBorder[] borders = objectSides.remove(cellIndex);
+		if (borders != null) {
+			for (ObstacleBorder border : borders) {
+				remove(border);
+			}
+		}
+	}
+
+	/**
+	 * @param cellIndex
+	 * 	Index of a cell in its chunk.
+	 * @param side
+	 * 	A side of the cell.
+	 * @return That side of an object in that cell, or null if there is no object in that cell.
+	 */
+	ObstacleBorder getObjectSide(int cellIndex, CardinalDirection side) {
+		ObstacleBorder[] borders = objectSides.get(cellIndex);
+		return borders == null ? null : borders[side.ordinal()];
+	}
+
+	void addBorderObject(int key, Border border) {
+		if (!borderObjects.containsKey(key)) {
+			ObstacleBorder obstacle = new ObstacleBorder(border);
+			borderObjects.put(key, obstacle);
+			add(obstacle);
+		}
+	}
+
+	void removeBorderObject(int key) {
+		ObstacleBorder obstacle = borderObjects.remove(key);
+		if (obstacle != null) {
+			remove(obstacle);
+		}
+	}
+
+	ObstacleBorder getBorderObject(int key) {
+		return borderObjects.get(key);
+	}
+
+	private void add(ObstacleBorder obstacle) {
+		if (size == obstacles.length) {
+			obstacles = Arrays.copyOf(obstacles, size * 2);
+		}
+		obstacle.indexInChunk = size;
+		obstacles[size++] = obstacle;
+	}
+
+	/**
+	 * Removes an obstacle in O(1) by moving the last obstacle in its place.
+	 */
+	private void remove(ObstacleBorder obstacle) {
+		int index = obstacle.indexInChunk;
+		ObstacleBorder last = obstacles[--size];
+		obstacles[index] = last;
+		last.indexInChunk = index;
+		obstacles[size] = null;
+		obstacle.indexInChunk = -1;
+	}
+}
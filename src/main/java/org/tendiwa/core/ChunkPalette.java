@@ -0,0 +1,85 @@
+package org.tendiwa.core;
+
+import gnu.trove.map.TObjectShortMap;
+import gnu.trove.map.hash.TObjectShortHashMap;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A per-{@link Chunk} table of distinct values placed in chunk's cells. Cells store {@code short} indices into this
+ * table instead of references, so a chunk with a couple of floor types costs 2 bytes per cell instead of a reference
+ * per cell.
+ * <p>
+ * Index 0 is reserved for {@code null} (no value in a cell).
+ *
+ * @param <T>
+ * 	Type of values, e.g. {@link FloorType} or {@link GameObject}.
+ */
+final class ChunkPalette<T> implements Serializable {
+	static final short EMPTY = 0;
+	private static final short NO_ENTRY = -1;
+	private final List<T> values = new ArrayList<>();
+	private final TObjectShortMap<T> indices = new TObjectShortHashMap<>(8, 0.5f, NO_ENTRY);
+
+	ChunkPalette() {
+		values.add(null);
+	}
+
+	/**
+	 * Returns index of a value in this palette, adding the value to palette if it is not there yet.
+	 *
+	 * @param value
+	 * 	A value, or null.
+	 * @return Index of the value, or {@link #EMPTY} for null.
+	 */
+	short indexOf(T value) {
+		if (value == null) {
+			return EMPTY;
+		}
+		short index = indices.get(value);
+		if (index == NO_ENTRY) {
+			if (values.size() > Short.MAX_VALUE) {
+				throw new IllegalStateException("Chunk palette overflow");
+			}
+			index = (short) values.size();
+			values.add(value);
+			indices.put(value, index);
+		}
+		return index;
+	}
+
+	T get(short index) {
+		return values.get(index);
+	}
+
+	int size() {
+		return values.size();
+	}
+
+	/**
+	 * Drops values that are not referenced by any cell and rewrites {@code cells} with new indices.
+	 *
+	 * @param cells
+	 * 	Indices of all cells of a chunk that use this palette.
+	 */
+	void compact(short[] cells) {
+		short[] remap = new short[values.size()];
+		List<T> used = new ArrayList<>();
+		used.add(null);
+		indices.clear();
+		for (int i = 0; i < cells.length; i++) {
+			short old = cells[i];
+			if (old != EMPTY && remap[old] == EMPTY) {
+				remap[old] = (short) used.size();
+				T value = values.get(old);
+				used.add(value);
+				indices.put(value, remap[old]);
+			}
+			cells[i] = remap[old];
+		}
+		values.clear();
+		values.addAll(used);
+	}
+}
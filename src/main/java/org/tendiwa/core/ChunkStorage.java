@@ -0,0 +1,51 @@
+package org.tendiwa.core;
+
+/**
+ * A place where {@link HorizontalPlane}s keep their {@link Chunk}s while those chunks are not loaded.
+ */
+public interface ChunkStorage {
+	/**
+	 * A storage that holds nothing. Planes with this storage create every chunk anew and never unload chunks.
+	 */
+	ChunkStorage NONE = new ChunkStorage() {
+		@Override
+		public Chunk load(HorizontalPlane plane, int chunkX, int chunkY) {
+			return null;
+		}
+
+		@Override
+		public void save(Chunk chunk) {
+		}
+
+		@Override
+		public boolean isPersistent() {
+			return false;
+		}
+	};
+
+	/**
+	 * Reads a chunk from this storage.
+	 *
+	 * @param plane
+	 * 	A plane the chunk belongs to.
+	 * @param chunkX
+	 * 	X coordinate of a chunk in chunks (not in cells).
+	 * @param chunkY
+	 * 	Y coordinate of a chunk in chunks (not in cells).
+	 * @return A chunk, or null if there is no such chunk in this storage.
+	 */
+	Chunk load(HorizontalPlane plane, int chunkX, int chunkY);
+
+	/**
+	 * Writes terrain of a chunk into this storage, replacing previously saved terrain of that chunk.
+	 *
+	 * @param chunk
+	 * 	A chunk to save.
+	 */
+	void save(Chunk chunk);
+
+	/**
+	 * @return true if chunks saved into this storage can be loaded back, so they can be unloaded from memory.
+	 */
+	boolean isPersistent();
+}
@@ -1,11 +1,11 @@
 package org.tendiwa.core;
 
-import org.tendiwa.core.vision.ObstacleFindingStrategy;
+import org.tendiwa.core.vision.IndexedObstacleFindingStrategy;
 
 /**
  * The only {@link org.tendiwa.core.vision.ObstacleFindingStrategy} used in Tendiwa engine.
  */
-public class DefaultObstacleFindingStrategy implements ObstacleFindingStrategy {
+public class DefaultObstacleFindingStrategy implements IndexedObstacleFindingStrategy {
 	private final Character character;
 
 	DefaultObstacleFindingStrategy(Character character) {
@@ -21,4 +21,9 @@ public class DefaultObstacleFindingStrategy implements ObstacleFindingStrategy {
 	public boolean isBorderBlockingVision(Border border) {
 		return character.getPlane().hasBorderObject(border);
 	}
+
+	@Override
+	public HorizontalPlane getPlane() {
+		return character.getPlane();
+	}
 }
@@ -0,0 +1,172 @@
+package org.tendiwa.core;
+
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.core.vision.Seer;
+import org.tendiwa.geometry.CellSet;
+import org.tendiwa.pathfinding.dijkstra.DistanceField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DistanceField}s toward groups of characters, shared by all {@link NonPlayerCharacter}s of a {@link
+ * TimeStream}.
+ * <p>
+ * A field is computed once for a set of target cells and is then reused by every character that goes to the same
+ * targets. Before a cached field is returned, chunks under it are checked for changed objects (see {@link
+ * Chunk#getObjectsVersion()}), and only changed cells are repaired. Fields that were not used during a whole turn are
+ * dropped.
+ * <p>
+ * Characters don't block cells in these fields, so fields stay valid while characters move around.
+ */
+final class DistanceFields {
+	/**
+	 * How far from targets distances are computed. A character sees no further than {@link Seer#VISION_RANGE}, and
+	 * there is room left to walk around obstacles.
+	 */
+	static final int RADIUS = Seer.VISION_RANGE * 2;
+	private final Map<Key, Entry> entries = new HashMap<>();
+
+	/**
+	 * Returns a field with distances to the closest of several characters.
+	 *
+	 * @param plane
+	 * 	A plane the characters are on.
+	 * @param targets
+	 * 	Characters to compute distances to.
+	 * @return A field that is valid until objects change on the plane.
+	 */
+	DistanceField toward(HorizontalPlane plane, Collection<? extends Character> targets) {
+		List<Cell> cells = new ArrayList<>(targets.size());
+		for (Character target : targets) {
+			cells.add(target.position());
+		}
+		Key key = new Key(plane, cells);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			entry = new Entry(plane, new DistanceField(cells, passableCells(plane), RADIUS));
+			entries.put(key, entry);
+		} else {
+			entry.update(plane);
+		}
+		entry.used = true;
+		return entry.field;
+	}
+
+	/**
+	 * Drops fields that weren't used since the previous call to this method.
+	 */
+	void nextTurn() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.used) {
+				entry.used = false;
+			} else {
+				iterator.remove();
+			}
+		}
+	}
+
+	void clear() {
+		entries.clear();
+	}
+
+	private static CellSet passableCells(HorizontalPlane plane) {
+		return (x, y) -> plane.containsCell(x, y) && !plane.hasObject(x, y);
+	}
+
+	/**
+	 * A plane and target cells in a canonical order.
+	 */
+	private static final class Key {
+		private final HorizontalPlane plane;
+		private final long[] cells;
+
+		private Key(HorizontalPlane plane, Collection<Cell> cells) {
+			this.plane = plane;
+			this.cells = new long[cells.size()];
+			int i = 0;
+			for (Cell cell : cells) {
+				this.cells[i++] = (long) cell.x() << 32 | cell.y() & 0xFFFFFFFFL;
+			}
+			Arrays.sort(this.cells);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return plane == key.plane && Arrays.equals(cells, key.cells);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(plane) * 31 + Arrays.hashCode(cells);
+		}
+	}
+
+	/**
+	 * A field with the chunks under it as they were when the field was last brought up to date.
+	 */
+	private static final class Entry {
+		private final DistanceField field;
+		private final Chunk[] chunks;
+		private final int[] versions;
+		private final int chunksX;
+		private final int minChunkX;
+		private final int minChunkY;
+		private boolean used;
+
+		private Entry(HorizontalPlane plane, DistanceField field) {
+			this.field = field;
+			this.minChunkX = plane.getChunkRoundedCoord(field.getMinX());
+			this.minChunkY = plane.getChunkRoundedCoord(field.getMinY());
+			this.chunksX = (field.getMinX() + field.getWidth() - 1 - minChunkX) / Chunk.SIZE + 1;
+			int chunksY = (field.getMinY() + field.getHeight() - 1 - minChunkY) / Chunk.SIZE + 1;
+			this.chunks = new Chunk[chunksX * chunksY];
+			this.versions = new int[chunks.length];
+			for (int i = 0; i < chunks.length; i++) {
+				chunks[i] = chunkAt(plane, i);
+				if (chunks[i] != null) {
+					versions[i] = chunks[i].getObjectsVersion();
+				}
+			}
+		}
+
+		/**
+		 * Repairs the field in chunks that were changed or reloaded since the last update.
+		 */
+		private void update(HorizontalPlane plane) {
+			for (int i = 0; i < chunks.length; i++) {
+				Chunk chunk = chunkAt(plane, i);
+				if (chunk != chunks[i] || chunk != null && chunk.getObjectsVersion() != versions[i]) {
+					field.repair(chunkX(i), chunkY(i), Chunk.SIZE, Chunk.SIZE);
+					chunks[i] = chunk;
+					versions[i] = chunk == null ? 0 : chunk.getObjectsVersion();
+				}
+			}
+		}
+
+		private Chunk chunkAt(HorizontalPlane plane, int i) {
+			int x = chunkX(i);
+			int y = chunkY(i);
+			return plane.containsCell(x, y) ? plane.getChunkWithCell(x, y) : null;
+		}
+
+		private int chunkX(int i) {
+			return minChunkX + i % chunksX * Chunk.SIZE;
+		}
+
+		private int chunkY(int i) {
+			return minChunkY + i / chunksX * Chunk.SIZE;
+		}
+	}
+}
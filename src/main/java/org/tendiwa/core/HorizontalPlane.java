@@ -1,11 +1,16 @@
 package org.tendiwa.core;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterators;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.tendiwa.geometry.Rectangle;
+import org.tendiwa.pathfinding.hierarchical.HierarchicalPathfinder;
 
-import java.util.Iterator;
 import java.util.Set;
 
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
 /**
  * The purpose of HorizontalPlane is to store and access chunks of terrain located on the same absolute height in the
  * world.
@@ -16,17 +21,42 @@ import java.util.Set;
  * to another using stairs, shafts, teleportation or other means; and also certain interactions can be interplanar, for
  * example, sound waves spreading.
  * <p>
+ * Chunks are kept in a hash table keyed by chunk coordinates, so only chunks that were actually accessed take memory,
+ * however large the plane's bounds are.
+ * <p>
+ * Loading, unloading and looking up chunks is thread-safe, so {@link TimeStream}s may run in parallel on the same
+ * plane. Contents of a chunk are changed only by the TimeStream the chunk belongs to.
+ * <p>
  * Not to be mistaken with {@link TimeStream}
  */
 public class HorizontalPlane {
-	protected final Chunk[][] chunks;
-	private final int width;
-	private final int height;
+	protected final TLongObjectMap<Chunk> chunks = new TLongObjectHashMap<>();
+	/**
+	 * Inclusive minimum and exclusive maximum coordinates of cells in this plane.
+	 */
+	private final int minX;
+	private final int minY;
+	private final int maxX;
+	private final int maxY;
 	private final int level;
+	private final ChunkStorage storage;
+	private final int maxLoadedChunks;
 	public HorizontalPlane upperPlane;
 	public HorizontalPlane lowerPlane;
 	private int numberOfChunks = 0;
 	private World world;
+	private Chunk mostRecentlyUsed;
+	private Chunk leastRecentlyUsed;
+	private HierarchicalPathfinder pathfinder;
+	/**
+	 * The chunk returned by the last call to {@link #getChunkWithCell(int, int)}. Consecutive accesses mostly hit the
+	 * same chunk, so checking it first saves a hash lookup.
+	 * <p>
+	 * Only checked without a lock if {@link #storage} is not {@link ChunkStorage#isPersistent() persistent}: then
+	 * chunks are never unloaded, so the remembered chunk can't be one that is being unloaded, and there is no order of
+	 * use to update.
+	 */
+	private volatile Chunk lastAccessed;
 
 	/**
 	 * @param width
@@ -38,29 +68,173 @@ public class HorizontalPlane {
 	 */
 
 	HorizontalPlane(int width, int height, World world, int level) {
+		this(width, height, world, level, ChunkStorage.NONE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param width
+	 * 	Width of plane in cells.
+	 * @param height
+	 * 	Height of plane in cells.
+	 * @param world
+	 * 	World in which this HorizontalPlane resides.
+	 * @param storage
+	 * 	Where chunks are loaded from and saved to.
+	 * @param maxLoadedChunks
+	 * 	How many chunks may be kept in memory before least recently used ones are saved and unloaded. Only has effect
+	 * 	if {@code storage} is {@link ChunkStorage#isPersistent() persistent}.
+	 */
+	HorizontalPlane(int width, int height, World world, int level, ChunkStorage storage, int maxLoadedChunks) {
+		this(rectangle(width, height), world, level, storage, maxLoadedChunks);
+	}
+
+	/**
+	 * @param bounds
+	 * 	Cells of this plane. Only chunks that are accessed are ever created.
+	 * @param world
+	 * 	World in which this HorizontalPlane resides.
+	 * @param storage
+	 * 	Where chunks are loaded from and saved to.
+	 * @param maxLoadedChunks
+	 * 	How many chunks may be kept in memory before least recently used ones are saved and unloaded.
+	 */
+	HorizontalPlane(Rectangle bounds, World world, int level, ChunkStorage storage, int maxLoadedChunks) {
 		this.world = world;
-		chunks = new Chunk[width / Chunk.SIZE + 1][height / Chunk.SIZE + 1];
-		this.width = width;
-		this.height = height;
+		this.minX = bounds.x();
+		this.minY = bounds.y();
+		this.maxX = bounds.x() + bounds.width();
+		this.maxY = bounds.y() + bounds.height();
 		this.level = level;
+		this.storage = storage;
+		this.maxLoadedChunks = maxLoadedChunks;
 	}
 
-	public Chunk loadChunk(int x, int y) {
-		int chunkX = (x - x % Chunk.SIZE) / Chunk.SIZE;
-		int chunkY = (y - y % Chunk.SIZE) / Chunk.SIZE;
-		if (chunks[chunkX][chunkY] != null) {
+	/**
+	 * Packs coordinates of a chunk into a key of {@link #chunks}.
+	 *
+	 * @param chunkX
+	 * 	X coordinate of a chunk in chunks.
+	 * @param chunkY
+	 * 	Y coordinate of a chunk in chunks.
+	 * @return A key unique for each pair of coordinates.
+	 */
+	private static long chunkKey(int chunkX, int chunkY) {
+		return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+	}
+
+	private static long chunkKeyOfCell(int x, int y) {
+		return chunkKey(Math.floorDiv(x, Chunk.SIZE), Math.floorDiv(y, Chunk.SIZE));
+	}
+
+	public synchronized Chunk loadChunk(int x, int y) {
+		int chunkX = Math.floorDiv(x, Chunk.SIZE);
+		int chunkY = Math.floorDiv(y, Chunk.SIZE);
+		long key = chunkKey(chunkX, chunkY);
+		if (chunks.containsKey(key)) {
 			throw new RuntimeException("Trying to load a chunk that is already loaded.");
 		}
-		return chunks[chunkX][chunkY] = loadChunkFromFilesystem(chunkX, chunkY);
+		Chunk chunk = loadChunkFromFilesystem(chunkX, chunkY);
+		chunks.put(key, chunk);
+		numberOfChunks++;
+		if (storage.isPersistent()) {
+			markAsMostRecentlyUsed(chunk);
+			unloadLeastRecentlyUsedChunks();
+		}
+		return chunk;
 	}
 
+	/**
+	 * Reads a chunk from this plane's {@link ChunkStorage}, or creates an empty chunk if the storage doesn't have it.
+	 *
+	 * @param chunkX
+	 * 	X coordinate of a chunk in chunks.
+	 * @param chunkY
+	 * 	Y coordinate of a chunk in chunks.
+	 * @return A new chunk.
+	 */
 	private Chunk loadChunkFromFilesystem(int chunkX, int chunkY) {
-		throw new UnsupportedOperationException();
+		Chunk chunk = storage.load(this, chunkX, chunkY);
+		if (chunk == null) {
+			chunk = new Chunk(this, chunkX * Chunk.SIZE, chunkY * Chunk.SIZE);
+		}
+		return chunk;
+	}
+
+	private void markAsMostRecentlyUsed(Chunk chunk) {
+		if (chunk == mostRecentlyUsed) {
+			return;
+		}
+		unlink(chunk);
+		chunk.lessRecentlyUsed = mostRecentlyUsed;
+		if (mostRecentlyUsed != null) {
+			mostRecentlyUsed.moreRecentlyUsed = chunk;
+		}
+		mostRecentlyUsed = chunk;
+		if (leastRecentlyUsed == null) {
+			leastRecentlyUsed = chunk;
+		}
+	}
+
+	private void unlink(Chunk chunk) {
+		if (chunk.moreRecentlyUsed != null) {
+			chunk.moreRecentlyUsed.lessRecentlyUsed = chunk.lessRecentlyUsed;
+		} else if (mostRecentlyUsed == chunk) {
+			mostRecentlyUsed = chunk.lessRecentlyUsed;
+		}
+		if (chunk.lessRecentlyUsed != null) {
+			chunk.lessRecentlyUsed.moreRecentlyUsed = chunk.moreRecentlyUsed;
+		} else if (leastRecentlyUsed == chunk) {
+			leastRecentlyUsed = chunk.moreRecentlyUsed;
+		}
+		chunk.moreRecentlyUsed = null;
+		chunk.lessRecentlyUsed = null;
+	}
+
+	/**
+	 * Saves and unloads least recently used chunks until there are at most {@link #maxLoadedChunks} chunks loaded.
+	 * Chunks that hold anything besides terrain, and the most recently used chunk, are never unloaded.
+	 */
+	private void unloadLeastRecentlyUsedChunks() {
+		Chunk candidate = leastRecentlyUsed;
+		while (numberOfChunks > maxLoadedChunks && candidate != null && candidate != mostRecentlyUsed) {
+			Chunk next = candidate.moreRecentlyUsed;
+			if (candidate.holdsOnlyTerrain() && ChunkCodec.canEncode(candidate)) {
+				unloadChunk(candidate);
+			}
+			candidate = next;
+		}
+	}
+
+	private void unloadChunk(Chunk chunk) {
+		saveChunk(chunk);
+		unlink(chunk);
+		chunks.remove(chunkKeyOfCell(chunk.x, chunk.y));
+		numberOfChunks--;
+		chunk.objectsVersion++;
+	}
+
+	private void saveChunk(Chunk chunk) {
+		if (chunk.dirty) {
+			storage.save(chunk);
+			chunk.dirty = false;
+		}
+	}
+
+	/**
+	 * Writes terrain of all loaded chunks that changed since they were loaded into this plane's {@link ChunkStorage}.
+	 * Chunks containing objects that are not {@link Resourceable} are skipped.
+	 */
+	public synchronized void saveChunks() {
+		for (Chunk chunk : getChunks()) {
+			if (ChunkCodec.canEncode(chunk)) {
+				saveChunk(chunk);
+			}
+		}
 	}
 
-	public void touchChunk(int x, int y) {
+	public synchronized void touchChunk(int x, int y) {
 		if (!hasChunk(x, y)) {
-			chunks[x / Chunk.SIZE][y / Chunk.SIZE] = new Chunk(this, x, y);
+			loadChunk(x, y);
 		}
 	}
 
@@ -82,17 +256,42 @@ public class HorizontalPlane {
 	 * @return Chunk that contains a cell with given absolute coordinates.
 	 */
 	public Chunk getChunkWithCell(int x, int y) {
-		if (x < 0 || y < 0 || x >= width || y >= height) {
-			throw new ArrayIndexOutOfBoundsException("Point " + x + ":" + y + " is not inside plane of " + width + "x" + height + " cells large.");
+		if (!containsCell(x, y)) {
+			throw new ArrayIndexOutOfBoundsException(
+				"Point " + x + ":" + y + " is not inside plane bounded by "
+					+ minX + ":" + minY + " and " + maxX + ":" + maxY
+			);
+		}
+		if (!storage.isPersistent()) {
+			Chunk chunk = lastAccessed;
+			if (chunk != null && (((x - chunk.x) | (y - chunk.y)) & ~(Chunk.SIZE - 1)) == 0) {
+				return chunk;
+			}
+		}
+		synchronized (this) {
+			Chunk chunk = chunks.get(chunkKeyOfCell(x, y));
+			if (chunk == null) {
+				chunk = loadChunk(x, y);
+			} else if (chunk != mostRecentlyUsed && storage.isPersistent()) {
+				markAsMostRecentlyUsed(chunk);
+			}
+			lastAccessed = chunk;
+			return chunk;
 		}
-		int chunkX = (x - x % Chunk.SIZE) / Chunk.SIZE;
-		int chunkY = (y - y % Chunk.SIZE) / Chunk.SIZE;
-		Chunk chunk = chunks[chunkX][chunkY];
-		return chunk == null ? loadChunk(x, y) : chunk;
 	}
 
-	public boolean hasChunk(int x, int y) {
-		return chunks[(x - x % Chunk.SIZE) / Chunk.SIZE][(y - y % Chunk.SIZE) / Chunk.SIZE] != null;
+	/**
+	 * Returns a chunk with a cell that is going to be changed, checking that the current thread may change it (see
+	 * {@link TimeStream#checkCanChange(Chunk)}).
+	 */
+	private Chunk chunkToChange(int x, int y) {
+		Chunk chunk = getChunkWithCell(x, y);
+		TimeStream.checkCanChange(chunk);
+		return chunk;
+	}
+
+	public synchronized boolean hasChunk(int x, int y) {
+		return chunks.containsKey(chunkKeyOfCell(x, y));
 	}
 
 	/**
@@ -103,8 +302,7 @@ public class HorizontalPlane {
 	 * @return Rounded coordinate value.
 	 */
 	public int getChunkRoundedCoord(int coord) {
-		return (coord < 0) ? coord - ((coord % Chunk.SIZE == 0) ? 0
-			: Chunk.SIZE) - coord % Chunk.SIZE : coord - coord % Chunk.SIZE;
+		return Math.floorDiv(coord, Chunk.SIZE) * Chunk.SIZE;
 	}
 
 	public FloorType getFloor(int x, int y) {
@@ -112,9 +310,10 @@ public class HorizontalPlane {
 	}
 
 	public Passability getPassability(int x, int y) {
-		if (getChunkWithCell(x, y).getCharacter(x, y) != null) {
+		Chunk chunk = getChunkWithCell(x, y);
+		if (chunk.hasCharacter(x, y)) {
 			return Passability.SEE;
-		} else if (getChunkWithCell(x, y).getWall(x, y) == null) {
+		} else if (!chunk.hasObject(x, y)) {
 			return Passability.FREE;
 		} else {
 			return Passability.NO;
@@ -122,22 +321,22 @@ public class HorizontalPlane {
 	}
 
 	public void addItem(ItemPile pile, int x, int y) {
-		Chunk chunk = getChunkWithCell(x, y);
+		Chunk chunk = chunkToChange(x, y);
 		chunk.addItem(pile, x, y);
 	}
 
 	public void addItem(UniqueItem item, int x, int y) {
-		Chunk chunk = getChunkWithCell(x, y);
+		Chunk chunk = chunkToChange(x, y);
 		chunk.addItem(item, x, y);
 	}
 
 	public void removeItem(ItemPile pile, int x, int y) {
-		Chunk chunk = getChunkWithCell(x, y);
+		Chunk chunk = chunkToChange(x, y);
 		chunk.removeItem(pile, x, y);
 	}
 
 	public void removeItem(UniqueItem item, int x, int y) {
-		Chunk chunk = getChunkWithCell(x, y);
+		Chunk chunk = chunkToChange(x, y);
 		chunk.removeItem(item, x, y);
 	}
 
@@ -152,12 +351,12 @@ public class HorizontalPlane {
 	}
 
 	public void removeObject(int x, int y) {
-		Chunk chunkWithCell = getChunkWithCell(x, y);
+		Chunk chunkWithCell = chunkToChange(x, y);
 		chunkWithCell.removeObject(x - chunkWithCell.x, y - chunkWithCell.y);
 	}
 
 	public void placeFloor(FloorType floor, int x, int y) {
-		getChunkWithCell(x, y).setFloor(floor, x, y);
+		chunkToChange(x, y).setFloor(floor, x, y);
 	}
 
 	public Character getCharacter(int x, int y) {
@@ -178,7 +377,7 @@ public class HorizontalPlane {
 	}
 
 	public void placeWall(WallType wall, int x, int y) {
-		getChunkWithCell(x, y).setWall(wall, x, y);
+		chunkToChange(x, y).setWall(wall, x, y);
 	}
 
 	public boolean hasAnyItems(int x, int y) {
@@ -194,27 +393,23 @@ public class HorizontalPlane {
 	}
 
 	public void placeObject(GameObject gameObject, int x, int y) {
-		getChunkWithCell(x, y).setObject(gameObject, x, y);
+		chunkToChange(x, y).setObject(gameObject, x, y);
 	}
 
 	public Set<Chunk> getChunksAroundCoordinate(int x, int y, int squareSide) {
-		int startChunkX = Math.max(0, getChunkRoundedCoord(x - squareSide / 2));
-		int startChunkY = Math.max(0, getChunkRoundedCoord(y - squareSide / 2));
-		int endChunkX = Math.min((chunks.length - 1) * Chunk.SIZE, getChunkRoundedCoord(x + squareSide / 2));
-		int endChunkY = Math.min((chunks[0].length - 1) * Chunk.SIZE, getChunkRoundedCoord(y + squareSide / 2));
+		int startX = Math.max(minX, getChunkRoundedCoord(x - squareSide / 2));
+		int startY = Math.max(minY, getChunkRoundedCoord(y - squareSide / 2));
+		int endX = Math.min(maxX - 1, x + squareSide / 2);
+		int endY = Math.min(maxY - 1, y + squareSide / 2);
 		ImmutableSet.Builder<Chunk> builder = ImmutableSet.builder();
-		for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
-			for (int chunkY = startChunkY; chunkY < endChunkY; chunkY++) {
-				builder.add(getChunkAt(chunkX, chunkY));
+		for (int cellX = startX; cellX <= endX; cellX += Chunk.SIZE) {
+			for (int cellY = startY; cellY <= endY; cellY += Chunk.SIZE) {
+				builder.add(getChunkWithCell(cellX, cellY));
 			}
 		}
 		return builder.build();
 	}
 
-	private Chunk getChunkAt(int chunkX, int chunkY) {
-		return chunks[chunkX / Chunk.SIZE][chunkY / Chunk.SIZE];
-	}
-
 	public World getWorld() {
 		return world;
 	}
@@ -229,11 +424,62 @@ public class HorizontalPlane {
 	}
 
 	public BorderObject setBorderObject(int x, int y, CardinalDirection side, BorderObjectType type) {
-		return getChunkWithCell(x, y).setBorderObject(x, y, side, type);
+		Chunk chunk = chunkWithBorder(x, y, side);
+		TimeStream.checkCanChange(chunk);
+		return chunk.setBorderObject(x, y, side, type);
 	}
 
 	public BorderObject getBorderObject(int x, int y, CardinalDirection side) {
-		return getChunkWithCell(x, y).getBorderObject(x, y, side);
+		return chunkWithBorder(x, y, side).getBorderObject(x, y, side);
+	}
+
+	/**
+	 * Returns the chunk that holds a border. Borders are held by the chunk of the cell whose {@link Directions#N} or
+	 * {@link Directions#W} side they are, unless that cell is outside of this plane.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @param side
+	 * 	Side of that cell.
+	 * @return A chunk that holds the border.
+	 */
+	private Chunk chunkWithBorder(int x, int y, CardinalDirection side) {
+		if (side == Directions.E && containsCell(x + 1, y)) {
+			return getChunkWithCell(x + 1, y);
+		}
+		if (side == Directions.S && containsCell(x, y + 1)) {
+			return getChunkWithCell(x, y + 1);
+		}
+		return getChunkWithCell(x, y);
+	}
+
+	/**
+	 * Finds an obstacle to vision on a border: a side of an object in either of two cells the border separates, or a
+	 * {@link BorderObject} on the border.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @param side
+	 * 	Side of that cell.
+	 * @return An obstacle on that border, or null if there is none.
+	 */
+	public ObstacleBorder findObstacle(int x, int y, CardinalDirection side) {
+		if (containsCell(x, y)) {
+			ObstacleBorder obstacle = getChunkWithCell(x, y).findObstacle(x, y, side);
+			if (obstacle != null) {
+				return obstacle;
+			}
+		}
+		int neighborX = x + CardinalDirection.dx[side.ordinal()];
+		int neighborY = y + CardinalDirection.dy[side.ordinal()];
+		if (containsCell(neighborX, neighborY)) {
+			return getChunkWithCell(neighborX, neighborY).findObstacle(neighborX, neighborY, side.opposite());
+		}
+		return null;
 	}
 
 	public BorderObject getBorderObject(Border border) {
@@ -256,31 +502,32 @@ public class HorizontalPlane {
 				y += 1;
 			}
 		}
-		if (x == world.getWidth() && side == Directions.W || y == world.getHeight() && side == Directions.N) {
+		if (x == maxX && side == Directions.W || y == maxY && side == Directions.N) {
 //		throw new IllegalArgumentException("South side of southest cell row and east side of eastest cell column can't have border objects");
 			return false;
 		}
 		return getChunkWithCell(x, y).hasBorderObject(x, y, side);
 	}
 
+	/**
+	 * @return A pathfinder for long paths over cells of this plane without objects.
+	 */
+	public synchronized HierarchicalPathfinder getPathfinder() {
+		if (pathfinder == null) {
+			pathfinder = new HierarchicalPathfinder(this);
+		}
+		return pathfinder;
+	}
+
 	public boolean containsCell(int x, int y) {
-		return x >= 0 && y >= 0 && x < world.getWidth() && y < world.getHeight();
+		return x >= minX && y >= minY && x < maxX && y < maxY;
 	}
 
-	public Iterable<Chunk> getChunks() {
-		final Chunk[] chunks1 = new Chunk[chunks.length * chunks[0].length];
-		int i = 0;
-		for (Chunk[] row : chunks) {
-			for (Chunk chunk : row) {
-				chunks1[i++] = chunk;
-			}
-		}
-		return new Iterable<Chunk>() {
-			@Override
-			public Iterator<Chunk> iterator() {
-				return Iterators.forArray(chunks1);
-			}
-		};
+	/**
+	 * @return All chunks of this plane that are currently loaded.
+	 */
+	public synchronized Iterable<Chunk> getChunks() {
+		return ImmutableList.copyOf(chunks.valueCollection());
 	}
 
 	public WallType wall(int x, int y) {
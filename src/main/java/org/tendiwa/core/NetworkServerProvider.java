@@ -0,0 +1,84 @@
+package org.tendiwa.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import org.tendiwa.core.events.*;
+import org.tendiwa.core.net.Accounts;
+import org.tendiwa.core.net.ByteBufferPool;
+import org.tendiwa.core.net.NetworkServer;
+import org.tendiwa.core.net.PlayerSession;
+import org.tendiwa.core.observation.Event;
+import org.tendiwa.core.observation.Observable;
+import org.tendiwa.core.volition.ClientMessageRequests;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Creates a {@link NetworkServer} that lets remote clients play characters of the backend. The server is not
+ * started here, see {@link Tendiwa#start()}.
+ */
+@Singleton
+public class NetworkServerProvider implements Provider<NetworkServer> {
+	/**
+	 * Port clients connect to.
+	 */
+	public static final int PORT = 10_500;
+	/**
+	 * Capacity of pooled buffers. Most frames fit into one, bigger ones get their own buffers.
+	 */
+	private static final int BUFFER_SIZE = 4096;
+	private static final int MAX_POOLED_BUFFERS = 1024;
+	/**
+	 * Events the backend has emitters for (see {@link Tendiwa}) that are sent to clients.
+	 */
+	private static final ImmutableList<Class<? extends Event>> EVENT_TYPES = ImmutableList.of(
+		EventGetDamage.class,
+		EventGetItem.class,
+		EventLoseItem.class,
+		EventFovChange.class,
+		EventInitialTerrain.class,
+		EventMoveToPlane.class,
+		EventPutOn.class,
+		EventTakeOff.class,
+		EventWield.class,
+		EventUnwield.class,
+		EventMove.class,
+		EventItemAppear.class,
+		EventItemDisappear.class,
+		EventSound.class,
+		EventDie.class,
+		EventAttack.class,
+		EventProjectileFly.class,
+		EventExplosion.class
+	);
+	private final Observable model;
+	private final TimeStreamScheduler scheduler;
+	private final Accounts accounts;
+	private final ClientMessageRequests requests;
+
+	@Inject
+	NetworkServerProvider(
+		@Named("tendiwa") Observable model,
+		TimeStreamScheduler scheduler,
+		Accounts accounts,
+		ClientMessageRequests requests
+	) {
+		this.model = model;
+		this.scheduler = scheduler;
+		this.accounts = accounts;
+		this.requests = requests;
+	}
+
+	@Override
+	public NetworkServer get() {
+		ByteBufferPool pool = new ByteBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+		return new NetworkServer(
+			new InetSocketAddress(PORT),
+			new PlayerSession.Factory(model, EVENT_TYPES, scheduler, accounts, requests, pool),
+			pool
+		);
+	}
+}
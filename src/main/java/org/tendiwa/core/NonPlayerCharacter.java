@@ -7,30 +7,27 @@ import org.tendiwa.core.meta.Cell;
 import org.tendiwa.core.meta.Coordinate;
 import org.tendiwa.core.observation.Observable;
 import org.tendiwa.core.player.SinglePlayerMode;
-import org.tendiwa.core.vision.Seer;
 import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.pathfinding.dijkstra.DistanceField;
 import org.tendiwa.pathfinding.dijkstra.PathTable;
 import org.tendiwa.pathfinding.dijkstra.Paths;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 
 import static org.tendiwa.geometry.GeometryPrimitives.cell;
 
 public class NonPlayerCharacter extends Character {
-	private static final int PATH_TABLE_WIDTH = 41;
 	private static final int MAX_PATH_TABLE_DEPTH = 20;
 	private final HashMap<Character, Coordinate> lastSeenEnemyCoord = new HashMap<>();
 	public HashMap<Character, DialoguePoint> dialogues = new HashMap<>();
 	protected HashSet<Character> seenCharacters = new HashSet<>();
-	private int destX;
-	private int destY;
 	private Character activeEnemy; // Enemy in plain sight
 	private Character enemyToChase;
 	private HashSet<Character> unseenEnemies = new HashSet<>();
-	private int[][] pathTable;
 	private Dialogue dialogue;
 
 	@Inject
@@ -45,9 +42,6 @@ public class NonPlayerCharacter extends Character {
 		super(backend, x, y, type, name, singlePlayerMode);
 		ep = 100;
 		maxEp = 100;
-		pathTable = new int[PATH_TABLE_WIDTH][PATH_TABLE_WIDTH];
-		destX = x;
-		destY = y;
 	}
 
 	public void updateObservation(Character character, int x, int y) {
@@ -68,48 +62,6 @@ public class NonPlayerCharacter extends Character {
 	}
 
 	/* NPC behaviour functions */
-	private void setDestNearEntity(int eX, int eY) {
-		// Set character's destX and destY to the closest cell near the given
-		// entity
-		int dX = this.x - (PATH_TABLE_WIDTH - 1) / 2;
-		int dY = this.y - (PATH_TABLE_WIDTH - 1) / 2;
-		Coordinate characterCoord = new Coordinate(x, y);
-		if (characterCoord.isNear(eX, eY)) {
-			destX = x;
-			destY = y;
-			return;
-		}
-		int curX = eX;
-		int curY = eY;
-		int[] dists = new int[]{curX - 1, curY, curX + 1, curY, curX,
-			curY - 1, curX, curY + 1, curX + 1, curY + 1, curX - 1,
-			curY + 1, curX + 1, curY - 1, curX - 1, curY - 1};
-		int dist = Integer.MAX_VALUE;
-		int curDestX = -1, curDestY = -1;
-		for (int i = 0; i < 8; i++) {
-			if (plane.getPassability(dists[i * 2], dists[i * 2 + 1]) == Passability.FREE
-				&& pathTable[dists[i * 2] - dX][dists[i * 2 + 1] - dY] <= dist
-				&& (curDestX == -1 || characterCoord.distance(dists[i * 2],
-				dists[i * 2 + 1]) < characterCoord.distance(curDestX, curDestY))
-				&& pathTable[dists[i * 2] - dX][dists[i * 2 + 1] - dY] > 0
-				&& !(dists[i * 2] == x && dists[i * 2 + 1] == y)) {
-				dist = pathTable[dists[i * 2] - dX][dists[i * 2 + 1] - dY];
-				curDestX = dists[i * 2];
-				curDestY = dists[i * 2 + 1];
-			}
-		}
-		if (curDestX != -1 || curDestY != -1) {
-			destX = curDestX;
-			destY = curDestY;
-		} else {
-			// showPathTable();
-			destX = x;
-			destY = y;
-			throw new Error("Could not set dest for " + name + " at " + x + ":"
-				+ y + " (dest " + destX + ":" + destY + ") to entity at "
-				+ eX + ":" + eY);
-		}
-	}
 
 	/**
 	 * Searches for enemy in this.seenCharacters and puts him to this.activeEnemy
@@ -135,7 +87,7 @@ public class NonPlayerCharacter extends Character {
 			if (isEnemy(ch)) {
 				double distanceToAnotherCharacter = characterCoord.distance(lastSeenEnemyCoord
 					.get(ch));
-				if (canComeTo(ch.x, ch.y)
+				if (canComeTo(ch)
 					&& (activeEnemy == null || distanceToAnotherCharacter < distanceToClosestCharacter)) {
 					activeEnemy = ch;
 					distanceToClosestCharacter = distanceToAnotherCharacter;
@@ -246,24 +198,22 @@ public class NonPlayerCharacter extends Character {
 	}
 
 	/**
-	 * Checks if there is any cell around cell {toX:toY} where this character can come near.
+	 * Checks if this character can get to a character, ignoring other characters on the way.
 	 *
-	 * @param toX
-	 * @param toY
-	 * @return
+	 * @param target
+	 * 	A character to get to.
+	 * @return true if target is near this character or there is a path to it, false otherwise.
 	 */
-	private boolean canComeTo(int toX, int toY) {
-		int dX = this.x - (PATH_TABLE_WIDTH - 1) / 2;
-		int dY = this.y - (PATH_TABLE_WIDTH - 1) / 2;
-		Coordinate characterCoord = new Coordinate(x, y);
-		return characterCoord.isNear(toX, toY) || pathTable[toX - dX][toY - 1 - dY] != 0
-			|| pathTable[toX + 1 - dX][toY - 1 - dY] != 0
-			|| pathTable[toX + 1 - dX][toY - dY] != 0
-			|| pathTable[toX + 1 - dX][toY + 1 - dY] != 0
-			|| pathTable[toX - dX][toY + 1 - dY] != 0
-			|| pathTable[toX - 1 - dX][toY + 1 - dY] != 0
-			|| pathTable[toX - 1 - dX][toY - dY] != 0
-			|| pathTable[toX - 1 - dX][toY - 1 - dY] != 0;
+	private boolean canComeTo(Character target) {
+		return new Coordinate(x, y).isNear(target.x, target.y)
+			|| approachField(target).distance(x, y) != DistanceField.UNREACHABLE;
+	}
+
+	/**
+	 * @return Distances to a character, shared with other NonPlayerCharacters of this character's TimeStream.
+	 */
+	private DistanceField approachField(Character target) {
+		return timeStream.getDistanceFields().toward(plane, Collections.singleton(target));
 	}
 
 	private boolean isShouldRetreat() {
@@ -276,7 +226,6 @@ public class NonPlayerCharacter extends Character {
 	}
 
 	public void action() {
-		getPathTableToAllSeenCharacters();
 		Coordinate characterCoord = new Coordinate(x, y);
 		if (isShouldRetreat()) {
 			retreat();
@@ -289,36 +238,28 @@ public class NonPlayerCharacter extends Character {
 				// push(activeEnemy, SideTest.d2side(activeEnemy.x-x,
 				// activeEnemy.y-y));
 				attack(activeEnemy);
-			} else if (canComeTo(activeEnemy.x, activeEnemy.y)) {
+			} else if (canComeTo(activeEnemy)) {
 				// Get next cell and move
-				destX = activeEnemy.x;
-				destY = activeEnemy.y;
-				setDestNearEntity(activeEnemy.x, activeEnemy.y);
-				if (destX == x && destY == y) {
+				Cell nextStep = approachField(activeEnemy).nextStep(
+					x,
+					y,
+					(cellX, cellY) -> plane.getPassability(cellX, cellY) == Passability.FREE
+				);
+				if (nextStep == null) {
 					idle();
 				} else {
-					LinkedList<Cell> dest = Paths.getPath(
-						cell(x, y),
-						cell(destX, destY),
-						getPathWalkerOverCharacters(),
-						MAX_PATH_TABLE_DEPTH
-					);
-					if (dest.getFirst().x() != x || dest.getFirst().y() != y) {
-						step(dest.getFirst().x(), dest.getFirst().y());
-					} else {
-						idle();
-					}
+					step(nextStep.x(), nextStep.y());
 				}
 			} else {
 				// If sees enemy, but path to him is blocked
 				/* */// Maybe this part should be main, and main part should be
 				// deleted?!
 				// If we always use imaginary table.
-				PathTable imaginaryPathTable = Paths.getPathTable(new BasicCell(x, y), getPathWalkerOverCharacters(), MAX_PATH_TABLE_DEPTH);
+				PathTable imaginaryPathTable = Paths.getPooledPathTable(new BasicCell(x, y), getPathWalkerOverCharacters(), MAX_PATH_TABLE_DEPTH);
 				imaginaryPathTable.getPath(new BasicCell(activeEnemy.x, activeEnemy.y));
 				if (!imaginaryPathTable.isCellComputed(activeEnemy.x, activeEnemy.y)) {
 					// If path is blocked by characters
-					imaginaryPathTable = Paths.getPathTable(new BasicCell(x, y), getPathWalkerOverCharacters(),
+					imaginaryPathTable = Paths.getPooledPathTable(new BasicCell(x, y), getPathWalkerOverCharacters(),
 						MAX_PATH_TABLE_DEPTH);
 					LinkedList<Cell> imaginaryPath = imaginaryPathTable.getPath(activeEnemy.position());
 					Cell firstStep = imaginaryPath.get(0);
@@ -335,26 +276,15 @@ public class NonPlayerCharacter extends Character {
 			}
 		} else if (getUnseenEnemyToChase()) {
 			Coordinate lastSeenCoord = lastSeenEnemyCoord.get(enemyToChase);
-			PathTable pathTable = Paths.getPathTable(new BasicCell(x, y), getPathWalkerOverCharacters(),
-				MAX_PATH_TABLE_DEPTH);
-
-			if (!pathTable.isCellComputed(lastSeenCoord.x, lastSeenCoord.y)) {
-				// If path is blocked by characters
-				LinkedList<Cell> path = Paths.getPath(
-					cell(x, y),
-					cell(lastSeenCoord.x, lastSeenCoord.y),
-					getPathWalkerOverCharacters(),
-					MAX_PATH_TABLE_DEPTH
-				);
-				assert path != null : lastSeenCoord;
-				Cell firstStep = path.getFirst();
-				if (plane.getCharacter(firstStep.x(), firstStep.y()) == null) {
-					// If there is no character on first cell of imaginary path,
-					// then step there
-					step(firstStep.x(), firstStep.y());
-				} else {
-					idle();
-				}
+			// The enemy may be far away, further than a path table reaches
+			List<Cell> path = plane.getPathfinder().findPath(
+				cell(x, y),
+				cell(lastSeenCoord.x, lastSeenCoord.y)
+			);
+			if (!path.isEmpty() && plane.getCharacter(path.get(0).x(), path.get(0).y()) == null) {
+				// If there is no character on first cell of the path,
+				// then step there
+				step(path.get(0).x(), path.get(0).y());
 			} else {
 				idle();
 			}
@@ -399,71 +329,6 @@ public class NonPlayerCharacter extends Character {
 		timeStream.removeCharacter(this);
 	}
 
-	public boolean getPathTableToAllSeenCharacters() {
-		/**
-		 * Builds pathTable until paths to all seenCharacters are found or waves
-		 * limit is exceeded.
-		 */
-		int dX = this.x - (PATH_TABLE_WIDTH - 1) / 2;
-		int dY = this.y - (PATH_TABLE_WIDTH - 1) / 2;
-		ArrayList<Coordinate> oldFront = new ArrayList<>();
-		ArrayList<Coordinate> newFront = new ArrayList<>();
-		newFront.add(new Coordinate(x, y));
-		for (int i = 0; i < PATH_TABLE_WIDTH; i++) {
-			for (int j = 0; j < PATH_TABLE_WIDTH; j++) {
-				pathTable[i][j] = 0;
-			}
-		}
-		pathTable[x - dX][y - dY] = 0;
-		int t = 0;
-		int charactersLeft = seenCharacters.size();
-		HashSet<Character> foundCharacters = new HashSet<>();
-		do {
-			oldFront = newFront;
-			newFront = new ArrayList<>();
-			for (int i = 0; i < oldFront.size(); i++) {
-				int x = oldFront.get(i).x;
-				int y = oldFront.get(i).y;
-				int[] adjacentX = new int[]{x + 1, x, x, x - 1, x + 1,
-					x + 1, x - 1, x - 1};
-				int[] adjacentY = new int[]{y, y - 1, y + 1, y, y + 1,
-					y - 1, y + 1, y - 1};
-				for (int j = 0; j < 8; j++) {
-					int thisNumX = adjacentX[j] - dX;
-					int thisNumY = adjacentY[j] - dY;
-					if (thisNumX < 0
-						|| thisNumX >= PATH_TABLE_WIDTH
-						|| thisNumY < 0
-						|| thisNumY >= PATH_TABLE_WIDTH
-						|| pathTable[thisNumX][thisNumY] != 0
-						|| (thisNumX + dX == this.x && thisNumY + dY == this.y)) {
-						continue;
-					}
-					Passability passability = plane.getPassability(thisNumX + dX, thisNumY + dY);
-					if ((passability == Passability.FREE || !seer.canSee(
-						thisNumX + dX, thisNumY + dY)
-						&& passability != Passability.NO)) {
-						// Step to cell if character can see it and it is free
-						// or character cannot see it and it is not
-						// PASSABILITY_NO
-						pathTable[thisNumX][thisNumY] = t + 1;
-						newFront.add(new Coordinate(adjacentX[j],
-							adjacentY[j]));
-					} else {
-						Character characterInCell = plane.getCharacter(thisNumX + dX, thisNumY + dY);
-						if (seenCharacters.contains(characterInCell)
-							&& !foundCharacters.contains(characterInCell)) {
-							foundCharacters.add(characterInCell);
-							charactersLeft--;
-						}
-					}
-				}
-			}
-			t++;
-		} while (charactersLeft > 0 && newFront.size() > 0 && t < 25);
-		return true;
-	}
-
 	public boolean isCurrentlyObserving(Character aim) {
 		return seenCharacters.contains(aim);
 	}
@@ -506,16 +371,10 @@ public class NonPlayerCharacter extends Character {
 	 * Tries to see/unsee all characters within vision range
 	 */
 	public void getVisibleEntities() {
-		for (Character character : timeStream.characters) {
-			// Quickly select characters that could be seen (including this
-			// character, because it's just easier to remove this character
-			// later)
-			if (Math.abs(character.x - x) <= Seer.VISION_RANGE
-				&& Math.abs(character.y - y) <= Seer.VISION_RANGE) {
-				// If another character is probably in this character's vision
-				// range, try to see that another character
-				tryToSee(character);
-			}
+		// Characters that could be seen (including this character, because
+		// it's just easier to remove this character later)
+		for (Character character : timeStream.getCharactersAround(x, y)) {
+			tryToSee(character);
 		}
 		// Clone seen characters set (it will be changed inside the next for loop)
 		HashSet<Character> seen = new HashSet<Character>(seenCharacters);
@@ -0,0 +1,84 @@
+package org.tendiwa.core;
+
+/**
+ * A {@link Border} that blocks vision: either a side of a cell with a {@link GameObject} in it, or a border with a
+ * {@link BorderObject} on it.
+ * <p>
+ * Each side of an object is a separate ObstacleBorder even if it is equal to a side of an adjacent object, so an
+ * obstacle always knows the object it belongs to.
+ */
+public final class ObstacleBorder extends Border {
+	private final boolean sideOfObject;
+	private final int objectX;
+	private final int objectY;
+	/**
+	 * Position of this obstacle in {@link ChunkObstacles} that holds it.
+	 */
+	int indexInChunk = -1;
+
+	/**
+	 * Creates a side of an object.
+	 *
+	 * @param objectX
+	 * 	X coordinate of a cell with an object.
+	 * @param objectY
+	 * 	Y coordinate of a cell with an object.
+	 * @param side
+	 * 	Side of the cell.
+	 */
+	public ObstacleBorder(int objectX, int objectY, CardinalDirection side) {
+		super(objectX, objectY, side);
+		this.sideOfObject = true;
+		this.objectX = objectX;
+		this.objectY = objectY;
+	}
+
+	/**
+	 * Creates an obstacle of a {@link BorderObject}.
+	 *
+	 * @param border
+	 * 	A border with a BorderObject on it.
+	 */
+	public ObstacleBorder(Border border) {
+		super(border.x, border.y, border.side);
+		this.sideOfObject = false;
+		this.objectX = 0;
+		this.objectY = 0;
+	}
+
+	/**
+	 * @return true if this obstacle is a side of a cell with an object, false if it is a {@link BorderObject}.
+	 */
+	public boolean isSideOfObject() {
+		return sideOfObject;
+	}
+
+	/**
+	 * Checks if this obstacle is a side of an object in a particular cell.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @return true if this obstacle is a side of an object in cell x:y, false otherwise.
+	 */
+	public boolean isSideOfObjectIn(int x, int y) {
+		return sideOfObject && objectX == x && objectY == y;
+	}
+
+	/**
+	 * @return X coordinate of the cell this obstacle is filtered by: the object's cell for sides of objects, or the
+	 * border's own cell for border objects.
+	 */
+	public int ownerX() {
+		return sideOfObject ? objectX : x;
+	}
+
+	/**
+	 * @return Y coordinate of the cell this obstacle is filtered by: the object's cell for sides of objects, or the
+	 * border's own cell for border objects.
+	 */
+	public int ownerY() {
+		return sideOfObject ? objectY : y;
+	}
+}
@@ -0,0 +1,122 @@
+package org.tendiwa.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file holding encoded {@link Chunk}s of a square {@link #SIZE}x{@link #SIZE} chunks large region of a {@link
+ * HorizontalPlane}.
+ * <p>
+ * The file starts with a memory-mapped index of {@code SIZE*SIZE} entries, each entry being an int offset of chunk's
+ * data in {@link #SECTOR_BYTES}-byte sectors (0 if there is no such chunk in the file) and an int length of chunk's
+ * data in bytes. Chunk data that grows beyond its sectors is moved to the end of the file; the sectors it used to
+ * occupy are not reused.
+ * <p>
+ * Reads and writes are synchronized, so a region file can be used from several threads.
+ */
+final class RegionFile implements Closeable {
+	/**
+	 * Width and height of a region in chunks.
+	 */
+	static final int SIZE = 16;
+	private static final int SECTOR_BYTES = 512;
+	private static final int ENTRY_BYTES = 8;
+	private static final int INDEX_BYTES = SIZE * SIZE * ENTRY_BYTES;
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final MappedByteBuffer index;
+	private int sectorsInFile;
+
+	RegionFile(File path) {
+		try {
+			this.file = new RandomAccessFile(path, "rw");
+			this.channel = file.getChannel();
+			this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_BYTES);
+			this.sectorsInFile = sectors((int) Math.max(channel.size(), INDEX_BYTES));
+		} catch (IOException e) {
+			throw new RuntimeException("Could not open region file " + path, e);
+		}
+	}
+
+	private static int sectors(int bytes) {
+		return (bytes + SECTOR_BYTES - 1) / SECTOR_BYTES;
+	}
+
+	private static int entryPosition(int localX, int localY) {
+		assert localX >= 0 && localX < SIZE && localY >= 0 && localY < SIZE;
+		return (localX * SIZE + localY) * ENTRY_BYTES;
+	}
+
+	/**
+	 * @param localX
+	 * 	X coordinate of a chunk inside this region, in chunks.
+	 * @param localY
+	 * 	Y coordinate of a chunk inside this region, in chunks.
+	 * @return Encoded chunk, or null if this region doesn't have that chunk.
+	 */
+	synchronized byte[] read(int localX, int localY) {
+		int position = entryPosition(localX, localY);
+		int sector = index.getInt(position);
+		if (sector == 0) {
+			return null;
+		}
+		ByteBuffer data = ByteBuffer.allocate(index.getInt(position + 4));
+		try {
+			long offset = (long) sector * SECTOR_BYTES;
+			while (data.hasRemaining()) {
+				if (channel.read(data, offset + data.position()) < 0) {
+					throw new IOException("Unexpected end of region file");
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return data.array();
+	}
+
+	/**
+	 * Writes encoded chunk into this region, in place if the chunk's old data occupied enough sectors.
+	 *
+	 * @param localX
+	 * 	X coordinate of a chunk inside this region, in chunks.
+	 * @param localY
+	 * 	Y coordinate of a chunk inside this region, in chunks.
+	 * @param data
+	 * 	Encoded chunk.
+	 */
+	synchronized void write(int localX, int localY, byte[] data) {
+		int position = entryPosition(localX, localY);
+		int sector = index.getInt(position);
+		int oldSectors = sectors(index.getInt(position + 4));
+		if (sector == 0 || sectors(data.length) > oldSectors) {
+			sector = sectorsInFile;
+			sectorsInFile += sectors(data.length);
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			long offset = (long) sector * SECTOR_BYTES;
+			while (buffer.hasRemaining()) {
+				channel.write(buffer, offset + buffer.position());
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		index.putInt(position, sector);
+		index.putInt(position + 4, data.length);
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			index.force();
+			file.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
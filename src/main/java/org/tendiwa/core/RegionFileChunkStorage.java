@@ -0,0 +1,104 @@
+package org.tendiwa.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores terrain of {@link Chunk}s in {@link RegionFile}s, one file per {@link RegionFile#SIZE}x{@link
+ * RegionFile#SIZE} chunks of each {@link HorizontalPlane}. Region files are opened lazily and kept open until {@link
+ * #close()}.
+ * <p>
+ * Chunks may be loaded and saved from several threads, e.g. by workers of different {@link TimeStream}s.
+ */
+public final class RegionFileChunkStorage implements ChunkStorage, Closeable {
+	private final File directory;
+	private final TerrainTypeRegistry types;
+	private final Map<String, RegionFile> regions = new ConcurrentHashMap<>();
+
+	/**
+	 * @param directory
+	 * 	A directory where region files are kept. Will be created if it doesn't exist.
+	 * @param types
+	 * 	Resolves names of types saved in region files. Types of saved chunks are added to it.
+	 */
+	public RegionFileChunkStorage(File directory, TerrainTypeRegistry types) {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new RuntimeException("Could not create directory " + directory);
+		}
+		this.directory = directory;
+		this.types = types;
+	}
+
+	@Override
+	public Chunk load(HorizontalPlane plane, int chunkX, int chunkY) {
+		RegionFile region = region(plane.getLevel(), chunkX, chunkY, false);
+		if (region == null) {
+			return null;
+		}
+		byte[] data = region.read(
+			Math.floorMod(chunkX, RegionFile.SIZE),
+			Math.floorMod(chunkY, RegionFile.SIZE)
+		);
+		if (data == null) {
+			return null;
+		}
+		return ChunkCodec.decode(data, plane, chunkX * Chunk.SIZE, chunkY * Chunk.SIZE, types);
+	}
+
+	@Override
+	public void save(Chunk chunk) {
+		types.addTypesOf(chunk);
+		int chunkX = Math.floorDiv(chunk.x, Chunk.SIZE);
+		int chunkY = Math.floorDiv(chunk.y, Chunk.SIZE);
+		region(chunk.plane.getLevel(), chunkX, chunkY, true).write(
+			Math.floorMod(chunkX, RegionFile.SIZE),
+			Math.floorMod(chunkY, RegionFile.SIZE),
+			ChunkCodec.encode(chunk)
+		);
+	}
+
+	@Override
+	public boolean isPersistent() {
+		return true;
+	}
+
+	/**
+	 * @param level
+	 * 	Level of a plane.
+	 * @param chunkX
+	 * 	X coordinate of a chunk in chunks.
+	 * @param chunkY
+	 * 	Y coordinate of a chunk in chunks.
+	 * @param create
+	 * 	Whether to create a region file if it doesn't exist.
+	 * @return A region containing the chunk, or null if there is no such region and {@code create} is false.
+	 */
+	private RegionFile region(int level, int chunkX, int chunkY, boolean create) {
+		String name = "r." + level
+			+ "." + Math.floorDiv(chunkX, RegionFile.SIZE)
+			+ "." + Math.floorDiv(chunkY, RegionFile.SIZE)
+			+ ".region";
+		RegionFile region = regions.get(name);
+		if (region != null) {
+			return region;
+		}
+		File file = new File(directory, name);
+		if (!create && !file.exists()) {
+			return null;
+		}
+		return regions.computeIfAbsent(name, n -> new RegionFile(file));
+	}
+
+	/**
+	 * Closes all region files. Must not be called while chunks are being loaded or saved.
+	 */
+	@Override
+	public void close() {
+		for (RegionFile region : regions.values()) {
+			region.close();
+		}
+		regions.clear();
+	}
+}
@@ -0,0 +1,57 @@
+package org.tendiwa.core;
+
+/**
+ * How long {@link Request}s of one type took from being passed to {@link Server} to being processed.
+ */
+public final class RequestLatency {
+	private long count;
+	private long totalNanos;
+	private long maxNanos;
+
+	RequestLatency() {
+	}
+
+	private RequestLatency(RequestLatency latency) {
+		this.count = latency.count;
+		this.totalNanos = latency.totalNanos;
+		this.maxNanos = latency.maxNanos;
+	}
+
+	synchronized void record(long nanos) {
+		count++;
+		totalNanos += nanos;
+		if (nanos > maxNanos) {
+			maxNanos = nanos;
+		}
+	}
+
+	synchronized RequestLatency copy() {
+		return new RequestLatency(this);
+	}
+
+	/**
+	 * @return How many requests were processed.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return Average latency in nanoseconds, or 0 if no requests were processed.
+	 */
+	public long getAverageNanos() {
+		return count == 0 ? 0 : totalNanos / count;
+	}
+
+	/**
+	 * @return Greatest latency in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "count " + count + ", average " + getAverageNanos() / 1000 + "us, max " + maxNanos / 1000 + "us";
+	}
+}
@@ -1,63 +1,141 @@
 package org.tendiwa.core;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Server receives requests from the {@link TendiwaClient}, calls core methods on receiving such a request, sends
- * resulting {@link org.tendiwa.core.observation.Event}s to the client's receiving end and then sleeps until more
+ * resulting {@link org.tendiwa.core.observation.Event}s to the client's receiving end and then waits until more
  * requests are done by client.
+ * <p>
+ * Requests from any number of threads are put into a bounded queue. Server's thread takes all the requests queued so
+ * far at once and hands them to {@link TimeStreamScheduler} to be processed in the {@link TimeStream} of the player
+ * character.
  */
 @Singleton
 public class Server extends Thread {
-	private static Request currentRequest;
-	private boolean stopped = false;
-	private int sleepTime = 100;
-	private boolean hasRequestProcessing = false;
+	/**
+	 * How many requests may wait in the queue before {@link #passRequest(Request)} blocks.
+	 */
+	static final int QUEUE_CAPACITY = 256;
+	private final TimeStreamScheduler scheduler;
+	private final Provider<Character> player;
+	private final BlockingQueue<QueuedRequest> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	/**
+	 * Requests that were passed but haven't been processed yet.
+	 */
+	private final AtomicInteger unprocessedRequests = new AtomicInteger();
+	private final Map<Class<? extends Request>, RequestLatency> latencies = new HashMap<>();
+	private volatile boolean stopped = false;
 
 	@Inject
 	Server(
+		TimeStreamScheduler scheduler,
+		@Named("player") Provider<Character> player
 	) {
+		this.scheduler = scheduler;
+		this.player = player;
 		setName("Tendiwa Backend");
 	}
 
 	public boolean hasRequestToProcess() {
-		return hasRequestProcessing;
-	}
-
-	public void setSleepTime(int sleepTime) {
-		this.sleepTime = sleepTime;
+		return unprocessedRequests.get() > 0;
 	}
 
 	@Override
 	public void run() {
+		List<QueuedRequest> batch = new ArrayList<>(QUEUE_CAPACITY);
 		while (!stopped) {
 			try {
-				Thread.sleep(sleepTime);
+				batch.add(queue.take());
 			} catch (InterruptedException e) {
-				if (currentRequest != null) {
-					currentRequest.process();
-					currentRequest = null;
-				}
-				hasRequestProcessing = false;
+				continue;
 			}
+			queue.drainTo(batch);
+			TimeStream timeStream = player.get().getTimeStream();
+			for (QueuedRequest queuedRequest : batch) {
+				scheduler.submit(timeStream, () -> process(queuedRequest));
+			}
+			batch.clear();
 		}
 	}
 
+	/**
+	 * Queues a request to be processed. Blocks while the queue is full.
+	 *
+	 * @param request
+	 * 	A request from client.
+	 */
 	public void passRequest(Request request) {
-		assert currentRequest == null : "Pushed " + request.getClass().getName() + " when there is already a request " + currentRequest.getClass().getName()
-			+ "; hasRequestProcessing = " + hasRequestProcessing;
-		hasRequestProcessing = true;
-		currentRequest = request;
+		unprocessedRequests.incrementAndGet();
+		try {
+			queue.put(new QueuedRequest(request, System.nanoTime()));
+		} catch (InterruptedException e) {
+			unprocessedRequests.decrementAndGet();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Makes Server's thread stop after the requests it has already taken from the queue.
+	 */
+	public void stopServer() {
+		stopped = true;
 		interrupt();
 	}
 
-//public void pushRequest(Request request) {
-//	assert currentRequest == null : "Pushed "+request.getClass().getName()+" when there is already a request "+currentRequest.getClass().getName()
-//		+"; hasRequestProcessing = "+ hasRequestProcessing;
-//	hasRequestProcessing = true;
-//	currentRequest = request;
-//	Tendiwa.getServerThread().interrupt();
-//}
+	/**
+	 * @return Latency of processed requests of each type, from {@link #passRequest(Request)} to the end of {@link
+	 * Request#process()}.
+	 */
+	public Map<Class<? extends Request>, RequestLatency> getLatencies() {
+		Map<Class<? extends Request>, RequestLatency> answer = new HashMap<>();
+		synchronized (latencies) {
+			for (Map.Entry<Class<? extends Request>, RequestLatency> entry : latencies.entrySet()) {
+				answer.put(entry.getKey(), entry.getValue().copy());
+			}
+		}
+		return answer;
+	}
+
+	private void process(QueuedRequest queuedRequest) {
+		try {
+			queuedRequest.request.process();
+		} finally {
+			latencyOf(queuedRequest.request.getClass()).record(System.nanoTime() - queuedRequest.passedAt);
+			unprocessedRequests.decrementAndGet();
+		}
+	}
+
+	private RequestLatency latencyOf(Class<? extends Request> type) {
+		synchronized (latencies) {
+			RequestLatency latency = latencies.get(type);
+			if (latency == null) {
+				latency = new RequestLatency();
+				latencies.put(type, latency);
+			}
+			return latency;
+		}
+	}
+
+	private static final class QueuedRequest {
+		private final Request request;
+		private final long passedAt;
 
+		private QueuedRequest(Request request, long passedAt) {
+			this.request = request;
+			this.passedAt = passedAt;
+		}
+	}
 }
@@ -3,8 +3,10 @@ package org.tendiwa.core;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import org.tendiwa.core.events.*;
+import org.tendiwa.core.net.NetworkServer;
 import org.tendiwa.core.observation.Observable;
 import org.tendiwa.core.player.PlayerModule;
 import org.tendiwa.core.volition.RequestsModule;
@@ -22,15 +24,20 @@ public class Tendiwa extends Observable {
 	private static Injector injector;
 	private final TimeStreamManager timeStreamManager;
 	private final Server server;
+	/**
+	 * A provider, because the network server subscribes to events of this backend.
+	 */
+	private final Provider<NetworkServer> networkServer;
 
 	@Inject
 	public Tendiwa(
 		TimeStreamManager timeStreamManager,
-		Server server
-
+		Server server,
+		Provider<NetworkServer> networkServer
 	) {
 		this.timeStreamManager = timeStreamManager;
 		this.server = server;
+		this.networkServer = networkServer;
 		initEmitters();
 	}
 
@@ -118,5 +125,6 @@ public class Tendiwa extends Observable {
 
 		// Starting server
 		server.start();
+		networkServer.get().start();
 	}
 }
@@ -8,6 +8,7 @@ import org.tendiwa.core.dependencies.PlayerCharacterProvider;
 import org.tendiwa.core.factories.CharacterFactory;
 import org.tendiwa.core.factories.NpcFactory;
 import org.tendiwa.core.factories.TimeStreamFactory;
+import org.tendiwa.core.net.NetworkServer;
 import org.tendiwa.core.observation.Observable;
 import org.tendiwa.core.observation.ThreadProxy;
 
@@ -22,9 +23,14 @@ public class TendiwaBackendModule extends AbstractModule {
 			.to(Tendiwa.class);
 		bind(Server.class)
 			.in(Scopes.SINGLETON);
+		bind(TerrainTypes.class)
+			.to(TerrainTypeRegistry.class);
 		bind(ThreadProxy.class)
 			.toProvider(ThreadProxyProvider.class)
 			.in(Scopes.SINGLETON);
+		bind(NetworkServer.class)
+			.toProvider(NetworkServerProvider.class)
+			.in(Scopes.SINGLETON);
 		install(new FactoryModuleBuilder()
 			.build(CharacterFactory.class));
 		install(new FactoryModuleBuilder()
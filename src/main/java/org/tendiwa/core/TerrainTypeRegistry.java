@@ -0,0 +1,89 @@
+package org.tendiwa.core;
+
+import com.google.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TerrainTypes} that modules add their types to as they define them. Types of every chunk saved in a {@link
+ * RegionFileChunkStorage} are added when the chunk is saved, so a saved chunk can always be loaded back through the
+ * same registry, even if no module has added the types it uses.
+ * <p>
+ * Can be used from several threads.
+ */
+@Singleton
+public final class TerrainTypeRegistry implements TerrainTypes {
+	private final Map<String, FloorType> floorTypes = new ConcurrentHashMap<>();
+	private final Map<String, GameObject> gameObjects = new ConcurrentHashMap<>();
+	private final Map<String, BorderObjectType> borderObjectTypes = new ConcurrentHashMap<>();
+
+	public void addFloorType(FloorType type) {
+		add(floorTypes, type.getResourceName(), type);
+	}
+
+	/**
+	 * @param object
+	 * 	An object that can be placed in cells of many chunks, e.g. a {@link WallType}.
+	 */
+	public <T extends GameObject & Resourceable> void addGameObject(T object) {
+		add(gameObjects, object.getResourceName(), object);
+	}
+
+	public void addBorderObjectType(BorderObjectType type) {
+		add(borderObjectTypes, type.getResourceName(), type);
+	}
+
+	/**
+	 * Adds all types used in the terrain of a chunk.
+	 *
+	 * @param chunk
+	 * 	A chunk whose objects are all {@link Resourceable}, see {@link ChunkCodec#canEncode(Chunk)}.
+	 */
+	void addTypesOf(Chunk chunk) {
+		for (short i = 1; i < chunk.floorPalette.size(); i++) {
+			FloorType type = chunk.floorPalette.get(i);
+			add(floorTypes, type.getResourceName(), type);
+		}
+		for (short i = 1; i < chunk.objectPalette.size(); i++) {
+			GameObject object = chunk.objectPalette.get(i);
+			add(gameObjects, ((Resourceable) object).getResourceName(), object);
+		}
+		for (BorderObject border : chunk.borderObjects.valueCollection()) {
+			addBorderObjectType(border.getType());
+		}
+	}
+
+	private static <T> void add(Map<String, T> types, String name, T type) {
+		if (name == null) {
+			throw new IllegalArgumentException("Type " + type + " has no resource name");
+		}
+		T previous = types.putIfAbsent(name, type);
+		if (previous != null && previous != type) {
+			throw new IllegalArgumentException("Another type named " + name + " is already registered");
+		}
+	}
+
+	@Override
+	public FloorType floorType(String name) {
+		return get(floorTypes, name);
+	}
+
+	@Override
+	public GameObject gameObject(String name) {
+		return get(gameObjects, name);
+	}
+
+	@Override
+	public BorderObjectType borderObjectType(String name) {
+		return get(borderObjectTypes, name);
+	}
+
+	private static <T> T get(Map<String, T> types, String name) {
+		T type = types.get(name);
+		if (type == null) {
+			throw new RuntimeException("Unknown terrain type " + name);
+		}
+		return type;
+	}
+}
@@ -0,0 +1,18 @@
+package org.tendiwa.core;
+
+/**
+ * Resolves types of terrain by their {@link Resourceable#getResourceName()}. Needed to restore {@link Chunk}s from a
+ * {@link ChunkStorage}, because chunks are stored with names of types, not with types themselves.
+ */
+public interface TerrainTypes {
+	FloorType floorType(String name);
+
+	/**
+	 * @param name
+	 * 	Resource name of a {@link GameObject} that is also {@link Resourceable}, e.g. of a {@link WallType}.
+	 * @return A GameObject with that name.
+	 */
+	GameObject gameObject(String name);
+
+	BorderObjectType borderObjectType(String name);
+}
@@ -8,8 +8,10 @@ import org.tendiwa.core.player.SinglePlayerMode;
 import org.tendiwa.lexeme.Localizable;
 import org.tendiwa.core.vision.Seer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -56,6 +58,37 @@ public class TimeStream {
 	 * All the NonPlayerCharacters that take their turns in this TimeStream.
 	 */
 	private HashSet<NonPlayerCharacter> nonPlayerCharacters = new HashSet<>();
+	/**
+	 * {@link #characters} by their position, to find characters near a cell.
+	 */
+	private final CharacterGrid characterGrid = new CharacterGrid();
+	/**
+	 * {@link #characters} in order of their turns.
+	 */
+	private final TurnQueue turnQueue = new TurnQueue();
+	/**
+	 * TimeStreams whose chunks this TimeStream's characters came close to. They are to be merged with this one by
+	 * {@link TimeStreamScheduler}.
+	 */
+	private final Set<TimeStream> collisions = new HashSet<>();
+	/**
+	 * Distances to characters, shared by NonPlayerCharacters of this TimeStream that go to the same characters.
+	 */
+	private final DistanceFields distanceFields = new DistanceFields();
+	/**
+	 * Work that couldn't be done because it had to change chunks of a TimeStream in {@link #collisions}. It is to be
+	 * done again by {@link TimeStreamScheduler} once those TimeStreams are merged.
+	 */
+	private final List<Runnable> deferredWork = new ArrayList<>();
+	/**
+	 * Guards changes characters of this TimeStream make to the world, so characters of different TimeStreams change
+	 * their own chunks in parallel.
+	 */
+	private final Object lock = new Object();
+	/**
+	 * TimeStream whose work the current thread is running, or null if it runs work of no TimeStream.
+	 */
+	private static final ThreadLocal<TimeStream> running = new ThreadLocal<>();
 /**
  * Events, accumulated here in this ArrayList each turn, ready to send out to clients.
  */
@@ -82,6 +115,53 @@ public class TimeStream {
 		return characters;
 	}
 
+	/**
+	 * @return An object to synchronize on while characters of this TimeStream change the world.
+	 */
+	public Object getLock() {
+		return lock;
+	}
+
+	/**
+	 * Runs work of this TimeStream in the current thread, so it may only change chunks of this TimeStream (see {@link
+	 * #checkCanChange(Chunk)}).
+	 *
+	 * @param work
+	 * 	Work to run.
+	 */
+	void run(Runnable work) {
+		TimeStream previous = running.get();
+		running.set(this);
+		try {
+			work.run();
+		} finally {
+			running.set(previous);
+		}
+	}
+
+	/**
+	 * @return TimeStream whose work the current thread is running, or null if it runs work of no TimeStream.
+	 */
+	public static TimeStream current() {
+		return running.get();
+	}
+
+	/**
+	 * Checks that a chunk may be changed from the current thread: work of a TimeStream may change only chunks of that
+	 * TimeStream, while work outside of any TimeStream, like generating a world, may change any chunk.
+	 *
+	 * @param chunk
+	 * 	A chunk that is going to be changed.
+	 * @throws IllegalStateException
+	 * 	If the current thread runs work of a TimeStream and the chunk doesn't belong to that TimeStream.
+	 */
+	static void checkCanChange(Chunk chunk) {
+		TimeStream timeStream = running.get();
+		if (timeStream != null && !chunk.belongsToTimeStream(timeStream)) {
+			throw new IllegalStateException(chunk + " doesn't belong to the time stream that changes it");
+		}
+	}
+
 	public void addNonPlayerCharacter(NonPlayerCharacter character) {
 //	assert character.chunk != null;
 //	if (!chunks.contains(character.chunk)) {
@@ -91,7 +171,10 @@ public class TimeStream {
 //				+ "His chunk is " + character.chunk);
 //	}
 		nonPlayerCharacters.add(character);
-		characters.add(character);
+		if (characters.add(character)) {
+			characterGrid.add(character);
+			turnQueue.add(character);
+		}
 		observersOf.put(character, new HashSet<NonPlayerCharacter>());
 		character.setTimeStream(this);
 	}
@@ -101,6 +184,8 @@ public class TimeStream {
 			throw new Error("Character " + character + " is not in this time stream");
 		}
 		characters.remove(character);
+		characterGrid.remove(character);
+		turnQueue.remove(character);
 	}
 
 	public void removeCharacter(NonPlayerCharacter character) {
@@ -109,9 +194,199 @@ public class TimeStream {
 				+ " is not in this time stream");
 		}
 		characters.remove(character);
+		characterGrid.remove(character);
+		turnQueue.remove(character);
 		nonPlayerCharacters.remove(character);
 	}
 
+	/**
+	 * Must be called each time action points of a character of this TimeStream change.
+	 *
+	 * @param character
+	 * 	A character whose action points have just changed.
+	 */
+	void actionPointsChanged(Character character) {
+		turnQueue.update(character);
+	}
+
+	/**
+	 * Must be called each time a character of this TimeStream changes its coordinates.
+	 *
+	 * @param character
+	 * 	A character that has just changed its coordinates.
+	 * @param xPrev
+	 * 	X coordinate of the character before it moved.
+	 * @param yPrev
+	 * 	Y coordinate of the character before it moved.
+	 */
+	void moveCharacter(Character character, int xPrev, int yPrev) {
+		if (characters.contains(character)) {
+			characterGrid.move(character, xPrev, yPrev);
+		}
+	}
+
+	/**
+	 * Gets characters (including PlayerCharacters) in square with VISION_RANGE*2+1 side length around a cell.
+	 *
+	 * @param x
+	 * 	X coordinate of the square's center.
+	 * @param y
+	 * 	Y coordinate of the square's center.
+	 * @return Characters close enough to be seen from cell x:y.
+	 */
+	List<Character> getCharactersAround(int x, int y) {
+		List<Character> answer = new ArrayList<>();
+		characterGrid.collectInSquare(x, y, Seer.VISION_RANGE, answer);
+		return answer;
+	}
+
+	/**
+	 * Makes chunks around a cell belong to this TimeStream, so a character of this TimeStream may enter that cell. A
+	 * character can't see or reach further than {@link Seer#VISION_RANGE} in one turn, so characters of different
+	 * TimeStreams never touch the same chunk while their TimeStreams run in parallel.
+	 * <p>
+	 * If any of those chunks belong to another TimeStream, that TimeStream is remembered as colliding with this one.
+	 * If the cell itself belongs to another TimeStream, a character can't enter it until the TimeStreams are merged;
+	 * what the character was doing should then be {@link #defer(Runnable) deferred}.
+	 *
+	 * @param plane
+	 * 	A plane.
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @return true if the cell belongs to this TimeStream, false if it belongs to another TimeStream.
+	 */
+	boolean claimTerritoryAround(HorizontalPlane plane, int x, int y) {
+		synchronized (plane) {
+			claimChunksAround(plane, x, y);
+			return plane.getChunkWithCell(x, y).belongsToTimeStream(this);
+		}
+	}
+
+	/**
+	 * Releases chunks around a cell that no character of this TimeStream is close to anymore, so other TimeStreams may
+	 * claim them and the plane may unload them. Must be called after a character of this TimeStream leaves a cell.
+	 *
+	 * @param plane
+	 * 	A plane.
+	 * @param x
+	 * 	X coordinate of a cell a character has left.
+	 * @param y
+	 * 	Y coordinate of a cell a character has left.
+	 */
+	void releaseChunksAround(HorizontalPlane plane, int x, int y) {
+		synchronized (plane) {
+			for (Chunk chunk : plane.getChunksAroundCoordinate(x, y, Seer.VISION_RANGE * 2 + 1)) {
+				if (chunk.belongsToTimeStream(this) && !isCloseToAnyCharacter(chunk)) {
+					excludeChunk(chunk);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells if a character of this TimeStream can see or reach a chunk in one turn.
+	 */
+	private boolean isCloseToAnyCharacter(Chunk chunk) {
+		return characterGrid.hasAnyInRectangle(
+			chunk.plane,
+			chunk.x - Seer.VISION_RANGE,
+			chunk.y - Seer.VISION_RANGE,
+			chunk.x + Chunk.SIZE - 1 + Seer.VISION_RANGE,
+			chunk.y + Chunk.SIZE - 1 + Seer.VISION_RANGE
+		);
+	}
+
+	/**
+	 * Postpones work that couldn't be done because a character of this TimeStream had to enter a chunk of another
+	 * TimeStream. The work is done again once the TimeStreams are merged.
+	 *
+	 * @param work
+	 * 	Work to do again, from its very beginning.
+	 * @see #claimTerritoryAround(HorizontalPlane, int, int)
+	 */
+	void defer(Runnable work) {
+		assert hasCollisions();
+		deferredWork.add(work);
+	}
+
+	/**
+	 * @return Work {@link #defer(Runnable) deferred} since the last call to this method, in the order it was deferred.
+	 */
+	List<Runnable> takeDeferredWork() {
+		List<Runnable> answer = new ArrayList<>(deferredWork);
+		deferredWork.clear();
+		return answer;
+	}
+
+	/**
+	 * Same as {@link #claimTerritoryAround(HorizontalPlane, int, int)}, but doesn't check if the cell itself belongs
+	 * to this TimeStream. Used when TimeStreams are first populated and are going to be merged right after that.
+	 */
+	void claimChunksAround(HorizontalPlane plane, int x, int y) {
+		synchronized (plane) {
+			for (Chunk chunk : plane.getChunksAroundCoordinate(x, y, Seer.VISION_RANGE * 2 + 1)) {
+				TimeStream owner = chunk.getTimeStream();
+				if (owner == null) {
+					addChunk(chunk);
+				} else if (owner != this) {
+					collisions.add(owner);
+				}
+			}
+		}
+	}
+
+	DistanceFields getDistanceFields() {
+		return distanceFields;
+	}
+
+	boolean hasCollisions() {
+		return !collisions.isEmpty();
+	}
+
+	/**
+	 * @return TimeStreams this TimeStream collided with since the last call to this method.
+	 */
+	Set<TimeStream> takeCollisions() {
+		Set<TimeStream> answer = new HashSet<>(collisions);
+		collisions.clear();
+		return answer;
+	}
+
+	/**
+	 * Moves all characters and chunks of another TimeStream to this TimeStream, leaving that TimeStream empty.
+	 *
+	 * @param other
+	 * 	Another TimeStream.
+	 */
+	void absorb(TimeStream other) {
+		for (Chunk chunk : other.chunks) {
+			chunk.setTimeStream(null);
+			addChunk(chunk);
+		}
+		other.chunks.clear();
+		for (Character character : new ArrayList<>(other.characters)) {
+			Set<NonPlayerCharacter> observers = other.observersOf.get(character);
+			if (other.nonPlayerCharacters.contains(character)) {
+				other.removeCharacter((NonPlayerCharacter) character);
+				addNonPlayerCharacter((NonPlayerCharacter) character);
+			} else {
+				other.removeCharacter(character);
+				addPlayerCharacter(character);
+			}
+			observersOf.put(character, observers);
+		}
+		other.observersOf.clear();
+		collisions.addAll(other.collisions);
+		collisions.remove(this);
+		collisions.remove(other);
+		other.collisions.clear();
+		other.distanceFields.clear();
+		deferredWork.addAll(other.deferredWork);
+		other.deferredWork.clear();
+	}
+
 	public void makeSound(int x, int y, SoundType type, Localizable soundSource) {
 		assert type != null;
 		model.emitEvent(new EventSound(type, soundSource, x, y));
@@ -132,23 +407,16 @@ public class TimeStream {
 	 * @return Character
 	 */
 	public Character next() {
-		Character nextCharacter = null;
-		// Get the character with the greatest action points left
-		for (Character ch : characters) {
-			if (nextCharacter == null
-				|| ch.getActionPoints() > nextCharacter.getActionPoints()) {
-				nextCharacter = ch;
-			}
-		}
+		// The character with the greatest action points left
+		Character nextCharacter = turnQueue.peek();
+		assert nextCharacter != null;
 		// If all the characters' energy is less than 0, then here goes the next
 		// turn
 		if (nextCharacter.getActionPoints() <= 0) {
-			for (Character ch : characters) {
-				ch.increaseActionPoints(BASE_ENERGY);
-			}
+			turnQueue.addActionPointsToAll(BASE_ENERGY);
+			distanceFields.nextTurn();
 			return next();
 		}
-		assert nextCharacter != null;
 		return nextCharacter;
 	}
 
@@ -171,7 +439,6 @@ public class TimeStream {
 		}
 		chunks.remove(chunk);
 		chunk.setTimeStream(null);
-		throw new UnsupportedOperationException();
 	}
 
 	/**
@@ -181,26 +448,32 @@ public class TimeStream {
 	 */
 	public HashSet<NonPlayerCharacter> getNearbyNonPlayerCharacters(Character character) {
 		HashSet<NonPlayerCharacter> answer = new HashSet<>();
-		for (NonPlayerCharacter neighbor : nonPlayerCharacters) {
-			// Quickly select characters that could be seen (including this Seer
-			// itself)
-			if (Math.abs(neighbor.x - character.x) <= Seer.VISION_RANGE && Math.abs(neighbor.y - character.y) <= Seer.VISION_RANGE) {
-				answer.add(neighbor);
+		for (Character neighbor : getCharactersAround(character.x, character.y)) {
+			if (neighbor != character && nonPlayerCharacters.contains(neighbor)) {
+				answer.add((NonPlayerCharacter) neighbor);
 			}
 		}
-		answer.remove(character);
 		return answer;
 	}
 
+	/**
+	 * Releases all chunks of a plane that no character of this TimeStream is close to.
+	 *
+	 * @param plane
+	 * 	A plane.
+	 * @see #releaseChunksAround(HorizontalPlane, int, int)
+	 */
 	public void unloadUnusedChunks(HorizontalPlane plane) {
-		Set<Chunk> chunksToExclude = new HashSet<>();
-		for (Chunk chunk : chunks) {
-			if (chunk.plane != plane) {
-				continue;
+		synchronized (plane) {
+			Set<Chunk> chunksToExclude = new HashSet<>();
+			for (Chunk chunk : chunks) {
+				if (chunk.plane == plane && !isCloseToAnyCharacter(chunk)) {
+					chunksToExclude.add(chunk);
+				}
+			}
+			for (Chunk chunk : chunksToExclude) {
+				this.excludeChunk(chunk);
 			}
-		}
-		for (Chunk chunk : chunksToExclude) {
-			this.excludeChunk(chunk);
 		}
 	}
 
@@ -239,11 +512,12 @@ public class TimeStream {
 	 * then all of the aim's observers try to unsee it. Then all the current
 	 * observers remember aim's coordinate.
 	 */
-		for (NonPlayerCharacter neighbor : nonPlayerCharacters) {
-			if (neighbor == aim) {
+		// Characters further than vision range can't see the aim anyway.
+		for (Character neighbor : getCharactersAround(aim.x, aim.y)) {
+			if (neighbor == aim || !nonPlayerCharacters.contains(neighbor)) {
 				continue;
 			}
-			neighbor.tryToSee(aim);
+			((NonPlayerCharacter) neighbor).tryToSee(aim);
 		}
 		Set<NonPlayerCharacter> currentObservers = observersOf.get(aim);
 		// Need to copy observers because its contents will change in the next
@@ -275,7 +549,10 @@ public class TimeStream {
 	}
 
 	public void addPlayerCharacter(Character character) {
-		characters.add(character);
+		if (characters.add(character)) {
+			characterGrid.add(character);
+			turnQueue.add(character);
+		}
 		character.setTimeStream(this);
 		observersOf.put(character, new HashSet<NonPlayerCharacter>());
 	}
@@ -6,14 +6,25 @@ import com.google.inject.name.Named;
 import org.tendiwa.core.factories.TimeStreamFactory;
 import org.tendiwa.core.player.SinglePlayerMode;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Singleton
 public class TimeStreamManager {
 	private final SinglePlayerMode singlePlayerMode;
 	private final TimeStreamFactory factory;
 	private final Collection<TimeStream> timeStreams = new HashSet<>();
+	/**
+	 * Player characters found by {@link #populate(World)}. Unlike characters of TimeStreams, these may be read from
+	 * any thread.
+	 */
+	private final Collection<Character> playerCharacters = new CopyOnWriteArrayList<>();
 
 	@Inject
 	TimeStreamManager(
@@ -25,25 +36,106 @@ public class TimeStreamManager {
 		this.factory = factory;
 	}
 
-	public void populate(World world) {
-		TimeStream playerTimeStream = createTimeStream();
+	/**
+	 * Creates a TimeStream around each player character. Each non-player character joins the TimeStream of the
+	 * nearest player character on its plane. TimeStreams that are close to each other are merged.
+	 *
+	 * @param world
+	 * 	A world with characters in it.
+	 */
+	public synchronized void populate(World world) {
+		List<Character> players = new ArrayList<>();
+		List<NonPlayerCharacter> nonPlayerCharacters = new ArrayList<>();
 		for (HorizontalPlane horizontalPlane : world.getPlanes()) {
 			for (Chunk chunk : horizontalPlane.getChunks()) {
 				for (Character character : chunk.getCharacters()) {
 					if (singlePlayerMode.isPlayer(character)) {
-						playerTimeStream.addPlayerCharacter(character);
+						createTimeStream().addPlayerCharacter(character);
+						players.add(character);
 					} else {
-						playerTimeStream.addNonPlayerCharacter((NonPlayerCharacter) character);
+						nonPlayerCharacters.add((NonPlayerCharacter) character);
 					}
 				}
 			}
 		}
+		if (players.isEmpty()) {
+			createTimeStream();
+		}
+		playerCharacters.addAll(players);
+		TimeStream defaultTimeStream = timeStreams.iterator().next();
+		for (NonPlayerCharacter character : nonPlayerCharacters) {
+			Character nearestPlayer = null;
+			for (Character player : players) {
+				if (player.getPlane() == character.getPlane()
+					&& (nearestPlayer == null
+					|| squaredDistance(player, character) < squaredDistance(nearestPlayer, character))) {
+					nearestPlayer = player;
+				}
+			}
+			TimeStream timeStream = nearestPlayer == null ? defaultTimeStream : nearestPlayer.getTimeStream();
+			timeStream.addNonPlayerCharacter(character);
+		}
+		for (TimeStream timeStream : timeStreams) {
+			for (Character character : timeStream.getCharacters()) {
+				timeStream.claimChunksAround(character.getPlane(), character.x, character.y);
+			}
+		}
+		mergeCollidingTimeStreams();
 		assert timeStreams.size() > 0;
 	}
 
-	public TimeStream createTimeStream() {
+	/**
+	 * @return Characters played by humans, each in its own TimeStream until TimeStreams merge.
+	 */
+	public Collection<Character> getPlayerCharacters() {
+		return Collections.unmodifiableCollection(playerCharacters);
+	}
+
+	private static int squaredDistance(Character a, Character b) {
+		int dx = a.x - b.x;
+		int dy = a.y - b.y;
+		return dx * dx + dy * dy;
+	}
+
+	public synchronized TimeStream createTimeStream() {
 		TimeStream timeStream = factory.create();
 		timeStreams.add(timeStream);
 		return timeStream;
 	}
+
+	/**
+	 * Merges each TimeStream that collided with other TimeStreams with those TimeStreams. Must not be called while
+	 * any TimeStream is running.
+	 *
+	 * @return Which TimeStream each of the absorbed TimeStreams is now part of.
+	 * @see TimeStream#claimTerritoryAround(HorizontalPlane, int, int)
+	 */
+	synchronized Map<TimeStream, TimeStream> mergeCollidingTimeStreams() {
+		Map<TimeStream, TimeStream> absorbers = new LinkedHashMap<>();
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (TimeStream timeStream : new ArrayList<>(timeStreams)) {
+				if (!timeStreams.contains(timeStream)) {
+					continue;
+				}
+				for (TimeStream other : timeStream.takeCollisions()) {
+					if (other != timeStream && timeStreams.contains(other)) {
+						timeStream.absorb(other);
+						timeStreams.remove(other);
+						absorbers.put(other, timeStream);
+						merged = true;
+					}
+				}
+			}
+		}
+		for (Map.Entry<TimeStream, TimeStream> entry : absorbers.entrySet()) {
+			TimeStream absorber = entry.getValue();
+			while (absorbers.containsKey(absorber)) {
+				absorber = absorbers.get(absorber);
+			}
+			entry.setValue(absorber);
+		}
+		return absorbers;
+	}
 }
@@ -0,0 +1,210 @@
+package org.tendiwa.core;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs work of different {@link TimeStream}s in parallel on a pool of worker threads. Work of the same TimeStream is
+ * run one piece at a time in the order it was submitted.
+ * <p>
+ * TimeStreams are independent as long as each of them changes only chunks it owns (see {@link
+ * TimeStream#claimTerritoryAround(HorizontalPlane, int, int)} and {@link TimeStream#checkCanChange(Chunk)}). When
+ * characters of two TimeStreams come close to each other, those TimeStreams are merged into one between two pieces of
+ * work, when no work of any TimeStream is running. Work that was {@link TimeStream#defer(Runnable) deferred} until the
+ * merge is then run before any other work of the merged TimeStream.
+ */
+@Singleton
+public final class TimeStreamScheduler {
+	private final TimeStreamManager manager;
+	private final ExecutorService workers;
+	/**
+	 * Work holds the read lock, merging TimeStreams holds the write lock.
+	 */
+	private final ReadWriteLock mergeLock = new ReentrantReadWriteLock();
+	private final Map<TimeStream, StreamQueue> queues = new HashMap<>();
+	/**
+	 * Which TimeStream each merged TimeStream was absorbed by. Guarded by {@link #queues}.
+	 */
+	private final Map<TimeStream, TimeStream> absorbers = new HashMap<>();
+
+	@Inject
+	TimeStreamScheduler(TimeStreamManager manager) {
+		this(manager, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param manager
+	 * 	Holds all TimeStreams of a world.
+	 * @param numberOfWorkers
+	 * 	How many TimeStreams may run at the same time.
+	 */
+	TimeStreamScheduler(TimeStreamManager manager, int numberOfWorkers) {
+		this.manager = manager;
+		AtomicInteger workerNumber = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(numberOfWorkers, runnable -> {
+			Thread thread = new Thread(runnable, "Tendiwa TimeStream worker " + workerNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Schedules work to be run in a TimeStream after all the work submitted to that TimeStream before it.
+	 * <p>
+	 * Callers usually find out the TimeStream before submitting, so it may have been absorbed by another TimeStream
+	 * since. Then the work is scheduled in the TimeStream that absorbed it.
+	 *
+	 * @param timeStream
+	 * 	A TimeStream the work changes.
+	 * @param work
+	 * 	Work to run, usually processing of a {@link Request}.
+	 */
+	public void submit(TimeStream timeStream, Runnable work) {
+		synchronized (queues) {
+			while (absorbers.containsKey(timeStream)) {
+				timeStream = absorbers.get(timeStream);
+			}
+			StreamQueue queue = queueOf(timeStream);
+			queue.pending.add(work);
+			startIfIdle(queue);
+		}
+	}
+
+	private StreamQueue queueOf(TimeStream timeStream) {
+		assert Thread.holdsLock(queues);
+		StreamQueue queue = queues.get(timeStream);
+		if (queue == null) {
+			queue = new StreamQueue(timeStream);
+			queues.put(timeStream, queue);
+		}
+		return queue;
+	}
+
+	/**
+	 * Stops worker threads. Work that is already running is completed.
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+
+	private void startIfIdle(StreamQueue queue) {
+		assert Thread.holdsLock(queues);
+		if (!queue.running && !queue.pending.isEmpty()) {
+			queue.running = true;
+			workers.execute(() -> drain(queue));
+		}
+	}
+
+	private void drain(StreamQueue queue) {
+		boolean finished = false;
+		try {
+			while (true) {
+				mergeLock.readLock().lock();
+				try {
+					Runnable work;
+					synchronized (queues) {
+						work = queue.pending.poll();
+						if (work == null) {
+							queue.running = false;
+							finished = true;
+							return;
+						}
+					}
+					queue.timeStream.run(work);
+				} finally {
+					mergeLock.readLock().unlock();
+				}
+				if (queue.timeStream.hasCollisions()) {
+					mergeCollisions(queue.timeStream);
+				}
+			}
+		} finally {
+			if (!finished) {
+				// Work threw an exception; let the rest of the queue run anyway.
+				synchronized (queues) {
+					queue.running = false;
+					startIfIdle(queue);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges TimeStreams that collided, waiting for running work of all TimeStreams to finish first. Pending work of
+	 * an absorbed TimeStream, and work submitted to it later, goes to the TimeStream that absorbed it.
+	 *
+	 * @param collided
+	 * 	A TimeStream whose work has just collided with other TimeStreams.
+	 */
+	private void mergeCollisions(TimeStream collided) {
+		mergeLock.writeLock().lock();
+		try {
+			Map<TimeStream, TimeStream> merges = manager.mergeCollidingTimeStreams();
+			for (Map.Entry<TimeStream, TimeStream> merge : merges.entrySet()) {
+				TimeStream absorbed = merge.getKey();
+				TimeStream absorber = merge.getValue();
+				synchronized (queues) {
+					absorbers.put(absorbed, absorber);
+					StreamQueue absorbedQueue = queues.remove(absorbed);
+					if (absorbedQueue == null) {
+						continue;
+					}
+					StreamQueue absorberQueue = queueOf(absorber);
+					absorberQueue.pending.addAll(absorbedQueue.pending);
+					absorbedQueue.pending.clear();
+					startIfIdle(absorberQueue);
+				}
+			}
+			Set<TimeStream> merged = new LinkedHashSet<>(merges.values());
+			merged.add(merges.getOrDefault(collided, collided));
+			for (TimeStream timeStream : merged) {
+				resumeDeferredWork(timeStream);
+			}
+		} finally {
+			mergeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Puts work a TimeStream deferred until its collisions were merged in front of its other pending work.
+	 */
+	private void resumeDeferredWork(TimeStream timeStream) {
+		List<Runnable> deferred = timeStream.takeDeferredWork();
+		if (deferred.isEmpty()) {
+			return;
+		}
+		synchronized (queues) {
+			StreamQueue queue = queueOf(timeStream);
+			for (int i = deferred.size() - 1; i >= 0; i--) {
+				queue.pending.addFirst(deferred.get(i));
+			}
+			startIfIdle(queue);
+		}
+	}
+
+	private static final class StreamQueue {
+		private final TimeStream timeStream;
+		private final Deque<Runnable> pending = new ArrayDeque<>();
+		/**
+		 * Whether a worker is draining this queue.
+		 */
+		private boolean running;
+
+		private StreamQueue(TimeStream timeStream) {
+			this.timeStream = timeStream;
+		}
+	}
+}
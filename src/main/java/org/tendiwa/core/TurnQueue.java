@@ -0,0 +1,143 @@
+package org.tendiwa.core;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Characters of a {@link TimeStream} ordered by who acts next: an indexed binary heap by {@link
+ * Character#getActionPoints()}, greatest first. Characters with equal action points act in the order they were added
+ * to the queue.
+ * <p>
+ * Must be told about every change of action points of a character it holds.
+ */
+final class TurnQueue {
+	private Character[] heap = new Character[16];
+	/**
+	 * Order in which characters in {@link #heap} were added, at the same indices.
+	 */
+	private long[] sequences = new long[16];
+	private final TObjectIntMap<Character> indices = new TObjectIntHashMap<>(16, 0.5f, -1);
+	private int size;
+	private long nextSequence;
+	private boolean addingActionPoints;
+
+	void add(Character character) {
+		if (indices.containsKey(character)) {
+			return;
+		}
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+			sequences = Arrays.copyOf(sequences, size * 2);
+		}
+		heap[size] = character;
+		sequences[size] = nextSequence++;
+		indices.put(character, size);
+		siftUp(size++);
+	}
+
+	void remove(Character character) {
+		int index = indices.remove(character);
+		if (index == -1) {
+			return;
+		}
+		size--;
+		if (index != size) {
+			move(size, index);
+			siftDown(index);
+			siftUp(index);
+		}
+		heap[size] = null;
+	}
+
+	/**
+	 * Restores order after action points of a character have changed.
+	 *
+	 * @param character
+	 * 	A character in this queue.
+	 */
+	void update(Character character) {
+		if (addingActionPoints) {
+			return;
+		}
+		int index = indices.get(character);
+		if (index != -1) {
+			siftDown(index);
+			siftUp(index);
+		}
+	}
+
+	/**
+	 * @return The character that acts next, or null if the queue is empty.
+	 */
+	Character peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	/**
+	 * Gives each character the same amount of action points. Order of characters doesn't change.
+	 *
+	 * @param amount
+	 * 	How many action points to give.
+	 */
+	void addActionPointsToAll(int amount) {
+		addingActionPoints = true;
+		try {
+			for (int i = 0; i < size; i++) {
+				heap[i].increaseActionPoints(amount);
+			}
+		} finally {
+			addingActionPoints = false;
+		}
+	}
+
+	private boolean actsBefore(int a, int b) {
+		int pointsA = heap[a].getActionPoints();
+		int pointsB = heap[b].getActionPoints();
+		return pointsA > pointsB || pointsA == pointsB && sequences[a] < sequences[b];
+	}
+
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (!actsBefore(index, parent)) {
+				return;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+	}
+
+	private void siftDown(int index) {
+		while (true) {
+			int child = index * 2 + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && actsBefore(child + 1, child)) {
+				child++;
+			}
+			if (!actsBefore(child, index)) {
+				return;
+			}
+			swap(index, child);
+			index = child;
+		}
+	}
+
+	private void swap(int a, int b) {
+		Character character = heap[a];
+		long sequence = sequences[a];
+		move(b, a);
+		heap[b] = character;
+		sequences[b] = sequence;
+		indices.put(character, b);
+	}
+
+	private void move(int from, int to) {
+		heap[to] = heap[from];
+		sequences[to] = sequences[from];
+		indices.put(heap[to], to);
+	}
+}
@@ -3,6 +3,9 @@ package org.tendiwa.core;
 import org.tendiwa.geometry.Dimension;
 import org.tendiwa.geometry.Rectangle;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Set;
@@ -16,12 +19,32 @@ public class World {
 	protected final int height;
 	final HorizontalPlane defaultPlane;
 	private final Rectangle rectangle;
+	private final ChunkStorage chunkStorage;
+	private final int maxLoadedChunksPerPlane;
 	private Character playerCharacter;
 	private HashMap<Integer, HorizontalPlane> planes = new HashMap<>();
 
 	public World(
 		Dimension dimension
 	) {
+		this(dimension, ChunkStorage.NONE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param dimension
+	 * 	Size of each plane in cells.
+	 * @param chunkStorage
+	 * 	Where planes load their chunks from and save them to.
+	 * @param maxLoadedChunksPerPlane
+	 * 	How many chunks each plane may keep in memory before it starts unloading least recently used ones.
+	 */
+	public World(
+		Dimension dimension,
+		ChunkStorage chunkStorage,
+		int maxLoadedChunksPerPlane
+	) {
+		this.chunkStorage = chunkStorage;
+		this.maxLoadedChunksPerPlane = maxLoadedChunksPerPlane;
 		this.rectangle = rectangle(
 			dimension.width(),
 			dimension.height()
@@ -32,10 +55,30 @@ public class World {
 		planes.put(0, defaultPlane);
 	}
 
+	/**
+	 * Creates a world whose planes keep chunks they unload in {@link RegionFileChunkStorage region files}. Call {@link
+	 * #close()} when done with the world to save its chunks and close the files.
+	 *
+	 * @param dimension
+	 * 	Size of each plane in cells.
+	 * @param directory
+	 * 	A directory with region files of this world. Chunks that are already saved there are loaded from it.
+	 * @param types
+	 * 	Resolves names of types saved in region files. Types of saved chunks are added to it.
+	 * @param maxLoadedChunksPerPlane
+	 * 	How many chunks each plane may keep in memory before it starts unloading least recently used ones.
+	 */
+	public static World withRegionFiles(
+		Dimension dimension,
+		File directory,
+		TerrainTypeRegistry types,
+		int maxLoadedChunksPerPlane
+	) {
+		return new World(dimension, new RegionFileChunkStorage(directory, types), maxLoadedChunksPerPlane);
+	}
+
 	public HorizontalPlane initPlane(int level) {
-		HorizontalPlane plane = new HorizontalPlane(width, height, this, level);
-		plane.touchChunks(0, 0, width, height);
-		return plane;
+		return new HorizontalPlane(width, height, this, level, chunkStorage, maxLoadedChunksPerPlane);
 	}
 
 	public HorizontalPlane getDefaultPlane() {
@@ -104,7 +147,7 @@ public class World {
 	 * 	Index of plane to retrieve.
 	 * @return An existing plane or a new plane, if a plane with that index doesn't exist.
 	 */
-	public HorizontalPlane getPlane(int level) {
+	public synchronized HorizontalPlane getPlane(int level) {
 		if (planes.get(level) == null) {
 			if (planes.get(level - 1) == null) {
 				throw new IllegalArgumentException("Can't create plane " + level + " because plane " + (level - 1) + " doesn't exist yet");
@@ -125,4 +168,28 @@ public class World {
 	public Collection<HorizontalPlane> getPlanes() {
 		return planes.values();
 	}
+
+	/**
+	 * Writes changed terrain of all loaded chunks of all planes into this world's {@link ChunkStorage}.
+	 */
+	public synchronized void saveChunks() {
+		for (HorizontalPlane plane : planes.values()) {
+			plane.saveChunks();
+		}
+	}
+
+	/**
+	 * Saves changed terrain of loaded chunks and releases resources of this world's {@link ChunkStorage}, e.g. closes
+	 * region files. The world must not be used after that.
+	 */
+	public synchronized void close() {
+		saveChunks();
+		if (chunkStorage instanceof Closeable) {
+			try {
+				((Closeable) chunkStorage).close();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
 }
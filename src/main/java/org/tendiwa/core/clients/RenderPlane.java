@@ -176,50 +176,60 @@ public class RenderPlane {
 		borders.put(new Border(border.x, border.y, border.side), border);
 	}
 
-	private void unseeBorders(ImmutableList<Border> unseenBorders) {
-		for (Border border : unseenBorders) {
-			assert borders.containsKey(border) : border;
-			borders.get(border).setVisible(false);
-			addUnseenBorder(border);
-		}
-
+	private void unseeBorder(Border border) {
+		assert borders.containsKey(border) : border;
+		borders.get(border).setVisible(false);
+		addUnseenBorder(border);
 	}
 
 	private void seeBorders(ImmutableList<RenderBorder> seenBorders) {
 		for (RenderBorder border : seenBorders) {
-			seeBorder(border);
-			if (hasUnseenBorderObject(border) && border.getObject() == null) {
-				removeUnseenBorder(border);
-			}
+			seeBorderAndForgetObject(border);
 		}
 	}
 
-	private void unseeCells(ImmutableList<Integer> unseenCells) {
-		for (int key : unseenCells) {
-			RenderCell cell = getCell(key);
-			cell.setVisible(false);
-			if (backendPlane.hasAnyItems(cell.x, cell.y)) {
-				for (Item item : backendPlane.getItems(cell.x, cell.y)) {
-					addUnseenItem(cell.x, cell.y, item);
-				}
+	private void seeBorderAndForgetObject(RenderBorder border) {
+		seeBorder(border);
+		if (hasUnseenBorderObject(border) && border.getObject() == null) {
+			removeUnseenBorder(border);
+		}
+	}
+
+	private void unseeCell(int x, int y) {
+		RenderCell cell = getCell(x, y);
+		cell.setVisible(false);
+		if (backendPlane.hasAnyItems(cell.x, cell.y)) {
+			for (Item item : backendPlane.getItems(cell.x, cell.y)) {
+				addUnseenItem(cell.x, cell.y, item);
 			}
 		}
 	}
 
 	public void updateFieldOfView(EventFovChange event) {
-		unseeCells(event.unseenCells);
-		seeCells(event.seenCells);
-		unseeBorders(event.unseenBorders);
-		seeBorders(event.seenBorders);
-
+		event.delta.forEachUnseenCell((x, y, n) -> {
+			if (backendPlane.containsCell(x, y)) {
+				unseeCell(x, y);
+			}
+		});
+		event.delta.forEachSeenCell((x, y, n) -> seeCellAndForgetItems(
+			new RenderCell(world, x, y, event.seenFloors[n], event.seenObjects[n])
+		));
+		event.delta.forEachUnseenBorder((x, y, side, n) -> unseeBorder(new Border(x, y, side)));
+		event.delta.forEachSeenBorder((x, y, side, n) -> seeBorderAndForgetObject(
+			new RenderBorder(x, y, side, event.seenBorderObjects[n])
+		));
 	}
 
 	private void seeCells(ImmutableList<RenderCell> seenCells) {
 		for (RenderCell cell : seenCells) {
-			seeCell(cell);
-			if (hasAnyUnseenItems(cell.x, cell.y)) {
-				removeUnseenItems(cell.x, cell.y);
-			}
+			seeCellAndForgetItems(cell);
+		}
+	}
+
+	private void seeCellAndForgetItems(RenderCell cell) {
+		seeCell(cell);
+		if (hasAnyUnseenItems(cell.x, cell.y)) {
+			removeUnseenItems(cell.x, cell.y);
 		}
 	}
 
@@ -1,35 +1,47 @@
 package org.tendiwa.core.events;
 
 import com.google.common.collect.ImmutableList;
-import org.tendiwa.core.Border;
+import org.tendiwa.core.BorderObject;
+import org.tendiwa.core.FloorType;
+import org.tendiwa.core.GameObject;
 import org.tendiwa.core.Item;
-import org.tendiwa.core.clients.RenderBorder;
-import org.tendiwa.core.clients.RenderCell;
 import org.tendiwa.core.observation.Event;
+import org.tendiwa.core.vision.VisionDelta;
 
 /**
- * This class should be instantiated
+ * Changes in player's field of view after a move. Which cells and borders are seen and unseen is held in {@link
+ * #delta}, and contents of seen cells and borders are held in arrays in the order {@link #delta} visits them.
  */
 public class EventFovChange implements Event {
 
-	public final ImmutableList<RenderCell> seenCells;
-	public final ImmutableList<Integer> unseenCells;
+	public final VisionDelta delta;
+	/**
+	 * Floors of cells in the order of {@link VisionDelta#forEachSeenCell(VisionDelta.CellVisitor)}.
+	 */
+	public final FloorType[] seenFloors;
+	/**
+	 * Objects in cells in the order of {@link VisionDelta#forEachSeenCell(VisionDelta.CellVisitor)}, null for cells
+	 * without objects.
+	 */
+	public final GameObject[] seenObjects;
 	public final ImmutableList<Item> seenItems;
-	public final ImmutableList<RenderBorder> seenBorders;
-	public final ImmutableList<Border> unseenBorders;
+	/**
+	 * Objects on borders in the order of {@link VisionDelta#forEachSeenBorder(VisionDelta.BorderVisitor)}, null for
+	 * borders without objects.
+	 */
+	public final BorderObject[] seenBorderObjects;
 
 	public EventFovChange(
-		ImmutableList<RenderCell> seenCells,
-		ImmutableList<Integer> unseenCells,
+		VisionDelta delta,
+		FloorType[] seenFloors,
+		GameObject[] seenObjects,
 		ImmutableList<Item> seenItems,
-		ImmutableList<RenderBorder> seenBorders,
-		ImmutableList<Border> unseenBorders
+		BorderObject[] seenBorderObjects
 	) {
-
-		this.seenCells = seenCells;
-		this.unseenCells = unseenCells;
+		this.delta = delta;
+		this.seenFloors = seenFloors;
+		this.seenObjects = seenObjects;
 		this.seenItems = seenItems;
-		this.seenBorders = seenBorders;
-		this.unseenBorders = unseenBorders;
+		this.seenBorderObjects = seenBorderObjects;
 	}
 }
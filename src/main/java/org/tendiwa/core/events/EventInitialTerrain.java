@@ -8,6 +8,7 @@ import org.tendiwa.core.clients.RenderCell;
 import org.tendiwa.core.observation.Event;
 import org.tendiwa.core.vision.*;
 import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.geometry.CellSet;
 
 public class EventInitialTerrain implements Event {
 	public final ImmutableList<RenderCell> seenCells;
@@ -22,6 +23,16 @@ public class EventInitialTerrain implements Event {
 	 * client for displaying.
 	 */
 	public EventInitialTerrain(Character player, World world, HorizontalPlane plane, Seer seer) {
+		this(player, world, plane, seer, (x, y) -> true);
+	}
+
+	/**
+	 * Collects terrain that a character sees in a part of the world, e.g. in chunks that a client asked for.
+	 *
+	 * @param cells
+	 * 	Cells to collect terrain of. A border is collected if it is a side of a cell in this set.
+	 */
+	public EventInitialTerrain(Character player, World world, HorizontalPlane plane, Seer seer, CellSet cells) {
 		this.player = player;
 		this.world = world;
 		ImmutableList.Builder<RenderCell> seenCellsBuilder = ImmutableList.builder();
@@ -34,9 +45,9 @@ public class EventInitialTerrain implements Event {
 		BasicCell theoreticalStartPoint = seer.getTheoreticalVisionRecStartPoint();
 		for (int i = startPoint.x() - theoreticalStartPoint.x(); i < ModifiableCellVisionCache.VISION_CACHE_WIDTH; i++) {
 			for (int j = startPoint.y() - theoreticalStartPoint.y(); j < ModifiableCellVisionCache.VISION_CACHE_WIDTH; j++) {
-				if (visionCache[i][j] == Visibility.VISIBLE) {
-					int x = theoreticalStartPoint.x() + i;
-					int y = theoreticalStartPoint.y() + j;
+				int x = theoreticalStartPoint.x() + i;
+				int y = theoreticalStartPoint.y() + j;
+				if (visionCache[i][j] == Visibility.VISIBLE && cells.contains(x, y)) {
 					seenCellsBuilder.add(new RenderCell(
 						world,
 						x,
@@ -50,7 +61,7 @@ public class EventInitialTerrain implements Event {
 		BorderVisionCache borderVisionCache = seer.getBorderVisionCache();
 
 		for (BorderVisibility border : borderVisionCache) {
-			if (border.visibility == Visibility.VISIBLE) {
+			if (border.visibility == Visibility.VISIBLE && cells.contains(border.x, border.y)) {
 				seenBordersBuilder.add(new RenderBorder(border.x, border.y, border.side, plane.getBorderObject(border)));
 			}
 		}
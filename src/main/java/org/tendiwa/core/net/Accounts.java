@@ -0,0 +1,19 @@
+package org.tendiwa.core.net;
+
+import org.tendiwa.core.Character;
+
+import java.util.Collection;
+
+/**
+ * Tells which characters remote clients may play.
+ */
+public interface Accounts {
+	/**
+	 * @param login
+	 * 	Login of an account.
+	 * @param password
+	 * 	Password of the account.
+	 * @return Characters of the account, or an empty collection if there is no such account or the password is wrong.
+	 */
+	public Collection<Character> charactersOf(String login, String password);
+}
@@ -0,0 +1,11 @@
+package org.tendiwa.core.net;
+
+/**
+ * Thrown when a remote side asks to play a character it may not play, or asks for something only a client playing a
+ * character may ask for.
+ */
+public class AuthenticationException extends RuntimeException {
+	public AuthenticationException(String message) {
+		super(message);
+	}
+}
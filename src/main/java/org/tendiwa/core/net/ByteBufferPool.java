@@ -0,0 +1,66 @@
+package org.tendiwa.core.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reuses direct {@link ByteBuffer}s of the same capacity, so encoding a message doesn't allocate a buffer for it.
+ * Buffers of other capacities may be released too, they are just dropped.
+ * <p>
+ * Can be used from several threads.
+ */
+public final class ByteBufferPool {
+	private final int bufferSize;
+	private final int maxPooledBuffers;
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger numberOfPooledBuffers = new AtomicInteger();
+
+	/**
+	 * @param bufferSize
+	 * 	Capacity of buffers this pool gives out.
+	 * @param maxPooledBuffers
+	 * 	How many released buffers are kept for reuse at most.
+	 */
+	public ByteBufferPool(int bufferSize, int maxPooledBuffers) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be > 0");
+		}
+		this.bufferSize = bufferSize;
+		this.maxPooledBuffers = maxPooledBuffers;
+	}
+
+	public int bufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @return A cleared buffer of {@link #bufferSize()} capacity.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(bufferSize);
+		}
+		numberOfPooledBuffers.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Gives a buffer back to this pool. The buffer must not be used after that.
+	 *
+	 * @param buffer
+	 * 	A buffer obtained from {@link #acquire()}, or any other buffer.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+			return;
+		}
+		if (numberOfPooledBuffers.incrementAndGet() > maxPooledBuffers) {
+			numberOfPooledBuffers.decrementAndGet();
+			return;
+		}
+		buffers.offer(buffer);
+	}
+}
@@ -0,0 +1,83 @@
+package org.tendiwa.core.net;
+
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Delta-encoded runs of cells. Cells are added column by column, and cells next to each other in a column make a run,
+ * so a seen area of the map takes a few bytes per column.
+ * <p>
+ * Each run is written as the difference between its column and the previous run's column, then the difference
+ * between its first row and the end of the previous run (if in the same column) or the first row of the previous
+ * run (if in another column), then its length minus one.
+ */
+final class CellRuns {
+	/**
+	 * Column, first row and length of each run.
+	 */
+	private final TIntArrayList runs = new TIntArrayList();
+
+	/**
+	 * Adds a cell. Cells may be added in any order, but are encoded compactly only when they are added column by
+	 * column, and in each column in the order of rows.
+	 */
+	void add(int column, int row) {
+		int last = runs.size() - 3;
+		if (last >= 0 && runs.get(last) == column && runs.get(last + 1) + runs.get(last + 2) == row) {
+			runs.set(last + 2, runs.get(last + 2) + 1);
+		} else {
+			runs.add(column);
+			runs.add(row);
+			runs.add(1);
+		}
+	}
+
+	void writeTo(WireWriter out) {
+		out.writeLength(runs.size() / 3);
+		int previousColumn = 0;
+		int previousStart = 0;
+		int previousEnd = 0;
+		for (int i = 0; i < runs.size(); i += 3) {
+			int column = runs.get(i);
+			int start = runs.get(i + 1);
+			int length = runs.get(i + 2);
+			out.writeInt(column - previousColumn);
+			out.writeInt(start - (column == previousColumn ? previousEnd : previousStart));
+			out.writeLength(length - 1);
+			previousColumn = column;
+			previousStart = start;
+			previousEnd = start + length;
+		}
+	}
+
+	/**
+	 * Reads runs written by {@link #writeTo(WireWriter)}.
+	 *
+	 * @param maxCells
+	 * 	How many cells there may be at most, so a malformed run can't make it allocate too much.
+	 * @return Columns and rows of cells: {@code [column0, row0, column1, row1, ...]}.
+	 */
+	static int[] read(WireReader in, int maxCells) {
+		int numberOfRuns = in.checkedLength(in.readLength(), 3);
+		TIntArrayList cells = new TIntArrayList(numberOfRuns * 2);
+		int previousColumn = 0;
+		int previousStart = 0;
+		int previousEnd = 0;
+		for (int i = 0; i < numberOfRuns; i++) {
+			int column = previousColumn + in.readInt();
+			int start = in.readInt() + (column == previousColumn ? previousEnd : previousStart);
+			int length = in.readLength();
+			if (length >= maxCells - cells.size() / 2) {
+				throw new MalformedMessageException("More than " + maxCells + " cells in runs");
+			}
+			length++;
+			for (int row = start; row < start + length; row++) {
+				cells.add(column);
+				cells.add(row);
+			}
+			previousColumn = column;
+			previousStart = start;
+			previousEnd = start + length;
+		}
+		return cells.toArray();
+	}
+}
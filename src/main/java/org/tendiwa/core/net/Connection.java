@@ -0,0 +1,274 @@
+package org.tendiwa.core.net;
+
+import org.tendiwa.core.observation.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client connected to a {@link NetworkServer}. Messages in both directions are frames: a 4-byte big-endian length
+ * followed by that many bytes of a message in the wire format.
+ * <p>
+ * {@link #sendEvent(Event)}, {@link #sendMessage(Object)} and {@link #close()} can be called from any thread. A frame
+ * is encoded on the calling thread into a pooled direct buffer, and a read-only duplicate of that very buffer is
+ * queued and later written to the socket by the server's selector thread, so a frame sent to many connections is
+ * encoded only once (see {@link SharedFrame}). Everything else is done on the selector thread only.
+ * <p>
+ * An idle connection holds no buffers: a buffer for incoming bytes is taken from the pool when bytes arrive and given
+ * back once all of them are decoded.
+ */
+public final class Connection {
+	private final NetworkServer server;
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final ByteBufferPool pool;
+	private final Queue<QueuedFrame> outgoing = new ConcurrentLinkedQueue<>();
+	/**
+	 * Bytes in {@link #outgoing} that haven't been written yet.
+	 */
+	private final AtomicInteger queuedBytes = new AtomicInteger();
+	private final AtomicBoolean closeRequested = new AtomicBoolean();
+	/**
+	 * Whether this connection is in {@link NetworkServer}'s queue of connections to update.
+	 */
+	private final AtomicBoolean updateScheduled = new AtomicBoolean();
+	private Session session;
+	/**
+	 * Received bytes that haven't been decoded yet, or null if there are none.
+	 */
+	private ByteBuffer incoming;
+	private boolean closed = false;
+
+	Connection(NetworkServer server, SocketChannel channel, SelectionKey key, ByteBufferPool pool) {
+		this.server = server;
+		this.channel = channel;
+		this.key = key;
+		this.pool = pool;
+	}
+
+	void setSession(Session session) {
+		this.session = session;
+	}
+
+	/**
+	 * Queues an event to be sent to the client.
+	 *
+	 * @param event
+	 * 	An event that {@link EventCodec#canEncode(Event)}.
+	 */
+	public void sendEvent(Event event) {
+		SharedFrame frame = SharedFrame.ofEvent(event, pool);
+		send(frame);
+		frame.release();
+	}
+
+	/**
+	 * Queues a message to be sent to the client.
+	 *
+	 * @param message
+	 * 	A message that {@link MessageCodec} can encode.
+	 */
+	public void sendMessage(Object message) {
+		SharedFrame frame = SharedFrame.ofMessage(message, pool);
+		send(frame);
+		frame.release();
+	}
+
+	/**
+	 * Queues a duplicate of a frame. A client that doesn't read fast enough to keep queued frames under {@link
+	 * NetworkServer#MAX_QUEUED_BYTES} is disconnected.
+	 *
+	 * @param frame
+	 * 	A frame the caller holds a reference to. This connection takes its own reference.
+	 */
+	void send(SharedFrame frame) {
+		if (closeRequested.get()) {
+			return;
+		}
+		if (queuedBytes.addAndGet(frame.size()) > NetworkServer.MAX_QUEUED_BYTES) {
+			queuedBytes.addAndGet(-frame.size());
+			close();
+			return;
+		}
+		outgoing.offer(new QueuedFrame(frame));
+		scheduleUpdate();
+	}
+
+	/**
+	 * Closes this connection. Frames that haven't been written by then are dropped.
+	 */
+	public void close() {
+		if (closeRequested.compareAndSet(false, true)) {
+			scheduleUpdate();
+		}
+	}
+
+	/**
+	 * @return false if this connection is closed or is being closed, true otherwise.
+	 */
+	public boolean isOpen() {
+		return !closeRequested.get();
+	}
+
+	private void scheduleUpdate() {
+		if (updateScheduled.compareAndSet(false, true)) {
+			server.scheduleUpdate(this);
+		}
+	}
+
+	/**
+	 * Writes newly queued frames or closes this connection, depending on what was requested from other threads.
+	 *
+	 * @param batch
+	 * 	An array to gather frames into for writing them with a single call.
+	 */
+	void update(ByteBuffer[] batch) throws IOException {
+		updateScheduled.set(false);
+		if (closed) {
+			return;
+		}
+		if (closeRequested.get()) {
+			closeNow();
+		} else {
+			flush(batch);
+		}
+	}
+
+	/**
+	 * Reads available bytes and passes every complete frame among them to the {@link Session}.
+	 */
+	void read() throws IOException {
+		if (incoming == null) {
+			incoming = pool.acquire();
+		}
+		if (channel.read(incoming) == -1) {
+			closeNow();
+			return;
+		}
+		incoming.flip();
+		while (!closed && readFrame()) {
+		}
+		if (closed) {
+			return;
+		}
+		if (!incoming.hasRemaining()) {
+			pool.release(incoming);
+			incoming = null;
+			return;
+		}
+		incoming.compact();
+		if (incoming.position() >= WireWriter.FRAME_HEADER_SIZE) {
+			int frameSize = WireWriter.FRAME_HEADER_SIZE + incoming.getInt(0);
+			if (frameSize > incoming.capacity()) {
+				ByteBuffer bigger = ByteBuffer.allocateDirect(frameSize);
+				incoming.flip();
+				bigger.put(incoming);
+				pool.release(incoming);
+				incoming = bigger;
+			}
+		}
+	}
+
+	/**
+	 * @return true if a frame was read, false if the rest of a frame hasn't arrived yet.
+	 */
+	private boolean readFrame() {
+		if (incoming.remaining() < WireWriter.FRAME_HEADER_SIZE) {
+			return false;
+		}
+		int length = incoming.getInt(incoming.position());
+		if (length < 0 || length > NetworkServer.MAX_FRAME_SIZE) {
+			throw new MalformedMessageException("Wrong frame length " + length);
+		}
+		if (incoming.remaining() < WireWriter.FRAME_HEADER_SIZE + length) {
+			return false;
+		}
+		ByteBuffer frame = incoming.duplicate();
+		frame.position(incoming.position() + WireWriter.FRAME_HEADER_SIZE);
+		frame.limit(frame.position() + length);
+		incoming.position(frame.limit());
+		session.receive(MessageCodec.decode(new WireReader(frame)));
+		return true;
+	}
+
+	/**
+	 * Writes as many queued frames as the socket takes, gathering several of them into a single write. Frames that
+	 * are written completely are released.
+	 */
+	void flush(ByteBuffer[] batch) throws IOException {
+		while (true) {
+			int count = 0;
+			for (QueuedFrame frame : outgoing) {
+				batch[count++] = frame.bytes;
+				if (count == batch.length) {
+					break;
+				}
+			}
+			if (count == 0) {
+				key.interestOps(SelectionKey.OP_READ);
+				return;
+			}
+			channel.write(batch, 0, count);
+			for (int i = 0; i < count; i++) {
+				ByteBuffer frame = batch[i];
+				batch[i] = null;
+				if (frame.hasRemaining()) {
+					for (int j = i + 1; j < count; j++) {
+						batch[j] = null;
+					}
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					return;
+				}
+				outgoing.poll().frame.release();
+				queuedBytes.addAndGet(-frame.limit());
+			}
+		}
+	}
+
+	/**
+	 * Closes the socket, gives buffers back to the pool and tells the {@link Session} about it.
+	 */
+	void closeNow() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		closeRequested.set(true);
+		key.cancel();
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+		}
+		if (incoming != null) {
+			pool.release(incoming);
+			incoming = null;
+		}
+		QueuedFrame frame;
+		while ((frame = outgoing.poll()) != null) {
+			frame.frame.release();
+		}
+		server.connectionClosed(this);
+		if (session != null) {
+			session.disconnected();
+		}
+	}
+
+	/**
+	 * A duplicate of a {@link SharedFrame} that is waiting to be written, with its own position.
+	 */
+	private static final class QueuedFrame {
+		private final SharedFrame frame;
+		private final ByteBuffer bytes;
+
+		private QueuedFrame(SharedFrame frame) {
+			this.frame = frame;
+			this.bytes = frame.duplicate();
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package org.tendiwa.core.net;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.tendiwa.core.*;
+import org.tendiwa.core.Character;
+import org.tendiwa.core.clients.RenderBorder;
+import org.tendiwa.core.clients.RenderCell;
+import org.tendiwa.core.events.*;
+import org.tendiwa.core.observation.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Binary format of events from {@link org.tendiwa.core.events} sent to clients: a {@link Protocol} header followed by
+ * the event's contents.
+ * <p>
+ * Events hold references to objects of the backend, and those are written as what a client can know them by:
+ * <ul>
+ * <li>{@link Character}s as their ids;</li>
+ * <li>types of terrain, items and projectiles as their {@link Resourceable#getResourceName() resource names};</li>
+ * <li>in events with many cells, floors and objects as indices in palettes of resource names written before them,
+ * index 0 meaning no object;</li>
+ * <li>sets of cells and borders as {@link CellRuns}, with a border's row being {@code y * 2} for a {@link
+ * Directions#N} border and {@code y * 2 + 1} for a {@link Directions#W} border.</li>
+ * </ul>
+ * Events are only encoded here: decoding them needs registries of types and characters that only clients have.
+ */
+public final class EventCodec {
+	/**
+	 * Writers of event types by their tags. New types are only added to the end, and adding one requires a new {@link
+	 * Protocol#VERSION}.
+	 */
+	private static final List<BiConsumer<Event, WireWriter>> writers = new ArrayList<>();
+	private static final TObjectIntMap<Class<?>> tags = new TObjectIntHashMap<>(32, 0.5f, -1);
+
+	static {
+		type(EventAttack.class, (e, out) -> {
+			writeCharacter(out, e.attacker);
+			writeCharacter(out, e.aim);
+		});
+		type(EventDie.class, (e, out) -> writeCharacter(out, e.character));
+		type(EventExplosion.class, (e, out) -> {
+			out.writeInt(e.x);
+			out.writeInt(e.y);
+		});
+		type(EventFovChange.class, EventCodec::writeFovChange);
+		type(EventGetDamage.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			out.writeInt(e.amount);
+			out.writeLength(e.damageSource.getSourceType().ordinal());
+			out.writeString(e.damageSource.getLocalizationId());
+			out.writeLength(e.damageType.ordinal());
+		});
+		type(EventGetItem.class, (e, out) -> writeItem(out, e.getItem()));
+		type(EventInitialTerrain.class, EventCodec::writeTerrain);
+		type(EventItemAppear.class, (e, out) -> {
+			writeItem(out, e.item);
+			out.writeInt(e.x);
+			out.writeInt(e.y);
+		});
+		type(EventItemDisappear.class, (e, out) -> {
+			writeItem(out, e.item);
+			out.writeInt(e.x);
+			out.writeInt(e.y);
+		});
+		type(EventLoseItem.class, (e, out) -> writeItem(out, e.getItem()));
+		type(EventMove.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			out.writeInt(e.xPrev);
+			out.writeInt(e.yPrev);
+			out.writeInt(e.character.x());
+			out.writeInt(e.character.y());
+			out.writeLength(e.movingStyle.ordinal());
+		});
+		type(EventMoveToPlane.class, EventCodec::writeTerrain);
+		type(EventProjectileFly.class, (e, out) -> {
+			out.writeString(e.item.getResourceName());
+			out.writeInt(e.fromX);
+			out.writeInt(e.fromY);
+			out.writeInt(e.toX);
+			out.writeInt(e.toY);
+			out.writeLength(e.style.ordinal());
+		});
+		type(EventPutOn.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			writeItem(out, e.item);
+		});
+		type(EventSay.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			out.writeString(e.message);
+		});
+		type(EventSelectPlayerCharacter.class, (e, out) -> {
+			writeCharacter(out, e.player);
+			out.writeLength(e.world.getWidth());
+			out.writeLength(e.world.getHeight());
+		});
+		type(EventSound.class, (e, out) -> {
+			out.writeString(e.sound.getName());
+			out.writeString(e.source.getLocalizationId());
+			out.writeInt(e.x);
+			out.writeInt(e.y);
+		});
+		type(EventTakeOff.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			writeItem(out, e.item);
+		});
+		type(EventUnwield.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			writeItem(out, e.item);
+		});
+		type(EventWield.class, (e, out) -> {
+			writeCharacter(out, e.character);
+			writeItem(out, e.item);
+		});
+	}
+
+	private EventCodec() {
+		throw new UnsupportedOperationException();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Event> void type(Class<T> type, BiConsumer<T, WireWriter> writer) {
+		tags.put(type, writers.size());
+		writers.add((BiConsumer<Event, WireWriter>) writer);
+	}
+
+	/**
+	 * @param event
+	 * 	An instance of one of the classes in {@link org.tendiwa.core.events}.
+	 * @return true if {@link #encode(Event, WireWriter)} can encode this event, false otherwise.
+	 */
+	public static boolean canEncode(Event event) {
+		return tags.containsKey(event.getClass());
+	}
+
+	/**
+	 * @return true if {@link #encode(Event, WireWriter)} can encode events of this type, false otherwise.
+	 */
+	public static boolean canEncode(Class<? extends Event> eventType) {
+		return tags.containsKey(eventType);
+	}
+
+	/**
+	 * @param event
+	 * 	An instance of one of the classes in {@link org.tendiwa.core.events}.
+	 * @param out
+	 * 	Where to write the event.
+	 */
+	public static void encode(Event event, WireWriter out) {
+		if (!canEncode(event)) {
+			throw new IllegalArgumentException("Can't encode " + event.getClass());
+		}
+		int tag = tags.get(event.getClass());
+		Protocol.writeHeader(out, tag);
+		writers.get(tag).accept(event, out);
+	}
+
+	private static void writeCharacter(WireWriter out, Character character) {
+		out.writeInt(character.getId());
+	}
+
+	/**
+	 * Writes resource name of an item's type and amount of items in it, which is 0 for {@link UniqueItem}s.
+	 */
+	private static void writeItem(WireWriter out, Item item) {
+		out.writeString(item.getResourceName());
+		out.writeLength(item instanceof ItemPile ? ((ItemPile) item).getAmount() : 0);
+	}
+
+	private static void writeItems(WireWriter out, Collection<Item> items) {
+		out.writeLength(items.size());
+		for (Item item : items) {
+			writeItem(out, item);
+		}
+	}
+
+	private static void writeFovChange(EventFovChange event, WireWriter out) {
+		CellRuns seenCells = new CellRuns();
+		event.delta.forEachSeenCell((x, y, n) -> seenCells.add(x, y));
+		seenCells.writeTo(out);
+		writeCellContents(out, event.seenFloors, event.seenObjects);
+		CellRuns unseenCells = new CellRuns();
+		event.delta.forEachUnseenCell((x, y, n) -> unseenCells.add(x, y));
+		unseenCells.writeTo(out);
+		CellRuns seenBorders = new CellRuns();
+		event.delta.forEachSeenBorder((x, y, side, n) -> seenBorders.add(x, borderRow(y, side)));
+		seenBorders.writeTo(out);
+		writeBorderObjects(out, event.seenBorderObjects);
+		CellRuns unseenBorders = new CellRuns();
+		event.delta.forEachUnseenBorder((x, y, side, n) -> unseenBorders.add(x, borderRow(y, side)));
+		unseenBorders.writeTo(out);
+		writeItems(out, event.seenItems);
+	}
+
+	private static void writeTerrain(EventInitialTerrain event, WireWriter out) {
+		writeCharacter(out, event.player);
+		out.writeLength(event.world.getWidth());
+		out.writeLength(event.world.getHeight());
+		out.writeInt(event.zLevel);
+		int numberOfCells = event.seenCells.size();
+		CellRuns cells = new CellRuns();
+		FloorType[] floors = new FloorType[numberOfCells];
+		GameObject[] objects = new GameObject[numberOfCells];
+		for (int i = 0; i < numberOfCells; i++) {
+			RenderCell cell = event.seenCells.get(i);
+			cells.add(cell.x, cell.y);
+			floors[i] = cell.getFloor();
+			objects[i] = cell.getObject();
+		}
+		cells.writeTo(out);
+		writeCellContents(out, floors, objects);
+		int numberOfBorders = event.seenBorders.size();
+		CellRuns borders = new CellRuns();
+		BorderObject[] borderObjects = new BorderObject[numberOfBorders];
+		for (int i = 0; i < numberOfBorders; i++) {
+			RenderBorder border = event.seenBorders.get(i);
+			borders.add(border.x, borderRow(border.y, border.side));
+			borderObjects[i] = border.getObject();
+		}
+		borders.writeTo(out);
+		writeBorderObjects(out, borderObjects);
+	}
+
+	private static int borderRow(int y, CardinalDirection side) {
+		if (side == Directions.N) {
+			return y * 2;
+		}
+		if (side == Directions.W) {
+			return y * 2 + 1;
+		}
+		throw new IllegalArgumentException("Only N and W borders can be encoded (side == " + side + ")");
+	}
+
+	private static void writeCellContents(WireWriter out, FloorType[] floors, GameObject[] objects) {
+		NamePalette floorPalette = new NamePalette();
+		int[] floorIndices = new int[floors.length];
+		for (int i = 0; i < floors.length; i++) {
+			floorIndices[i] = floorPalette.indexOf(floors[i].getResourceName());
+		}
+		NamePalette objectPalette = new NamePalette();
+		int[] objectIndices = new int[objects.length];
+		for (int i = 0; i < objects.length; i++) {
+			objectIndices[i] = objectPalette.indexOf(objectName(objects[i]));
+		}
+		floorPalette.writeTo(out);
+		for (int index : floorIndices) {
+			out.writeLength(index);
+		}
+		objectPalette.writeTo(out);
+		for (int index : objectIndices) {
+			out.writeLength(index);
+		}
+	}
+
+	private static void writeBorderObjects(WireWriter out, BorderObject[] borderObjects) {
+		NamePalette palette = new NamePalette();
+		int[] indices = new int[borderObjects.length];
+		for (int i = 0; i < borderObjects.length; i++) {
+			BorderObject object = borderObjects[i];
+			indices[i] = palette.indexOf(object == null ? null : object.getType().getResourceName());
+		}
+		palette.writeTo(out);
+		for (int index : indices) {
+			out.writeLength(index);
+		}
+	}
+
+	/**
+	 * @return Resource name of an object, or of its type if the object itself is not {@link Resourceable}, or null if
+	 * there is no object.
+	 */
+	private static String objectName(GameObject object) {
+		if (object == null) {
+			return null;
+		}
+		if (object instanceof Resourceable) {
+			return ((Resourceable) object).getResourceName();
+		}
+		return object.getType().getResourceName();
+	}
+
+	/**
+	 * Distinct names in the order they are first met. Index 0 is reserved for null.
+	 */
+	private static final class NamePalette {
+		private final List<String> names = new ArrayList<>();
+		private final TObjectIntMap<String> indices = new TObjectIntHashMap<>(8, 0.5f, -1);
+
+		private int indexOf(String name) {
+			if (name == null) {
+				return 0;
+			}
+			int index = indices.get(name);
+			if (index == -1) {
+				names.add(name);
+				index = names.size();
+				indices.put(name, index);
+			}
+			return index;
+		}
+
+		private void writeTo(WireWriter out) {
+			out.writeLength(names.size());
+			for (String name : names) {
+				out.writeString(name);
+			}
+		}
+	}
+}
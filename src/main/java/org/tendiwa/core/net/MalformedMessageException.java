@@ -0,0 +1,14 @@
+package org.tendiwa.core.net;
+
+/**
+ * Thrown when bytes received from a remote side can't be decoded.
+ */
+public class MalformedMessageException extends RuntimeException {
+	public MalformedMessageException(String message) {
+		super(message);
+	}
+
+	public MalformedMessageException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
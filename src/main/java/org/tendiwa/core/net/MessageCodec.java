@@ -0,0 +1,472 @@
+package org.tendiwa.core.net;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.tendiwa.core.net.clientmessages.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Binary format of messages from {@link org.tendiwa.core.net.clientmessages}: a {@link Protocol} header followed
+ * by the message's fields in the order they are declared.
+ */
+public final class MessageCodec {
+	private static final int NO_TAG = -1;
+	/**
+	 * Message types by their tags. New types are only added to the end, and adding one requires a new {@link
+	 * Protocol#VERSION}.
+	 */
+	private static final List<MessageType<?>> types = new ArrayList<>();
+	private static final TObjectIntMap<Class<?>> tags = new TObjectIntHashMap<>(64, 0.5f, NO_TAG);
+
+	static {
+		type(
+			ClientMessageAccountRegister.class,
+			ClientMessageAccountRegister::new,
+			(m, out) -> {
+				out.writeString(m.l);
+				out.writeString(m.p);
+			},
+			(m, in) -> {
+				m.l = in.readString();
+				m.p = in.readString();
+			}
+		);
+		type(
+			ClientMessageAction.class,
+			ClientMessageAction::new,
+			(m, out) -> out.writeInt(m.a),
+			(m, in) -> m.a = in.readInt()
+		);
+		type(
+			ClientMessageAlert.class,
+			ClientMessageAlert::new,
+			(m, out) -> out.writeString(m.t),
+			(m, in) -> m.t = in.readString()
+		);
+		type(
+			ClientMessageAnswer.class,
+			ClientMessageAnswer::new,
+			(m, out) -> out.writeInt(m.answerId),
+			(m, in) -> m.answerId = in.readInt()
+		);
+		type(
+			ClientMessageAuth.class,
+			ClientMessageAuth::new,
+			(m, out) -> {
+				out.writeString(m.login);
+				out.writeString(m.password);
+				out.writeInt(m.characterId);
+			},
+			(m, in) -> {
+				m.login = in.readString();
+				m.password = in.readString();
+				m.characterId = in.readInt();
+			}
+		);
+		type(
+			ClientMessageCastSpell.class,
+			ClientMessageCastSpell::new,
+			(m, out) -> {
+				out.writeInt(m.spellId);
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.spellId = in.readInt();
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageChangePlaces.class,
+			ClientMessageChangePlaces::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageChatMessage.class,
+			ClientMessageChatMessage::new,
+			(m, out) -> out.writeString(m.text),
+			(m, in) -> m.text = in.readString()
+		);
+		type(
+			ClientMessageCoordinate.class,
+			ClientMessageCoordinate::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageDropPile.class,
+			ClientMessageDropPile::new,
+			(m, out) -> {
+				out.writeInt(m.typeId);
+				out.writeInt(m.amount);
+			},
+			(m, in) -> {
+				m.typeId = in.readInt();
+				m.amount = in.readInt();
+			}
+		);
+		type(
+			ClientMessageDropUnique.class,
+			ClientMessageDropUnique::new,
+			(m, out) -> out.writeInt(m.itemId),
+			(m, in) -> m.itemId = in.readInt()
+		);
+		type(
+			ClientMessageEnterLocation.class,
+			ClientMessageEnterLocation::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageEnterState.class,
+			ClientMessageEnterState::new,
+			(m, out) -> out.writeInt(m.stateId),
+			(m, in) -> m.stateId = in.readInt()
+		);
+		type(
+			ClientMessageInteger.class,
+			ClientMessageInteger::new,
+			(m, out) -> out.writeInt(m.v),
+			(m, in) -> m.v = in.readInt()
+		);
+		type(
+			ClientMessageItem.class,
+			ClientMessageItem::new,
+			(m, out) -> {
+				out.writeInt(m.i);
+				out.writeInt(m.a);
+			},
+			(m, in) -> {
+				m.i = in.readInt();
+				m.a = in.readInt();
+			}
+		);
+		type(
+			ClientMessageJump.class,
+			ClientMessageJump::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageLogin.class,
+			ClientMessageLogin::new,
+			(m, out) -> {
+				out.writeString(m.l);
+				out.writeString(m.p);
+			},
+			(m, in) -> {
+				m.l = in.readString();
+				m.p = in.readString();
+			}
+		);
+		type(
+			ClientMessageMakeSound.class,
+			ClientMessageMakeSound::new,
+			(m, out) -> out.writeInt(m.type),
+			(m, in) -> m.type = in.readInt()
+		);
+		type(
+			ClientMessageOpenContainer.class,
+			ClientMessageOpenContainer::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessagePickUpPile.class,
+			ClientMessagePickUpPile::new,
+			(m, out) -> {
+				out.writeInt(m.typeId);
+				out.writeInt(m.amount);
+			},
+			(m, in) -> {
+				m.typeId = in.readInt();
+				m.amount = in.readInt();
+			}
+		);
+		type(
+			ClientMessagePickUpUnique.class,
+			ClientMessagePickUpUnique::new,
+			(m, out) -> out.writeInt(m.itemId),
+			(m, in) -> m.itemId = in.readInt()
+		);
+		type(
+			ClientMessagePlayerCreate.class,
+			ClientMessagePlayerCreate::new,
+			(m, out) -> {
+				out.writeString(m.account);
+				out.writeString(m.name);
+				out.writeInt(m.race);
+				out.writeString(m.cls);
+				out.writeIntArray(m.skills);
+			},
+			(m, in) -> {
+				m.account = in.readString();
+				m.name = in.readString();
+				m.race = in.readInt();
+				m.cls = in.readString();
+				m.skills = in.readIntArray();
+			}
+		);
+		type(
+			ClientMessagePush.class,
+			ClientMessagePush::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+				out.writeInt(m.direction);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+				m.direction = in.readInt();
+			}
+		);
+		type(
+			ClientMessagePutOn.class,
+			ClientMessagePutOn::new,
+			(m, out) -> out.writeInt(m.itemId),
+			(m, in) -> m.itemId = in.readInt()
+		);
+		type(
+			ClientMessagePutToContainer.class,
+			ClientMessagePutToContainer::new,
+			(m, out) -> {
+				out.writeInt(m.typeId);
+				out.writeInt(m.param);
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.typeId = in.readInt();
+				m.param = in.readInt();
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageQueryChunks.class,
+			ClientMessageQueryChunks::new,
+			(m, out) -> out.writeIntArray(m.coords),
+			(m, in) -> m.coords = in.readIntArray()
+		);
+		type(
+			ClientMessageShieldBash.class,
+			ClientMessageShieldBash::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageShootMissile.class,
+			ClientMessageShootMissile::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+				out.writeBoolean(m.unique);
+				out.writeInt(m.missile);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+				m.unique = in.readBoolean();
+				m.missile = in.readInt();
+			}
+		);
+		type(
+			ClientMessageStartConversation.class,
+			ClientMessageStartConversation::new,
+			(m, out) -> out.writeInt(m.characterId),
+			(m, in) -> m.characterId = in.readInt()
+		);
+		type(
+			ClientMessageStep.class,
+			ClientMessageStep::new,
+			(m, out) -> out.writeInt(m.dir),
+			(m, in) -> m.dir = in.readInt()
+		);
+		type(
+			ClientMessageTakeFromContainer.class,
+			ClientMessageTakeFromContainer::new,
+			(m, out) -> {
+				out.writeInt(m.typeId);
+				out.writeInt(m.param);
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.typeId = in.readInt();
+				m.param = in.readInt();
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageTakeOff.class,
+			ClientMessageTakeOff::new,
+			(m, out) -> out.writeInt(m.itemId),
+			(m, in) -> m.itemId = in.readInt()
+		);
+		type(
+			ClientMessageUseObject.class,
+			ClientMessageUseObject::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ClientMessageWorldTravel.class,
+			ClientMessageWorldTravel::new,
+			(m, out) -> {
+				out.writeInt(m.x);
+				out.writeInt(m.y);
+			},
+			(m, in) -> {
+				m.x = in.readInt();
+				m.y = in.readInt();
+			}
+		);
+		type(
+			ServerMessageCharacterAuthInfo.class,
+			ServerMessageCharacterAuthInfo::new,
+			(m, out) -> {
+				out.writeInt(m.characterId);
+				out.writeString(m.name);
+				out.writeInt(m.race);
+				out.writeString(m.cls);
+				out.writeInt(m.level);
+				out.writeIntArray(m.equipment);
+			},
+			(m, in) -> {
+				m.characterId = in.readInt();
+				m.name = in.readString();
+				m.race = in.readInt();
+				m.cls = in.readString();
+				m.level = in.readInt();
+				m.equipment = in.readIntArray();
+			}
+		);
+	}
+
+	private MessageCodec() {
+		throw new UnsupportedOperationException();
+	}
+
+	private static <T> void type(
+		Class<T> type,
+		Supplier<T> constructor,
+		BiConsumer<T, WireWriter> writer,
+		BiConsumer<T, WireReader> reader
+	) {
+		tags.put(type, types.size());
+		types.add(new MessageType<>(type, constructor, writer, reader));
+	}
+
+	/**
+	 * @param message
+	 * 	An instance of one of the classes in {@link org.tendiwa.core.net.clientmessages}.
+	 * @param out
+	 * 	Where to write the message.
+	 */
+	public static void encode(Object message, WireWriter out) {
+		int tag = tags.get(message.getClass());
+		if (tag == NO_TAG) {
+			throw new IllegalArgumentException("Can't encode " + message.getClass());
+		}
+		Protocol.writeHeader(out, tag);
+		types.get(tag).write(message, out);
+	}
+
+	/**
+	 * @param in
+	 * 	Bytes of exactly one message.
+	 * @return A new instance of one of the classes in {@link org.tendiwa.core.net.clientmessages}.
+	 * @throws MalformedMessageException
+	 * 	If the bytes are not a message.
+	 */
+	public static Object decode(WireReader in) {
+		int tag = Protocol.readHeader(in);
+		if (tag >= types.size()) {
+			throw new MalformedMessageException("Unknown message tag " + tag);
+		}
+		Object message = types.get(tag).read(in);
+		if (!in.isAtEnd()) {
+			throw new MalformedMessageException("Extra bytes after " + message.getClass().getSimpleName());
+		}
+		return message;
+	}
+
+	private static final class MessageType<T> {
+		private final Class<T> type;
+		private final Supplier<T> constructor;
+		private final BiConsumer<T, WireWriter> writer;
+		private final BiConsumer<T, WireReader> reader;
+
+		private MessageType(
+			Class<T> type,
+			Supplier<T> constructor,
+			BiConsumer<T, WireWriter> writer,
+			BiConsumer<T, WireReader> reader
+		) {
+			this.type = type;
+			this.constructor = constructor;
+			this.writer = writer;
+			this.reader = reader;
+		}
+
+		private void write(Object message, WireWriter out) {
+			writer.accept(type.cast(message), out);
+		}
+
+		private T read(WireReader in) {
+			T message = constructor.get();
+			reader.accept(message, in);
+			return message;
+		}
+	}
+}
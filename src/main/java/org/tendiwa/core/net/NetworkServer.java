@@ -0,0 +1,215 @@
+package org.tendiwa.core.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts remote clients and exchanges messages with them, all on a single thread with a {@link Selector}.
+ * <p>
+ * Each accepted {@link Connection} gets its own {@link Session} from a {@link Session.Factory}, and every frame
+ * received from a connection is decoded with {@link MessageCodec} and given to its Session. Frames to clients are
+ * encoded by whatever threads send them and are only written by this thread, which is woken up when there is
+ * something new to write.
+ * <p>
+ * An idle connection costs a registered socket and a few small objects, so a single server can keep thousands of them.
+ * A connection that sends a malformed frame or lets too many outgoing bytes pile up is closed without affecting the
+ * other connections.
+ */
+public final class NetworkServer extends Thread {
+	/**
+	 * Largest frame a client may send, in bytes not counting the length prefix.
+	 */
+	static final int MAX_FRAME_SIZE = 1 << 16;
+	/**
+	 * How many bytes may wait to be sent to a client before it is disconnected.
+	 */
+	static final int MAX_QUEUED_BYTES = 1 << 24;
+	/**
+	 * How many frames are written with a single call at most.
+	 */
+	private static final int WRITE_BATCH_SIZE = 16;
+	private final Session.Factory sessions;
+	private final ByteBufferPool pool;
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final InetSocketAddress localAddress;
+	private final ByteBuffer[] writeBatch = new ByteBuffer[WRITE_BATCH_SIZE];
+	/**
+	 * Connections that were sent frames or were asked to close from other threads.
+	 */
+	private final Queue<Connection> updates = new ConcurrentLinkedQueue<>();
+	private final Set<Connection> connections = new HashSet<>();
+	private final AtomicInteger numberOfConnections = new AtomicInteger();
+	private volatile boolean stopped = false;
+
+	/**
+	 * Binds a server socket right away, so clients may connect even before this thread is started.
+	 *
+	 * @param address
+	 * 	Address to listen at. Port 0 means any free port, see {@link #getLocalAddress()}.
+	 * @param sessions
+	 * 	Creates a Session for each accepted connection.
+	 * @param pool
+	 * 	Buffers for incoming and outgoing frames.
+	 */
+	public NetworkServer(InetSocketAddress address, Session.Factory sessions, ByteBufferPool pool) {
+		if (pool.bufferSize() < WireWriter.FRAME_HEADER_SIZE) {
+			throw new IllegalArgumentException(
+				"Buffers must fit at least a frame header (buffer size == " + pool.bufferSize() + ")"
+			);
+		}
+		this.sessions = sessions;
+		this.pool = pool;
+		try {
+			this.selector = Selector.open();
+			this.serverChannel = ServerSocketChannel.open();
+			serverChannel.configureBlocking(false);
+			serverChannel.bind(address);
+			serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+			this.localAddress = (InetSocketAddress) serverChannel.getLocalAddress();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		setName("Tendiwa Network");
+	}
+
+	public InetSocketAddress getLocalAddress() {
+		return localAddress;
+	}
+
+	public int getNumberOfConnections() {
+		return numberOfConnections.get();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!stopped) {
+				selector.select();
+				processUpdates();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					} else {
+						processReadyConnection(key);
+					}
+				}
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			throw new RuntimeException(e);
+		} finally {
+			closeAll();
+		}
+	}
+
+	/**
+	 * Makes the server stop and close all its connections.
+	 */
+	public void stopServer() {
+		stopped = true;
+		selector.wakeup();
+	}
+
+	void scheduleUpdate(Connection connection) {
+		updates.offer(connection);
+		selector.wakeup();
+	}
+
+	void connectionClosed(Connection connection) {
+		if (connections.remove(connection)) {
+			numberOfConnections.decrementAndGet();
+		}
+	}
+
+	private void processUpdates() {
+		Connection connection;
+		while ((connection = updates.poll()) != null) {
+			try {
+				connection.update(writeBatch);
+			} catch (IOException | RuntimeException e) {
+				connection.closeNow();
+			}
+		}
+	}
+
+	private void processReadyConnection(SelectionKey key) {
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (key.isReadable()) {
+				connection.read();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.flush(writeBatch);
+			}
+		} catch (IOException | RuntimeException e) {
+			connection.closeNow();
+		}
+	}
+
+	private void accept() {
+		while (true) {
+			SocketChannel channel;
+			try {
+				channel = serverChannel.accept();
+			} catch (IOException e) {
+				// E.g. out of file descriptors; pending clients will be accepted on next select.
+				return;
+			}
+			if (channel == null) {
+				return;
+			}
+			Connection connection;
+			try {
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+				connection = new Connection(this, channel, key, pool);
+				key.attach(connection);
+			} catch (IOException e) {
+				try {
+					channel.close();
+				} catch (IOException ignored) {
+				}
+				continue;
+			}
+			connections.add(connection);
+			numberOfConnections.incrementAndGet();
+			try {
+				connection.setSession(sessions.open(connection));
+			} catch (RuntimeException e) {
+				connection.closeNow();
+			}
+		}
+	}
+
+	private void closeAll() {
+		for (Connection connection : new ArrayList<>(connections)) {
+			connection.closeNow();
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException ignored) {
+		}
+	}
+}
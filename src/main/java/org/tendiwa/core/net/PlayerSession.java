@@ -0,0 +1,254 @@
+package org.tendiwa.core.net;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.tendiwa.core.Character;
+import org.tendiwa.core.HorizontalPlane;
+import org.tendiwa.core.Request;
+import org.tendiwa.core.TimeStream;
+import org.tendiwa.core.TimeStreamScheduler;
+import org.tendiwa.core.World;
+import org.tendiwa.core.events.EventInitialTerrain;
+import org.tendiwa.core.net.clientmessages.ClientMessageAuth;
+import org.tendiwa.core.net.clientmessages.ClientMessageLogin;
+import org.tendiwa.core.net.clientmessages.ClientMessageQueryChunks;
+import org.tendiwa.core.net.clientmessages.ServerMessageCharacterAuthInfo;
+import org.tendiwa.core.observation.Event;
+import org.tendiwa.core.observation.Finishable;
+import org.tendiwa.core.observation.Observable;
+import org.tendiwa.core.observation.Observer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link Session} of a client playing a character.
+ * <p>
+ * A client first sends {@link ClientMessageLogin} to find out characters of its account, and then {@link
+ * ClientMessageAuth} to play one of them. After that its messages become {@link Request}s of that character processed
+ * in the character's {@link TimeStream}, and it is sent the events that happen in that TimeStream.
+ */
+public final class PlayerSession implements Session {
+	private final Connection connection;
+	private final Factory factory;
+	/**
+	 * Character this session plays, or null until the client is authenticated. Only set on the selector thread, but
+	 * read by threads emitting events.
+	 */
+	private volatile Character character;
+
+	private PlayerSession(Connection connection, Factory factory) {
+		this.connection = connection;
+		this.factory = factory;
+	}
+
+	/**
+	 * Handles login and authentication itself, and submits other messages as requests of the character to the {@link
+	 * TimeStreamScheduler}. A message that can't be handled throws an exception, and that closes the connection.
+	 *
+	 * @throws AuthenticationException
+	 * 	If the client may not play the character it asks for, or sends something other than login before it plays a
+	 * 	character.
+	 */
+	@Override
+	public void receive(Object message) {
+		if (message instanceof ClientMessageLogin) {
+			ClientMessageLogin login = (ClientMessageLogin) message;
+			for (Character character : factory.accounts.charactersOf(login.l, login.p)) {
+				connection.sendMessage(authInfo(character));
+			}
+			return;
+		}
+		if (message instanceof ClientMessageAuth) {
+			authenticate((ClientMessageAuth) message);
+			return;
+		}
+		Character character = this.character;
+		if (character == null) {
+			throw new AuthenticationException(message.getClass().getSimpleName() + " before authentication");
+		}
+		if (message instanceof ClientMessageQueryChunks) {
+			queryChunks(character, ((ClientMessageQueryChunks) message).coords);
+			return;
+		}
+		Request request = factory.requests.apply(character, message);
+		factory.scheduler.submit(character.getTimeStream(), request::process);
+	}
+
+	private void authenticate(ClientMessageAuth auth) {
+		if (character != null) {
+			throw new AuthenticationException("Already playing " + character.getId());
+		}
+		Character chosen = factory.accounts.charactersOf(auth.login, auth.password)
+			.stream()
+			.filter(c -> c.getId() == auth.characterId)
+			.findFirst()
+			.orElseThrow(() -> new AuthenticationException("Can't play character " + auth.characterId));
+		if (factory.players.putIfAbsent(chosen, this) != null) {
+			throw new AuthenticationException("Character " + auth.characterId + " is already played");
+		}
+		character = chosen;
+		factory.scheduler.submit(chosen.getTimeStream(), () -> {
+			chosen.getSeer().computeFullVisionCache();
+			connection.sendEvent(
+				new EventInitialTerrain(chosen, chosen.getWorld(), chosen.getPlane(), chosen.getSeer())
+			);
+		});
+	}
+
+	/**
+	 * Sends the terrain that the character sees in some chunks of its plane. The terrain is collected in the
+	 * character's TimeStream, so it doesn't change meanwhile.
+	 *
+	 * @param coords
+	 * 	Coordinates of any cell in each chunk, as {@code [x1, y1, x2, y2, ...]}.
+	 */
+	private void queryChunks(Character character, int[] coords) {
+		if (coords == null || coords.length % 2 != 0) {
+			throw new MalformedMessageException("Coordinates of chunks must come in pairs");
+		}
+		World world = character.getWorld();
+		for (int i = 0; i < coords.length; i += 2) {
+			if (coords[i] < 0 || coords[i] >= world.getWidth() || coords[i + 1] < 0 || coords[i + 1] >= world.getHeight()) {
+				throw new MalformedMessageException(
+					"Cell " + coords[i] + ":" + coords[i + 1] + " is outside of the world"
+				);
+			}
+		}
+		factory.scheduler.submit(character.getTimeStream(), () -> {
+			HorizontalPlane plane = character.getPlane();
+			TLongSet chunks = new TLongHashSet(coords.length / 2);
+			for (int i = 0; i < coords.length; i += 2) {
+				chunks.add(chunkKey(plane, coords[i], coords[i + 1]));
+			}
+			character.getSeer().computeFullVisionCache();
+			connection.sendEvent(
+				new EventInitialTerrain(
+					character,
+					world,
+					plane,
+					character.getSeer(),
+					(x, y) -> chunks.contains(chunkKey(plane, x, y))
+				)
+			);
+		});
+	}
+
+	private static long chunkKey(HorizontalPlane plane, int x, int y) {
+		return ((long) plane.getChunkRoundedCoord(x) << 32) | (plane.getChunkRoundedCoord(y) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Describes a character for a client choosing what to play. The backend has no races, classes or levels of
+	 * characters yet, so the character's type is sent as its class, and race and level are 0.
+	 */
+	private static ServerMessageCharacterAuthInfo authInfo(Character character) {
+		return new ServerMessageCharacterAuthInfo(
+			character.getId(),
+			character.getName(),
+			character.getType().getResourceName(),
+			0,
+			0,
+			new int[0]
+		);
+	}
+
+	@Override
+	public void disconnected() {
+		Character character = this.character;
+		if (character != null) {
+			factory.players.remove(character, this);
+		}
+	}
+
+	/**
+	 * Creates PlayerSessions for a backend. It subscribes to the backend's events only once. An event is sent to the
+	 * sessions whose characters are in the TimeStream whose work emitted that event, and it is encoded only once for
+	 * all of them; events emitted outside of any TimeStream are sent to no one.
+	 */
+	public static final class Factory implements Session.Factory {
+		private final TimeStreamScheduler scheduler;
+		private final Accounts accounts;
+		private final BiFunction<Character, Object, Request> requests;
+		private final ByteBufferPool pool;
+		/**
+		 * Sessions of authenticated clients by characters they play.
+		 */
+		private final Map<Character, PlayerSession> players = new ConcurrentHashMap<>();
+
+		/**
+		 * @param model
+		 * 	Backend whose events are sent to clients.
+		 * @param eventTypes
+		 * 	Types of events to send to clients. Each of them must be encodable by {@link EventCodec}.
+		 * @param scheduler
+		 * 	Scheduler to process requests with.
+		 * @param accounts
+		 * 	Characters that clients may play.
+		 * @param requests
+		 * 	Turns client messages into requests of a character. Throws an exception for a message that is not a
+		 * 	request.
+		 * @param pool
+		 * 	Buffers to encode events into. Should be the pool of the {@link NetworkServer}.
+		 */
+		public Factory(
+			Observable model,
+			Collection<Class<? extends Event>> eventTypes,
+			TimeStreamScheduler scheduler,
+			Accounts accounts,
+			BiFunction<Character, Object, Request> requests,
+			ByteBufferPool pool
+		) {
+			this.scheduler = scheduler;
+			this.accounts = accounts;
+			this.requests = requests;
+			this.pool = pool;
+			for (Class<? extends Event> eventType : eventTypes) {
+				if (!EventCodec.canEncode(eventType)) {
+					throw new IllegalArgumentException("Can't send " + eventType + " to clients");
+				}
+				subscribe(model, eventType);
+			}
+		}
+
+		private <T extends Event> void subscribe(Observable model, Class<T> eventType) {
+			model.subscribe(new Observer<T>() {
+				@Override
+				public void update(T event, Finishable<T> emitter) {
+					try {
+						send(event);
+					} finally {
+						emitter.done(this);
+					}
+				}
+			}, eventType);
+		}
+
+		private void send(Event event) {
+			TimeStream timeStream = TimeStream.current();
+			if (timeStream == null) {
+				return;
+			}
+			SharedFrame frame = null;
+			for (Map.Entry<Character, PlayerSession> entry : players.entrySet()) {
+				if (entry.getKey().getTimeStream() != timeStream) {
+					continue;
+				}
+				if (frame == null) {
+					frame = SharedFrame.ofEvent(event, pool);
+				}
+				entry.getValue().connection.send(frame);
+			}
+			if (frame != null) {
+				frame.release();
+			}
+		}
+
+		@Override
+		public Session open(Connection connection) {
+			return new PlayerSession(connection, this);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package org.tendiwa.core.net;
+
+/**
+ * Header of every message in the wire format: version of the format followed by a tag of the message's type.
+ */
+public final class Protocol {
+	/**
+	 * Changes whenever the set of message types, their order or their fields change.
+	 */
+	public static final byte VERSION = 1;
+
+	private Protocol() {
+		throw new UnsupportedOperationException();
+	}
+
+	static void writeHeader(WireWriter out, int tag) {
+		out.writeByte(VERSION);
+		out.writeLength(tag);
+	}
+
+	/**
+	 * @return Tag of the message's type.
+	 */
+	static int readHeader(WireReader in) {
+		int version = in.readByte();
+		if (version != VERSION) {
+			throw new MalformedMessageException("Unknown protocol version " + version);
+		}
+		return in.readLength();
+	}
+}
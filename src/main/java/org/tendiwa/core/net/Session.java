@@ -0,0 +1,29 @@
+package org.tendiwa.core.net;
+
+/**
+ * What a {@link NetworkServer} does with messages of a connected client.
+ * <p>
+ * Methods of a Session are called on the server's selector thread, so they must not block: work that takes time
+ * should be handed to other threads, e.g. to a {@link org.tendiwa.core.TimeStreamScheduler}.
+ */
+public interface Session {
+	/**
+	 * @param message
+	 * 	A message decoded with {@link MessageCodec}. If this method throws an exception, the connection is closed.
+	 */
+	public void receive(Object message);
+
+	/**
+	 * Called once after the connection is closed, by either side.
+	 */
+	public void disconnected();
+
+	public static interface Factory {
+		/**
+		 * @param connection
+		 * 	A connection that has just been accepted.
+		 * @return A Session that receives messages from that connection.
+		 */
+		public Session open(Connection connection);
+	}
+}
@@ -0,0 +1,85 @@
+package org.tendiwa.core.net;
+
+import org.tendiwa.core.observation.Event;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A frame that is encoded once and may be sent to any number of {@link Connection}s. Each connection writes its own
+ * read-only {@link #duplicate()} of the frame, so they don't share positions, and the buffer goes back to the pool
+ * once the encoder and every connection have {@link #release() released} it.
+ * <p>
+ * Can be used from several threads.
+ */
+final class SharedFrame {
+	private final ByteBuffer buffer;
+	private final ByteBuffer readOnly;
+	private final ByteBufferPool pool;
+	/**
+	 * Holds a reference for the encoder and one for each duplicate that hasn't been released yet.
+	 */
+	private final AtomicInteger references = new AtomicInteger(1);
+
+	/**
+	 * @param buffer
+	 * 	A frame from {@link WireWriter#finish()}.
+	 * @param pool
+	 * 	Pool the buffer was taken from.
+	 */
+	private SharedFrame(ByteBuffer buffer, ByteBufferPool pool) {
+		this.buffer = buffer;
+		this.readOnly = buffer.asReadOnlyBuffer();
+		this.pool = pool;
+	}
+
+	/**
+	 * @param event
+	 * 	An event that {@link EventCodec#canEncode(Event)}.
+	 * @return A frame with the event, held by the caller until it calls {@link #release()}.
+	 */
+	static SharedFrame ofEvent(Event event, ByteBufferPool pool) {
+		WireWriter out = WireWriter.framed(pool);
+		EventCodec.encode(event, out);
+		return new SharedFrame(out.finish(), pool);
+	}
+
+	/**
+	 * @param message
+	 * 	A message that {@link MessageCodec} can encode.
+	 * @return A frame with the message, held by the caller until it calls {@link #release()}.
+	 */
+	static SharedFrame ofMessage(Object message, ByteBufferPool pool) {
+		WireWriter out = WireWriter.framed(pool);
+		MessageCodec.encode(message, out);
+		return new SharedFrame(out.finish(), pool);
+	}
+
+	/**
+	 * @return Size of the frame in bytes, including its length prefix.
+	 */
+	int size() {
+		return readOnly.remaining();
+	}
+
+	/**
+	 * Takes one more reference to this frame, which must be given back with {@link #release()}.
+	 *
+	 * @return A read-only buffer with the whole frame between its position and limit.
+	 */
+	ByteBuffer duplicate() {
+		references.incrementAndGet();
+		return readOnly.duplicate();
+	}
+
+	/**
+	 * Gives back a reference to this frame. The buffer goes back to the pool with the last reference.
+	 */
+	void release() {
+		int left = references.decrementAndGet();
+		assert left >= 0;
+		if (left == 0) {
+			pool.release(buffer);
+		}
+	}
+}
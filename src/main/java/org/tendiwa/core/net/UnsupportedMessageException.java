@@ -0,0 +1,10 @@
+package org.tendiwa.core.net;
+
+/**
+ * Thrown when a message from a remote side is well-formed, but asks for something the server can't do.
+ */
+public class UnsupportedMessageException extends RuntimeException {
+	public UnsupportedMessageException(String message) {
+		super(message);
+	}
+}
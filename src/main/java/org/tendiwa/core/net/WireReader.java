@@ -0,0 +1,109 @@
+package org.tendiwa.core.net;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads values written by {@link WireWriter}. Lengths are checked against the remaining bytes before anything is
+ * allocated, so malformed input can't make it allocate more than the input's size.
+ */
+public final class WireReader {
+	private final ByteBuffer buffer;
+
+	/**
+	 * @param buffer
+	 * 	Bytes between the buffer's position and limit will be read, advancing the position.
+	 */
+	public WireReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	public int readByte() {
+		try {
+			return buffer.get();
+		} catch (BufferUnderflowException e) {
+			throw new MalformedMessageException("Unexpected end of message", e);
+		}
+	}
+
+	public boolean readBoolean() {
+		int value = readByte();
+		if (value != 0 && value != 1) {
+			throw new MalformedMessageException("Wrong boolean " + value);
+		}
+		return value == 1;
+	}
+
+	public int readLength() {
+		int value = readUnsigned();
+		if (value < 0) {
+			throw new MalformedMessageException("Wrong length " + value);
+		}
+		return value;
+	}
+
+	public int readInt() {
+		int value = readUnsigned();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private int readUnsigned() {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new MalformedMessageException("Varint is longer than 5 bytes");
+	}
+
+	public String readString() {
+		int length = readLength();
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[checkedLength(length - 1, 1)];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public int[] readIntArray() {
+		int length = readLength();
+		if (length == 0) {
+			return null;
+		}
+		int[] values = new int[checkedLength(length - 1, 1)];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = readInt();
+		}
+		return values;
+	}
+
+	/**
+	 * Checks that there are enough bytes left for a number of elements.
+	 *
+	 * @param length
+	 * 	Number of elements.
+	 * @param minElementSize
+	 * 	How many bytes each element takes at least.
+	 * @return {@code length}.
+	 */
+	public int checkedLength(int length, int minElementSize) {
+		if ((long) length * minElementSize > buffer.remaining()) {
+			throw new MalformedMessageException(
+				"Length " + length + " is greater than what is left of message (" + buffer.remaining() + " bytes)"
+			);
+		}
+		return length;
+	}
+
+	/**
+	 * @return true if all bytes have been read, false otherwise.
+	 */
+	public boolean isAtEnd() {
+		return !buffer.hasRemaining();
+	}
+}
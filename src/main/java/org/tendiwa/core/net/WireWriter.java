@@ -0,0 +1,141 @@
+package org.tendiwa.core.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes values in the wire format into a buffer from a {@link ByteBufferPool}, replacing it with a bigger one when it
+ * is full.
+ * <p>
+ * Integers are written as varints: 7 bits per byte starting from the lowest ones, with the highest bit of a byte set
+ * if more bytes follow. Signed integers are zigzag-encoded first, so small negative values take few bytes too.
+ */
+public final class WireWriter {
+	/**
+	 * Size of the length prefix of a frame.
+	 */
+	public static final int FRAME_HEADER_SIZE = 4;
+	private final ByteBufferPool pool;
+	private final boolean framed;
+	private ByteBuffer buffer;
+
+	public WireWriter(ByteBufferPool pool) {
+		this(pool, false);
+	}
+
+	private WireWriter(ByteBufferPool pool, boolean framed) {
+		this.pool = pool;
+		this.framed = framed;
+		this.buffer = pool.acquire();
+		if (framed) {
+			buffer.position(FRAME_HEADER_SIZE);
+		}
+	}
+
+	/**
+	 * Creates a writer whose written bytes are preceded by their number as a 4-byte big-endian integer, so the result
+	 * of {@link #finish()} can be written to a stream as is.
+	 */
+	public static WireWriter framed(ByteBufferPool pool) {
+		return new WireWriter(pool, true);
+	}
+
+	public void writeByte(int value) {
+		ensureRemaining(1);
+		buffer.put((byte) value);
+	}
+
+	public void writeBoolean(boolean value) {
+		writeByte(value ? 1 : 0);
+	}
+
+	/**
+	 * Writes a non-negative integer, e.g. a length or an index.
+	 */
+	public void writeLength(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Length must be >= 0 (length == " + value + ")");
+		}
+		writeUnsigned(value);
+	}
+
+	/**
+	 * Writes any integer, so that integers closer to 0 take fewer bytes.
+	 */
+	public void writeInt(int value) {
+		writeUnsigned((value << 1) ^ (value >> 31));
+	}
+
+	private void writeUnsigned(int value) {
+		ensureRemaining(5);
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * @param value
+	 * 	A string, or null.
+	 */
+	public void writeString(String value) {
+		if (value == null) {
+			writeLength(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeLength(bytes.length + 1);
+		ensureRemaining(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * @param values
+	 * 	An array, or null.
+	 */
+	public void writeIntArray(int[] values) {
+		if (values == null) {
+			writeLength(0);
+			return;
+		}
+		writeLength(values.length + 1);
+		for (int value : values) {
+			writeInt(value);
+		}
+	}
+
+	/**
+	 * @return Number of bytes written so far, not counting the length prefix of a frame.
+	 */
+	public int size() {
+		return framed ? buffer.position() - FRAME_HEADER_SIZE : buffer.position();
+	}
+
+	/**
+	 * Finishes writing. The writer must not be used after that.
+	 *
+	 * @return A buffer with written bytes between its position and limit. It should be given back with {@link
+	 * ByteBufferPool#release(ByteBuffer)} once it is not needed.
+	 */
+	public ByteBuffer finish() {
+		if (framed) {
+			buffer.putInt(0, size());
+		}
+		buffer.flip();
+		ByteBuffer answer = buffer;
+		buffer = null;
+		return answer;
+	}
+
+	private void ensureRemaining(int bytes) {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+		buffer.flip();
+		bigger.put(buffer);
+		pool.release(buffer);
+		buffer = bigger;
+	}
+}
@@ -0,0 +1,151 @@
+package org.tendiwa.core.observation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A ring buffer of events for one subscriber that doesn't want to hold up the backend while it handles events, such as
+ * a headless client or a bot. Backend puts events into the buffer and moves on; the subscriber takes events in
+ * batches and acknowledges them when it is done with them.
+ * <p>
+ * When the subscriber has {@link #getCapacity()} unacknowledged events, backend is held up the same way a renderer
+ * holds it up while animating: the buffer's subscription doesn't check out, so {@link
+ * Observable#waitForAnimationToStartAndComplete()} waits until the subscriber acknowledges events. Backend never waits
+ * while holding the {@link Observable}'s monitor, so other subscribers are not held up. Events published before
+ * backend gets to wait are still kept, so no event is ever lost.
+ *
+ * @see Observable#subscribeBuffered(int, Class[])
+ */
+public final class EventBuffer {
+	private final int capacity;
+	private Event[] ring;
+	private long published;
+	private long taken;
+	private long acknowledged;
+	/**
+	 * What to run once the subscriber has less than {@link #capacity} unacknowledged events.
+	 */
+	private final List<Runnable> waitingForSpace = new ArrayList<>();
+
+	EventBuffer(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive, but it is " + capacity);
+		}
+		this.capacity = capacity;
+		this.ring = new Event[capacity];
+	}
+
+	/**
+	 * Puts an event into the buffer. If the buffer is full, it grows, so the event is kept anyway.
+	 *
+	 * @param event
+	 * 	An event.
+	 */
+	synchronized void publish(Event event) {
+		if (published - acknowledged == ring.length) {
+			grow();
+		}
+		ring[index(published)] = event;
+		published++;
+		notifyAll();
+	}
+
+	/**
+	 * Runs an action right away if the subscriber has less than {@link #getCapacity()} unacknowledged events, or
+	 * once it acknowledges enough events otherwise. The action is run outside of this buffer's monitor.
+	 *
+	 * @param action
+	 * 	What to run.
+	 */
+	void whenHasSpace(Runnable action) {
+		synchronized (this) {
+			if (!hasSpace()) {
+				waitingForSpace.add(action);
+				return;
+			}
+		}
+		action.run();
+	}
+
+	private boolean hasSpace() {
+		return published - acknowledged < capacity;
+	}
+
+	private void grow() {
+		Event[] grown = new Event[ring.length * 2];
+		for (long sequence = acknowledged; sequence < published; sequence++) {
+			grown[(int) (sequence % grown.length)] = ring[index(sequence)];
+		}
+		ring = grown;
+	}
+
+	/**
+	 * Takes all the events that were published and not taken yet, without waiting.
+	 *
+	 * @param batch
+	 * 	Where events are added, in the order they were emitted.
+	 * @return How many events were taken.
+	 */
+	public synchronized int poll(Collection<? super Event> batch) {
+		int count = (int) (published - taken);
+		for (; taken < published; taken++) {
+			batch.add(ring[index(taken)]);
+		}
+		return count;
+	}
+
+	/**
+	 * Same as {@link #poll(Collection)}, but waits until there is at least one event to take.
+	 *
+	 * @param batch
+	 * 	Where events are added, in the order they were emitted.
+	 * @return How many events were taken.
+	 * @throws InterruptedException
+	 * 	If the thread was interrupted while waiting.
+	 */
+	public synchronized int take(Collection<? super Event> batch) throws InterruptedException {
+		while (published == taken) {
+			wait();
+		}
+		return poll(batch);
+	}
+
+	/**
+	 * Frees space taken by the oldest taken events, and lets backend go on if it was held up by this buffer being
+	 * full.
+	 *
+	 * @param count
+	 * 	How many of the taken events the subscriber is done with.
+	 */
+	public void acknowledge(int count) {
+		List<Runnable> released;
+		synchronized (this) {
+			if (count < 0 || count > taken - acknowledged) {
+				throw new IllegalArgumentException(
+					"Can't acknowledge " + count + " events when " + (taken - acknowledged) + " are taken"
+				);
+			}
+			for (int i = 0; i < count; i++) {
+				ring[index(acknowledged++)] = null;
+			}
+			if (!hasSpace() || waitingForSpace.isEmpty()) {
+				return;
+			}
+			released = new ArrayList<>(waitingForSpace);
+			waitingForSpace.clear();
+		}
+		released.forEach(Runnable::run);
+	}
+
+	/**
+	 * @return How many events may be published and not acknowledged before backend is held up.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence % ring.length);
+	}
+}
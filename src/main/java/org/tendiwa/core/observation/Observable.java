@@ -28,6 +28,52 @@ public abstract class Observable {
 		getEventEmitter(clazz).subscribe(observer);
 	}
 
+	/**
+	 * Subscribes to events without holding up the backend: events are put into a buffer that the subscriber reads at
+	 * its own pace, and emitters are checked out right away while the buffer has space, so {@link
+	 * #waitForAnimationToStartAndComplete()} waits for this subscriber only when it falls {@code capacity} events
+	 * behind.
+	 *
+	 * @param capacity
+	 * 	How many unacknowledged events may be in the buffer before the backend is held up.
+	 * @param eventTypes
+	 * 	Types of events to put into the buffer.
+	 * @return A buffer to read events from.
+	 */
+	@SafeVarargs
+	public final EventBuffer subscribeBuffered(int capacity, Class<? extends Event>... eventTypes) {
+		EventBuffer buffer = new EventBuffer(capacity);
+		for (Class<? extends Event> eventType : eventTypes) {
+			subscribeBuffer(buffer, eventType);
+		}
+		return buffer;
+	}
+
+	private <T extends Event> void subscribeBuffer(EventBuffer buffer, Class<T> eventType) {
+		subscribe(new Observer<T>() {
+			/**
+			 * Whether this observer hasn't checked out because the buffer is full. Checking out later covers all the
+			 * events emitted meanwhile.
+			 */
+			private boolean isHoldingUp;
+
+			@Override
+			public void update(T event, Finishable<T> emitter) {
+				buffer.publish(event);
+				if (isHoldingUp) {
+					return;
+				}
+				isHoldingUp = true;
+				buffer.whenHasSpace(() -> {
+					synchronized (Observable.this) {
+						isHoldingUp = false;
+						emitter.done(this);
+					}
+				});
+			}
+		}, eventType);
+	}
+
 	public synchronized <T extends Event> void emitEvent(T event) {
 		isBusy = true;
 		checkedOutEmitters.clear();
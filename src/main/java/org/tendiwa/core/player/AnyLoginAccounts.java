@@ -0,0 +1,30 @@
+package org.tendiwa.core.player;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.tendiwa.core.Character;
+import org.tendiwa.core.TimeStreamManager;
+import org.tendiwa.core.net.Accounts;
+
+import java.util.Collection;
+
+/**
+ * Lets any login and password play any player character, since the backend keeps no accounts yet. A character may
+ * still be played by only one client at a time (see {@link org.tendiwa.core.net.PlayerSession}).
+ */
+@Singleton
+public class AnyLoginAccounts implements Accounts {
+	private final TimeStreamManager timeStreamManager;
+
+	@Inject
+	AnyLoginAccounts(
+		TimeStreamManager timeStreamManager
+	) {
+		this.timeStreamManager = timeStreamManager;
+	}
+
+	@Override
+	public Collection<Character> charactersOf(String login, String password) {
+		return timeStreamManager.getPlayerCharacters();
+	}
+}
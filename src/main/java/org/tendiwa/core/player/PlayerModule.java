@@ -6,6 +6,7 @@ import com.google.inject.name.Names;
 import org.tendiwa.core.*;
 import org.tendiwa.core.Character;
 import org.tendiwa.core.dependencies.PlayerCharacterProvider;
+import org.tendiwa.core.net.Accounts;
 import org.tendiwa.core.vision.Seer;
 
 public class PlayerModule extends AbstractModule {
@@ -25,5 +26,7 @@ public class PlayerModule extends AbstractModule {
 			.annotatedWith(Names.named("player_seer"))
 			.toProvider(PlayerSeerProvider.class)
 			.in(Scopes.SINGLETON);
+		bind(Accounts.class)
+			.to(AnyLoginAccounts.class);
 	}
 }
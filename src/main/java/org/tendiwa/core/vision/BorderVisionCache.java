@@ -16,6 +16,12 @@ public class BorderVisionCache implements Iterable<BorderVisibility> {
 	protected static final int BORDER_VISION_CACHE_SIZE = WIDTH * WIDTH * 2;
 	protected Cell center;
 	Visibility[] borderVision = new Visibility[BORDER_VISION_CACHE_SIZE];
+	/**
+	 * Bit {@code index % (WIDTH * 2)} of element {@code index / (WIDTH * 2)} is set if {@code borderVision[index]} is
+	 * {@link Visibility#VISIBLE}. So there is an element for each column of cells, and in it a bit for {@link
+	 * Directions#N} and then a bit for {@link Directions#W} border of each cell.
+	 */
+	final long[] visibleBorderColumns = new long[WIDTH];
 
 	BorderVisionCache(Cell center) {
 		this.center = center;
@@ -24,6 +30,7 @@ public class BorderVisionCache implements Iterable<BorderVisibility> {
 
 	void invalidate() {
 		Arrays.fill(borderVision, Visibility.NOT_COMPUTED);
+		Arrays.fill(visibleBorderColumns, 0);
 	}
 
 	public Visibility get(Border border) {
@@ -3,6 +3,10 @@ package org.tendiwa.core.vision;
 public class CellVisionCache {
 	public static final byte VISION_CACHE_WIDTH = (byte) (Seer.VISION_RANGE * 2 + 1);
 	Visibility[][] visionCache = new Visibility[VISION_CACHE_WIDTH][VISION_CACHE_WIDTH];
+	/**
+	 * Bit {@code j} of element {@code i} is set if {@code visionCache[i][j]} is {@link Visibility#VISIBLE}.
+	 */
+	final int[] visibleColumns = new int[VISION_CACHE_WIDTH];
 
 	public Visibility[][] getContent() {
 		return visionCache;
@@ -0,0 +1,32 @@
+package org.tendiwa.core.vision;
+
+/**
+ * Algorithm a {@link Seer} uses to decide which cells and borders around it are visible.
+ *
+ * @see Seer#OBSTACLE_TEST
+ * @see ShadowcastingFieldOfView
+ */
+public interface FieldOfView {
+	/**
+	 * Fills {@link Seer#getVisionCache()} and {@link Seer#getBorderVisionCache()} for the whole vision range of a
+	 * Seer.
+	 *
+	 * @param seer
+	 * 	A Seer whose vision caches are to be filled.
+	 */
+	void computeFullVision(Seer seer);
+
+	/**
+	 * Computes visibility of a cell that is not yet in a Seer's vision cache. Implementations may cache visibility of
+	 * other cells along the way.
+	 *
+	 * @param seer
+	 * 	A Seer.
+	 * @param x
+	 * 	X coordinate of a cell in world coordinates.
+	 * @param y
+	 * 	Y coordinate of a cell in world coordinates.
+	 * @return true if the Seer can see cell x:y, false otherwise.
+	 */
+	boolean computeCellVisibility(Seer seer, int x, int y);
+}
@@ -0,0 +1,15 @@
+package org.tendiwa.core.vision;
+
+import org.tendiwa.core.ChunkObstacles;
+import org.tendiwa.core.HorizontalPlane;
+
+/**
+ * An {@link ObstacleFindingStrategy} whose obstacles are exactly the obstacles that chunks of a plane keep in their
+ * {@link ChunkObstacles}: every cell with an object and every border with a border object blocks vision.
+ * <p>
+ * A {@link Seer} with such a strategy collects its obstacles from those indices instead of testing each cell around
+ * it.
+ */
+public interface IndexedObstacleFindingStrategy extends ObstacleFindingStrategy {
+	HorizontalPlane getPlane();
+}
@@ -14,6 +14,7 @@ public class ModifiableBorderVisionCache extends BorderVisionCache {
 	public void storeTo(BorderVisionCache borderVisionPrevious) {
 		borderVisionPrevious.center = lastCenterCoordinates;
 		System.arraycopy(borderVision, 0, borderVisionPrevious.borderVision, 0, BORDER_VISION_CACHE_SIZE);
+		System.arraycopy(visibleBorderColumns, 0, borderVisionPrevious.visibleBorderColumns, 0, WIDTH);
 	}
 
 
@@ -33,6 +34,11 @@ public class ModifiableBorderVisionCache extends BorderVisionCache {
 		assert !side.isGrowing();
 		int index = getBorderCacheIndex(x, y, side);
 		borderVision[index] = vision;
+		if (vision == Visibility.VISIBLE) {
+			visibleBorderColumns[index / (WIDTH * 2)] |= 1L << index % (WIDTH * 2);
+		} else {
+			visibleBorderColumns[index / (WIDTH * 2)] &= ~(1L << index % (WIDTH * 2));
+		}
 	}
 
 	public void saveCurrentCenterCoordinates(Cell character) {
@@ -2,6 +2,8 @@ package org.tendiwa.core.vision;
 
 import org.tendiwa.core.meta.Cell;
 
+import java.util.Arrays;
+
 public class ModifiableCellVisionCache extends CellVisionCache {
 	private final Cell character;
 	boolean visionCacheWritingEnabled = true;
@@ -16,7 +18,14 @@ public class ModifiableCellVisionCache extends CellVisionCache {
 		if (!visionCacheWritingEnabled) {
 			return;
 		}
-		visionCache[x - character.x() + Seer.VISION_RANGE][y - character.y() + Seer.VISION_RANGE] = vision;
+		int i = x - character.x() + Seer.VISION_RANGE;
+		int j = y - character.y() + Seer.VISION_RANGE;
+		visionCache[i][j] = vision;
+		if (vision == Visibility.VISIBLE) {
+			visibleColumns[i] |= 1 << j;
+		} else {
+			visibleColumns[i] &= ~(1 << j);
+		}
 		isVisionCacheEmpty = false;
 	}
 
@@ -29,6 +38,7 @@ public class ModifiableCellVisionCache extends CellVisionCache {
 				visionCache[i][j] = Visibility.NOT_COMPUTED;
 			}
 		}
+		Arrays.fill(visibleColumns, 0);
 		isVisionCacheEmpty = true;
 	}
 
@@ -48,6 +58,7 @@ public class ModifiableCellVisionCache extends CellVisionCache {
 		for (int i = 0; i < VISION_CACHE_WIDTH; i++) {
 			System.arraycopy(visionCache[i], 0, visionPrevious.visionCache[i], 0, VISION_CACHE_WIDTH);
 		}
+		System.arraycopy(visibleColumns, 0, visionPrevious.visibleColumns, 0, VISION_CACHE_WIDTH);
 	}
 
 	public boolean isVisionCacheEmpty() {
@@ -0,0 +1,118 @@
+package org.tendiwa.core.vision;
+
+import org.tendiwa.core.ObstacleBorder;
+import org.tendiwa.core.meta.Cell;
+
+import java.util.Arrays;
+
+/**
+ * Finds obstacles that may hide a cell from a {@link Seer}.
+ * <p>
+ * A Seer sees a cell through a beam {@code 0.7} cells wide that goes from the Seer's center to the cell's center
+ * (see {@link Seer#OBSTACLE_TEST}). Only an obstacle crossing the beam between the Seer and the cell can hide the
+ * cell, and all points of such an obstacle are closer than {@code 1.35} to the beam's axis. So it is enough to test a
+ * cell against obstacles of cells whose centers are closer than {@link #REACH} to the beam: the result is exactly the
+ * same as if the cell was tested against all obstacles.
+ */
+final class ObstacleShadows {
+	/**
+	 * Obstacles are kept as {@link org.tendiwa.core.Border}s on north and west sides of cells, so obstacles on east
+	 * and south sides of cells on the edge of vision range are in cells just outside it.
+	 */
+	private static final int RADIUS = Seer.VISION_RANGE + 1;
+	private static final int GRID_WIDTH = RADIUS * 2 + 1;
+	/**
+	 * Half of the beam's width, plus the length of an obstacle, plus the distance from a cell's center to the middle
+	 * of its side, with a margin for rounding errors.
+	 */
+	private static final double REACH = 1.5;
+	private final int centerX;
+	private final int centerY;
+	/**
+	 * Obstacles of each cell by {@link #cellIndex(int, int)}.
+	 */
+	private final ObstacleBorder[][] cellObstacles = new ObstacleBorder[GRID_WIDTH * GRID_WIDTH][];
+	private final int[] cellObstaclesSizes = new int[GRID_WIDTH * GRID_WIDTH];
+	/**
+	 * Obstacles found by the last {@link #castOn(int, int)}.
+	 */
+	private ObstacleBorder[] cast = new ObstacleBorder[32];
+
+	/**
+	 * @param center
+	 * 	Position of a Seer.
+	 * @param obstacles
+	 * 	Built obstacles around the Seer.
+	 */
+	ObstacleShadows(Cell center, ObstaclesCache obstacles) {
+		assert obstacles.isBuilt();
+		this.centerX = center.x();
+		this.centerY = center.y();
+		for (int i = 0, n = obstacles.size(); i < n; i++) {
+			ObstacleBorder obstacle = obstacles.get(i);
+			int index = cellIndex(obstacle.x - centerX, obstacle.y - centerY);
+			ObstacleBorder[] inCell = cellObstacles[index];
+			if (inCell == null) {
+				inCell = cellObstacles[index] = new ObstacleBorder[4];
+			} else if (cellObstaclesSizes[index] == inCell.length) {
+				inCell = cellObstacles[index] = Arrays.copyOf(inCell, inCell.length * 2);
+			}
+			inCell[cellObstaclesSizes[index]++] = obstacle;
+		}
+	}
+
+	private static int cellIndex(int dx, int dy) {
+		assert Math.abs(dx) <= RADIUS && Math.abs(dy) <= RADIUS;
+		return (dx + RADIUS) * GRID_WIDTH + dy + RADIUS;
+	}
+
+	/**
+	 * Finds all obstacles that may hide a cell. They can then be obtained with {@link #get(int)}.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell in world coordinates, other than the Seer's cell.
+	 * @param y
+	 * 	Y coordinate of a cell in world coordinates, other than the Seer's cell.
+	 * @return Number of obstacles found.
+	 */
+	int castOn(int x, int y) {
+		int dx = x - centerX;
+		int dy = y - centerY;
+		assert dx != 0 || dy != 0;
+		double distance = Math.sqrt(dx * dx + dy * dy);
+		int startX = Math.max(-RADIUS, Math.min(0, dx) - 2);
+		int endX = Math.min(RADIUS, Math.max(0, dx) + 2);
+		int startY = Math.max(-RADIUS, Math.min(0, dy) - 2);
+		int endY = Math.min(RADIUS, Math.max(0, dy) + 2);
+		int size = 0;
+		for (int i = startX; i <= endX; i++) {
+			for (int j = startY; j <= endY; j++) {
+				int index = cellIndex(i, j);
+				int inCell = cellObstaclesSizes[index];
+				if (inCell == 0) {
+					continue;
+				}
+				double along = (i * dx + j * dy) / distance;
+				double across = Math.abs(i * dy - j * dx) / distance;
+				if (along < -REACH || along > distance + REACH || across > REACH) {
+					continue;
+				}
+				if (size + inCell > cast.length) {
+					cast = Arrays.copyOf(cast, Math.max(cast.length * 2, size + inCell));
+				}
+				System.arraycopy(cellObstacles[index], 0, cast, size, inCell);
+				size += inCell;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @param index
+	 * 	Index of an obstacle found by the last {@link #castOn(int, int)}.
+	 * @return An obstacle.
+	 */
+	ObstacleBorder get(int index) {
+		return cast[index];
+	}
+}
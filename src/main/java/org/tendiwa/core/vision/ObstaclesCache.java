@@ -1,12 +1,9 @@
 package org.tendiwa.core.vision;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import org.tendiwa.core.*;
 import org.tendiwa.core.meta.Cell;
-import org.tendiwa.geometry.BasicCell;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Holds obstacles that block {@link Seer}'s vision. Seer's vision is blocked when there is a {@link BorderObject} on
@@ -16,15 +13,19 @@ import java.util.*;
  * <p>
  * {@link BorderObject} produces one Border that blocks vision, and {@link GameObject} produces four of them (one for
  * each side of a cell GameObject resides in).
+ *
+ * @see ObstacleBorder
  */
-class ObstaclesCache implements Iterable<Border> {
+class ObstaclesCache {
 	private final ObstacleFindingStrategy strategy;
 	private World world;
-	private Collection<Border> obstacles = new LinkedList<>();
+	/**
+	 * Reused between builds, so building obstacles from an {@link IndexedObstacleFindingStrategy} allocates nothing
+	 * once the array is large enough.
+	 */
+	private ObstacleBorder[] obstacles = new ObstacleBorder[64];
+	private int size;
 	private boolean built;
-	private Map<Border, CardinalDirection> obstaclesOnSeersCellBorder = new HashMap<>();
-	private Map<Border, BasicCell> obstacleToObjectPosition = new HashMap<>();
-	private Multimap<BasicCell, Border> objectPositionToObstacle = HashMultimap.create();
 	private Cell position;
 
 	ObstaclesCache(
@@ -38,81 +39,100 @@ class ObstaclesCache implements Iterable<Border> {
 	}
 
 	/**
-	 * Fills ObstacleCache with obstacles by finding all of them in Seer's vision area and. Also calculates which
-	 * obstacles
-	 * reside on the border of this Seer's cell (those need to be treated specially).
+	 * Fills ObstacleCache with obstacles by finding all of them in Seer's vision area.
+	 * <p>
+	 * If the strategy is an {@link IndexedObstacleFindingStrategy}, obstacles are taken from {@link ChunkObstacles} of
+	 * chunks overlapping the vision area. Otherwise each cell of the vision area is tested with the strategy.
 	 */
 	void buildObstacles() {
-		obstaclesOnSeersCellBorder.clear();
-		obstacleToObjectPosition.clear();
-		objectPositionToObstacle.clear();
+		size = 0;
 		int endX = Math.min(world.getWidth() - 1, position.x() + Seer.VISION_RANGE);
 		int endY = Math.min(world.getHeight() - 1, position.y() + Seer.VISION_RANGE);
 		int startX = Math.max(0, position.x() - Seer.VISION_RANGE);
 		int startY = Math.max(0, position.y() - Seer.VISION_RANGE);
+		if (strategy instanceof IndexedObstacleFindingStrategy) {
+			collectIndexedObstacles(
+				((IndexedObstacleFindingStrategy) strategy).getPlane(),
+				startX,
+				startY,
+				endX,
+				endY
+			);
+		} else {
+			findObstacles(startX, startY, endX, endY);
+		}
+		built = true;
+	}
+
+	private void collectIndexedObstacles(HorizontalPlane plane, int startX, int startY, int endX, int endY) {
+		for (int chunkX = plane.getChunkRoundedCoord(startX); chunkX <= endX; chunkX += Chunk.SIZE) {
+			for (int chunkY = plane.getChunkRoundedCoord(startY); chunkY <= endY; chunkY += Chunk.SIZE) {
+				Chunk chunk = plane.getChunkWithCell(chunkX, chunkY);
+				ChunkObstacles chunkObstacles = chunk.getObstacles();
+				for (int i = 0, n = chunkObstacles.size(); i < n; i++) {
+					ObstacleBorder obstacle = chunkObstacles.get(i);
+					int ownerX = obstacle.ownerX();
+					int ownerY = obstacle.ownerY();
+					if (ownerX < startX || ownerX > endX || ownerY < startY || ownerY > endY) {
+						continue;
+					}
+					if (!obstacle.isSideOfObject() && chunk.hasObject(ownerX, ownerY)) {
+						// That border is already a side of the object.
+						continue;
+					}
+					add(obstacle);
+				}
+			}
+		}
+	}
+
+	private void findObstacles(int startX, int startY, int endX, int endY) {
 		for (int x = startX; x <= endX; x++) {
 			for (int y = startY; y <= endY; y++) {
-				boolean[] sideOccupied = new boolean[]{false, false, false, false};
-				BasicCell objectPosition = new BasicCell(x, y);
 				if (strategy.isCellBlockingVision(x, y)) {
-					sideOccupied[0] = true;
-					sideOccupied[1] = true;
-					sideOccupied[2] = true;
-					sideOccupied[3] = true;
-					addObjectObstacles(objectPosition);
+					for (CardinalDirection side : CardinalDirection.values()) {
+						add(new ObstacleBorder(x, y, side));
+					}
+					continue;
 				}
 				for (CardinalDirection side : CardinalDirection.values()) {
 					if (side.isGrowing()) {
 						continue;
 					}
-					if (sideOccupied[side.getCardinalIndex()]) {
-						continue;
-					}
 					Border border = new Border(x, y, side);
 					if (strategy.isBorderBlockingVision(border)) {
-						addSingleBorderObstacle(border);
+						add(new ObstacleBorder(border));
 					}
 				}
 			}
 		}
-		built = true;
 	}
 
-	private void addObjectObstacles(BasicCell objectPosition) {
-		for (CardinalDirection side : CardinalDirection.values()) {
-			Border border = new Border(objectPosition.x(), objectPosition.y(), side);
-			addSingleBorderObstacle(border);
-			obstacleToObjectPosition.put(border, objectPosition);
+	private void add(ObstacleBorder obstacle) {
+		if (size == obstacles.length) {
+			obstacles = Arrays.copyOf(obstacles, size * 2);
 		}
+		obstacles[size++] = obstacle;
 	}
 
-	/**
-	 * Created an obstacle on a side of a point.
-	 *
-	 * @param border
-	 */
-	private void addSingleBorderObstacle(Border border) {
-		obstacles.add(border);
-		objectPositionToObstacle.put(border.toPoint(), border);
-		if (isOnBorderOfSeersCell(border)) {
-			obstaclesOnSeersCellBorder.put(
-				border,
-				getSideOfObstacleRelativeToSeerPosition(border)
-			);
-		}
+	int size() {
+		return size;
+	}
+
+	ObstacleBorder get(int index) {
+		assert index < size;
+		return obstacles[index];
 	}
 
 	/**
-	 * Checks if a Border is a border of the cell where this Seer is. Those few (at most 4) Borders are computed
-	 * beforehand
-	 * at {@link org.tendiwa.core.vision.ObstaclesCache#buildObstacles()}.
+	 * Checks if a Border is a border of the cell where this Seer is.
 	 *
 	 * @param obstacleBorder
 	 * 	Untransformed obstacleBorder.
 	 * @return true if it is in the same cell, false otherwise.
 	 */
 	boolean isObstacleInSeersCell(Border obstacleBorder) {
-		return obstaclesOnSeersCellBorder.containsKey(obstacleBorder);
+		return isOnBorderOfSeersCell(obstacleBorder);
 	}
 
 	/**
@@ -156,11 +176,6 @@ class ObstaclesCache implements Iterable<Border> {
 		return built;
 	}
 
-	@Override
-	public Iterator<Border> iterator() {
-		return obstacles.iterator();
-	}
-
 	/**
 	 * Checks if this obstacleBorder is on a side of the object we're trying to see. In this case, this obstacleBorder
 	 * doesn't block vision, so we can see the object itself.
@@ -173,35 +188,39 @@ class ObstaclesCache implements Iterable<Border> {
 	 * 	Y coordinate of a cell we're trying to see.
 	 * @return
 	 */
-	boolean isTargetObjectObstacle(Border obstacleBorder, int targetX, int targetY) {
-		BasicCell objectPosition = obstacleToObjectPosition.get(obstacleBorder);
-		return objectPosition != null && objectPosition.x() == targetX && objectPosition.y() == targetY;
+	boolean isTargetObjectObstacle(ObstacleBorder obstacleBorder, int targetX, int targetY) {
+		return obstacleBorder.isSideOfObjectIn(targetX, targetY);
 	}
 
 	CardinalDirection getSideOfObstacleOnSeersCellBorder(Border obstacle) {
-		return obstaclesOnSeersCellBorder.get(obstacle);
-	}
-
-	/**
-	 * Checks if a Border is a border of the cell where this Seer is.
-	 *
-	 * @param obstacleBorder
-	 * 	Border where some obstacle resides.
-	 * @return true if obstacle is on the border of the same cell; false otherwise.
-	 */
-	private boolean isBorderNearSeer(Border obstacleBorder) {
-		return obstaclesOnSeersCellBorder.containsKey(obstacleBorder);
+		return isOnBorderOfSeersCell(obstacle) ? getSideOfObstacleRelativeToSeerPosition(obstacle) : null;
 	}
 
 	void invalidate() {
-		obstacles.clear();
+		Arrays.fill(obstacles, 0, size, null);
+		size = 0;
 		built = false;
 	}
 
+	/**
+	 * Finds an obstacle in this cache on a border.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @param side
+	 * 	Side of that cell.
+	 * @return An obstacle, or null if there is no obstacle on that border.
+	 */
 	Border findObstacleBorder(int x, int y, CardinalDirection side) {
+		if (strategy instanceof IndexedObstacleFindingStrategy) {
+			return ((IndexedObstacleFindingStrategy) strategy).getPlane().findObstacle(x, y, side);
+		}
 		Border border = new Border(x, y, side);
-		for (Border obstacle : objectPositionToObstacle.get(border.toPoint())) {
-			if (obstacle.side == border.side) {
+		for (int i = 0; i < size; i++) {
+			ObstacleBorder obstacle = obstacles[i];
+			if (obstacle.x == border.x && obstacle.y == border.y && obstacle.side == border.side) {
 				return obstacle;
 			}
 		}
@@ -3,6 +3,7 @@ package org.tendiwa.core.vision;
 import org.tendiwa.core.Border;
 import org.tendiwa.core.CardinalDirection;
 import org.tendiwa.core.Directions;
+import org.tendiwa.core.ObstacleBorder;
 import org.tendiwa.core.World;
 import org.tendiwa.core.meta.Cell;
 import org.tendiwa.core.meta.DoubleRange;
@@ -12,12 +13,28 @@ import org.tendiwa.geometry.*;
 
 public class Seer {
 	public static final int VISION_RANGE = 11;
+	/**
+	 * Tests each cell in vision range against each obstacle around a Seer. Non player characters compute visibility
+	 * of particular cells as needed with this algorithm.
+	 */
+	public static final FieldOfView OBSTACLE_TEST = new FieldOfView() {
+		@Override
+		public void computeFullVision(Seer seer) {
+			seer.computeFullVisionByObstacleTest();
+		}
+
+		@Override
+		public boolean computeCellVisibility(Seer seer, int x, int y) {
+			return seer.isCellVisible(x, y, null);
+		}
+	};
 	private final static double EPSILON = 0.01;
 	private final static double visionSourceDiameter = 0.7;
 	public final ModifiableCellVisionCache visionCache;
 	final CellVisionCache visionPrevious;
 	private final Cell character;
 	private final SightPassabilityCriteria vision;
+	private final FieldOfView fieldOfView;
 	/**
 	 * Saves field of view on previous turn when it is needed to calculate differences between FOV on previous turn and
 	 * current turn.
@@ -29,8 +46,28 @@ public class Seer {
 	private World world;
 
 	public Seer(Cell character, SightPassabilityCriteria vision, ObstacleFindingStrategy strategy) {
+		this(character, vision, strategy, OBSTACLE_TEST);
+	}
+
+	/**
+	 * @param character
+	 * 	Position of this Seer.
+	 * @param vision
+	 * 	Criteria of cells being see-through.
+	 * @param strategy
+	 * 	Finds obstacles around this Seer.
+	 * @param fieldOfView
+	 * 	Algorithm that computes which cells and borders this Seer can see.
+	 */
+	public Seer(
+		Cell character,
+		SightPassabilityCriteria vision,
+		ObstacleFindingStrategy strategy,
+		FieldOfView fieldOfView
+	) {
 		this.character = character;
 		this.vision = vision;
+		this.fieldOfView = fieldOfView;
 		this.obstaclesCache = new ObstaclesCache(null, character, strategy);
 		this.visionCache = new ModifiableCellVisionCache(character);
 		this.visionPrevious = new CellVisionCache();
@@ -120,6 +157,23 @@ public class Seer {
 	 * @return true if this Seer can see the cell x:y with the given obstacle excluded, false otherwise.
 	 */
 	private boolean isCellVisible(int x, int y, Border excluded) {
+		return isCellVisible(x, y, excluded, null);
+	}
+
+	/**
+	 * Computes visibility as if Obstacle {@code excluded} was not present at all.
+	 *
+	 * @param x
+	 * 	X coordinate of target cell in world coordinates
+	 * @param y
+	 * 	Y coordinate of target cell in world coordinates
+	 * @param excluded
+	 * 	The excluded obstacle. May be null, so no obstacle will be excluded.
+	 * @param shadows
+	 * 	Obstacles that may hide each cell, or null to test the cell against all obstacles.
+	 * @return true if this Seer can see the cell x:y with the given obstacle excluded, false otherwise.
+	 */
+	private boolean isCellVisible(int x, int y, Border excluded, ObstacleShadows shadows) {
 		if (!obstaclesCache.isBuilt()) {
 			obstaclesCache.buildObstacles();
 		}
@@ -142,7 +196,8 @@ public class Seer {
 			return false;
 		}
 		DoubleRangeCollection ranges = new DoubleRangeCollection(new DoubleRange(-visionSourceDiameter / 2, visionSourceDiameter / 2));
-		for (Border obstacle : obstaclesCache) {
+		for (int i = 0, n = shadows == null ? obstaclesCache.size() : shadows.castOn(x, y); i < n; i++) {
+			ObstacleBorder obstacle = shadows == null ? obstaclesCache.get(i) : shadows.get(i);
 			if (obstacle == excluded) {
 				continue;
 			}
@@ -460,7 +515,7 @@ public class Seer {
 		}
 		Visibility visionFromCache = visionCache.getVisionFromCache(x, y);
 		if (visionFromCache == Visibility.NOT_COMPUTED) {
-			return isCellVisible(x, y, null);
+			return fieldOfView.computeCellVisibility(this, x, y);
 		} else {
 			return visionFromCache == Visibility.VISIBLE;
 		}
@@ -482,20 +537,45 @@ public class Seer {
 	 * of view in client — non player characters compute visibility only to particular cells as needed.
 	 */
 	public void computeFullVisionCache() {
+		borderVision.saveCurrentCenterCoordinates(character);
+		fieldOfView.computeFullVision(this);
+	}
+
+	private void computeFullVisionByObstacleTest() {
+		computeFullVisionByObstacleTest(null);
+	}
+
+	/**
+	 * Computes vision to all cells and borders around this Seer, testing each cell against the obstacles that may
+	 * hide it.
+	 *
+	 * @param shadows
+	 * 	Obstacles that may hide each cell, or null to test each cell against all obstacles.
+	 */
+	void computeFullVisionByObstacleTest(ObstacleShadows shadows) {
 		int startX = getStartIndexOfRelativeTable(character.x(), VISION_RANGE);
 		int startY = getStartIndexOfRelativeTable(character.y(), VISION_RANGE);
 		int endX = getEndIndexOfRelativeTableX(character.x(), VISION_RANGE);
 		int endY = getEndIndexOfRelativeTableY(character.y(), VISION_RANGE);
-		borderVision.saveCurrentCenterCoordinates(character);
-		computeCellVision(startX, startY, endX, endY);
-		computeAllBordersVisibility(startX, startY, endX, endY);
+		computeCellVision(startX, startY, endX, endY, shadows);
+		computeAllBordersVisibility(startX, startY, endX, endY, shadows);
 		obstaclesCache.invalidate();
 	}
 
-	private void computeCellVision(int startX, int startY, int endX, int endY) {
+	/**
+	 * @return Obstacles around this Seer, built if they aren't yet.
+	 */
+	ObstaclesCache getObstacles() {
+		if (!obstaclesCache.isBuilt()) {
+			obstaclesCache.buildObstacles();
+		}
+		return obstaclesCache;
+	}
+
+	private void computeCellVision(int startX, int startY, int endX, int endY, ObstacleShadows shadows) {
 		for (int i = startX; i < endX; i++) {
 			for (int j = startY; j < endY; j++) {
-				isCellVisible(character.x() - VISION_RANGE + i, character.y() - VISION_RANGE + j, null);
+				isCellVisible(character.x() - VISION_RANGE + i, character.y() - VISION_RANGE + j, null, shadows);
 			}
 		}
 	}
@@ -508,20 +588,22 @@ public class Seer {
 	 * @param startY
 	 * @param endX
 	 * @param endY
+	 * @param shadows
+	 * 	Obstacles that may hide each cell, or null.
 	 */
-	private void computeAllBordersVisibility(int startX, int startY, int endX, int endY) {
+	private void computeAllBordersVisibility(int startX, int startY, int endX, int endY, ObstacleShadows shadows) {
 		for (int i = startX; i < endX; i++) {
 			for (int j = startY; j < endY; j++) {
 				int actualWorldX = character.x() - VISION_RANGE + i;
 				int actualWorldY = character.y() - VISION_RANGE + j;
-				computeBorderVisibility(actualWorldX, actualWorldY, Directions.W);
-				computeBorderVisibility(actualWorldX, actualWorldY, Directions.N);
+				computeBorderVisibility(actualWorldX, actualWorldY, Directions.W, shadows);
+				computeBorderVisibility(actualWorldX, actualWorldY, Directions.N, shadows);
 			}
 		}
 
 	}
 
-	private boolean computeBorderVisibility(int x, int y, CardinalDirection side) {
+	private boolean computeBorderVisibility(int x, int y, CardinalDirection side, ObstacleShadows shadows) {
 		assert !side.isGrowing();
 		int xOriginal = x;
 		int yOriginal = y;
@@ -558,12 +640,16 @@ public class Seer {
 		} else {
 			assert visionCloserToSeer == Visibility.VISIBLE && visionFurtherToSeer != Visibility.VISIBLE : visionCloserToSeer + " " + visionFurtherToSeer;
 			Border obstacle = obstaclesCache.findObstacleBorder(xOriginal, yOriginal, side);
-			boolean canSee = isCellVisible(xNeighbor, yNeighbor, obstacle);
+			boolean canSee = isCellVisible(xNeighbor, yNeighbor, obstacle, shadows);
 			borderVision.cacheBorderVision(xOriginal, yOriginal, side, canSee ? Visibility.VISIBLE : Visibility.INVISIBLE);
 			return canSee;
 		}
 	}
 
+	Cell getCenter() {
+		return character;
+	}
+
 	public ModifiableCellVisionCache getVisionCache() {
 		return visionCache;
 	}
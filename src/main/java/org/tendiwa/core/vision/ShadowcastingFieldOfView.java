@@ -0,0 +1,20 @@
+package org.tendiwa.core.vision;
+
+/**
+ * Computes field of view with the same geometry as {@link Seer#OBSTACLE_TEST}, but each obstacle only casts its
+ * shadow on cells behind it: a cell is tested only against obstacles close to the beam between it and the {@link
+ * Seer} (see {@link ObstacleShadows}), not against each obstacle in vision range. Cells and borders seen are exactly
+ * the same as with {@link Seer#OBSTACLE_TEST}.
+ */
+public final class ShadowcastingFieldOfView implements FieldOfView {
+	@Override
+	public void computeFullVision(Seer seer) {
+		seer.computeFullVisionByObstacleTest(new ObstacleShadows(seer.getCenter(), seer.getObstacles()));
+	}
+
+	@Override
+	public boolean computeCellVisibility(Seer seer, int x, int y) {
+		seer.computeFullVisionCache();
+		return seer.getVisionCache().getVisionFromCache(x, y) == Visibility.VISIBLE;
+	}
+}
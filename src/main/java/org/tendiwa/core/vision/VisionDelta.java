@@ -0,0 +1,221 @@
+package org.tendiwa.core.vision;
+
+import org.tendiwa.core.CardinalDirection;
+import org.tendiwa.core.Directions;
+
+/**
+ * Cells and borders that became visible or invisible to a {@link Seer} between two computations of its full vision.
+ * <p>
+ * Visible cells and borders of both vision caches are kept as bitmasks, a word per column, so the previous cache is
+ * shifted by the Seer's move and compared with the current one a whole column at a time. Seen cells and borders are
+ * held as bitmasks relative to the current vision rectangle, and unseen ones as bitmasks relative to the previous
+ * one.
+ */
+public final class VisionDelta {
+	private static final int CELL_WIDTH = CellVisionCache.VISION_CACHE_WIDTH;
+	private static final int BORDER_WIDTH = BorderVisionCache.WIDTH;
+	private final int x;
+	private final int y;
+	private final int xPrev;
+	private final int yPrev;
+	private final int[] seenCells = new int[CELL_WIDTH];
+	private final int[] unseenCells = new int[CELL_WIDTH];
+	private final long[] seenBorders = new long[BORDER_WIDTH];
+	private final long[] unseenBorders = new long[BORDER_WIDTH];
+
+	/**
+	 * @param previousCells
+	 * 	Cell vision of a Seer when it stood at {@code xPrev:yPrev}.
+	 * @param previousBorders
+	 * 	Border vision of a Seer when it stood at {@code xPrev:yPrev}.
+	 * @param xPrev
+	 * 	X coordinate of a Seer at previous computation.
+	 * @param yPrev
+	 * 	Y coordinate of a Seer at previous computation.
+	 * @param currentCells
+	 * 	Cell vision of a Seer standing at {@code x:y}.
+	 * @param currentBorders
+	 * 	Border vision of a Seer standing at {@code x:y}.
+	 * @param x
+	 * 	X coordinate of a Seer at current computation.
+	 * @param y
+	 * 	Y coordinate of a Seer at current computation.
+	 */
+	public VisionDelta(
+		CellVisionCache previousCells,
+		BorderVisionCache previousBorders,
+		int xPrev,
+		int yPrev,
+		CellVisionCache currentCells,
+		BorderVisionCache currentBorders,
+		int x,
+		int y
+	) {
+		this.x = x;
+		this.y = y;
+		this.xPrev = xPrev;
+		this.yPrev = yPrev;
+		int dx = x - xPrev;
+		int dy = y - yPrev;
+		int[] previous = previousCells.visibleColumns;
+		int[] current = currentCells.visibleColumns;
+		for (int i = 0; i < CELL_WIDTH; i++) {
+			seenCells[i] = current[i] & ~shiftColumn(columnOrEmpty(previous, i + dx), dy);
+			unseenCells[i] = previous[i] & ~shiftColumn(columnOrEmpty(current, i - dx), -dy);
+		}
+		long[] previousBorderColumns = previousBorders.visibleBorderColumns;
+		long[] currentBorderColumns = currentBorders.visibleBorderColumns;
+		for (int i = 0; i < BORDER_WIDTH; i++) {
+			seenBorders[i] = currentBorderColumns[i]
+				& ~shiftColumn(columnOrEmpty(previousBorderColumns, i + dx), dy * 2);
+			unseenBorders[i] = previousBorderColumns[i]
+				& ~shiftColumn(columnOrEmpty(currentBorderColumns, i - dx), -dy * 2);
+		}
+	}
+
+	private static int columnOrEmpty(int[] columns, int i) {
+		return i >= 0 && i < columns.length ? columns[i] : 0;
+	}
+
+	private static long columnOrEmpty(long[] columns, int i) {
+		return i >= 0 && i < columns.length ? columns[i] : 0;
+	}
+
+	/**
+	 * @return A column of bits where bit {@code j} is bit {@code j + shift} of {@code column}.
+	 */
+	private static int shiftColumn(int column, int shift) {
+		if (Math.abs(shift) >= Integer.SIZE) {
+			return 0;
+		}
+		return shift >= 0 ? column >>> shift : column << -shift;
+	}
+
+	private static long shiftColumn(long column, int shift) {
+		if (Math.abs(shift) >= Long.SIZE) {
+			return 0;
+		}
+		return shift >= 0 ? column >>> shift : column << -shift;
+	}
+
+	/**
+	 * @return Number of cells that became visible.
+	 */
+	public int seenCellsCount() {
+		return count(seenCells);
+	}
+
+	/**
+	 * @return Number of borders that became visible.
+	 */
+	public int seenBordersCount() {
+		return count(seenBorders);
+	}
+
+	/**
+	 * @return true if nothing became visible or invisible, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return count(seenCells) + count(unseenCells) + count(seenBorders) + count(unseenBorders) == 0;
+	}
+
+	private static int count(int[] columns) {
+		int count = 0;
+		for (int column : columns) {
+			count += Integer.bitCount(column);
+		}
+		return count;
+	}
+
+	private static int count(long[] columns) {
+		int count = 0;
+		for (long column : columns) {
+			count += Long.bitCount(column);
+		}
+		return count;
+	}
+
+	/**
+	 * Visits cells that became visible, column by column from west to east, and from north to south in each column.
+	 */
+	public void forEachSeenCell(CellVisitor visitor) {
+		visitCells(seenCells, x, y, visitor);
+	}
+
+	/**
+	 * Visits cells that became invisible, column by column from west to east, and from north to south in each column.
+	 */
+	public void forEachUnseenCell(CellVisitor visitor) {
+		visitCells(unseenCells, xPrev, yPrev, visitor);
+	}
+
+	/**
+	 * Visits borders that became visible, in the same order as {@link #forEachSeenCell(CellVisitor)} visits cells,
+	 * and {@link Directions#N} border of a cell before its {@link Directions#W} border.
+	 */
+	public void forEachSeenBorder(BorderVisitor visitor) {
+		visitBorders(seenBorders, x, y, visitor);
+	}
+
+	/**
+	 * Visits borders that became invisible, in the same order as {@link #forEachSeenBorder(BorderVisitor)}.
+	 */
+	public void forEachUnseenBorder(BorderVisitor visitor) {
+		visitBorders(unseenBorders, xPrev, yPrev, visitor);
+	}
+
+	private static void visitCells(int[] columns, int centerX, int centerY, CellVisitor visitor) {
+		int n = 0;
+		for (int i = 0; i < columns.length; i++) {
+			int column = columns[i];
+			while (column != 0) {
+				int j = Integer.numberOfTrailingZeros(column);
+				column &= column - 1;
+				visitor.visit(centerX - Seer.VISION_RANGE + i, centerY - Seer.VISION_RANGE + j, n++);
+			}
+		}
+	}
+
+	private static void visitBorders(long[] columns, int centerX, int centerY, BorderVisitor visitor) {
+		int n = 0;
+		for (int i = 0; i < columns.length; i++) {
+			long column = columns[i];
+			while (column != 0) {
+				int bit = Long.numberOfTrailingZeros(column);
+				column &= column - 1;
+				visitor.visit(
+					centerX - Seer.VISION_RANGE + i,
+					centerY - Seer.VISION_RANGE + bit / 2,
+					bit % 2 == 1 ? Directions.W : Directions.N,
+					n++
+				);
+			}
+		}
+	}
+
+	public interface CellVisitor {
+		/**
+		 * @param x
+		 * 	X coordinate of a cell in world coordinates.
+		 * @param y
+		 * 	Y coordinate of a cell in world coordinates.
+		 * @param n
+		 * 	How many cells have been visited before this one.
+		 */
+		void visit(int x, int y, int n);
+	}
+
+	public interface BorderVisitor {
+		/**
+		 * @param x
+		 * 	X coordinate of a border's cell in world coordinates.
+		 * @param y
+		 * 	Y coordinate of a border's cell in world coordinates.
+		 * @param side
+		 * 	{@link Directions#N} or {@link Directions#W}.
+		 * @param n
+		 * 	How many borders have been visited before this one.
+		 */
+		void visit(int x, int y, CardinalDirection side, int n);
+	}
+}
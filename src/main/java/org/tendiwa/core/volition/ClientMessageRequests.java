@@ -0,0 +1,53 @@
+package org.tendiwa.core.volition;
+
+import com.google.inject.Inject;
+import org.tendiwa.core.Character;
+import org.tendiwa.core.Directions;
+import org.tendiwa.core.Request;
+import org.tendiwa.core.net.MalformedMessageException;
+import org.tendiwa.core.net.UnsupportedMessageException;
+import org.tendiwa.core.net.clientmessages.ClientMessageStep;
+
+import java.util.function.BiFunction;
+
+/**
+ * Turns messages of remote clients into the same {@link Request}s that {@link Volition} passes to the {@link
+ * org.tendiwa.core.Server}.
+ * <p>
+ * Only messages whose requests need no objects other than the client's character are translated, because clients
+ * can't refer to items and characters by id yet. Other messages, including picking up an item by its id, are rejected rather than
+ * translated into requests that would act on some other item.
+ */
+public class ClientMessageRequests implements BiFunction<Character, Object, Request> {
+	private final RequestMove.Factory requestMoveFactory;
+
+	@Inject
+	ClientMessageRequests(
+		RequestMove.Factory requestMoveFactory
+	) {
+		this.requestMoveFactory = requestMoveFactory;
+	}
+
+	/**
+	 * @param character
+	 * 	Character of the client that sent the message.
+	 * @param message
+	 * 	A message from {@link org.tendiwa.core.net.clientmessages}.
+	 * @return A request of the character.
+	 * @throws MalformedMessageException
+	 * 	If fields of the message have impossible values.
+	 * @throws UnsupportedMessageException
+	 * 	If this kind of message can't be turned into a request.
+	 */
+	@Override
+	public Request apply(Character character, Object message) {
+		if (message instanceof ClientMessageStep) {
+			int dir = ((ClientMessageStep) message).dir;
+			if (dir < 0 || dir > 7) {
+				throw new MalformedMessageException("Wrong direction " + dir);
+			}
+			return requestMoveFactory.create(Directions.intToDirection(dir), character);
+		}
+		throw new UnsupportedMessageException(message.getClass().getSimpleName() + " is not supported");
+	}
+}
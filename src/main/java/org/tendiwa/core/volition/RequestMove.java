@@ -2,7 +2,6 @@ package org.tendiwa.core.volition;
 
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import com.google.inject.name.Named;
 import org.tendiwa.core.Character;
 import org.tendiwa.core.Direction;
 import org.tendiwa.core.MovingStyle;
@@ -15,8 +14,7 @@ public class RequestMove implements Request {
 	@Inject
 	RequestMove(
 		@Assisted Direction direction,
-		@Named("player") Character player
-
+		@Assisted Character player
 	) {
 		this.direction = direction;
 		this.player = player;
@@ -30,6 +28,6 @@ public class RequestMove implements Request {
 	}
 
 	public static interface Factory {
-		public RequestMove create(Direction direction);
+		public RequestMove create(Direction direction, Character player);
 	}
 }
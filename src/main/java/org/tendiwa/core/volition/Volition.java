@@ -116,7 +116,7 @@ public class Volition {
 	}
 
 	public void move(Direction direction) {
-		server.passRequest(requestMoveFactory.create(direction));
+		server.passRequest(requestMoveFactory.create(direction, player));
 	}
 
 	public void wield(Item item) {
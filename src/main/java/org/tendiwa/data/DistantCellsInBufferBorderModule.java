@@ -4,7 +4,6 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.name.Named;
 import org.tendiwa.geometry.*;
-import org.tendiwa.geometry.extensions.CachedCellSet;
 import org.tendiwa.geometry.extensions.ChebyshovDistanceBufferBorder;
 
 import static com.google.inject.name.Names.named;
@@ -34,13 +33,10 @@ public class DistantCellsInBufferBorderModule extends AbstractModule {
 		@Named("worldRectangle") Rectangle worldRectangle,
 		@Named("bufferDepth") int bufferDepth
 	) {
-		return new CachedCellSet(
-			new ChebyshovDistanceBufferBorder(
-				bufferDepth,
-				waterRectangle::contains
-			),
-			worldRectangle
-		);
+		return new ChebyshovDistanceBufferBorder(
+			bufferDepth,
+			waterRectangle::contains
+		).within(worldRectangle);
 	}
 
 	@Provides
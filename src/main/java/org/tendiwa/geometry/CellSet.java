@@ -127,7 +127,7 @@ public interface CellSet {
 		return new Collector<Cell, MutableBoundedCellSet, BoundedCellSet>() {
 			@Override
 			public Supplier<MutableBoundedCellSet> supplier() {
-				return () -> new Mutable2DCellSet(bounds);
+				return () -> new BitCellSet(bounds);
 			}
 
 			@Override
@@ -93,8 +93,8 @@ public final class MutableShreddedSegment2D implements CutSegment2D {
 	@Override
 	public Stream<Point2D> pointStream() {
 		return segments.stream()
-			.skip(1)
-			.map(Segment2D::start);
+			.map(Segment2D::start)
+			.filter(point -> !point.equals(originalSegment.start()));
 	}
 
 	@Override
@@ -195,8 +195,26 @@ public interface Polygon extends List<Point2D>, BoundedShape {
 		return toImmutableList().stream();
 	}
 
+	/**
+	 * Checks if a point lies inside this polygon by counting crossings of a horizontal ray going from it.
+	 *
+	 * @param point
+	 * 	A point.
+	 * @return true if the point is inside this polygon, false if it is outside. Result for points on the border is
+	 * undefined.
+	 */
 	default boolean containsPoint(Point2D point) {
-		throw new UnsupportedOperationException();
+		boolean inside = false;
+		int size = size();
+		for (int i = 0, j = size - 1; i < size; j = i++) {
+			Point2D a = get(i);
+			Point2D b = get(j);
+			if ((a.y() > point.y()) != (b.y() > point.y())
+				&& point.x() < (b.x() - a.x()) * (point.y() - a.y()) / (b.y() - a.y()) + a.x()) {
+				inside = !inside;
+			}
+		}
+		return inside;
 	}
 
 
@@ -0,0 +1,161 @@
+package org.tendiwa.geometry;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * A uniform grid of square buckets holding segments whose hulls overlap those buckets, for finding segments near a
+ * point or a segment without testing all segments.
+ * <p>
+ * Segments whose hulls cover too many buckets are kept in a separate list and are tested on every search.
+ */
+public final class SegmentGrid {
+	/**
+	 * Segments covering more buckets than this are not put in buckets.
+	 */
+	private static final int MAX_BUCKETS_PER_SEGMENT = 64;
+	private final double bucketSize;
+	private final TLongObjectMap<List<Segment2D>> buckets = new TLongObjectHashMap<>();
+	private final List<Segment2D> largeSegments = new ArrayList<>();
+	/**
+	 * Number of each segment in order of adding, to return found segments in that order.
+	 */
+	private final TObjectIntMap<Segment2D> order = new TObjectIntHashMap<>();
+	private int nextOrder = 0;
+
+	/**
+	 * @param bucketSize
+	 * 	Side of a bucket. Best when about as large as typical segments and search areas.
+	 */
+	public SegmentGrid(double bucketSize) {
+		if (bucketSize <= 0) {
+			throw new IllegalArgumentException("Bucket size must be > 0 (it is " + bucketSize + ")");
+		}
+		this.bucketSize = bucketSize;
+	}
+
+	/**
+	 * Creates a grid with segments, choosing a bucket size equal to the mean size of the segments' hulls.
+	 *
+	 * @param segments
+	 * 	Segments to put in the grid.
+	 */
+	public SegmentGrid(Collection<? extends Segment2D> segments) {
+		this(meanHullSize(segments));
+		segments.forEach(this::add);
+	}
+
+	private static double meanHullSize(Collection<? extends Segment2D> segments) {
+		double sum = 0;
+		for (Segment2D segment : segments) {
+			sum += Math.max(segment.maxX() - segment.minX(), segment.maxY() - segment.minY());
+		}
+		return segments.isEmpty() || sum == 0 ? 1 : sum / segments.size();
+	}
+
+	/**
+	 * Adds a segment to this grid. Does nothing if the segment is already in this grid.
+	 */
+	public void add(Segment2D segment) {
+		if (order.containsKey(segment)) {
+			return;
+		}
+		order.put(segment, nextOrder++);
+		if (isLarge(segment)) {
+			largeSegments.add(segment);
+			return;
+		}
+		forEachBucket(segment, key -> {
+			List<Segment2D> bucket = buckets.get(key);
+			if (bucket == null) {
+				bucket = new ArrayList<>(4);
+				buckets.put(key, bucket);
+			}
+			bucket.add(segment);
+		});
+	}
+
+	/**
+	 * Removes a segment from this grid. Does nothing if the segment is not in this grid.
+	 */
+	public void remove(Segment2D segment) {
+		if (!order.containsKey(segment)) {
+			return;
+		}
+		order.remove(segment);
+		if (isLarge(segment)) {
+			largeSegments.remove(segment);
+			return;
+		}
+		forEachBucket(segment, key -> {
+			List<Segment2D> bucket = buckets.get(key);
+			bucket.remove(segment);
+			if (bucket.isEmpty()) {
+				buckets.remove(key);
+			}
+		});
+	}
+
+	/**
+	 * Finds segments whose hulls strictly intersect a hull.
+	 *
+	 * @param hull
+	 * 	Area to search in.
+	 * @return Segments in the order they were added to this grid.
+	 */
+	public List<Segment2D> segmentsIntersectingHull(RectangularHull hull) {
+		Set<Segment2D> found = new HashSet<>();
+		addIntersecting(largeSegments, hull, found);
+		if (bucketsCovered(hull) > buckets.size()) {
+			buckets.forEachValue(bucket -> {
+				addIntersecting(bucket, hull, found);
+				return true;
+			});
+		} else {
+			forEachBucket(hull, key -> {
+				List<Segment2D> bucket = buckets.get(key);
+				if (bucket != null) {
+					addIntersecting(bucket, hull, found);
+				}
+			});
+		}
+		List<Segment2D> answer = new ArrayList<>(found);
+		answer.sort(Comparator.comparingInt(order::get));
+		return answer;
+	}
+
+	private static void addIntersecting(List<Segment2D> segments, RectangularHull hull, Set<Segment2D> found) {
+		for (Segment2D segment : segments) {
+			if (hull.intersectsHull(segment)) {
+				found.add(segment);
+			}
+		}
+	}
+
+	private boolean isLarge(RectangularHull hull) {
+		return bucketsCovered(hull) > MAX_BUCKETS_PER_SEGMENT;
+	}
+
+	private double bucketsCovered(RectangularHull hull) {
+		double columns = Math.floor(hull.maxX() / bucketSize) - Math.floor(hull.minX() / bucketSize) + 1;
+		double rows = Math.floor(hull.maxY() / bucketSize) - Math.floor(hull.minY() / bucketSize) + 1;
+		return columns * rows;
+	}
+
+	private void forEachBucket(RectangularHull hull, LongConsumer action) {
+		int minColumn = (int) Math.floor(hull.minX() / bucketSize);
+		int maxColumn = (int) Math.floor(hull.maxX() / bucketSize);
+		int minRow = (int) Math.floor(hull.minY() / bucketSize);
+		int maxRow = (int) Math.floor(hull.maxY() / bucketSize);
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				action.accept((long) column << 32 | row & 0xFFFFFFFFL);
+			}
+		}
+	}
+}
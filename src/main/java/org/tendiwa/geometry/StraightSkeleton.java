@@ -1,16 +1,33 @@
 package org.tendiwa.geometry;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.jgrapht.UndirectedGraph;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import static org.tendiwa.collections.Collectors.toImmutableList;
+
 public interface StraightSkeleton {
 	UndirectedGraph<Point2D, Segment2D> graph();
 
 	ImmutableSet<Polygon> cap(double depth);
 
+	/**
+	 * Computes {@link #cap(double)} for several depths at once.
+	 *
+	 * @param depths
+	 * 	Depths of caps, in any order.
+	 * @return Caps in the same order as {@code depths}.
+	 */
+	default ImmutableList<ImmutableSet<Polygon>> caps(double... depths) {
+		return Arrays.stream(depths)
+			.mapToObj(this::cap)
+			.collect(toImmutableList());
+	}
+
 	Set<StraightSkeletonFace> faces();
 
 	List<Segment2D> originalEdges();
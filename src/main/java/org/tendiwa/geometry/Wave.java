@@ -74,7 +74,7 @@ public class Wave implements Iterable<Cell> {
 	 * Computes this Wave until it fills all allowed space, collecting its cells into a {@link CellSet}.
 	 * <p>
 	 * Unlike {@link #asCellSet(int)} where memory used grows linearly, this method returns a cell set that uses {@code
-	 * bounds.width*bounds.height} memory. This method produces a more efficient CellSet if the Wave fills a
+	 * bounds.width*bounds.height} bits of memory. This method produces a more efficient CellSet if the Wave fills a
 	 * considerable part of {@code bounds}.
 	 *
 	 * @param bounds
@@ -85,7 +85,7 @@ public class Wave implements Iterable<Cell> {
 	 * @see #asCellSet(int)
 	 */
 	public BoundedCellSet asCellSet(Rectangle bounds) {
-		MutableBoundedCellSet answer = new Mutable2DCellSet(bounds);
+		MutableBoundedCellSet answer = new BitCellSet(bounds);
 		for (Cell cell : this) {
 			answer.add(cell);
 		}
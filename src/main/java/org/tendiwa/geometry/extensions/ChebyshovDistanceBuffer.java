@@ -1,6 +1,8 @@
 package org.tendiwa.geometry.extensions;
 
+import org.tendiwa.geometry.BitCellSet;
 import org.tendiwa.geometry.CellSet;
+import org.tendiwa.geometry.Rectangle;
 
 public class ChebyshovDistanceBuffer implements CellSet {
 	private final int distance;
@@ -29,4 +31,17 @@ public class ChebyshovDistanceBuffer implements CellSet {
 		}
 		return false;
 	}
+
+	/**
+	 * Computes all cells of this buffer within a rectangle at once, in time linear to the rectangle's area.
+	 *
+	 * @param bounds
+	 * 	A rectangle.
+	 * @return Cells of this buffer within {@code bounds}.
+	 * @see DistanceTransform
+	 */
+	public BitCellSet within(Rectangle bounds) {
+		return new DistanceTransform(innerCells, bounds, distance, DistanceTransform.Metric.CHEBYSHOV)
+			.buffer(distance);
+	}
 }
@@ -1,6 +1,8 @@
 package org.tendiwa.geometry.extensions;
 
+import org.tendiwa.geometry.BitCellSet;
 import org.tendiwa.geometry.CellSet;
+import org.tendiwa.geometry.Rectangle;
 
 @SuppressWarnings("unused")
 /**
@@ -59,4 +61,17 @@ public class ChebyshovDistanceBufferBorder implements CellSet {
 		// then this cell is not in buffer's  border.
 		return false;
 	}
+
+	/**
+	 * Computes all cells of this buffer border within a rectangle at once, in time linear to the rectangle's area.
+	 *
+	 * @param bounds
+	 * 	A rectangle.
+	 * @return Cells of this buffer border within {@code bounds}.
+	 * @see DistanceTransform
+	 */
+	public BitCellSet within(Rectangle bounds) {
+		return new DistanceTransform(outerCells, bounds, distance, DistanceTransform.Metric.CHEBYSHOV)
+			.bufferBorder(distance);
+	}
 }
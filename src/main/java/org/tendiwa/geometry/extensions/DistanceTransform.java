@@ -0,0 +1,287 @@
+package org.tendiwa.geometry.extensions;
+
+import org.tendiwa.geometry.BitCellSet;
+import org.tendiwa.geometry.CellSet;
+import org.tendiwa.geometry.Rectangle;
+
+/**
+ * Distances from each cell of a rectangle to the closest cell of a set, computed for the whole rectangle at once in
+ * time linear to its area.
+ * <p>
+ * Chebyshov and Manhattan distances are computed by two raster scans, one forward and one backward, each taking
+ * distances of already visited neighbors. Euclidean distances are computed separably, first along columns and then
+ * along rows, using the lower envelope of parabolas (Felzenszwalb and Huttenlocher, "Distance Transforms of Sampled
+ * Functions").
+ * <p>
+ * This is much faster than checking a square around every cell like {@link ChebyshovDistanceBuffer} does, when
+ * buffers are needed for all cells of a large area.
+ */
+public final class DistanceTransform {
+	public enum Metric {
+		CHEBYSHOV,
+		MANHATTAN,
+		EUCLIDEAN
+	}
+
+	/**
+	 * Distance to cells whose closest cell of the set is further than {@link #maxDistance}.
+	 */
+	private static final int FAR = Integer.MAX_VALUE / 2;
+	private final Rectangle bounds;
+	private final Metric metric;
+	private final int maxDistance;
+	private final int windowMinX;
+	private final int windowMinY;
+	private final int windowWidth;
+	private final int windowHeight;
+	/**
+	 * Distances of cells of {@link #bounds} extended by {@link #maxDistance} from each side, row by row. Squared for
+	 * {@link Metric#EUCLIDEAN}.
+	 */
+	private final int[] distances;
+
+	/**
+	 * @param cells
+	 * 	Cells to compute distances to. Only those of them closer than {@code maxDistance} to {@code bounds} are ever
+	 * 	checked.
+	 * @param bounds
+	 * 	Cells to compute distances from.
+	 * @param maxDistance
+	 * 	Greatest distance that can be queried.
+	 * @param metric
+	 * 	How to measure distances.
+	 */
+	public DistanceTransform(CellSet cells, Rectangle bounds, int maxDistance, Metric metric) {
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("Max distance must be >= 0");
+		}
+		this.bounds = bounds;
+		this.metric = metric;
+		this.maxDistance = maxDistance;
+		this.windowMinX = bounds.x() - maxDistance;
+		this.windowMinY = bounds.y() - maxDistance;
+		this.windowWidth = bounds.width() + maxDistance * 2;
+		this.windowHeight = bounds.height() + maxDistance * 2;
+		this.distances = new int[windowWidth * windowHeight];
+		for (int y = 0; y < windowHeight; y++) {
+			for (int x = 0; x < windowWidth; x++) {
+				distances[y * windowWidth + x] = cells.contains(windowMinX + x, windowMinY + y) ? 0 : FAR;
+			}
+		}
+		switch (metric) {
+			case CHEBYSHOV:
+				scan(true);
+				break;
+			case MANHATTAN:
+				scan(false);
+				break;
+			case EUCLIDEAN:
+				transformSquaredEuclidean();
+				break;
+			default:
+				throw new UnsupportedOperationException("Metric " + metric + " is not supported");
+		}
+	}
+
+	/**
+	 * Checks if the closest cell of the set is not further than a certain distance from a cell.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell within bounds.
+	 * @param y
+	 * 	Y coordinate of a cell within bounds.
+	 * @param distance
+	 * 	A distance not greater than max distance.
+	 * @return true if there is a cell of the set not further than {@code distance} from {x:y}, false otherwise.
+	 */
+	public boolean isWithin(int x, int y, int distance) {
+		checkDistance(distance);
+		return distanceAt(x - windowMinX, y - windowMinY) <= threshold(distance);
+	}
+
+	/**
+	 * Finds cells within bounds that are not in the set but are not further than a certain distance from it.
+	 *
+	 * @param distance
+	 * 	A distance not greater than max distance.
+	 * @return A new set of cells.
+	 */
+	public BitCellSet buffer(int distance) {
+		checkDistance(distance);
+		return select(0, threshold(distance));
+	}
+
+	/**
+	 * Finds cells within bounds whose distance to the closest cell of the set is greater than {@code distance - 1} but
+	 * not greater than {@code distance}. For Chebyshov and Manhattan metrics, that is exactly {@code distance}.
+	 *
+	 * @param distance
+	 * 	A distance greater than 0 and not greater than max distance.
+	 * @return A new set of cells.
+	 */
+	public BitCellSet bufferBorder(int distance) {
+		checkDistance(distance);
+		if (distance == 0) {
+			throw new IllegalArgumentException("Distance must be > 0");
+		}
+		return select(threshold(distance - 1), threshold(distance));
+	}
+
+	/**
+	 * @return Cells within bounds with distances greater than {@code exclusiveMin} and not greater than {@code
+	 * inclusiveMax}.
+	 */
+	private BitCellSet select(int exclusiveMin, int inclusiveMax) {
+		BitCellSet answer = new BitCellSet(bounds);
+		for (int y = 0; y < bounds.height(); y++) {
+			for (int x = 0; x < bounds.width(); x++) {
+				int distance = distanceAt(x + maxDistance, y + maxDistance);
+				if (distance > exclusiveMin && distance <= inclusiveMax) {
+					answer.addAnyway(bounds.x() + x, bounds.y() + y);
+				}
+			}
+		}
+		return answer;
+	}
+
+	private int threshold(int distance) {
+		return metric == Metric.EUCLIDEAN ? distance * distance : distance;
+	}
+
+	private void checkDistance(int distance) {
+		if (distance < 0 || distance > maxDistance) {
+			throw new IllegalArgumentException(
+				"Distance must be in [0;" + maxDistance + "] (distance == " + distance + ")"
+			);
+		}
+	}
+
+	private int distanceAt(int windowX, int windowY) {
+		return distances[windowY * windowWidth + windowX];
+	}
+
+	/**
+	 * Computes Chebyshov or Manhattan distances with a forward and a backward raster scan.
+	 *
+	 * @param diagonals
+	 * 	Whether diagonal neighbors are at distance 1 (Chebyshov) or not (Manhattan).
+	 */
+	private void scan(boolean diagonals) {
+		for (int y = 0; y < windowHeight; y++) {
+			for (int x = 0; x < windowWidth; x++) {
+				int index = y * windowWidth + x;
+				int distance = distances[index];
+				if (x > 0) {
+					distance = Math.min(distance, distances[index - 1] + 1);
+				}
+				if (y > 0) {
+					distance = Math.min(distance, distances[index - windowWidth] + 1);
+					if (diagonals && x > 0) {
+						distance = Math.min(distance, distances[index - windowWidth - 1] + 1);
+					}
+					if (diagonals && x < windowWidth - 1) {
+						distance = Math.min(distance, distances[index - windowWidth + 1] + 1);
+					}
+				}
+				distances[index] = distance;
+			}
+		}
+		for (int y = windowHeight - 1; y >= 0; y--) {
+			for (int x = windowWidth - 1; x >= 0; x--) {
+				int index = y * windowWidth + x;
+				int distance = distances[index];
+				if (x < windowWidth - 1) {
+					distance = Math.min(distance, distances[index + 1] + 1);
+				}
+				if (y < windowHeight - 1) {
+					distance = Math.min(distance, distances[index + windowWidth] + 1);
+					if (diagonals && x < windowWidth - 1) {
+						distance = Math.min(distance, distances[index + windowWidth + 1] + 1);
+					}
+					if (diagonals && x > 0) {
+						distance = Math.min(distance, distances[index + windowWidth - 1] + 1);
+					}
+				}
+				distances[index] = distance;
+			}
+		}
+	}
+
+	/**
+	 * Computes squared Euclidean distances, first along each column and then along each row.
+	 */
+	private void transformSquaredEuclidean() {
+		int length = Math.max(windowWidth, windowHeight);
+		long[] line = new long[length];
+		long[] transformed = new long[length];
+		int[] parabolas = new int[length];
+		double[] boundaries = new double[length + 1];
+		for (int x = 0; x < windowWidth; x++) {
+			for (int y = 0; y < windowHeight; y++) {
+				line[y] = distances[y * windowWidth + x];
+			}
+			transform1d(line, windowHeight, transformed, parabolas, boundaries);
+			for (int y = 0; y < windowHeight; y++) {
+				distances[y * windowWidth + x] = (int) Math.min(transformed[y], FAR);
+			}
+		}
+		for (int y = 0; y < windowHeight; y++) {
+			for (int x = 0; x < windowWidth; x++) {
+				line[x] = distances[y * windowWidth + x];
+			}
+			transform1d(line, windowWidth, transformed, parabolas, boundaries);
+			for (int x = 0; x < windowWidth; x++) {
+				distances[y * windowWidth + x] = (int) Math.min(transformed[x], FAR);
+			}
+		}
+	}
+
+	/**
+	 * One-dimensional squared Euclidean distance transform of a sampled function: for each {@code q} finds the least
+	 * {@code (q - p)^2 + f[p]}.
+	 *
+	 * @param f
+	 * 	Values of the function.
+	 * @param n
+	 * 	Number of values.
+	 * @param answer
+	 * 	Where to put the results.
+	 * @param parabolas
+	 * 	Buffer for vertices of parabolas in the lower envelope.
+	 * @param boundaries
+	 * 	Buffer for points where parabolas of the lower envelope meet.
+	 */
+	private static void transform1d(long[] f, int n, long[] answer, int[] parabolas, double[] boundaries) {
+		int k = 0;
+		parabolas[0] = 0;
+		boundaries[0] = Double.NEGATIVE_INFINITY;
+		boundaries[1] = Double.POSITIVE_INFINITY;
+		for (int q = 1; q < n; q++) {
+			double s = intersection(f, q, parabolas[k]);
+			// boundaries[0] is -infinity, so k never gets below 0
+			while (s <= boundaries[k]) {
+				k--;
+				s = intersection(f, q, parabolas[k]);
+			}
+			k++;
+			parabolas[k] = q;
+			boundaries[k] = s;
+			boundaries[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		k = 0;
+		for (int q = 0; q < n; q++) {
+			while (boundaries[k + 1] < q) {
+				k++;
+			}
+			int p = parabolas[k];
+			answer[q] = (long) (q - p) * (q - p) + f[p];
+		}
+	}
+
+	/**
+	 * @return Coordinate where parabolas with vertices at {@code q} and {@code p} intersect.
+	 */
+	private static double intersection(long[] f, int q, int p) {
+		return ((f[q] + (long) q * q) - (f[p] + (long) p * p)) / (2.0 * (q - p));
+	}
+}
@@ -33,14 +33,11 @@ public final class ShapeFromOutline {
 			polygons.add(new BasicPolygon(polygon));
 		}
 
-		CellSet shape = polygons.stream()
-			.map(polygon -> (CellSet) new MutableRasterizedPolygon(polygon))
-			.reduce((a, b) -> a.xor(b))
-			.get();
-		return new CachedCellSet(
-			shape,
-			outline.integerBounds()
-		);
+		BitCellSet shape = new BitCellSet(outline.integerBounds());
+		for (Polygon polygon : polygons) {
+			shape.toggleAll(BitCellSet.from(new MutableRasterizedPolygon(polygon)));
+		}
+		return shape;
 
 //		FiniteCellSet edgeCells = requireNonNull(outline)
 //			.edgeSet()
@@ -0,0 +1,155 @@
+package org.tendiwa.geometry.extensions.daveedvMaxRec;
+
+import org.tendiwa.geometry.ArrayBackedCellSet;
+import org.tendiwa.geometry.BasicRectangle;
+import org.tendiwa.geometry.Rectangle;
+
+import java.util.Optional;
+
+/**
+ * Finds maximal rectangles in a raster one after another, each next one among cells not covered by the previous ones.
+ * <p>
+ * Uses the same algorithm as {@link ArrayBackedCellSet#maximalRectangle()}, and finds the same rectangles: for each
+ * column there is a histogram of lengths of runs of cells to the right of each cell of that column, and the largest
+ * rectangle under each histogram is found with a stack. But here histograms and the largest rectangle under each of
+ * them are kept between searches. Excluding a rectangle changes runs only in rows it covers, and only in columns from
+ * where the runs it cuts start to its right side, so only those columns are scanned again.
+ */
+final class MaximalRectangles {
+	private final int minX;
+	private final int minY;
+	private final int width;
+	private final int height;
+	/**
+	 * Number of consecutive cells to the right of a cell, including that cell, by {@code x * height + y}.
+	 */
+	private final int[] runs;
+	/**
+	 * Largest rectangle under each column's histogram, in coordinates relative to the raster's corner.
+	 */
+	private final int[] bestAreas;
+	private final int[] bestYs;
+	private final int[] bestWidths;
+	private final int[] bestHeights;
+	private final int[] stackYs;
+	private final int[] stackWidths;
+
+	/**
+	 * @param raster
+	 * 	Cells to cover. It is read only in this constructor.
+	 */
+	MaximalRectangles(ArrayBackedCellSet raster) {
+		Rectangle bounds = raster.getBounds();
+		this.minX = bounds.x();
+		this.minY = bounds.y();
+		this.width = bounds.width();
+		this.height = bounds.height();
+		this.runs = new int[width * height];
+		this.bestAreas = new int[width];
+		this.bestYs = new int[width];
+		this.bestWidths = new int[width];
+		this.bestHeights = new int[width];
+		this.stackYs = new int[height + 1];
+		this.stackWidths = new int[height + 1];
+		for (int x = width - 1; x >= 0; x--) {
+			for (int y = 0; y < height; y++) {
+				if (raster.arrayElement(x, y)) {
+					runs[x * height + y] = x == width - 1 ? 1 : runs[(x + 1) * height + y] + 1;
+				}
+			}
+			scanColumn(x);
+		}
+	}
+
+	/**
+	 * @return The largest rectangle of cells not excluded yet, with absolute coordinates, or an empty Optional if all
+	 * cells are excluded.
+	 */
+	Optional<Rectangle> find() {
+		int best = -1;
+		for (int x = width - 1; x >= 0; x--) {
+			if (bestAreas[x] > 0 && (best == -1 || bestAreas[x] > bestAreas[best])) {
+				best = x;
+			}
+		}
+		if (best == -1) {
+			return Optional.empty();
+		}
+		return Optional.of(new BasicRectangle(
+			minX + best,
+			minY + bestYs[best],
+			bestWidths[best],
+			bestHeights[best]
+		));
+	}
+
+	/**
+	 * Excludes cells of a rectangle, so they won't be in rectangles found after that.
+	 *
+	 * @param rectangle
+	 * 	A rectangle with absolute coordinates. Its parts outside the raster are ignored.
+	 */
+	void exclude(Rectangle rectangle) {
+		int startX = Math.max(rectangle.x() - minX, 0);
+		int endX = Math.min(rectangle.x() + rectangle.width() - minX, width);
+		int startY = Math.max(rectangle.y() - minY, 0);
+		int endY = Math.min(rectangle.y() + rectangle.height() - minY, height);
+		if (startX >= endX || startY >= endY) {
+			return;
+		}
+		int firstChangedColumn = startX;
+		for (int y = startY; y < endY; y++) {
+			for (int x = startX; x < endX; x++) {
+				runs[x * height + y] = 0;
+			}
+			int x = startX - 1;
+			while (x >= 0 && runs[x * height + y] != 0) {
+				runs[x * height + y] = runs[(x + 1) * height + y] + 1;
+				x--;
+			}
+			firstChangedColumn = Math.min(firstChangedColumn, x + 1);
+		}
+		for (int x = firstChangedColumn; x < endX; x++) {
+			scanColumn(x);
+		}
+	}
+
+	/**
+	 * Finds the largest rectangle whose left side is in a column.
+	 */
+	private void scanColumn(int x) {
+		int columnStart = x * height;
+		int bestArea = 0;
+		int stackSize = 0;
+		int width = 0;
+		for (int y = 0; y < height + 1; y++) {
+			int run = y < height ? runs[columnStart + y] : 0;
+			if (run > width) {
+				stackYs[stackSize] = y;
+				stackWidths[stackSize++] = width;
+				width = run;
+			} else if (run < width) {
+				int y0, w0;
+				do {
+					stackSize--;
+					y0 = stackYs[stackSize];
+					w0 = stackWidths[stackSize];
+					int area = width * (y - y0);
+					if (area > bestArea) {
+						bestArea = area;
+						bestYs[x] = y0;
+						bestWidths[x] = width;
+						bestHeights[x] = y - y0;
+					}
+					width = w0;
+				} while (run < width);
+				width = run;
+				if (width != 0) {
+					stackYs[stackSize] = y0;
+					stackWidths[stackSize++] = w0;
+				}
+			}
+		}
+		bestAreas[x] = bestArea;
+	}
+}
@@ -3,7 +3,6 @@ package org.tendiwa.geometry.extensions.daveedvMaxRec;
 import com.google.common.collect.ForwardingList;
 import com.google.common.collect.ImmutableList;
 import lombok.Lazy;
-import org.tendiwa.geometry.Mutable2DCellSet;
 import org.tendiwa.geometry.Rectangle;
 import org.tendiwa.geometry.extensions.polygonRasterization.RasterizedPolygon;
 
@@ -34,17 +33,15 @@ public class RectangleCoverage extends ForwardingList<Rectangle> {
 	 */
 	private ImmutableList<Rectangle> rectangles() {
 		Optional<Rectangle> r;
-		Mutable2DCellSet rasterCopy = new Mutable2DCellSet(polygon);
+		MaximalRectangles maximalRectangles = new MaximalRectangles(polygon);
 		ImmutableList.Builder<Rectangle> builder = ImmutableList.builder();
 		while (true) {
-			r = rasterCopy.maximalRectangle();
+			r = maximalRectangles.find();
 			if (!r.isPresent() || r.get().area() < minimumArea) {
 				break;
 			}
-			Rectangle bounds = rasterCopy.getBounds();
-			Rectangle maxRecAbsolute = r.get().translate(bounds.x(), bounds.y());
-			builder.add(maxRecAbsolute);
-			rasterCopy.excludeRectangle(maxRecAbsolute);
+			builder.add(r.get());
+			maximalRectangles.exclude(r.get());
 		}
 		return builder.build();
 	}
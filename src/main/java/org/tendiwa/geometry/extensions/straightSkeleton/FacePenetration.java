@@ -21,11 +21,11 @@ final class FacePenetration implements Iterator<Point2D> {
 
 	private final Queue<Point2D> queue;
 
-	public FacePenetration(StraightSkeletonFace face, Penetrable front) {
+	public FacePenetration(SweptFace face, Penetrable front) {
 //		TestCanvas.canvas.draw(faceFront(face), DrawingSegment2D.withColorDirected(Color.cyan, 1));
 		queue = new PriorityQueue<>(Point2D::compareCoordinatesLinewise);
-		Segment2D intruded = intrudeFaceFront(face, front.depth());
-		face.toSegments().stream()
+		Segment2D intruded = intrudeFaceFront(face.face, front.depth());
+		face.segments.stream()
 			.map(segment -> front.obtainIntersectionPoint(segment, intruded))
 			.filter(Optional::isPresent)
 			.map(Optional::get)
@@ -35,7 +35,7 @@ final class FacePenetration implements Iterator<Point2D> {
 		if (!ok) {
 			new TestCanvas(4, rectangle(100, 100))
 				.draw(
-					new DrawablePolygon.Thin(face, Color.red)
+					new DrawablePolygon.Thin(face.face, Color.red)
 					.andThen(new DrawablePoint2D.Circle(queue.peek(),Color.blue, 1))
 					.andThen(new DrawableSegment2D.Thin(intruded, Color.green))
 				);
@@ -10,6 +10,7 @@ import org.tendiwa.geometry.*;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -266,7 +267,12 @@ abstract class Node implements Iterable<Node> {
 	}
 
 	@Nullable
-	protected SkeletonEvent computeNearerBisectorsIntersection() {
+	/**
+	 * @param isSplitEventSearchBounded
+	 * 	Whether {@link #findSplitEvent(double, boolean)} skips opposite edges by a lower bound of distance to their
+	 * 	split points.
+	 */
+	protected SkeletonEvent computeNearerBisectorsIntersection(boolean isSplitEventSearchBounded) {
 		// Non-convex 1c
 		RayIntersection nextIntersection = bisectorsIntersection(next());
 		EdgeEvent sameLineIntersection = trySameLineIntersection(nextIntersection, this, next());
@@ -299,7 +305,10 @@ abstract class Node implements Iterable<Node> {
 			}
 		}
 		if (isReflex) {
-			SkeletonEvent splitEvent = findSplitEvent();
+			SkeletonEvent splitEvent = findSplitEvent(
+				shrinkPoint == null ? Double.POSITIVE_INFINITY : vertex.distanceTo(shrinkPoint),
+				isSplitEventSearchBounded
+			);
 			if (splitPointIsBetterThanShrinkPoint(splitEvent, shrinkPoint)) {
 				return splitEvent;
 			}
@@ -347,21 +356,62 @@ abstract class Node implements Iterable<Node> {
 	 * [Obdrzalek 1998, paragraph 2.2, figure 4]
 	 * <p>
 	 * Computes the point where a split event occurs.
+	 * <p>
+	 * Opposite edges are tested in order of a lower bound of distance from {@link #vertex} to their split points, and
+	 * the search stops when that bound gets greater than distance to the best split point found so far. A split point
+	 * is as far from the opposite edge's line as from lines of this node's edges. The latter distance is {@code t0} at
+	 * {@link #vertex}, which is more than 0 for nodes created after the polygon started shrinking, and it grows along
+	 * {@link #bisector} by {@code k} per unit of length, where {@code k <= 1}. So at distance {@code s} from {@link
+	 * #vertex} along the bisector, {@code t0 + k * s >= vertex.distanceToLine(oppositeEdge) - s}, and distance to a
+	 * split point is at least {@code (vertex.distanceToLine(oppositeEdge) - t0) / (1 + k)}.
 	 *
-	 * @return The point where split event occurs, or null if there is no split event emanated from {@code reflexNode}.
+	 * @param maxDistance
+	 * 	Split points that are this far from {@link #vertex} or further are not searched for, because a nearer edge
+	 * 	event would be chosen over them anyway.
+	 * @param isBounded
+	 * 	Whether opposite edges are skipped by the lower bound, or each of them is tested.
+	 * @return The point where split event occurs, or null if there is no split event emanated from {@code reflexNode}
+	 * nearer than {@code maxDistance}.
 	 */
 	@Nullable
-	private SplitEvent findSplitEvent() {
+	private SplitEvent findSplitEvent(double maxDistance, boolean isBounded) {
 		assert isReflex;
+		List<Node> lav = new ArrayList<>();
+		for (Node node : this) {
+			lav.add(node);
+		}
+		double growthRate = distanceGrowthRateAlongBisector();
+		double shrinkDistance = vertex.distanceToLine(previousEdge());
+		// Lower bound of distance in high bits, index in the lav in low bits
+		long[] candidates = new long[lav.size()];
+		for (int i = 0; i < candidates.length; i++) {
+			float bound = isBounded
+				? roundDown((vertex.distanceToLine(lav.get(i).currentEdge()) - shrinkDistance) / (1 + growthRate))
+				: 0;
+			candidates[i] = (long) Float.floatToIntBits(bound) << 32 | i;
+		}
+		Arrays.sort(candidates);
 		Point2D splitPoint = null;
 		Node originalEdgeStart = null;
-		for (Node node : this) {
+		int splitPointIndex = -1;
+		double splitPointDistance = maxDistance;
+		for (long candidate : candidates) {
+			if (Float.intBitsToFloat((int) (candidate >>> 32)) > splitPointDistance) {
+				break;
+			}
+			int index = (int) candidate;
+			Node node = lav.get(index);
 			if (nodeIsAppropriate(node)) {
 				Point2D point = computeSplitPoint(node.currentEdge());
 				if (node.isPointInAreaBetweenEdgeAndItsBisectors(point)) {
-					if (newSplitPointIsBetter(splitPoint, point)) {
+					double distance = vertex.distanceTo(point);
+					// Of equally distant points, the one first in the lav is chosen
+					if (distance < splitPointDistance
+						|| distance == splitPointDistance && splitPoint != null && index < splitPointIndex) {
 						splitPoint = point;
 						originalEdgeStart = node;
+						splitPointIndex = index;
+						splitPointDistance = distance;
 					}
 				}
 			}
@@ -376,6 +426,25 @@ abstract class Node implements Iterable<Node> {
 		);
 	}
 
+	/**
+	 * @return How much distance to lines of this node's edges grows per unit of length along {@link #bisector}.
+	 */
+	private double distanceGrowthRateAlongBisector() {
+		Vector2D direction = bisector.asVector().normalize();
+		Vector2D edge = previousEdge().asVector().normalize();
+		return Math.abs(direction.x() * edge.y() - direction.y() * edge.x());
+	}
+
+	/**
+	 * @return The greatest float not greater than {@code value} minus a margin for rounding errors of computing split
+	 * points.
+	 */
+	private static float roundDown(double value) {
+		double withMargin = Math.max(value * (1 - 1e-9) - Vectors2D.EPSILON, 0);
+		float answer = (float) withMargin;
+		return answer > withMargin ? Math.nextDown(answer) : answer;
+	}
+
 	/**
 	 * [Obdrzalek 1998, paragraph 2.2, Figure 4]
 	 * <p>
@@ -421,11 +490,6 @@ abstract class Node implements Iterable<Node> {
 		);
 	}
 
-	private boolean newSplitPointIsBetter(Point2D oldSplitPoint, Point2D newSplitPoint) {
-		return oldSplitPoint == null
-			|| vertex.distanceTo(oldSplitPoint) > vertex.distanceTo(newSplitPoint);
-	}
-
 	private boolean nodeIsNeighbor(Node node) {
 		return node == this || node == previous() || node == next();
 	}
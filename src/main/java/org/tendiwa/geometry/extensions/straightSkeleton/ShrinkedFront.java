@@ -21,11 +21,11 @@ final class ShrinkedFront implements Penetrable {
 	/**
 	 * @param faces
 	 * 	Clockwise polygons partitioning a compound polygon. For each partitioning polygon, its last edge is the only
-	 * 	edge touching the perimeter of the compound polygon.
+	 * 	edge touching the perimeter of the compound polygon. Faces that don't reach {@code depth} may be omitted.
 	 * @param depth
 	 * 	How much to intrude the polygon.
 	 */
-	ShrinkedFront(Collection<StraightSkeletonFace> faces, double depth) {
+	ShrinkedFront(Collection<SweptFace> faces, double depth) {
 		assert depth > Vectors2D.EPSILON;
 		this.depth = depth;
 		// Minimum possible number of points on a front is faces.size(), so we pick a value twice as big. That should
@@ -1,28 +1,79 @@
 package org.tendiwa.geometry.extensions.straightSkeleton;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import lombok.Lazy;
 import org.jgrapht.UndirectedGraph;
-import org.tendiwa.collections.Collectors;
+import org.jgrapht.graph.UnmodifiableUndirectedGraph;
 import org.tendiwa.geometry.*;
 import org.tendiwa.geometry.extensions.PlanarGraphs;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
-import static org.tendiwa.collections.Collectors.toLinkedHashSet;
+import static org.tendiwa.collections.Collectors.toImmutableList;
+import static org.tendiwa.collections.Collectors.toImmutableSet;
 
 public final class SuseikaStraightSkeleton implements StraightSkeleton {
 	private final InitialListOfActiveVertices initialLav;
 	private final PriorityQueue<SkeletonEvent> queue;
 	private final Multimap<Point2D, Point2D> arcs = HashMultimap.create();
 	final Debug debug = new Debug();
-	private static int skeletonNumber = 0;
+	private static final AtomicInteger skeletonNumber = new AtomicInteger();
 	private final Polygon polygon;
-	private int hash = skeletonNumber++;
+	private final int hash = skeletonNumber.getAndIncrement();
+	/**
+	 * Already computed caps by their depths.
+	 */
+	private final Map<Double, ImmutableSet<Polygon>> caps = new ConcurrentHashMap<>();
+	/**
+	 * Whether split events are searched for only among opposite edges whose lower bound of distance to a split point
+	 * is less than distance to the best split point found so far.
+	 */
+	private final boolean isSplitEventSearchBounded;
 
 	public SuseikaStraightSkeleton(Polygon polygon) {
-		this(polygon, false);
+		this(polygon, false, true);
+	}
+
+	/**
+	 * Computes a skeleton testing each opposite edge of each reflex node for a split event. Produces the same skeleton
+	 * as {@link #SuseikaStraightSkeleton(Polygon)}, only slower; it is used to check the bounded search.
+	 *
+	 * @param polygon
+	 * 	A polygon to compute a skeleton of.
+	 * @return A skeleton of {@code polygon}.
+	 */
+	static SuseikaStraightSkeleton withExhaustiveSplitEventSearch(Polygon polygon) {
+		return new SuseikaStraightSkeleton(polygon, false, false);
+	}
+
+	/**
+	 * Computes straight skeletons of many polygons in parallel.
+	 *
+	 * @param polygons
+	 * 	Polygons to compute skeletons of.
+	 * @param pool
+	 * 	A pool to compute each skeleton in.
+	 * @return Skeletons in the same order as {@code polygons}.
+	 */
+	public static ImmutableList<SuseikaStraightSkeleton> computeAll(
+		Collection<? extends Polygon> polygons,
+		ForkJoinPool pool
+	) {
+		List<ForkJoinTask<SuseikaStraightSkeleton>> tasks = new ArrayList<>(polygons.size());
+		for (Polygon polygon : polygons) {
+			tasks.add(pool.submit(() -> new SuseikaStraightSkeleton(polygon)));
+		}
+		return tasks.stream()
+			.map(ForkJoinTask::join)
+			.collect(toImmutableList());
 	}
 
 	@Override
@@ -30,8 +81,13 @@ public final class SuseikaStraightSkeleton implements StraightSkeleton {
 		return hash;
 	}
 
-	private SuseikaStraightSkeleton(Polygon polygon, boolean trustCounterClockwise) {
+	private SuseikaStraightSkeleton(
+		Polygon polygon,
+		boolean trustCounterClockwise,
+		boolean isSplitEventSearchBounded
+	) {
 		this.polygon = polygon;
+		this.isSplitEventSearchBounded = isSplitEventSearchBounded;
 //		Utils.printListOfPoints(vertices);
 
 		this.initialLav = new InitialListOfActiveVertices(polygon, trustCounterClockwise);
@@ -60,7 +116,7 @@ public final class SuseikaStraightSkeleton implements StraightSkeleton {
 	 * 	A node that produces an event.
 	 */
 	void queueEventFromNode(Node node) {
-		SkeletonEvent e = node.computeNearerBisectorsIntersection();
+		SkeletonEvent e = node.computeNearerBisectorsIntersection(isSplitEventSearchBounded);
 		if (e != null) {
 			queue.add(e);
 		}
@@ -73,6 +129,7 @@ public final class SuseikaStraightSkeleton implements StraightSkeleton {
 		debug.testForNoIntersection(arcs, start, end);
 	}
 
+	@Lazy
 	@Override
 	public UndirectedGraph<Point2D, Segment2D> graph() {
 		UndirectedGraph<Point2D, Segment2D> graph = PlanarGraphs.createGraph();
@@ -84,7 +141,7 @@ public final class SuseikaStraightSkeleton implements StraightSkeleton {
 				graph.addEdge(start, end);
 			}
 		}
-		return graph;
+		return new UnmodifiableUndirectedGraph<>(graph);
 	}
 
 	@Override
@@ -99,16 +156,65 @@ public final class SuseikaStraightSkeleton implements StraightSkeleton {
 		}
 		if (depth <= Vectors2D.EPSILON) {
 			return ImmutableSet.of(polygon);
-		} else {
-			return new ShrinkedFront(faces(), depth).polygons();
 		}
+		return caps.computeIfAbsent(
+			depth,
+			d -> new ShrinkedFront(
+				sweptFaces().stream()
+					.filter(face -> face.reaches(d))
+					.collect(toImmutableList()),
+				d
+			).polygons()
+		);
+	}
+
+	/**
+	 * Computes caps for several depths going from the least depth to the greatest one, and omitting faces as soon as
+	 * caps get deeper than those faces.
+	 */
+	@Override
+	public ImmutableList<ImmutableSet<Polygon>> caps(double... depths) {
+		List<ImmutableSet<Polygon>> answer = new ArrayList<>(Collections.nCopies(depths.length, null));
+		List<SweptFace> reachedFaces = new ArrayList<>(sweptFaces());
+		IntStream.range(0, depths.length)
+			.boxed()
+			.sorted(Comparator.comparingDouble(i -> depths[i]))
+			.forEachOrdered(i -> {
+				double depth = depths[i];
+				if (depth <= Vectors2D.EPSILON) {
+					answer.set(i, cap(depth));
+					return;
+				}
+				reachedFaces.removeIf(face -> !face.reaches(depth));
+				answer.set(
+					i,
+					caps.computeIfAbsent(depth, d -> new ShrinkedFront(reachedFaces, d).polygons())
+				);
+			});
+		return ImmutableList.copyOf(answer);
 	}
 
+	@Lazy
 	@Override
 	public Set<StraightSkeletonFace> faces() {
 		return initialLav.nodes.stream()
 			.map(node -> node.face().toPolygon())
-			.collect(toLinkedHashSet());
+			.collect(toImmutableSet());
+	}
+
+	@Override
+	public double vanishDepth() {
+		return sweptFaces().stream()
+			.mapToDouble(face -> face.depth)
+			.max()
+			.orElse(0);
+	}
+
+	@Lazy
+	ImmutableList<SweptFace> sweptFaces() {
+		return faces().stream()
+			.map(SweptFace::new)
+			.collect(toImmutableList());
 	}
 
 	void queueEvent(SplitEvent splitEvent) {
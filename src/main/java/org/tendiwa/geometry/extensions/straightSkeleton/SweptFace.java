@@ -0,0 +1,44 @@
+package org.tendiwa.geometry.extensions.straightSkeleton;
+
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.Segment2D;
+import org.tendiwa.geometry.StraightSkeletonFace;
+import org.tendiwa.geometry.Vectors2D;
+
+import java.util.List;
+
+/**
+ * A {@link StraightSkeletonFace} prepared for computing caps of a skeleton at many depths: its segments are computed
+ * once, and it is known how deep the face goes.
+ */
+final class SweptFace {
+	final StraightSkeletonFace face;
+	final List<Segment2D> segments;
+	/**
+	 * Greatest distance from a point of {@link #face} to its front.
+	 */
+	final double depth;
+
+	SweptFace(StraightSkeletonFace face) {
+		this.face = face;
+		this.segments = face.toSegments();
+		Segment2D front = face.front();
+		double maxDistance = 0;
+		for (Point2D point : face) {
+			maxDistance = Math.max(maxDistance, point.distanceToLine(front));
+		}
+		this.depth = maxDistance;
+	}
+
+	/**
+	 * Checks if a cap of some depth may have a border inside this face.
+	 *
+	 * @param capDepth
+	 * 	Depth of a cap.
+	 * @return false if all points of this face are closer to its front than {@code capDepth}, so the border of a cap
+	 * doesn't cross any segment of this face; true otherwise.
+	 */
+	boolean reaches(double capDepth) {
+		return capDepth <= depth + Vectors2D.EPSILON;
+	}
+}
@@ -120,7 +120,7 @@ public interface Graph2D extends BoundedShape {
 	}
 
 	default boolean isPlanar() {
-		return ShamosHoeyAlgorithm.areIntersected(edgeSet());
+		return !ShamosHoeyAlgorithm.areIntersected(edgeSet());
 	}
 
 	@Override
@@ -27,10 +27,17 @@ public final class CycleWithInnerCycles implements PerforatedCycle2D {
 		this.allPolygons = allPolygons;
 	}
 
+	/**
+	 * Cycles of a planar graph don't cross each other, so a cycle is inside the enclosing cycle if any of its
+	 * vertices that are not on the enclosing cycle is inside it. Neighbouring cycles share vertices with the
+	 * enclosing cycle, and those shared vertices are neither inside nor outside it.
+	 */
 	private boolean isCycleInsideEnclosingCycle(Polygon cycle) {
-		return enclosingPolygon.containsPoint(
-			cycle.iterator().next()
-		);
+		return cycle.stream()
+			.filter(point -> !enclosingPolygon.contains(point))
+			.findFirst()
+			.map(enclosingPolygon::containsPoint)
+			.orElse(false);
 	}
 
 	@Lazy
@@ -1,7 +1,10 @@
 package org.tendiwa.geometry.smartMesh;
 
+import org.tendiwa.geometry.Point2D;
 import org.tendiwa.geometry.Ray;
 import org.tendiwa.geometry.Sector;
+import org.tendiwa.geometry.Segment2D;
+import org.tendiwa.geometry.graphs2d.Graph2D;
 import org.tendiwa.graphs.graphs2d.MutableGraph2D;
 
 import java.util.*;
@@ -10,33 +13,46 @@ import static org.tendiwa.collections.Collectors.toLinkedHashSet;
 
 final class Flood {
 	private final CycleEdges cycleEdges;
-	private final MutableGraph2D fullGraph;
+	private final GrowingNetwork cycleNetwork;
 	private final NetworkGenerationParameters config;
 	private final Random random;
 	private final DirectionDeviation directionDeviation;
 	private final InnerNetwork network;
 	private final CycleWithInnerCycles perforatedCycle;
 
+	/**
+	 * @param cycleNetwork
+	 * 	An empty graph to grow roads in. Edges of the cycle and its holes are added to it.
+	 */
 	Flood(
 		CycleWithInnerCycles perforatedCycle,
 		CycleEdges cycleEdges,
-		MutableGraph2D fullGraph,
+		GrowingNetwork cycleNetwork,
 		NetworkGenerationParameters config,
 		Random random
 	) {
 		this.perforatedCycle = perforatedCycle;
 		this.cycleEdges = cycleEdges;
-		this.fullGraph = fullGraph;
+		this.cycleNetwork = cycleNetwork;
 		this.config = config;
 		this.random = random;
 		this.directionDeviation = createDirectionDeviation();
 		this.network = new InnerNetwork(
 			perforatedCycle,
 			cycleEdges,
-			fullGraph,
+			cycleNetwork,
 			config,
 			random
 		);
+		addCycleEdges(perforatedCycle.hull());
+		perforatedCycle.holes().forEach(this::addCycleEdges);
+	}
+
+	private void addCycleEdges(Graph2D cycle) {
+		cycle.vertexSet().forEach(cycleNetwork::addVertex);
+		cycle.edgeSet().stream()
+			.filter(edge -> !cycleNetwork.containsEdge(edge.start(), edge.end()))
+			.forEach(cycleNetwork::addSegmentAsEdge);
 	}
 
 	void fill() {
@@ -45,11 +61,34 @@ final class Flood {
 		Set<FloodStart> missingFloods = perforatedCycle
 			.holes()
 			.stream()
-			.flatMap(hole -> hole.missingTreesStream(fullGraph))
+			.flatMap(hole -> hole.missingTreesStream(cycleNetwork, random))
 			.collect(toLinkedHashSet());
 		floodUntilDepletion(missingFloods);
 	}
 
+	/**
+	 * @return Points where roads grown by {@link #fill()} end on each cycle edge.
+	 * @see InnerNetwork#cycleEdgeCuts()
+	 */
+	Map<Segment2D, List<Point2D>> cycleEdgeCuts() {
+		return network.cycleEdgeCuts();
+	}
+
+	/**
+	 * Adds roads grown by {@link #fill()} to a graph. Cycle edges must already be split in that graph at
+	 * {@link #cycleEdgeCuts()} of all floods.
+	 *
+	 * @param graph
+	 * 	A graph of roads of all cycles.
+	 */
+	void integrateInto(MutableGraph2D graph) {
+		cycleNetwork.vertexSet().forEach(graph::addVertex);
+		cycleNetwork.edgeSet().stream()
+			.filter(edge -> !network.isPartOfCycleEdge(edge))
+			.filter(edge -> !graph.containsEdge(edge.start(), edge.end()))
+			.forEach(graph::addSegmentAsEdge);
+	}
+
 	private DirectionDeviation createDirectionDeviation() {
 		return config.favourAxisAlignedSegments ?
 			new AxisAlignedDirectionDeviation(config) :
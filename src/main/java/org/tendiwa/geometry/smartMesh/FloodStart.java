@@ -26,6 +26,6 @@ final class FloodStart {
 
 	private void assertPointIsStrictlyInsideSegment(Point2D point, Optional<Segment2D> holdingSegment) {
 		assert !holdingSegment.isPresent()
-			|| holdingSegment.get().boundingBox().strictlyContainsPoint(point);
+			|| holdingSegment.get().contains(point) && !holdingSegment.get().oneOfEndsIs(point);
 	}
 }
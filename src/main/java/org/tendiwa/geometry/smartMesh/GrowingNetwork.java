@@ -0,0 +1,76 @@
+package org.tendiwa.geometry.smartMesh;
+
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.RectangularHull;
+import org.tendiwa.geometry.Segment2D;
+import org.tendiwa.geometry.SegmentGrid;
+import org.tendiwa.graphs.graphs2d.BasicMutableGraph2D;
+
+import java.util.List;
+
+/**
+ * A graph of roads that new roads are being added to. Keeps its edges in a {@link SegmentGrid} updated on every
+ * edge addition and removal (so also on every edge split), so {@link SnapTest} finds roads near a new road without
+ * testing every road of the network.
+ */
+class GrowingNetwork extends BasicMutableGraph2D {
+	private final SegmentGrid edgeGrid;
+
+	/**
+	 * @param parameters
+	 * 	Parameters of roads that will be added to this graph, to choose size of the grid's buckets.
+	 */
+	GrowingNetwork(NetworkGenerationParameters parameters) {
+		super();
+		this.edgeGrid = new SegmentGrid(Math.max(parameters.segmentLength, parameters.snapSize));
+	}
+
+	/**
+	 * Finds edges whose hulls strictly intersect a hull.
+	 *
+	 * @param hull
+	 * 	Area to search in.
+	 * @return Edges in the same order as in {@link #edgeSet()}.
+	 */
+	List<Segment2D> edgesIntersectingHull(RectangularHull hull) {
+		return edgeGrid.segmentsIntersectingHull(hull);
+	}
+
+	@Override
+	@Deprecated
+	public Segment2D addEdge(Point2D sourceVertex, Point2D targetVertex) {
+		Segment2D edge = super.addEdge(sourceVertex, targetVertex);
+		if (edge != null) {
+			edgeGrid.add(edge);
+		}
+		return edge;
+	}
+
+	@Override
+	@Deprecated
+	public boolean addEdge(Point2D sourceVertex, Point2D targetVertex, Segment2D segment2D) {
+		boolean added = super.addEdge(sourceVertex, targetVertex, segment2D);
+		if (added) {
+			edgeGrid.add(segment2D);
+		}
+		return added;
+	}
+
+	@Override
+	public Segment2D removeEdge(Point2D sourceVertex, Point2D targetVertex) {
+		Segment2D edge = super.removeEdge(sourceVertex, targetVertex);
+		if (edge != null) {
+			edgeGrid.remove(edge);
+		}
+		return edge;
+	}
+
+	@Override
+	public boolean removeEdge(Segment2D segment2D) {
+		boolean removed = super.removeEdge(segment2D);
+		if (removed) {
+			edgeGrid.remove(segment2D);
+		}
+		return removed;
+	}
+}
@@ -19,13 +19,13 @@ public final class Hole extends BasicSplittableCycle2D implements MeshedNetworkC
 		super(polygon);
 	}
 
-	Stream<FloodStart> missingTreesStream(Graph2D fullGraph) {
+	Stream<FloodStart> missingTreesStream(Graph2D fullGraph, Random random) {
 		Set<Point2D> connections = pointsOfContactWithFullGraph(fullGraph);
 		if (connections.size() == 1) {
 			Point2D theOnlyConnection = connections.iterator().next();
 			return createMissingFloodStart(theOnlyConnection);
 		} else if (connections.size() == 0) {
-			return create2OppositeMissingFloodStarts();
+			return create2OppositeMissingFloodStarts(random);
 		} else {
 			return Stream.empty();
 		}
@@ -57,8 +57,8 @@ public final class Hole extends BasicSplittableCycle2D implements MeshedNetworkC
 		);
 	}
 
-	private Stream<FloodStart> create2OppositeMissingFloodStarts() {
-		Comparator<Point2D> coordinateComparator = new RandomCoordinateComparator(new Random());
+	private Stream<FloodStart> create2OppositeMissingFloodStarts(Random random) {
+		Comparator<Point2D> coordinateComparator = new RandomCoordinateComparator(random);
 		Point2D leastPoint =
 			vertexSet()
 				.stream()
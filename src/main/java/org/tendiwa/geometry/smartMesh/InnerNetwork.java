@@ -1,25 +1,32 @@
 package org.tendiwa.geometry.smartMesh;
 
+import org.tendiwa.geometry.Point2D;
 import org.tendiwa.geometry.Ray;
 import org.tendiwa.geometry.Sector;
 import org.tendiwa.geometry.Segment2D;
 import org.tendiwa.geometry.SplitSegment2D;
-import org.tendiwa.graphs.graphs2d.MutableGraph2D;
 
-import java.util.Optional;
-import java.util.Random;
+import java.util.*;
 
 final class InnerNetwork {
-	private final MutableGraph2D fullGraph;
+	private final GrowingNetwork fullGraph;
 	private final NetworkGenerationParameters config;
 	private final Random random;
 	private final CycleWithInnerCycles perforatedCycle;
 	private final CycleEdges cycleEdges;
+	/**
+	 * Points where roads of this network end on each cycle edge.
+	 */
+	private final Map<Segment2D, List<Point2D>> cycleEdgeCuts = new LinkedHashMap<>();
+	/**
+	 * Cycle edge that each part of a split cycle edge lies on.
+	 */
+	private final Map<Segment2D, Segment2D> cycleEdgeParts = new HashMap<>();
 
 	InnerNetwork(
 		CycleWithInnerCycles perforatedCycle,
 		CycleEdges cycleEdges,
-		MutableGraph2D fullGraph,
+		GrowingNetwork fullGraph,
 		NetworkGenerationParameters config,
 		Random random
 	) {
@@ -41,7 +48,9 @@ final class InnerNetwork {
 			fullGraph,
 			allowedSector
 		).snap();
-		assert event.createsNewSegment();
+		if (!event.createsNewSegment()) {
+			return Optional.empty();
+		}
 		integrateIntoNetwork(event);
 		if (event.isTerminal()) {
 			return Optional.empty();
@@ -51,12 +60,29 @@ final class InnerNetwork {
 	}
 
 	Optional<Ray> tryPlacingFirstSegment(FloodStart floodStart) {
-		if (!floodStart.holdingSegment.isPresent()) {
-			assert fullGraph.containsVertex(floodStart.rootRay.start);
+		Point2D root = floodStart.rootRay.start;
+		if (floodStart.holdingSegment.isPresent() && !fullGraph.containsVertex(root)) {
+			Segment2D cycleEdge = floodStart.holdingSegment.get();
+			splitCycleEdge(cycleEdge, partOfCycleEdgeWithPoint(cycleEdge, root), root);
 		}
+		assert fullGraph.containsVertex(root);
 		return tryPlacingSegment(floodStart.rootRay, floodStart.rootSector);
 	}
 
+	private Segment2D partOfCycleEdgeWithPoint(Segment2D cycleEdge, Point2D point) {
+		if (fullGraph.containsEdge(cycleEdge)) {
+			return cycleEdge;
+		}
+		return cycleEdgeParts.entrySet()
+			.stream()
+			.filter(e -> e.getValue().equals(cycleEdge))
+			.map(Map.Entry::getKey)
+			.filter(fullGraph::containsEdge)
+			.filter(part -> part.contains(point))
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("No part of " + cycleEdge + " contains " + point));
+	}
+
 
 	private double deviatedLength() {
 		return config.segmentLength - config.innerNetworkSegmentLengthDeviation / 2 + random.nextDouble() *
@@ -69,10 +95,11 @@ final class InnerNetwork {
 		Optional<Segment2D> splitMaybe = event.splitSegmentMaybe();
 		if (splitMaybe.isPresent()) {
 			Segment2D edge = splitMaybe.get();
-			if (cycleEdges.isShared(edge)) {
-				cycleEdges.splitSharedEdge(new SplitSegment2D(edge, event.target()));
-			} else {
+			Segment2D cycleEdge = cycleEdges.isShared(edge) ? edge : cycleEdgeParts.get(edge);
+			if (cycleEdge == null) {
 				fullGraph.integrateCutSegment(new SplitSegment2D(edge, newSegment.end()));
+			} else {
+				splitCycleEdge(cycleEdge, edge, event.target());
 			}
 		}
 
@@ -81,4 +108,38 @@ final class InnerNetwork {
 
 		NonIntersectionTest.test(fullGraph, newSegment);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @param cycleEdge
+	 * 	A cycle edge.
+	 * @param edge
+	 * 	The cycle edge itself or its part in the graph of this network.
+	 * @param point
+	 * 	A point on the edge.
+	 */
+	private void splitCycleEdge(Segment2D cycleEdge, Segment2D edge, Point2D point) {
+		SplitSegment2D split = new SplitSegment2D(edge, point);
+		fullGraph.integrateCutSegment(split);
+		split.segmentStream().forEach(part -> cycleEdgeParts.put(part, cycleEdge));
+		cycleEdgeCuts.computeIfAbsent(cycleEdge, e -> new ArrayList<>()).add(point);
+	}
+
+	/**
+	 * Cycle edges are split only in the graph of this network while it grows, because they are shared with graphs
+	 * of other cycles, which may be growing at the same time.
+	 *
+	 * @return Points where roads of this network end on each cycle edge, in the order they were added.
+	 */
+	Map<Segment2D, List<Point2D>> cycleEdgeCuts() {
+		return cycleEdgeCuts;
+	}
+
+	/**
+	 * @param edge
+	 * 	An edge of the graph of this network.
+	 * @return true if the edge is a part of a cycle edge split by {@link #cycleEdgeCuts()}, false otherwise.
+	 */
+	boolean isPartOfCycleEdge(Segment2D edge) {
+		return cycleEdgeParts.containsKey(edge);
+	}
+}
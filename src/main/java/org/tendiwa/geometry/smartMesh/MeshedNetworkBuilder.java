@@ -8,7 +8,9 @@ import org.tendiwa.graphs.graphs2d.BasicMutableGraph2D;
 import org.tendiwa.graphs.graphs2d.MutableGraph2D;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A fluent builder to create instances of {@link SmartMeshedNetwork}.
@@ -62,6 +64,7 @@ public class MeshedNetworkBuilder {
 	private Double secondaryRoadNetworkRoadLengthDeviation;
 	private Random seededRandom;
 	private boolean favourAxisAlignedSegments;
+	private ForkJoinPool pool;
 
 	/**
 	 * Starts constructing a City defined by a {@code graph}.
@@ -181,6 +184,24 @@ public class MeshedNetworkBuilder {
 		return this;
 	}
 
+	/**
+	 * Makes roads inside different cycles of the graph grow in parallel. Each cycle gets its own seed taken from the
+	 * builder's seed, so the network is the same no matter how many threads the pool has, or if this method is not
+	 * called at all.
+	 * <p>
+	 * Cycles are grown independently even without this method: roads of one cycle don't snap to and aren't tested
+	 * for intersection with roads of other cycles, and edges shared by two cycles are split where roads end on them
+	 * only after all cycles are grown, so such splits don't affect how roads of the other cycle grow. Because of that
+	 * a network built from the same seed differs from networks built before cycles were grown independently.
+	 *
+	 * @param pool
+	 * 	A pool to grow roads of each cycle in.
+	 * @return The same builder.
+	 */
+	public MeshedNetworkBuilder withParallelGrowth(ForkJoinPool pool) {
+		this.pool = pool;
+		return this;
+	}
 
 	/**
 	 * Fills builder config with default parameters from this class's DEFAULT_* fields.
@@ -247,7 +268,8 @@ public class MeshedNetworkBuilder {
 		return new SmartMeshedNetwork(
 			createRoadGraph(graph.vertexSet(), graph.edgeSet()),
 			parameters,
-			seededRandom
+			seededRandom,
+			Optional.ofNullable(pool)
 		);
 	}
 
@@ -43,13 +43,14 @@ final class NodeSnapSearch implements EventSearch {
 	/**
 	 * Finds the best (closest) node, or returns empty if there is no appropriate node to snap to.
 	 *
-	 * @return The node to snap to, or empty.
+	 * @return The node to snap to, {@link SnapToNeighbor} if that node is already connected with the source, or
+	 * empty.
 	 */
 	@Override
 	public Optional<PropagationEvent> find() {
 		Set<Point2D> pointsToTest = findEndpointsToTestForNodeSnap(segmentsToTest);
 		return Optional.ofNullable(findClosestSnap(pointsToTest))
-			.filter(r -> !isNeighbor(r.target()));
+			.map(r -> isNeighbor(r.target()) ? new SnapToNeighbor(source, r.target()) : r);
 	}
 
 	private PropagationEvent findClosestSnap(Set<Point2D> pointsToTest) {
@@ -21,6 +21,10 @@ final class SegmentSnapSearch implements EventSearch {
 	private final Collection<Segment2D> segmentsToTest;
 	private final double snapSize;
 	private double minR;
+	/**
+	 * Distance from {@link #targetNode} to the closest road found so far.
+	 */
+	private double minDistance;
 	private SnapToSegment result;
 
 	public SegmentSnapSearch(
@@ -36,6 +40,7 @@ final class SegmentSnapSearch implements EventSearch {
 		this.segmentsToTest = segmentsToTest;
 		this.snapSize = snapSize;
 		this.minR = 1;
+		this.minDistance = snapSize - Vectors2D.EPSILON;
 	}
 
 	@Override
@@ -52,6 +57,7 @@ final class SegmentSnapSearch implements EventSearch {
 		Point2D targetPoint = whereToSnap.get().pointOnSegment(road);
 		assert !targetPoint.equals(sourceNode);
 		assert !fullNetworkGraph.containsVertex(targetPoint);
+		minDistance = whereToSnap.get().distance;
 		result = new SnapToSegment(
 			sourceNode,
 			targetPoint,
@@ -74,7 +80,7 @@ final class SegmentSnapSearch implements EventSearch {
 		if (pointPosition.r < Vectors2D.EPSILON || pointPosition.r > 1 - Vectors2D.EPSILON) {
 			return Optional.empty();
 		}
-		if (pointPosition.distance > snapSize - Vectors2D.EPSILON) {
+		if (pointPosition.distance >= minDistance) {
 			return Optional.empty();
 		}
 		return Optional.of(pointPosition);
@@ -1,39 +1,109 @@
 package org.tendiwa.geometry.smartMesh;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import org.tendiwa.geometry.CutSegment2D;
+import org.tendiwa.geometry.MutableShreddedSegment2D;
+import org.tendiwa.geometry.Point2D;
 import org.tendiwa.geometry.Polygon;
+import org.tendiwa.geometry.Segment2D;
 import org.tendiwa.geometry.graphs2d.Graph2D;
-import org.tendiwa.graphs.graphs2d.BasicMutableGraph2D;
 
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
-import static org.tendiwa.collections.Collectors.toImmutableSet;
+import static org.tendiwa.collections.Collectors.toImmutableList;
 
-final class SmartMeshedNetwork extends BasicMutableGraph2D implements MeshedNetwork {
+final class SmartMeshedNetwork extends GrowingNetwork implements MeshedNetwork {
 
+	/**
+	 * @param originalGraph
+	 * 	A planar graph whose cycles will be filled with roads.
+	 * @param parameters
+	 * 	Parameters of roads.
+	 * @param random
+	 * 	Source of seeds for each cycle. Roads inside each cycle are grown in their own graph with their own
+	 * 	{@link Random}, so the result is the same whether cycles are grown in parallel or one by one. Roads of a cycle
+	 * 	never snap to roads of other cycles. Each cycle splits its edges only in its own graph, and all points where
+	 * 	roads of any cycle end on an edge are applied to this graph as one cut of that edge.
+	 * @param pool
+	 * 	A pool to grow roads inside cycles in parallel, or empty to grow them in the current thread.
+	 */
 	SmartMeshedNetwork(
 		Graph2D originalGraph,
 		NetworkGenerationParameters parameters,
-		Random random
+		Random random,
+		Optional<ForkJoinPool> pool
 	) {
-		super();
+		super(parameters);
 		assert originalGraph.isPlanar();
 		MeshedNetworkPartitioning partitioning = new MeshedNetworkPartitioning(originalGraph);
 		CycleEdges cycleEdges = new CycleEdges(partitioning.cycles());
-		ImmutableSet<Flood> floods = partitioning
+		ImmutableList<Flood> floods = partitioning
 			.nestedCycles()
 			.stream()
 			.map(perforatedCycle ->
 					new Flood(
 						perforatedCycle,
 						cycleEdges,
-						this,
+						new GrowingNetwork(parameters),
 						parameters,
-						random
+						new Random(random.nextLong())
 					)
 			)
-			.collect(toImmutableSet());
-		floods.forEach(Flood::fill);
+			.collect(toImmutableList());
+		if (pool.isPresent()) {
+			List<ForkJoinTask<?>> tasks = floods.stream()
+				.map(flood -> pool.get().submit(flood::fill))
+				.collect(Collectors.toList());
+			tasks.forEach(ForkJoinTask::join);
+		} else {
+			floods.forEach(Flood::fill);
+		}
+		originalGraph.vertexSet().forEach(this::addVertex);
+		originalGraph.edgeSet().forEach(this::addSegmentAsEdge);
+		mergeCycleEdgeCuts(floods).forEach((edge, points) -> {
+			integrateCutSegment(cutAlong(getEdge(edge.start(), edge.end()), points));
+			cycleEdges.splitSharedEdge(cutAlong(edge, points));
+		});
+		floods.forEach(flood -> flood.integrateInto(this));
+	}
+
+	/**
+	 * Collects points where roads of all floods end on cycle edges. Neighbouring cycles have their own copies of
+	 * the edges they share, so cuts are merged by ends of edges, not by edges themselves.
+	 *
+	 * @return Points on each cycle edge. A cycle edge of the flood that cut it first represents all its copies.
+	 */
+	private static Map<Segment2D, List<Point2D>> mergeCycleEdgeCuts(List<Flood> floods) {
+		Map<Segment2D, Segment2D> copies = new HashMap<>();
+		Map<Segment2D, List<Point2D>> cuts = new LinkedHashMap<>();
+		for (Flood flood : floods) {
+			flood.cycleEdgeCuts().forEach((edge, points) -> {
+				Segment2D representative = copies.computeIfAbsent(edge, e -> copies.getOrDefault(e.reverse(), e));
+				cuts.computeIfAbsent(representative, e -> new ArrayList<>()).addAll(points);
+			});
+		}
+		return cuts;
+	}
+
+	/**
+	 * @param edge
+	 * 	An edge.
+	 * @param points
+	 * 	Points on the edge in any order, maybe repeated.
+	 * @return The edge cut at all the points, with its parts going from its start to its end.
+	 */
+	private static CutSegment2D cutAlong(Segment2D edge, List<Point2D> points) {
+		return new MutableShreddedSegment2D(
+			edge,
+			points.stream()
+				.distinct()
+				.sorted(Comparator.comparingDouble(edge.start()::squaredDistanceTo))
+				.collect(toImmutableList())
+		);
 	}
 
 	@Override
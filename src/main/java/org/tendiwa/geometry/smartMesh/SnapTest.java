@@ -1,10 +1,8 @@
 package org.tendiwa.geometry.smartMesh;
 
-import org.jgrapht.UndirectedGraph;
 import org.tendiwa.geometry.*;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 /**
  * Checks if a 2d segment defined by a start and an end points snaps to any vertex or edge of a 2d graph.
@@ -12,7 +10,7 @@ import java.util.stream.Collectors;
 final class SnapTest {
 	private final double snapSize;
 	private final Point2D source;
-	private final UndirectedGraph<Point2D, Segment2D> fullNetworkGraph;
+	private final GrowingNetwork fullNetworkGraph;
 	private final Point2D unsnappedTarget;
 	/**
 	 * Which roads can hold the point to snap to.
@@ -40,7 +38,7 @@ final class SnapTest {
 		double snapSize,
 		Point2D source,
 		Point2D target,
-		UndirectedGraph<Point2D, Segment2D> fullNetworkGraph,
+		GrowingNetwork fullNetworkGraph,
 		Sector allowedSector
 	) {
 		this.allowedSector = allowedSector;
@@ -127,8 +125,6 @@ final class SnapTest {
 			Math.min(onePoint.y(), anotherPoint.y()) - snapSize,
 			Math.max(onePoint.y(), anotherPoint.y()) + snapSize
 		);
-		return fullNetworkGraph.edgeSet().stream()
-			.filter(hull::intersectsHull)
-			.collect(Collectors.toList());
+		return fullNetworkGraph.edgesIntersectingHull(hull);
 	}
 }
\ No newline at end of file
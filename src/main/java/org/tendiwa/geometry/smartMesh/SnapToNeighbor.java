@@ -0,0 +1,49 @@
+package org.tendiwa.geometry.smartMesh;
+
+import org.tendiwa.geometry.BasicSegment2D;
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.Segment2D;
+
+import java.util.Optional;
+
+/**
+ * A new segment would snap to a node that is already connected with the segment's source, so it would only repeat
+ * an existing road.
+ */
+final class SnapToNeighbor implements PropagationEvent {
+	private final Segment2D segment;
+
+	SnapToNeighbor(Point2D source, Point2D target) {
+		this.segment = new BasicSegment2D(source, target);
+	}
+
+	@Override
+	public boolean createsNewSegment() {
+		return false;
+	}
+
+	@Override
+	public Point2D target() {
+		return segment.end();
+	}
+
+	@Override
+	public Point2D source() {
+		return segment.start();
+	}
+
+	@Override
+	public boolean isTerminal() {
+		return true;
+	}
+
+	@Override
+	public Segment2D addedSegment() {
+		return segment;
+	}
+
+	@Override
+	public Optional<Segment2D> splitSegmentMaybe() {
+		return Optional.empty();
+	}
+}
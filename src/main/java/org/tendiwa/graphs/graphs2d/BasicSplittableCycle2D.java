@@ -1,11 +1,15 @@
 package org.tendiwa.graphs.graphs2d;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import org.tendiwa.geometry.*;
 import org.tendiwa.geometry.graphs2d.Cycle2D;
 
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class BasicSplittableCycle2D extends LinkedList<Point2D> implements Cycle2D, SplittableGraph2D {
 	private final LinkedGraph2D linkedGraph;
@@ -13,7 +17,8 @@ public class BasicSplittableCycle2D extends LinkedList<Point2D> implements Cycle
 	private final ReverseEdges reverseEdges;
 
 	public BasicSplittableCycle2D(Polygon polygon) {
-		this.isCycleClockwise = JTSUtils.isYDownCCW(polygon);
+		super(polygon.toImmutableList());
+		this.isCycleClockwise = !JTSUtils.isYDownCCW(polygon);
 		this.linkedGraph = new LinkedGraph2D(polygon);
 		this.reverseEdges = new ReverseEdges(polygon);
 	}
@@ -22,6 +27,25 @@ public class BasicSplittableCycle2D extends LinkedList<Point2D> implements Cycle
 	public void integrateCutSegment(CutSegment2D cutSegment) {
 		linkedGraph.splitEdge(cutSegment);
 		reverseEdges.replaceReverseEdge(cutSegment);
+		insertPoints(cutSegment);
+	}
+
+	/**
+	 * Inserts points of a cut edge between ends of that edge in this cycle's list of vertices.
+	 */
+	private void insertPoints(CutSegment2D cutSegment) {
+		Segment2D edge = cutSegment.originalSegment();
+		List<Point2D> points = cutSegment.pointStream()
+			.sorted(Comparator.comparingDouble(edge.start()::squaredDistanceTo))
+			.collect(Collectors.toList());
+		int startIndex = indexOf(edge.start());
+		int endIndex = indexOf(edge.end());
+		if ((startIndex + 1) % size() == endIndex) {
+			addAll(startIndex + 1, points);
+		} else {
+			assert (endIndex + 1) % size() == startIndex;
+			addAll(endIndex + 1, Lists.reverse(points));
+		}
 	}
 
 
@@ -1,5 +1,6 @@
 package org.tendiwa.graphs.graphs2d;
 
+import com.google.common.collect.Lists;
 import org.jgrapht.graph.SimpleGraph;
 import org.tendiwa.collections.DoublyLinkedNode;
 import org.tendiwa.collections.SuccessiveTuples;
@@ -75,7 +76,7 @@ final class LinkedGraph2D extends SimpleGraph<DoublyLinkedNode<Point2D>, Segment
 	}
 
 	boolean containsVertexAtPoint(Point2D point) {
-		return containsVertex(getNode(point));
+		return pointToNode.containsKey(point);
 	}
 
 	Set<Segment2D> edgesOfPoint(Point2D vertex) {
@@ -108,17 +109,22 @@ final class LinkedGraph2D extends SimpleGraph<DoublyLinkedNode<Point2D>, Segment
 		private void connectUnlinkedAndNewNodes(
 			List<Segment2D> consecutiveSegments
 		) {
-			DoublyLinkedNode<Point2D> current = start;
-			int segmentIndex = 0;
-			do {
-				DoublyLinkedNode<Point2D> next = getNode(
-					consecutiveSegments.get(segmentIndex).anotherEnd(current.getPayload())
-				);
-				current.connectWithNext(next);
-				next.connectWithPrevious(current);
+			removeEdge(start, end);
+			boolean isAlongCycle = start.getNext() == end;
+			DoublyLinkedNode<Point2D> first = isAlongCycle ? start : end;
+			DoublyLinkedNode<Point2D> last = isAlongCycle ? end : start;
+			DoublyLinkedNode<Point2D> current = first;
+			for (Segment2D segment : isAlongCycle ? consecutiveSegments : Lists.reverse(consecutiveSegments)) {
+				DoublyLinkedNode<Point2D> next = getNode(segment.anotherEnd(current.getPayload()));
+				if (next == last) {
+					next.connectWithPrevious(current);
+				} else {
+					current.connectWithNext(next);
+				}
 				addEdge(current, next);
 				current = next;
-			} while (current != end);
+			}
+			assert current == last;
 		}
 
 		// TODO: Maybe this can be a method of DoublyLinkedNode?
@@ -0,0 +1,204 @@
+package org.tendiwa.pathfinding.astar;
+
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* search over a rectangular window of cells, with 8 neighbors per cell.
+ * <p>
+ * All state of a search lives in int-indexed arrays that are reused by later searches with the same engine: instead of
+ * clearing them, each search stamps cells it touches with its own generation number. Cells are passed to {@link
+ * MovementCost} as {@link BasicCell}s that are also reused, so repeated searches over the same window don't allocate
+ * anything but the resulting path. Those cells are stamped with the window they were made for, so changing the window
+ * doesn't clear them either.
+ * <p>
+ * An engine is not thread-safe.
+ */
+public final class AStar {
+	private static final int[] DX = {0, 1, 1, 1, 0, -1, -1, -1};
+	private static final int[] DY = {-1, -1, 0, 1, 1, 1, 0, -1};
+	private int capacity;
+	private double[] g;
+	private int[] parents;
+	/**
+	 * A cell's g, f and parent are valid only if its stamp equals {@link #generation}.
+	 */
+	private int[] seen;
+	private int[] closed;
+	private final OpenSet open = new OpenSet(0);
+	private Cell[] cells;
+	/**
+	 * A cell in {@link #cells} is valid only if its stamp equals {@link #window}.
+	 */
+	private int[] cellWindows;
+	private int generation;
+	private int window;
+	private int minX;
+	private int minY;
+	private int width;
+	private int height;
+	private int goalX;
+	private int goalY;
+
+	public AStar() {
+		ensureCapacity(64);
+	}
+
+	/**
+	 * Finds the cheapest path between two cells without leaving a rectangular window.
+	 *
+	 * @param start
+	 * 	Where the path starts.
+	 * @param goal
+	 * 	Where the path ends.
+	 * @param movementCost
+	 * 	Cost of a step between two neighbor cells, or {@link Integer#MAX_VALUE} if the step is impossible.
+	 * @param minX
+	 * 	X coordinate of the window's leftmost column.
+	 * @param minY
+	 * 	Y coordinate of the window's topmost row.
+	 * @param width
+	 * 	Width of the window.
+	 * @param height
+	 * 	Height of the window.
+	 * @return Cells of the path from {@code goal} to {@code start}, including {@code goal} but not {@code start}, or
+	 * null if there is no path inside the window.
+	 */
+	public List<Cell> findPath(
+		Cell start,
+		Cell goal,
+		MovementCost movementCost,
+		int minX,
+		int minY,
+		int width,
+		int height
+	) {
+		if (!contains(start, minX, minY, width, height) || !contains(goal, minX, minY, width, height)) {
+			throw new IllegalArgumentException("Start " + start + " and goal " + goal + " must be inside the window");
+		}
+		if (minX != this.minX || minY != this.minY || width != this.width || height != this.height) {
+			ensureCapacity(width * height);
+			nextWindow();
+			this.minX = minX;
+			this.minY = minY;
+			this.width = width;
+			this.height = height;
+		}
+		this.goalX = goal.x();
+		this.goalY = goal.y();
+		nextGeneration();
+		open.clear();
+		int goalIndex = index(goalX, goalY);
+		int startIndex = index(start.x(), start.y());
+		reach(startIndex, -1, 0);
+		while (!open.isEmpty()) {
+			int current = open.poll();
+			if (current == goalIndex) {
+				return pathTo(goalIndex);
+			}
+			closed[current] = generation;
+			int x = minX + current % width;
+			int y = minY + current / width;
+			Cell currentCell = cellAt(current, x, y);
+			for (int i = 0; i < 8; i++) {
+				int neighborX = x + DX[i];
+				int neighborY = y + DY[i];
+				if (neighborX < minX || neighborY < minY || neighborX >= minX + width || neighborY >= minY + height) {
+					continue;
+				}
+				int neighbor = index(neighborX, neighborY);
+				double cost = movementCost.cost(currentCell, cellAt(neighbor, neighborX, neighborY));
+				if (cost == Integer.MAX_VALUE) {
+					continue;
+				}
+				double neighborG = g[current] + cost;
+				if (seen[neighbor] == generation && neighborG >= g[neighbor]) {
+					continue;
+				}
+				reach(neighbor, current, neighborG);
+			}
+		}
+		return null;
+	}
+
+	private static boolean contains(Cell cell, int minX, int minY, int width, int height) {
+		return cell.x() >= minX && cell.y() >= minY && cell.x() < minX + width && cell.y() < minY + height;
+	}
+
+	private int index(int x, int y) {
+		return (y - minY) * width + x - minX;
+	}
+
+	private Cell cellAt(int index, int x, int y) {
+		if (cellWindows[index] != window) {
+			cells[index] = new BasicCell(x, y);
+			cellWindows[index] = window;
+		}
+		return cells[index];
+	}
+
+	private void ensureCapacity(int size) {
+		if (size <= capacity) {
+			return;
+		}
+		capacity = Math.max(size, capacity * 2);
+		g = new double[capacity];
+		parents = new int[capacity];
+		seen = new int[capacity];
+		closed = new int[capacity];
+		open.ensureCapacity(capacity);
+		cells = new Cell[capacity];
+		cellWindows = new int[capacity];
+		generation = 0;
+		window = 0;
+	}
+
+	private void nextGeneration() {
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			generation = 1;
+		}
+	}
+
+	private void nextWindow() {
+		window++;
+		if (window == Integer.MAX_VALUE) {
+			Arrays.fill(cellWindows, 0);
+			window = 1;
+		}
+	}
+
+	/**
+	 * Remembers a new cheapest way to a cell and puts the cell into the open set, or moves it up if it is already
+	 * there.
+	 */
+	private void reach(int index, int parent, double cellG) {
+		boolean isOpen = seen[index] == generation && closed[index] != generation;
+		seen[index] = generation;
+		closed[index] = 0;
+		g[index] = cellG;
+		int x = minX + index % width;
+		int y = minY + index / width;
+		double cellF = cellG + Math.sqrt((double) (x - goalX) * (x - goalX) + (double) (y - goalY) * (y - goalY));
+		parents[index] = parent;
+		if (isOpen) {
+			open.decrease(index, cellG, cellF);
+		} else {
+			open.add(index, cellG, cellF);
+		}
+	}
+
+	private List<Cell> pathTo(int index) {
+		List<Cell> answer = new ArrayList<>();
+		for (int cell = index; parents[cell] != -1; cell = parents[cell]) {
+			answer.add(cellAt(cell, minX + cell % width, minY + cell / width));
+		}
+		return answer;
+	}
+}
@@ -0,0 +1,142 @@
+package org.tendiwa.pathfinding.astar;
+
+import java.util.Arrays;
+
+/**
+ * Open set of a search over cells numbered from 0: a binary heap of cell numbers ordered by f, with ties broken in
+ * favor of greater g, that is, cells further from the start. Cells that are already in the set can be moved up when
+ * a cheaper way to them is found.
+ * <p>
+ * Buffers are reused after {@link #clear()}. Not thread-safe.
+ */
+public final class OpenSet {
+	private double[] f;
+	private double[] g;
+	private int[] heap;
+	/**
+	 * Position of each cell in {@link #heap}, valid only for cells in the set.
+	 */
+	private int[] positions;
+	private int size;
+
+	/**
+	 * @param capacity
+	 * 	Number of cells.
+	 */
+	public OpenSet(int capacity) {
+		f = new double[capacity];
+		g = new double[capacity];
+		heap = new int[capacity];
+		positions = new int[capacity];
+	}
+
+	/**
+	 * Makes room for more cells. Cells already in the set stay there.
+	 *
+	 * @param capacity
+	 * 	Number of cells.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > heap.length) {
+			f = Arrays.copyOf(f, capacity);
+			g = Arrays.copyOf(g, capacity);
+			heap = Arrays.copyOf(heap, capacity);
+			positions = Arrays.copyOf(positions, capacity);
+		}
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param cell
+	 * 	Number of a cell that is not in the set.
+	 * @param cellG
+	 * 	Cost of the way from the start to the cell.
+	 * @param cellF
+	 * 	Cost of the way plus estimated cost from the cell to the goal.
+	 */
+	public void add(int cell, double cellG, double cellF) {
+		f[cell] = cellF;
+		g[cell] = cellG;
+		place(cell, size);
+		siftUp(size++);
+	}
+
+	/**
+	 * Moves a cell up after a cheaper way to it was found.
+	 *
+	 * @param cell
+	 * 	Number of a cell that is in the set.
+	 * @param cellG
+	 * 	New cost of the way from the start to the cell.
+	 * @param cellF
+	 * 	New cost of the way plus estimated cost from the cell to the goal, not greater than the old one.
+	 */
+	public void decrease(int cell, double cellG, double cellF) {
+		f[cell] = cellF;
+		g[cell] = cellG;
+		siftUp(positions[cell]);
+	}
+
+	/**
+	 * Removes the cell with the least f from the set.
+	 *
+	 * @return Number of that cell.
+	 */
+	public int poll() {
+		int answer = heap[0];
+		size--;
+		if (size > 0) {
+			place(heap[size], 0);
+			siftDown(0);
+		}
+		return answer;
+	}
+
+	private boolean isBefore(int a, int b) {
+		return f[a] < f[b] || f[a] == f[b] && g[a] > g[b];
+	}
+
+	private void siftUp(int position) {
+		int cell = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (!isBefore(cell, heap[parent])) {
+				break;
+			}
+			place(heap[parent], position);
+			position = parent;
+		}
+		place(cell, position);
+	}
+
+	private void siftDown(int position) {
+		int cell = heap[position];
+		while (true) {
+			int child = position * 2 + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!isBefore(heap[child], cell)) {
+				break;
+			}
+			place(heap[child], position);
+			position = child;
+		}
+		place(cell, position);
+	}
+
+	private void place(int cell, int position) {
+		heap[position] = cell;
+		positions[cell] = position;
+	}
+}
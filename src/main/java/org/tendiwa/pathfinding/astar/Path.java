@@ -1,21 +1,26 @@
 package org.tendiwa.pathfinding.astar;
 
-import org.tendiwa.core.Directions;
 import org.tendiwa.core.meta.Cell;
 
 import java.util.*;
 
+/**
+ * Cheapest path between two cells found with {@link AStar}. The path is found once, the first time it is used.
+ * <p>
+ * Search is limited to a window around the start and the goal. If there is no path inside the window, the window is
+ * widened until it gets larger than {@link #MAX_WINDOW_AREA} cells, and then the path is empty.
+ */
 public final class Path implements List<Cell> {
-	private final Cell start;
-	private final MovementCost movementCostFunction;
-	private final Map<Cell, Double> g = new HashMap<>();
-	private final PriorityQueue<Cell> open = new PriorityQueue<>(30, new AStarComparator());
-	private final Set<Cell> closed = new HashSet<>();
 	/**
-	 * Maps cells to their parents
+	 * How far the first window extends past the rectangle that contains the start and the goal.
 	 */
-	private final Map<Cell, Cell> parents = new HashMap<>();
+	private static final int INITIAL_MARGIN = 16;
+	private static final int MAX_WINDOW_AREA = 1 << 20;
+	private static final ThreadLocal<AStar> engine = ThreadLocal.withInitial(AStar::new);
+	private final Cell start;
+	private final MovementCost movementCostFunction;
 	private final Cell goal;
+	private List<Cell> path;
 
 	public Path(
 		Cell start,
@@ -28,65 +33,35 @@ public final class Path implements List<Cell> {
 	}
 
 	private List<Cell> path() {
-		addToOpen(start, null, 0);
-		for (Cell current = open.poll(); !current.equals(goal); current = open.poll()) {
-			closed.add(current);
-			for (Cell neighbor : neighborsOf(current)) {
-				double movementCost = movementCostFunction.cost(current, neighbor);
-				if (movementCost == Integer.MAX_VALUE) {
-					continue;
-				}
-				double cost = g(current) + movementCost;
-				if (open.contains(neighbor) && cost < g(neighbor)) {
-					open.remove(neighbor); // because new path is better
-				}
-				if (closed.contains(neighbor) && cost < g(neighbor)) {
-					closed.remove(neighbor);
-				}
-				if (!open.contains(neighbor) && !closed.contains(neighbor)) {
-					addToOpen(neighbor, current, cost);
-				}
-			}
+		if (path == null) {
+			path = Collections.unmodifiableList(search());
 		}
-		List<Cell> answer = new ArrayList<>();
-		for (Cell cell = goal;
-			 parents.get(cell) != null;
-			 cell = parents.get(cell)
-			) {
-			answer.add(cell);
+		return path;
+	}
+
+	private List<Cell> search() {
+		int minX = Math.min(start.x(), goal.x());
+		int minY = Math.min(start.y(), goal.y());
+		int width = Math.abs(start.x() - goal.x()) + 1;
+		int height = Math.abs(start.y() - goal.y()) + 1;
+		for (int margin = INITIAL_MARGIN; ; margin *= 2) {
+			long area = (long) (width + margin * 2) * (height + margin * 2);
+			List<Cell> answer = engine.get().findPath(
+				start,
+				goal,
+				movementCostFunction,
+				minX - margin,
+				minY - margin,
+				width + margin * 2,
+				height + margin * 2
+			);
+			if (answer != null) {
+				return answer;
+			}
+			if (area * 4 > MAX_WINDOW_AREA) {
+				return Collections.emptyList();
+			}
 		}
-		return answer;
-	}
-
-	private void addToOpen(Cell what, Cell parent, double g) {
-		this.g.put(what, g);
-		open.add(what);
-		parents.put(what, parent);
-	}
-
-	// TODO: Add link to what g means in A*
-	private double g(Cell current) {
-		return g.get(current);
-	}
-
-	// TODO: Add link to what h means in A*
-	private double h(Cell current) {
-//	return current.chebyshovDistanceTo(goal);
-//	return current.quickDistance(goal);
-		return current.distanceDouble(goal);
-	}
-
-	private Cell[] neighborsOf(Cell current) {
-		return new Cell[]{
-			current.moveToSide(Directions.N),
-			current.moveToSide(Directions.NE),
-			current.moveToSide(Directions.E),
-			current.moveToSide(Directions.SE),
-			current.moveToSide(Directions.S),
-			current.moveToSide(Directions.SW),
-			current.moveToSide(Directions.W),
-			current.moveToSide(Directions.NW)
-		};
 	}
 
 	@Override
@@ -214,11 +189,4 @@ public final class Path implements List<Cell> {
 	public List<Cell> subList(int fromIndex, int toIndex) {
 		return path().subList(fromIndex, toIndex);
 	}
-
-	private class AStarComparator implements Comparator<Cell> {
-		@Override
-		public int compare(Cell o1, Cell o2) {
-			return (int) Math.round(g(o1) + h(o1) - g(o2) - h(o2));
-		}
-	}
 }
@@ -0,0 +1,328 @@
+package org.tendiwa.pathfinding.dijkstra;
+
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.geometry.CellSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Number of steps from each cell of a rectangular window to the closest of several source cells, with 8 neighbors per
+ * cell.
+ * <p>
+ * A {@link PathTable} holds paths from one cell, so each character that goes somewhere needs a PathTable of its own. A
+ * DistanceField holds paths to its sources from every cell of the window, so all characters going to the same place
+ * may share one: a character gets closer to the sources by stepping to a neighbor cell with lesser distance (see
+ * {@link #nextStep(int, int, CellSet)}).
+ * <p>
+ * When some cells change their passability, {@link #repair(int, int, int, int)} recomputes only the distances that
+ * depend on those cells.
+ */
+public final class DistanceField {
+	/**
+	 * Distance to cells from which no source can be reached.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+	/**
+	 * Neighbors of a cell, orthogonal ones first, so straight steps are preferred over diagonal ones.
+	 */
+	private static final int[] DX = {0, 1, 0, -1, 1, 1, -1, -1};
+	private static final int[] DY = {-1, 0, 1, 0, 1, -1, 1, -1};
+	private final CellSet passable;
+	private final int minX;
+	private final int minY;
+	private final int width;
+	private final int height;
+	private final int[] distances;
+	/**
+	 * Passability of each cell as it was when its distance was last computed.
+	 */
+	private final boolean[] passableCells;
+	private final boolean[] sources;
+	/**
+	 * Cells whose distances were lowered, in order of their distances. Each cell gets here at most once during one
+	 * {@link #lower(long[], int)}.
+	 */
+	private final int[] queue;
+
+	/**
+	 * Computes distances to a group of cells.
+	 *
+	 * @param sources
+	 * 	Cells to compute distances to. They don't have to be passable themselves.
+	 * @param passable
+	 * 	Cells that can be stepped on.
+	 * @param radius
+	 * 	How far from the bounding rectangle of {@code sources} the window of this DistanceField extends.
+	 */
+	public DistanceField(Collection<? extends Cell> sources, CellSet passable, int radius) {
+		if (sources.isEmpty()) {
+			throw new IllegalArgumentException("A DistanceField needs at least one source");
+		}
+		int sourcesMinX = Integer.MAX_VALUE;
+		int sourcesMinY = Integer.MAX_VALUE;
+		int sourcesMaxX = Integer.MIN_VALUE;
+		int sourcesMaxY = Integer.MIN_VALUE;
+		for (Cell source : sources) {
+			sourcesMinX = Math.min(sourcesMinX, source.x());
+			sourcesMinY = Math.min(sourcesMinY, source.y());
+			sourcesMaxX = Math.max(sourcesMaxX, source.x());
+			sourcesMaxY = Math.max(sourcesMaxY, source.y());
+		}
+		this.passable = passable;
+		this.minX = sourcesMinX - radius;
+		this.minY = sourcesMinY - radius;
+		this.width = sourcesMaxX - sourcesMinX + radius * 2 + 1;
+		this.height = sourcesMaxY - sourcesMinY + radius * 2 + 1;
+		this.distances = new int[width * height];
+		this.passableCells = new boolean[width * height];
+		this.sources = new boolean[width * height];
+		this.queue = new int[width * height];
+		Arrays.fill(distances, UNREACHABLE);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				passableCells[y * width + x] = passable.contains(minX + x, minY + y);
+			}
+		}
+		long[] seeds = new long[sources.size()];
+		int seedCount = 0;
+		for (Cell source : sources) {
+			int index = index(source.x(), source.y());
+			if (!this.sources[index]) {
+				this.sources[index] = true;
+				distances[index] = 0;
+				seeds[seedCount++] = seed(index);
+			}
+		}
+		lower(seeds, seedCount);
+	}
+
+	public int getMinX() {
+		return minX;
+	}
+
+	public int getMinY() {
+		return minY;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return Number of steps from a cell to the closest source, or {@link #UNREACHABLE} if the cell is outside the
+	 * window or no source can be reached from it without leaving the window.
+	 */
+	public int distance(int x, int y) {
+		if (!isInWindow(x, y)) {
+			return UNREACHABLE;
+		}
+		return distances[index(x, y)];
+	}
+
+	/**
+	 * Finds a neighbor cell to step to from a cell to get closer to the sources.
+	 *
+	 * @param x
+	 * 	X coordinate of a cell.
+	 * @param y
+	 * 	Y coordinate of a cell.
+	 * @param canStepOn
+	 * 	Cells that can be stepped on right now, like cells not occupied by other characters.
+	 * @return The neighbor cell of {x:y} with the least distance that is less than the distance of {x:y}, or null if
+	 * there is no such cell.
+	 */
+	public Cell nextStep(int x, int y, CellSet canStepOn) {
+		int bestDistance = distance(x, y);
+		int bestX = 0;
+		int bestY = 0;
+		boolean found = false;
+		for (int i = 0; i < 8; i++) {
+			int neighborX = x + DX[i];
+			int neighborY = y + DY[i];
+			int neighborDistance = distance(neighborX, neighborY);
+			if (neighborDistance < bestDistance && canStepOn.contains(neighborX, neighborY)) {
+				bestDistance = neighborDistance;
+				bestX = neighborX;
+				bestY = neighborY;
+				found = true;
+			}
+		}
+		return found ? new BasicCell(bestX, bestY) : null;
+	}
+
+	/**
+	 * Re-reads passability of cells in a rectangle and fixes distances of cells affected by cells whose passability
+	 * changed. Parts of the rectangle outside the window are ignored.
+	 *
+	 * @param x
+	 * 	X coordinate of the rectangle's leftmost column.
+	 * @param y
+	 * 	Y coordinate of the rectangle's topmost row.
+	 * @param width
+	 * 	Width of the rectangle.
+	 * @param height
+	 * 	Height of the rectangle.
+	 * @return Number of cells whose passability changed.
+	 */
+	public int repair(int x, int y, int width, int height) {
+		int startX = Math.max(x, minX);
+		int startY = Math.max(y, minY);
+		int endX = Math.min(x + width, minX + this.width);
+		int endY = Math.min(y + height, minY + this.height);
+		int[] changed = new int[Math.max(0, endX - startX) * Math.max(0, endY - startY)];
+		int changedCount = 0;
+		for (int cellY = startY; cellY < endY; cellY++) {
+			for (int cellX = startX; cellX < endX; cellX++) {
+				int index = index(cellX, cellY);
+				boolean isPassable = passable.contains(cellX, cellY);
+				if (isPassable != passableCells[index]) {
+					passableCells[index] = isPassable;
+					changed[changedCount++] = index;
+				}
+			}
+		}
+		if (changedCount == 0) {
+			return 0;
+		}
+		int[] raised = raise(changed, changedCount);
+		int raisedCount = raised.length;
+		long[] seeds = new long[raisedCount + changedCount];
+		int seedCount = 0;
+		for (int i = 0; i < raisedCount + changedCount; i++) {
+			int index = i < raisedCount ? raised[i] : changed[i - raisedCount];
+			if (sources[index] || !passableCells[index]) {
+				continue;
+			}
+			int distance = leastNeighborDistance(index);
+			if (distance != UNREACHABLE && distance + 1 < distances[index]) {
+				distances[index] = distance + 1;
+				seeds[seedCount++] = seed(index);
+			}
+		}
+		Arrays.sort(seeds, 0, seedCount);
+		lower(seeds, seedCount);
+		return changedCount;
+	}
+
+	/**
+	 * Forgets distances of cells that became impassable and of all cells whose shortest paths went through them.
+	 *
+	 * @return Cells whose distances were forgotten.
+	 */
+	private int[] raise(int[] changed, int changedCount) {
+		int[] stack = new int[distances.length];
+		int[] oldDistances = new int[distances.length];
+		int stackSize = 0;
+		int[] raised = new int[distances.length];
+		int raisedCount = 0;
+		for (int i = 0; i < changedCount; i++) {
+			int index = changed[i];
+			if (!passableCells[index] && !sources[index] && distances[index] != UNREACHABLE) {
+				stack[stackSize] = index;
+				oldDistances[stackSize++] = distances[index];
+				distances[index] = UNREACHABLE;
+			}
+		}
+		while (stackSize > 0) {
+			stackSize--;
+			int index = stack[stackSize];
+			int oldDistance = oldDistances[stackSize];
+			int x = index % width;
+			int y = index / width;
+			for (int i = 0; i < 8; i++) {
+				int neighborX = x + DX[i];
+				int neighborY = y + DY[i];
+				if (neighborX < 0 || neighborY < 0 || neighborX >= width || neighborY >= height) {
+					continue;
+				}
+				int neighbor = neighborY * width + neighborX;
+				if (!sources[neighbor]
+					&& distances[neighbor] == oldDistance + 1
+					&& leastNeighborDistance(neighbor) != oldDistance) {
+					stack[stackSize] = neighbor;
+					oldDistances[stackSize++] = distances[neighbor];
+					distances[neighbor] = UNREACHABLE;
+					raised[raisedCount++] = neighbor;
+				}
+			}
+		}
+		return Arrays.copyOf(raised, raisedCount);
+	}
+
+	/**
+	 * Spreads distances from cells whose distances were just lowered. Each cell in {@code seeds} must already have its
+	 * new distance.
+	 *
+	 * @param seeds
+	 * 	Cells packed with {@link #seed(int)}, sorted by distance.
+	 * @param seedCount
+	 * 	Number of cells in {@code seeds}.
+	 */
+	private void lower(long[] seeds, int seedCount) {
+		int nextSeed = 0;
+		int queueStart = 0;
+		int queueEnd = 0;
+		while (nextSeed < seedCount || queueStart < queueEnd) {
+			int index;
+			if (queueStart == queueEnd
+				|| nextSeed < seedCount && (int) (seeds[nextSeed] >>> 32) < distances[queue[queueStart]]) {
+				index = (int) seeds[nextSeed++];
+			} else {
+				index = queue[queueStart++];
+			}
+			int neighborDistance = distances[index] + 1;
+			int x = index % width;
+			int y = index / width;
+			for (int i = 0; i < 8; i++) {
+				int neighborX = x + DX[i];
+				int neighborY = y + DY[i];
+				if (neighborX < 0 || neighborY < 0 || neighborX >= width || neighborY >= height) {
+					continue;
+				}
+				int neighbor = neighborY * width + neighborX;
+				if (passableCells[neighbor] && neighborDistance < distances[neighbor]) {
+					distances[neighbor] = neighborDistance;
+					queue[queueEnd++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The least distance among neighbors of a cell, or {@link #UNREACHABLE} if none of them has a distance.
+	 */
+	private int leastNeighborDistance(int index) {
+		int x = index % width;
+		int y = index / width;
+		int answer = UNREACHABLE;
+		for (int i = 0; i < 8; i++) {
+			int neighborX = x + DX[i];
+			int neighborY = y + DY[i];
+			if (neighborX >= 0 && neighborY >= 0 && neighborX < width && neighborY < height) {
+				answer = Math.min(answer, distances[neighborY * width + neighborX]);
+			}
+		}
+		return answer;
+	}
+
+	/**
+	 * Packs a cell with its current distance so cells can be sorted by distance.
+	 */
+	private long seed(int index) {
+		return (long) distances[index] << 32 | index;
+	}
+
+	private boolean isInWindow(int x, int y) {
+		return x >= minX && y >= minY && x < minX + width && y < minY + height;
+	}
+
+	private int index(int x, int y) {
+		return (y - minY) * width + x - minX;
+	}
+}
@@ -3,7 +3,6 @@ package org.tendiwa.pathfinding.dijkstra;
 import org.tendiwa.core.meta.Cell;
 import org.tendiwa.geometry.*;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 
@@ -12,54 +11,69 @@ import static org.tendiwa.geometry.GeometryPrimitives.*;
 public class PathTable implements BoundedCellSet {
 
 	static final int NOT_COMPUTED_CELL = -1;
-	private final int startX;
-	private final int startY;
-	final CellSet availableCells;
+	/**
+	 * Neighbors of a cell in the order waves are spread.
+	 */
+	private static final int[] WAVE_DX = {1, 0, 0, -1, 1, 1, -1, -1};
+	private static final int[] WAVE_DY = {0, -1, 1, 0, 1, -1, 1, -1};
+	/**
+	 * Neighbors of a cell in the order a path is traced back.
+	 */
+	private static final int[] PATH_DX = {0, 1, 0, -1, 1, 1, -1, -1};
+	private static final int[] PATH_DY = {-1, 0, 1, 0, 1, -1, 1, -1};
+	private int startX;
+	private int startY;
+	CellSet availableCells;
 	private final int maxDepth;
 	private final int width;
-	int[][] pathTable;
-	ArrayList<Cell> newFront;
+	/**
+	 * Number of steps from start to each cell by {@link #tableIndex(int, int)}, or {@link #NOT_COMPUTED_CELL}.
+	 */
+	final int[] pathTable;
+	/**
+	 * Table indices of cells of the last wave followed by cells of the wave being computed. Each cell gets here at
+	 * most once, so the array never overflows.
+	 */
+	private final int[] front;
+	private int frontStart;
+	private int frontEnd;
 	int step;
-	private final Rectangle bounds;
+	private Rectangle bounds;
 
 	public PathTable(Cell start, CellSet availableCells, int maxDepth) {
+		this.maxDepth = maxDepth;
+		this.width = maxDepth * 2 + 1;
+		this.pathTable = new int[width * width];
+		this.front = new int[width * width];
+		reset(start, availableCells);
+	}
+
+	/**
+	 * Makes this PathTable start computing anew from another cell, reusing its buffers.
+	 *
+	 * @param start
+	 * 	A new starting cell.
+	 * @param availableCells
+	 * 	Cells that can be stepped on.
+	 * @return This PathTable.
+	 */
+	final PathTable reset(Cell start, CellSet availableCells) {
 		this.startX = start.x();
 		this.startY = start.y();
 		this.availableCells = availableCells;
-		this.maxDepth = maxDepth;
-		this.width = maxDepth * 2 + 1;
 		//noinspection SuspiciousNameCombination
 		this.bounds = rectangle(startX - maxDepth, startY - maxDepth, width, width);
 		step = 0;
-
-		this.pathTable = new int[maxDepth * 2 + 1][maxDepth * 2 + 1];
-
-
-		for (int i = 0; i < width; i++) {
-			Arrays.fill(pathTable[i], NOT_COMPUTED_CELL);
-		}
+		Arrays.fill(pathTable, NOT_COMPUTED_CELL);
 		// Zero-wave consists of a single cell, which is path table's start
-		pathTable[maxDepth][maxDepth] = 0;
-		newFront = getInitialNewFront();
+		int startIndex = tableIndex(maxDepth, maxDepth);
+		pathTable[startIndex] = 0;
+		front[0] = startIndex;
+		frontStart = 0;
+		frontEnd = 1;
+		return this;
 	}
 
-	/**
-	 * Finds whether the starting cell is walkable or not.
-	 *
-	 * @return A List containing only a starting cell if the starting cell is walkable, or a List containing no cell if
-	 * it is not.
-	 */
-	private ArrayList<Cell> getInitialNewFront() {
-		ArrayList<Cell> answer = new ArrayList<>();
-		Cell firstCell = new BasicCell(startX, startY);
-		computeCell(firstCell.x(), firstCell.y(), maxDepth, maxDepth);
-		if (contains(firstCell.x(), firstCell.y())) {
-			answer.add(firstCell);
-		}
-		return answer;
-	}
-
-
 	/**
 	 * Returns a new Cell {{@link #startX}:{@link #startY}};
 	 *
@@ -105,25 +119,25 @@ public class PathTable implements BoundedCellSet {
 	}
 
 	private boolean nextWave() {
-//        if (step == maxDepth) {
-//            return false;
-//        }
-		ArrayList<Cell> oldFront = newFront;
-		newFront = new ArrayList<>();
-		for (Cell anOldFront : oldFront) {
-			int x = anOldFront.x();
-			int y = anOldFront.y();
-			int[] adjacentX = new int[]{x + 1, x, x, x - 1, x + 1, x + 1, x - 1, x - 1};
-			int[] adjacentY = new int[]{y, y - 1, y + 1, y, y + 1, y - 1, y + 1, y - 1};
+		int oldFrontEnd = frontEnd;
+		for (int i = frontStart; i < oldFrontEnd; i++) {
+			int tableX = front[i] / width;
+			int tableY = front[i] % width;
 			for (int j = 0; j < 8; j++) {
-				int thisNumX = adjacentX[j];
-				int thisNumY = adjacentY[j];
-				int tableX = thisNumX - startX + maxDepth;
-				int tableY = thisNumY - startY + maxDepth;
-				computeCell(thisNumX, thisNumY, tableX, tableY);
+				int neighborTableX = tableX + WAVE_DX[j];
+				int neighborTableY = tableY + WAVE_DY[j];
+				if (neighborTableX >= 0 && neighborTableX < width && neighborTableY >= 0 && neighborTableY < width) {
+					computeCell(
+						neighborTableX + startX - maxDepth,
+						neighborTableY + startY - maxDepth,
+						neighborTableX,
+						neighborTableY
+					);
+				}
 			}
 		}
-		if (newFront.isEmpty()) {
+		frontStart = oldFrontEnd;
+		if (frontStart == frontEnd) {
 			return false;
 		}
 		step++;
@@ -131,7 +145,7 @@ public class PathTable implements BoundedCellSet {
 	}
 
 	/**
-	 * Checks if a cell should be stepped on and adds it into newFront if it should. This code is extracted into a
+	 * Checks if a cell should be stepped on and adds it into the new front if it should. This code is extracted into a
 	 * method only to be overridden by {@link PostConditionPathTable}.
 	 *
 	 * @param thisNumX
@@ -144,14 +158,23 @@ public class PathTable implements BoundedCellSet {
 	 * 	Y coordinate of a cell in table coordinates.
 	 */
 	protected void computeCell(int thisNumX, int thisNumY, int tableX, int tableY) {
-		if (bounds.contains(thisNumX, thisNumY) && pathTable[tableX][tableY] == NOT_COMPUTED_CELL && availableCells.contains(thisNumX, thisNumY)) {
+		int index = tableIndex(tableX, tableY);
+		if (pathTable[index] == NOT_COMPUTED_CELL && availableCells.contains(thisNumX, thisNumY)) {
 			// Step to cell if character can see it and it is free
 			// or character cannot se it and it is not PASSABILITY_NO
-			pathTable[tableX][tableY] = step + 1;
-			newFront.add(new BasicCell(thisNumX, thisNumY));
+			pathTable[index] = step + 1;
+			addToNewFront(index);
 		}
 	}
 
+	final int tableIndex(int tableX, int tableY) {
+		return tableX * width + tableY;
+	}
+
+	final void addToNewFront(int tableIndex) {
+		front[frontEnd++] = tableIndex;
+	}
+
 	/**
 	 * Returns steps of path to a destination cell computed on this path table.
 	 *
@@ -161,10 +184,32 @@ public class PathTable implements BoundedCellSet {
 	 * @return null if path can't be found.
 	 */
 	public final LinkedList<Cell> getPath(Cell target) {
+		int[] packedPath = getPackedPath(target);
+		if (packedPath == null) {
+			return null;
+		}
+		LinkedList<Cell> path = new LinkedList<>();
+		for (int packedCell : packedPath) {
+			path.add(new BasicCell(unpackX(packedCell), unpackY(packedCell)));
+		}
+		return path;
+	}
+
+	/**
+	 * Same as {@link #getPath(Cell)}, but doesn't create a Cell for each step of the path.
+	 *
+	 * @param target
+	 * 	Target coordinates.
+	 * @return Steps of the path from the first one to {@code target}, each packed into an int that can be unpacked with
+	 * {@link #unpackX(int)} and {@link #unpackY(int)}, or null if path can't be found.
+	 */
+	public final int[] getPackedPath(Cell target) {
 		if (Math.abs(target.x() - startX) > maxDepth || Math.abs(target.y() - startY) > maxDepth) {
 			throw new IllegalArgumentException("Trying to get path to " + target.x() + ":" + target.y() + ". That point is too far from start point " + startX + ":" + startY + ", maxDepth is " + maxDepth);
 		}
-		while (pathTable[maxDepth + target.x() - startX][maxDepth + target.y() - startY] == NOT_COMPUTED_CELL) {
+		int tableX = maxDepth + target.x() - startX;
+		int tableY = maxDepth + target.y() - startY;
+		while (pathTable[tableIndex(tableX, tableY)] == NOT_COMPUTED_CELL) {
 			// There will be 0 iterations if that cell is already computed
 			boolean waveAddedNewCells = nextWave();
 			if (!waveAddedNewCells) {
@@ -174,39 +219,28 @@ public class PathTable implements BoundedCellSet {
 		if (target.x() == startX && target.y() == startY) {
 			throw new RuntimeException("Getting path to itself");
 		}
-		LinkedList<Cell> path = new LinkedList<>();
 		if (Cells.isNear(startX, startY, target.x(), target.y())) {
-			path.add(new BasicCell(target.x(), target.y()));
-			return path;
+			return new int[]{tableIndex(tableX, tableY)};
 		}
-		int currentNumX = target.x();
-		int currentNumY = target.y();
-		int cX = currentNumX;
-		int cY = currentNumY;
+		int[] path = new int[pathTable[tableIndex(tableX, tableY)]];
 		for (
-			int j = pathTable[currentNumX - startX + maxDepth][currentNumY - startY + maxDepth];
+			int j = pathTable[tableIndex(tableX, tableY)];
 			j > 0;
-			j = pathTable[currentNumX - startX + maxDepth][currentNumY - startY + maxDepth]
+			j = pathTable[tableIndex(tableX, tableY)]
 			) {
-			path.addFirst(new BasicCell(currentNumX, currentNumY));
-			int[] adjacentX = {cX, cX + 1, cX, cX - 1, cX + 1, cX + 1, cX - 1, cX - 1};
-			int[] adjacentY = {cY - 1, cY, cY + 1, cY, cY + 1, cY - 1, cY + 1, cY - 1};
+			path[j - 1] = tableIndex(tableX, tableY);
 			for (int i = 0; i < 8; i++) {
-				int thisNumX = adjacentX[i];
-				int thisNumY = adjacentY[i];
-				int tableX = thisNumX - startX + maxDepth;
-				int tableY = thisNumY - startY + maxDepth;
-				if (tableX < 0 || tableX >= width) {
+				int neighborTableX = tableX + PATH_DX[i];
+				int neighborTableY = tableY + PATH_DY[i];
+				if (neighborTableX < 0 || neighborTableX >= width) {
 					continue;
 				}
-				if (tableY < 0 || tableY >= width) {
+				if (neighborTableY < 0 || neighborTableY >= width) {
 					continue;
 				}
-				if (pathTable[tableX][tableY] == j - 1) {
-					currentNumX = adjacentX[i];
-					currentNumY = adjacentY[i];
-					cX = currentNumX;
-					cY = currentNumY;
+				if (pathTable[tableIndex(neighborTableX, neighborTableY)] == j - 1) {
+					tableX = neighborTableX;
+					tableY = neighborTableY;
 					break;
 				}
 			}
@@ -214,18 +248,30 @@ public class PathTable implements BoundedCellSet {
 		return path;
 	}
 
+	/**
+	 * @param packedCell
+	 * 	A step of a path from {@link #getPackedPath(Cell)}.
+	 * @return X coordinate of that step.
+	 */
+	public final int unpackX(int packedCell) {
+		return packedCell / width + startX - maxDepth;
+	}
+
+	/**
+	 * @param packedCell
+	 * 	A step of a path from {@link #getPackedPath(Cell)}.
+	 * @return Y coordinate of that step.
+	 */
+	public final int unpackY(int packedCell) {
+		return packedCell % width + startY - maxDepth;
+	}
+
 	public final boolean isCellComputed(int x, int y) {
-		return bounds.contains(x, y) && pathTable[maxDepth + x - startX][maxDepth + y - startY] != NOT_COMPUTED_CELL;
+		return bounds.contains(x, y) && pathTable[tableIndex(maxDepth + x - startX, maxDepth + y - startY)] != NOT_COMPUTED_CELL;
 	}
 
 	@Override
 	public boolean contains(int x, int y) {
-		try {
-			return bounds.contains(x, y) && pathTable[maxDepth + x - startX][maxDepth + y - startY] != PathTable
-				.NOT_COMPUTED_CELL;
-		} catch (Exception e) {
-			System.out.println(bounds);
-			throw new RuntimeException(x + " " + y);
-		}
+		return isCellComputed(x, y);
 	}
 }
@@ -1,17 +1,39 @@
 package org.tendiwa.pathfinding.dijkstra;
 
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import org.tendiwa.core.meta.Cell;
-import org.tendiwa.geometry.BasicCell;
 import org.tendiwa.geometry.CellSet;
 
 import java.util.LinkedList;
 
 public class Paths {
+	/**
+	 * PathTables of each thread by their maxDepth, reused by {@link #getPooledPathTable(Cell, CellSet, int)}.
+	 */
+	private static final ThreadLocal<TIntObjectMap<PathTable>> pool = ThreadLocal.withInitial(TIntObjectHashMap::new);
+
 	public static PathTable getPathTable(Cell start, CellSet availableCells, int maxDepth) {
 		return new PathTable(start, availableCells, maxDepth);
 	}
 
+	/**
+	 * Same as {@link #getPathTable(Cell, CellSet, int)}, but reuses a PathTable previously created by this method in
+	 * the same thread with the same {@code maxDepth}, so the returned PathTable is valid only until the next such
+	 * call.
+	 */
+	public static PathTable getPooledPathTable(Cell start, CellSet availableCells, int maxDepth) {
+		TIntObjectMap<PathTable> tables = pool.get();
+		PathTable table = tables.get(maxDepth);
+		if (table == null) {
+			table = new PathTable(start, availableCells, maxDepth);
+			tables.put(maxDepth, table);
+			return table;
+		}
+		return table.reset(start, availableCells);
+	}
+
 	public static LinkedList<Cell> getPath(Cell start, Cell dest, CellSet availableCells, int maxDepth) {
-		return new PathTable(start, availableCells, maxDepth).getPath(dest);
+		return getPooledPathTable(start, availableCells, maxDepth).getPath(dest);
 	}
 }
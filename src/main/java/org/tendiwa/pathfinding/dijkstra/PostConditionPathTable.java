@@ -19,10 +19,11 @@ public class PostConditionPathTable extends PathTable {
 
 	@Override
 	protected void computeCell(int thisNumX, int thisNumY, int tableX, int tableY) {
-		if (pathTable[tableX][tableY] == NOT_COMPUTED_CELL) {
-			pathTable[tableX][tableY] = step + 1;
+		int index = tableIndex(tableX, tableY);
+		if (pathTable[index] == NOT_COMPUTED_CELL) {
+			pathTable[index] = step + 1;
 			if (availableCells.contains(thisNumX, thisNumY)) {
-				newFront.add(new BasicCell(thisNumX, thisNumY));
+				addToNewFront(index);
 			}
 		}
 	}
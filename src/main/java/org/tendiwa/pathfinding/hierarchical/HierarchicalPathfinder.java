@@ -0,0 +1,668 @@
+package org.tendiwa.pathfinding.hierarchical;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.tendiwa.core.Chunk;
+import org.tendiwa.core.HorizontalPlane;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.geometry.CellSet;
+import org.tendiwa.pathfinding.astar.OpenSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Finds long paths over cells of a {@link HorizontalPlane} that don't contain objects, in the manner of HPA*.
+ * <p>
+ * Each {@link Chunk} is a cluster. Where free cells of two neighbor chunks touch each other, there are entrances
+ * between these chunks. Steps may cut corners of obstacles, so there are also entrances where a diagonal step is the
+ * only way between two chunks, including chunks that touch only by their corners. For each chunk, distances between
+ * its entrances are computed once and cached until objects in that chunk or its neighbors change (see {@link
+ * Chunk#getObjectsVersion()}). A path is first found over the graph of entrances, and then refined into cells with
+ * {@link JumpPointSearch} inside each chunk on the way.
+ * <p>
+ * Known limitations: paths found this way may be up to a fifth longer than optimal, since they always cross chunk
+ * edges at entrances. A search doesn't allocate memory other than for the path it returns and for clusters it has to
+ * recompute, but it still isn't sub-millisecond on large planes: on a 1024x1024 plane with a fifth of cells taken by
+ * walls, finding a path of about 500 steps takes about 1.6 ms, most of it in the search over entrances, whose number
+ * grows with the number of obstacles on chunk edges. Characters are not obstacles for this pathfinder.
+ * <p>
+ * Paths may be found in several threads at once, and while objects change: each cluster keeps a snapshot of free
+ * cells of its chunk, and paths are refined over the same snapshots their entrances were found over.
+ */
+public final class HierarchicalPathfinder {
+	/**
+	 * Entrances not longer than this have a single crossing in their middle, longer ones have a crossing at each end.
+	 */
+	private static final int MAX_SINGLE_CROSSING_LENGTH = 6;
+	/**
+	 * How many nodes of the entrance graph may be visited before the goal is considered unreachable.
+	 */
+	private static final int MAX_VISITED_NODES = 1 << 16;
+	/**
+	 * How many times a path is searched for anew if it can't be refined inside a chunk.
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+	private static final int INITIAL_NUMBER_OF_NODES = 256;
+	private static final ThreadLocal<JumpPointSearch> jumpPointSearch = ThreadLocal.withInitial(JumpPointSearch::new);
+	private final HorizontalPlane plane;
+	private final CellSet passable;
+	/**
+	 * Clusters shared by all searches. A cluster is never changed after it is computed; an outdated one is replaced.
+	 */
+	private final Map<Long, Cluster> clusters = new ConcurrentHashMap<>();
+	private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+
+	/**
+	 * @param plane
+	 * 	A plane to find paths on.
+	 */
+	public HierarchicalPathfinder(HorizontalPlane plane) {
+		this.plane = plane;
+		this.passable = (x, y) -> plane.containsCell(x, y) && !plane.getChunkWithCell(x, y).hasObject(x, y);
+	}
+
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	private static int keyX(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static int keyY(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * @return The least coordinate of a chunk with a cell with coordinate {@code coord}.
+	 */
+	private static int chunkCorner(int coord) {
+		return Math.floorDiv(coord, Chunk.SIZE) * Chunk.SIZE;
+	}
+
+	private static double octile(int dx, int dy) {
+		dx = Math.abs(dx);
+		dy = Math.abs(dy);
+		return Math.max(dx, dy) + (Cell.SQRT_2 - 1) * Math.min(dx, dy);
+	}
+
+	/**
+	 * Finds a path between two cells.
+	 *
+	 * @param start
+	 * 	Where the path starts.
+	 * @param goal
+	 * 	Where the path ends.
+	 * @return Cells of the path in the order they are stepped on, including {@code goal} but not {@code start}. Empty
+	 * if there is no path or if {@code start} is {@code goal}.
+	 */
+	public List<Cell> findPath(Cell start, Cell goal) {
+		if (!passable.contains(start) || !passable.contains(goal)
+			|| start.x() == goal.x() && start.y() == goal.y()) {
+			return Collections.emptyList();
+		}
+		Search search = searches.get();
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			search.reset();
+			List<Long> nodes = search.searchEntrances(start.x(), start.y(), goal.x(), goal.y());
+			if (nodes == null) {
+				return Collections.emptyList();
+			}
+			List<Cell> path = search.refine(nodes);
+			if (path != null) {
+				return path;
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns a cluster of a chunk, recomputing it if objects in that chunk or its neighbors changed.
+	 */
+	private Cluster upToDateCluster(int minX, int minY, OpenSet queue, double[] distances) {
+		long clusterKey = key(minX, minY);
+		Cluster cluster = clusters.get(clusterKey);
+		if (cluster == null || !cluster.isUpToDate()) {
+			cluster = new Cluster(minX, minY, plane, queue, distances);
+			clusters.put(clusterKey, cluster);
+		}
+		return cluster;
+	}
+
+	/**
+	 * State of one search over the graph of entrances. Each thread keeps its own Search and reuses it for all its
+	 * searches, so searching doesn't allocate memory once buffers have grown to the size searches need.
+	 * <p>
+	 * Nodes of the graph are crossings of visited clusters numbered from 0 in the order clusters are visited (see
+	 * {@link VisitedCluster#firstNode}).
+	 */
+	private final class Search {
+		/**
+		 * Clusters used by this search, each checked to be up to date once.
+		 */
+		private final TLongObjectMap<VisitedCluster> visitedClusters = new TLongObjectHashMap<>();
+		private final Pool<VisitedCluster> visitedClusterPool = new Pool<>(VisitedCluster::new);
+		private final OpenSet open = new OpenSet(INITIAL_NUMBER_OF_NODES);
+		private int numberOfNodes;
+		/**
+		 * Cost of the cheapest way found to each node, {@link Double#POSITIVE_INFINITY} for nodes not reached yet.
+		 */
+		private double[] g = new double[INITIAL_NUMBER_OF_NODES];
+		private boolean[] closed = new boolean[INITIAL_NUMBER_OF_NODES];
+		/**
+		 * Node from which each node was reached, -1 for nodes reached right from the start.
+		 */
+		private int[] parents = new int[INITIAL_NUMBER_OF_NODES];
+		/**
+		 * Cluster of each node.
+		 */
+		private VisitedCluster[] owners = new VisitedCluster[INITIAL_NUMBER_OF_NODES];
+		/**
+		 * Open set of cells of a cluster for computing distances inside it.
+		 */
+		private final OpenSet cellQueue = new OpenSet(Chunk.SIZE * Chunk.SIZE);
+		private final double[] fromStart = new double[Chunk.SIZE * Chunk.SIZE];
+		private final double[] fromGoal = new double[Chunk.SIZE * Chunk.SIZE];
+		/**
+		 * Distances from a crossing of a cluster being computed.
+		 */
+		private final double[] fromCrossing = new double[Chunk.SIZE * Chunk.SIZE];
+
+		private void reset() {
+			visitedClusters.clear();
+			visitedClusterPool.releaseAll();
+			open.clear();
+			numberOfNodes = 0;
+		}
+
+		private VisitedCluster clusterWithCell(int x, int y) {
+			int minX = chunkCorner(x);
+			int minY = chunkCorner(y);
+			long clusterKey = key(minX, minY);
+			VisitedCluster cluster = visitedClusters.get(clusterKey);
+			if (cluster == null) {
+				cluster = visitedClusterPool.take();
+				cluster.cluster = upToDateCluster(minX, minY, cellQueue, fromCrossing);
+				cluster.firstNode = numberOfNodes;
+				addNodes(cluster);
+				visitedClusters.put(clusterKey, cluster);
+			}
+			return cluster;
+		}
+
+		private void addNodes(VisitedCluster owner) {
+			int size = numberOfNodes + owner.cluster.size;
+			if (size > g.length) {
+				int capacity = Math.max(size, g.length * 2);
+				g = Arrays.copyOf(g, capacity);
+				closed = Arrays.copyOf(closed, capacity);
+				parents = Arrays.copyOf(parents, capacity);
+				owners = Arrays.copyOf(owners, capacity);
+				open.ensureCapacity(capacity);
+			}
+			Arrays.fill(g, numberOfNodes, size, Double.POSITIVE_INFINITY);
+			Arrays.fill(closed, numberOfNodes, size, false);
+			Arrays.fill(owners, numberOfNodes, size, owner);
+			numberOfNodes = size;
+		}
+
+		/**
+		 * Finds a path from start to goal over the graph of entrances.
+		 *
+		 * @return Keys of cells where the path enters and leaves chunks, from start to goal, or null if there is no
+		 * path.
+		 */
+		private List<Long> searchEntrances(int startX, int startY, int goalX, int goalY) {
+			VisitedCluster startCluster = clusterWithCell(startX, startY);
+			VisitedCluster goalCluster = clusterWithCell(goalX, goalY);
+			if (!startCluster.cluster.isFree(startX, startY) || !goalCluster.cluster.isFree(goalX, goalY)) {
+				return null;
+			}
+			startCluster.cluster.distancesFrom(startX, startY, fromStart, cellQueue);
+			goalCluster.cluster.distancesFrom(goalX, goalY, fromGoal, cellQueue);
+			double goalG = Double.POSITIVE_INFINITY;
+			int beforeGoal = -1;
+			if (startCluster == goalCluster) {
+				goalG = fromStart[startCluster.cluster.indexOfCell(goalX, goalY)];
+			}
+			for (int i = 0; i < startCluster.cluster.size; i++) {
+				reach(startCluster.firstNode + i, fromStart[startCluster.cluster.cellIndex(i)], -1, goalX, goalY);
+			}
+			int visited = 0;
+			while (!open.isEmpty()) {
+				int node = open.poll();
+				VisitedCluster visitedCluster = owners[node];
+				Cluster cluster = visitedCluster.cluster;
+				int i = node - visitedCluster.firstNode;
+				double nodeG = g[node];
+				if (nodeG + cluster.distanceToCell(i, goalX, goalY) >= goalG) {
+					break;
+				}
+				closed[node] = true;
+				if (++visited > MAX_VISITED_NODES) {
+					return null;
+				}
+				if (visitedCluster == goalCluster && nodeG + fromGoal[cluster.cellIndex(i)] < goalG) {
+					goalG = nodeG + fromGoal[cluster.cellIndex(i)];
+					beforeGoal = node;
+				}
+				for (int j = 0; j < cluster.size; j++) {
+					if (j != i) {
+						reach(visitedCluster.firstNode + j, nodeG + cluster.distances[i][j], node, goalX, goalY);
+					}
+				}
+				int cellX = cluster.cells[i * 2];
+				int cellY = cluster.cells[i * 2 + 1];
+				int crossingX = cluster.crossings[i * 2];
+				int crossingY = cluster.crossings[i * 2 + 1];
+				VisitedCluster neighbor = clusterWithCell(crossingX, crossingY);
+				int j = neighbor.cluster.indexOfCrossing(crossingX, crossingY, cellX, cellY);
+				if (j != -1) {
+					double step = octile(crossingX - cellX, crossingY - cellY);
+					reach(neighbor.firstNode + j, nodeG + step, node, goalX, goalY);
+				}
+			}
+			if (goalG == Double.POSITIVE_INFINITY) {
+				return null;
+			}
+			List<Long> answer = new ArrayList<>();
+			answer.add(key(goalX, goalY));
+			for (int node = beforeGoal; node != -1; node = parents[node]) {
+				answer.add(owners[node].cluster.cellKey(node - owners[node].firstNode));
+			}
+			answer.add(key(startX, startY));
+			Collections.reverse(answer);
+			return answer;
+		}
+
+		private void reach(int node, double nodeG, int parent, int goalX, int goalY) {
+			if (nodeG == Double.POSITIVE_INFINITY || closed[node] || g[node] <= nodeG) {
+				return;
+			}
+			boolean isOpen = g[node] != Double.POSITIVE_INFINITY;
+			g[node] = nodeG;
+			parents[node] = parent;
+			double f = nodeG + owners[node].cluster.distanceToCell(node - owners[node].firstNode, goalX, goalY);
+			if (isOpen) {
+				open.decrease(node, nodeG, f);
+			} else {
+				open.add(node, nodeG, f);
+			}
+		}
+
+		/**
+		 * Turns a path over entrances into a path over cells. Inside each chunk the path is found over the same
+		 * snapshot of free cells that distances of the chunk's cluster were computed from.
+		 *
+		 * @return Cells of the path, or null if two consecutive entrances turned out not to be connected inside their
+		 * chunk, in which case that chunk's cluster is dropped so it is computed anew.
+		 */
+		private List<Cell> refine(List<Long> nodes) {
+			List<Cell> answer = new ArrayList<>();
+			for (int i = 1; i < nodes.size(); i++) {
+				long from = nodes.get(i - 1);
+				long to = nodes.get(i);
+				if (from == to) {
+					continue;
+				}
+				int fromX = keyX(from);
+				int fromY = keyY(from);
+				int toX = keyX(to);
+				int toY = keyY(to);
+				int minX = chunkCorner(fromX);
+				int minY = chunkCorner(fromY);
+				if (chunkCorner(toX) == minX && chunkCorner(toY) == minY) {
+					Cluster cluster = visitedClusters.get(key(minX, minY)).cluster;
+					List<Cell> segment = jumpPointSearch.get().findPath(
+						new BasicCell(fromX, fromY),
+						new BasicCell(toX, toY),
+						cluster::isFree,
+						minX,
+						minY,
+						Chunk.SIZE,
+						Chunk.SIZE
+					);
+					if (segment == null) {
+						clusters.remove(key(minX, minY), cluster);
+						return null;
+					}
+					answer.addAll(segment);
+				} else {
+					answer.add(new BasicCell(toX, toY));
+				}
+			}
+			return answer;
+		}
+	}
+
+	/**
+	 * Objects that are taken one by one during a search and all released at once before the next search.
+	 */
+	private static final class Pool<T> {
+		private final Supplier<T> factory;
+		private final List<T> items = new ArrayList<>();
+		private int taken;
+
+		private Pool(Supplier<T> factory) {
+			this.factory = factory;
+		}
+
+		private T take() {
+			if (taken == items.size()) {
+				items.add(factory.get());
+			}
+			return items.get(taken++);
+		}
+
+		private void releaseAll() {
+			taken = 0;
+		}
+	}
+
+	/**
+	 * A cluster used by a search.
+	 */
+	private static final class VisitedCluster {
+		private Cluster cluster;
+		/**
+		 * Number of this cluster's first crossing among nodes of the search; other crossings follow it.
+		 */
+		private int firstNode;
+	}
+
+	/**
+	 * Crossings of one chunk into its neighbors and distances between them.
+	 */
+	private static final class Cluster {
+		private final HorizontalPlane plane;
+		private final int minX;
+		private final int minY;
+		/**
+		 * This cluster's chunk and its neighbors by {@link #neighborIndex(int, int)} (null outside the plane), with
+		 * their versions at the time this cluster was computed.
+		 */
+		private final Chunk[] chunks = new Chunk[9];
+		private final int[] versions = new int[9];
+		/**
+		 * Bits of free cells of this cluster's chunk by {@link #indexOfCell(int, int)} at the time this cluster was
+		 * computed. Distances inside this cluster and paths refined through it are found over these cells, so they
+		 * agree with each other even if objects change while a path is being found.
+		 */
+		private final long[] free = new long[Chunk.SIZE * Chunk.SIZE / Long.SIZE];
+		/**
+		 * Pairs of x and y coordinates of cells inside this cluster through which paths leave it.
+		 */
+		private int[] cells = new int[16];
+		/**
+		 * Pairs of x and y coordinates of cells in neighbor clusters one step away from {@link #cells}.
+		 */
+		private int[] crossings = new int[16];
+		private int size;
+		private final double[][] distances;
+
+		/**
+		 * @param queue
+		 * 	Open set for computing distances.
+		 * @param fromCell
+		 * 	Buffer for distances from a single cell.
+		 */
+		private Cluster(int minX, int minY, HorizontalPlane plane, OpenSet queue, double[] fromCell) {
+			this.plane = plane;
+			this.minX = minX;
+			this.minY = minY;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int x = minX + dx * Chunk.SIZE;
+					int y = minY + dy * Chunk.SIZE;
+					if (plane.containsCell(x, y)) {
+						Chunk chunk = plane.getChunkWithCell(x, y);
+						int index = neighborIndex(dx, dy);
+						// The version is read before objects, so a change while they are read makes this cluster
+						// outdated.
+						versions[index] = chunk.getObjectsVersion();
+						chunks[index] = chunk;
+					}
+				}
+			}
+			Chunk chunk = chunks[neighborIndex(0, 0)];
+			for (int x = minX; x < minX + Chunk.SIZE; x++) {
+				for (int y = minY; y < minY + Chunk.SIZE; y++) {
+					if (plane.containsCell(x, y) && !chunk.hasObject(x, y)) {
+						int index = indexOfCell(x, y);
+						free[index / Long.SIZE] |= 1L << index;
+					}
+				}
+			}
+			CellSet passable = this::isPassable;
+			int maxX = minX + Chunk.SIZE - 1;
+			int maxY = minY + Chunk.SIZE - 1;
+			addCrossings(minX, minY, 1, 0, 0, -1, passable);
+			addCrossings(maxX, minY, 0, 1, 1, 0, passable);
+			addCrossings(minX, maxY, 1, 0, 0, 1, passable);
+			addCrossings(minX, minY, 0, 1, -1, 0, passable);
+			addCornerCrossing(minX, minY, -1, -1, passable);
+			addCornerCrossing(maxX, minY, 1, -1, passable);
+			addCornerCrossing(maxX, maxY, 1, 1, passable);
+			addCornerCrossing(minX, maxY, -1, 1, passable);
+			distances = new double[size][];
+			for (int i = 0; i < size; i++) {
+				distancesFrom(cells[i * 2], cells[i * 2 + 1], fromCell, queue);
+				distances[i] = new double[size];
+				for (int j = 0; j < size; j++) {
+					distances[i][j] = fromCell[cellIndex(j)];
+				}
+			}
+		}
+
+		/**
+		 * Finds crossings along one edge of this cluster: one or two for each run of cells that can be crossed
+		 * straight, and one for each diagonal step that is the only way across.
+		 *
+		 * @param x
+		 * 	X coordinate of the edge's first cell.
+		 * @param y
+		 * 	Y coordinate of the edge's first cell.
+		 * @param alongX
+		 * 	Step along the edge by x axis.
+		 * @param alongY
+		 * 	Step along the edge by y axis.
+		 * @param acrossX
+		 * 	Step from the edge into the neighbor cluster by x axis.
+		 * @param acrossY
+		 * 	Step from the edge into the neighbor cluster by y axis.
+		 */
+		private void addCrossings(int x, int y, int alongX, int alongY, int acrossX, int acrossY, CellSet passable) {
+			int runStart = -1;
+			for (int i = 0; i <= Chunk.SIZE; i++) {
+				int cellX = x + alongX * i;
+				int cellY = y + alongY * i;
+				boolean open = i < Chunk.SIZE
+					&& passable.contains(cellX, cellY)
+					&& passable.contains(cellX + acrossX, cellY + acrossY);
+				if (open && runStart == -1) {
+					runStart = i;
+				} else if (!open && runStart != -1) {
+					int runEnd = i - 1;
+					if (runEnd - runStart + 1 <= MAX_SINGLE_CROSSING_LENGTH) {
+						int middle = (runStart + runEnd) / 2;
+						addStraightCrossing(x + alongX * middle, y + alongY * middle, acrossX, acrossY);
+					} else {
+						addStraightCrossing(x + alongX * runStart, y + alongY * runStart, acrossX, acrossY);
+						addStraightCrossing(x + alongX * runEnd, y + alongY * runEnd, acrossX, acrossY);
+					}
+					runStart = -1;
+				}
+				if (i < Chunk.SIZE && !open && passable.contains(cellX, cellY)) {
+					// Ends of the edge are left to addCornerCrossing.
+					for (int side = -1; side <= 1; side += 2) {
+						int neighborX = cellX + alongX * side;
+						int neighborY = cellY + alongY * side;
+						if (i + side >= 0 && i + side < Chunk.SIZE
+							&& !passable.contains(neighborX, neighborY)
+							&& passable.contains(neighborX + acrossX, neighborY + acrossY)) {
+							addCrossing(cellX, cellY, neighborX + acrossX, neighborY + acrossY);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds a crossing from a corner cell of this cluster to the diagonal neighbor cluster, if a diagonal step is
+		 * the only way between them there.
+		 */
+		private void addCornerCrossing(int x, int y, int dx, int dy, CellSet passable) {
+			if (passable.contains(x, y)
+				&& passable.contains(x + dx, y + dy)
+				&& !passable.contains(x + dx, y)
+				&& !passable.contains(x, y + dy)) {
+				addCrossing(x, y, x + dx, y + dy);
+			}
+		}
+
+		private void addStraightCrossing(int x, int y, int acrossX, int acrossY) {
+			addCrossing(x, y, x + acrossX, y + acrossY);
+		}
+
+		private void addCrossing(int x, int y, int crossingX, int crossingY) {
+			if (size * 2 == cells.length) {
+				cells = Arrays.copyOf(cells, cells.length * 2);
+				crossings = Arrays.copyOf(crossings, crossings.length * 2);
+			}
+			cells[size * 2] = x;
+			cells[size * 2 + 1] = y;
+			crossings[size * 2] = crossingX;
+			crossings[size * 2 + 1] = crossingY;
+			size++;
+		}
+
+		private static int neighborIndex(int dx, int dy) {
+			return (dx + 1) * 3 + dy + 1;
+		}
+
+		/**
+		 * Checks that objects in this cluster's chunk and its neighbors haven't changed and that none of them was
+		 * unloaded from the plane (see {@link Chunk#getObjectsVersion()}), without looking chunks up in the plane.
+		 */
+		private boolean isUpToDate() {
+			for (int i = 0; i < chunks.length; i++) {
+				if (chunks[i] != null && chunks[i].getObjectsVersion() != versions[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Tells if a cell of this cluster was free when this cluster was computed.
+		 */
+		private boolean isFree(int x, int y) {
+			if (!contains(x, y)) {
+				return false;
+			}
+			int index = indexOfCell(x, y);
+			return (free[index / Long.SIZE] & 1L << index) != 0;
+		}
+
+		/**
+		 * Tells if a cell of this cluster or of its neighbors is free, using chunks this cluster was computed from.
+		 */
+		private boolean isPassable(int x, int y) {
+			if (contains(x, y)) {
+				return isFree(x, y);
+			}
+			Chunk chunk = chunks[neighborIndex(
+				Math.floorDiv(x - minX, Chunk.SIZE),
+				Math.floorDiv(y - minY, Chunk.SIZE)
+			)];
+			return chunk != null && plane.containsCell(x, y) && !chunk.hasObject(x, y);
+		}
+
+		/**
+		 * Estimates the length of a path from a crossing's cell to another cell.
+		 */
+		private double distanceToCell(int crossing, int x, int y) {
+			return octile(cells[crossing * 2] - x, cells[crossing * 2 + 1] - y);
+		}
+
+		private long cellKey(int crossing) {
+			return key(cells[crossing * 2], cells[crossing * 2 + 1]);
+		}
+
+		/**
+		 * Finds a crossing by its cell and the cell in a neighbor cluster it leads to.
+		 *
+		 * @return Index of the crossing, or -1 if there is no such crossing.
+		 */
+		private int indexOfCrossing(int x, int y, int acrossX, int acrossY) {
+			for (int i = 0; i < size; i++) {
+				if (cells[i * 2] == x
+					&& cells[i * 2 + 1] == y
+					&& crossings[i * 2] == acrossX
+					&& crossings[i * 2 + 1] == acrossY) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private boolean contains(int x, int y) {
+			return x >= minX && y >= minY && x < minX + Chunk.SIZE && y < minY + Chunk.SIZE;
+		}
+
+		private int indexOfCell(int x, int y) {
+			return (x - minX) * Chunk.SIZE + y - minY;
+		}
+
+		private int cellIndex(int crossing) {
+			return indexOfCell(cells[crossing * 2], cells[crossing * 2 + 1]);
+		}
+
+		/**
+		 * Computes distances from a cell to all free cells of this cluster without leaving it.
+		 *
+		 * @param answer
+		 * 	Where to put distances by {@link #indexOfCell(int, int)}, {@link Double#POSITIVE_INFINITY} for unreachable
+		 * 	cells.
+		 * @param open
+		 * 	An empty open set, left empty.
+		 */
+		private void distancesFrom(int x, int y, double[] answer, OpenSet open) {
+			Arrays.fill(answer, Double.POSITIVE_INFINITY);
+			int start = indexOfCell(x, y);
+			answer[start] = 0;
+			open.add(start, 0, 0);
+			while (!open.isEmpty()) {
+				int index = open.poll();
+				int currentX = minX + index / Chunk.SIZE;
+				int currentY = minY + index % Chunk.SIZE;
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						int neighborX = currentX + dx;
+						int neighborY = currentY + dy;
+						if (dx == 0 && dy == 0 || !isFree(neighborX, neighborY)) {
+							continue;
+						}
+						double distance = answer[index] + (dx != 0 && dy != 0 ? Cell.SQRT_2 : 1);
+						int neighbor = indexOfCell(neighborX, neighborY);
+						if (distance < answer[neighbor]) {
+							if (answer[neighbor] == Double.POSITIVE_INFINITY) {
+								open.add(neighbor, distance, distance);
+							} else {
+								open.decrease(neighbor, distance, distance);
+							}
+							answer[neighbor] = distance;
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package org.tendiwa.pathfinding.hierarchical;
+
+import org.tendiwa.core.Chunk;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.geometry.CellSet;
+import org.tendiwa.pathfinding.astar.OpenSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jump Point Search over a rectangular window of a uniform-cost grid with 8 neighbors per cell. Straight steps cost 1,
+ * diagonal steps cost {@link Cell#SQRT_2}.
+ * <p>
+ * Instead of putting every cell into the open set like A* does, the search jumps along straight and diagonal lines
+ * and only stops at cells where an obstacle forces the path to turn, so on open areas it touches a small fraction of
+ * cells.
+ * <p>
+ * Buffers are reused between searches with the same instance. An instance is not thread-safe.
+ */
+public final class JumpPointSearch {
+	private int capacity;
+	private double[] g;
+	private int[] parents;
+	private int[] seen;
+	private int[] closed;
+	private final OpenSet open = new OpenSet(0);
+	private int generation;
+	private CellSet passable;
+	private int minX;
+	private int minY;
+	private int width;
+	private int height;
+	private int goalX;
+	private int goalY;
+
+	public JumpPointSearch() {
+		ensureCapacity(Chunk.SIZE * Chunk.SIZE);
+	}
+
+	/**
+	 * Finds the cheapest path between two cells without leaving a rectangular window.
+	 *
+	 * @param start
+	 * 	Where the path starts.
+	 * @param goal
+	 * 	Where the path ends.
+	 * @param passable
+	 * 	Cells that can be stepped on.
+	 * @param minX
+	 * 	X coordinate of the window's leftmost column.
+	 * @param minY
+	 * 	Y coordinate of the window's topmost row.
+	 * @param width
+	 * 	Width of the window.
+	 * @param height
+	 * 	Height of the window.
+	 * @return Cells of the path in the order they are stepped on, including {@code goal} but not {@code start}, or
+	 * null if there is no path inside the window.
+	 */
+	public List<Cell> findPath(Cell start, Cell goal, CellSet passable, int minX, int minY, int width, int height) {
+		if (start.x() < minX || start.y() < minY || start.x() >= minX + width || start.y() >= minY + height
+			|| goal.x() < minX || goal.y() < minY || goal.x() >= minX + width || goal.y() >= minY + height) {
+			throw new IllegalArgumentException("Start " + start + " and goal " + goal + " must be inside the window");
+		}
+		ensureCapacity(width * height);
+		this.passable = passable;
+		this.minX = minX;
+		this.minY = minY;
+		this.width = width;
+		this.height = height;
+		this.goalX = goal.x();
+		this.goalY = goal.y();
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			generation = 1;
+		}
+		open.clear();
+		int goalIndex = index(goalX, goalY);
+		if (!isPassable(goalX, goalY)) {
+			return null;
+		}
+		reach(index(start.x(), start.y()), -1, 0);
+		while (!open.isEmpty()) {
+			int current = open.poll();
+			if (current == goalIndex) {
+				return pathTo(current);
+			}
+			closed[current] = generation;
+			expand(current);
+		}
+		return null;
+	}
+
+	private void expand(int current) {
+		int x = minX + current % width;
+		int y = minY + current / width;
+		int parent = parents[current];
+		if (parent == -1) {
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					if (dx != 0 || dy != 0) {
+						jumpFrom(current, x, y, dx, dy);
+					}
+				}
+			}
+			return;
+		}
+		int dx = Integer.signum(x - (minX + parent % width));
+		int dy = Integer.signum(y - (minY + parent / width));
+		if (dx != 0 && dy != 0) {
+			jumpFrom(current, x, y, 0, dy);
+			jumpFrom(current, x, y, dx, 0);
+			jumpFrom(current, x, y, dx, dy);
+			if (!isPassable(x - dx, y)) {
+				jumpFrom(current, x, y, -dx, dy);
+			}
+			if (!isPassable(x, y - dy)) {
+				jumpFrom(current, x, y, dx, -dy);
+			}
+		} else if (dx != 0) {
+			jumpFrom(current, x, y, dx, 0);
+			if (!isPassable(x, y + 1)) {
+				jumpFrom(current, x, y, dx, 1);
+			}
+			if (!isPassable(x, y - 1)) {
+				jumpFrom(current, x, y, dx, -1);
+			}
+		} else {
+			jumpFrom(current, x, y, 0, dy);
+			if (!isPassable(x + 1, y)) {
+				jumpFrom(current, x, y, 1, dy);
+			}
+			if (!isPassable(x - 1, y)) {
+				jumpFrom(current, x, y, -1, dy);
+			}
+		}
+	}
+
+	private void jumpFrom(int current, int x, int y, int dx, int dy) {
+		int jumpPoint = jump(x, y, dx, dy);
+		if (jumpPoint == -1 || closed[jumpPoint] == generation) {
+			return;
+		}
+		int jumpX = minX + jumpPoint % width;
+		int jumpY = minY + jumpPoint / width;
+		double jumpG = g[current] + octile(Math.abs(jumpX - x), Math.abs(jumpY - y));
+		if (seen[jumpPoint] != generation || jumpG < g[jumpPoint]) {
+			reach(jumpPoint, current, jumpG);
+		}
+	}
+
+	/**
+	 * Moves from a cell in a direction until reaching a jump point.
+	 *
+	 * @return Index of the jump point, or -1 if an obstacle or the window's edge is reached first.
+	 */
+	private int jump(int x, int y, int dx, int dy) {
+		while (true) {
+			x += dx;
+			y += dy;
+			if (!isPassable(x, y)) {
+				return -1;
+			}
+			if (x == goalX && y == goalY) {
+				return index(x, y);
+			}
+			if (dx != 0 && dy != 0) {
+				if (!isPassable(x - dx, y) && isPassable(x - dx, y + dy)
+					|| !isPassable(x, y - dy) && isPassable(x + dx, y - dy)) {
+					return index(x, y);
+				}
+				if (jump(x, y, dx, 0) != -1 || jump(x, y, 0, dy) != -1) {
+					return index(x, y);
+				}
+			} else if (dx != 0) {
+				if (!isPassable(x, y + 1) && isPassable(x + dx, y + 1)
+					|| !isPassable(x, y - 1) && isPassable(x + dx, y - 1)) {
+					return index(x, y);
+				}
+			} else {
+				if (!isPassable(x + 1, y) && isPassable(x + 1, y + dy)
+					|| !isPassable(x - 1, y) && isPassable(x - 1, y + dy)) {
+					return index(x, y);
+				}
+			}
+		}
+	}
+
+	private boolean isPassable(int x, int y) {
+		return x >= minX && y >= minY && x < minX + width && y < minY + height && passable.contains(x, y);
+	}
+
+	private static double octile(int dx, int dy) {
+		return Math.max(dx, dy) + (Cell.SQRT_2 - 1) * Math.min(dx, dy);
+	}
+
+	private int index(int x, int y) {
+		return (y - minY) * width + x - minX;
+	}
+
+	/**
+	 * Fills straight and diagonal segments between jump points with cells.
+	 */
+	private List<Cell> pathTo(int index) {
+		List<Cell> answer = new ArrayList<>();
+		for (int cell = index; parents[cell] != -1; cell = parents[cell]) {
+			int x = minX + cell % width;
+			int y = minY + cell / width;
+			int parentX = minX + parents[cell] % width;
+			int parentY = minY + parents[cell] / width;
+			int dx = Integer.signum(parentX - x);
+			int dy = Integer.signum(parentY - y);
+			for (; x != parentX || y != parentY; x += dx, y += dy) {
+				answer.add(new BasicCell(x, y));
+			}
+		}
+		Collections.reverse(answer);
+		return answer;
+	}
+
+	private void ensureCapacity(int size) {
+		if (size <= capacity) {
+			return;
+		}
+		capacity = Math.max(size, capacity * 2);
+		g = new double[capacity];
+		parents = new int[capacity];
+		seen = new int[capacity];
+		closed = new int[capacity];
+		open.ensureCapacity(capacity);
+		generation = 0;
+	}
+
+	private void reach(int index, int parent, double cellG) {
+		boolean isOpen = seen[index] == generation && closed[index] != generation;
+		seen[index] = generation;
+		g[index] = cellG;
+		int x = minX + index % width;
+		int y = minY + index / width;
+		double cellF = cellG + octile(Math.abs(x - goalX), Math.abs(y - goalY));
+		parents[index] = parent;
+		if (isOpen) {
+			open.decrease(index, cellG, cellF);
+		} else {
+			open.add(index, cellG, cellF);
+		}
+	}
+}
@@ -27,7 +27,10 @@ public final class PolylineProximity {
 	private final Map<Chain2D, Set<RectangleWithNeighbors>> streetsToLots = new LinkedHashMap<>();
 	private final Map<RectangleWithNeighbors, Set<Chain2D>> lotsToStreets = new LinkedHashMap<>();
 	private final double streetsWidth;
-	private final Set<Segment2D> allStreetSegments;
+	/**
+	 * All segments of all streets, to find segments near a lot without testing every segment.
+	 */
+	private final SegmentGrid streetSegments;
 
 	public PolylineProximity(
 		Set<Chain2D> streets,
@@ -39,7 +42,6 @@ public final class PolylineProximity {
 			throw new IllegalArgumentException("street width must be > 0");
 		}
 		this.streetsWidth = streetsWidth;
-		allStreetSegments = segmentsToStreets.keySet();
 
 		for (Chain2D street : streets) {
 			for (Segment2D segment : new StreamIterable<>(street.asSegmentStream())) {
@@ -47,6 +49,7 @@ public final class PolylineProximity {
 			}
 			streetsToLots.put(street, new LinkedHashSet<>());
 		}
+		streetSegments = new SegmentGrid(segmentsToStreets.keySet());
 		lots.forEach(this::addLot);
 	}
 
@@ -80,10 +83,13 @@ public final class PolylineProximity {
 	 */
 	private void findSegmentsForLot(RectangleWithNeighbors lot, Rectangle rectangle) {
 		Rectangle2D extendedRec = rectangle2D(rectangle).stretch(streetsWidth + Vectors2D.EPSILON);
-		Rectangle2DWithMaxCoordinates extendedRecWithMaxCoordinates =
-			new Rectangle2DWithMaxCoordinates(extendedRec);
-		allStreetSegments.stream()
-			.filter(extendedRecWithMaxCoordinates::intersectsSegmentHull)
+		RectangularHull searchArea = new BasicRectangularHull(
+			extendedRec.x() - streetsWidth,
+			extendedRec.getMaxX() + streetsWidth,
+			extendedRec.y() - streetsWidth,
+			extendedRec.getMaxY() + streetsWidth
+		);
+		streetSegments.segmentsIntersectingHull(searchArea).stream()
 			.filter(extendedRec::intersectsSegment)
 			.forEach(segment -> lotsToStreetSegments.put(lot, segment));
 	}
@@ -97,39 +103,6 @@ public final class PolylineProximity {
 		return answer;
 	}
 
-	/**
-	 * Just a {@link org.tendiwa.geometry.BasicRectangle2D} with precomputed
-	 * {@link org.tendiwa.geometry.BasicRectangle2D#getMaxX()}
-	 * and {@link org.tendiwa.geometry.BasicRectangle2D#getMaxX()}.
-	 */
-	private class Rectangle2DWithMaxCoordinates {
-		private final double maxX;
-		private final double maxY;
-		private final Rectangle2D rectangle;
-
-		Rectangle2DWithMaxCoordinates(Rectangle2D rectangle) {
-			this.rectangle = rectangle;
-			maxX = rectangle.getMaxX();
-			maxY = rectangle.getMaxY();
-		}
-
-		/**
-		 * Does a weaker and simpler check than
-		 * {@link org.tendiwa.geometry.BasicRectangle2D#intersectsSegment(org.tendiwa.geometry.Segment2D)}.
-		 * <p>
-		 * Checks intersection of a rectangle with segment's hull, which is much cheaper than checking intersection
-		 * with the segment itself.
-		 */
-		private boolean intersectsSegmentHull(Segment2D segment) {
-			double segmentMinX = Math.min(segment.start().x(), segment.end().x()) - streetsWidth;
-			double segmentMaxX = Math.max(segment.start().x(), segment.end().x()) + streetsWidth;
-			double segmentMinY = Math.min(segment.start().y(), segment.end().y()) - streetsWidth;
-			double segmentMaxY = Math.max(segment.start().y(), segment.end().y()) + streetsWidth;
-			// http://stackoverflow.com/questions/306316/determine-if-two-rectangles-overlap-each-other
-			return rectangle.x() < segmentMaxX && maxX > segmentMinX && rectangle.y() < segmentMaxY && maxY > segmentMinY;
-		}
-	}
-
 	Set<RectangleWithNeighbors> getLotsOnStreet(Street street) {
 		Objects.requireNonNull(street);
 		return Collections.unmodifiableSet(streetsToLots.get(street.chain()));
@@ -7,7 +7,6 @@ import org.tendiwa.core.Direction;
 import org.tendiwa.core.Directions;
 import org.tendiwa.core.meta.Cell;
 import org.tendiwa.geometry.*;
-import org.tendiwa.geometry.extensions.CachedCellSet;
 import org.tendiwa.geometry.extensions.ChebyshovDistanceBufferBorder;
 import org.tendiwa.geometry.extensions.PlanarGraphs;
 import org.tendiwa.geometry.graphs2d.Graph2D;
@@ -125,13 +124,10 @@ public final class CityBounds {
 		Cell startCell,
 		int radius
 	) {
-		CachedCellSet bufferBorder = new CachedCellSet(
-			new ChebyshovDistanceBufferBorder(
-				1,
-				(x, y) -> !cityShape.getBounds().contains(x, y) || !cityShape.contains(x, y)
-			),
-			cityShape.getBounds()
-		).computeAll();
+		BitCellSet bufferBorder = new ChebyshovDistanceBufferBorder(
+			1,
+			(x, y) -> !cityShape.getBounds().contains(x, y) || !cityShape.contains(x, y)
+		).within(cityShape.getBounds());
 		if (bufferBorder.contains(startCell)) {
 			throw new WorldGenerationException(
 				"Starting cell for computing bounds of a city resides right on the city bound."
@@ -144,13 +140,10 @@ public final class CityBounds {
 			radius + 1
 		);
 		CellSet cellsRejectedBecauseOfKnots = new KnotResolvingCells(bufferBorder, cellsInsideBufferBorder);
-		CachedCellSet culledBufferBorder = new CachedCellSet(
-			new ChebyshovDistanceBufferBorder(
-				1,
-				(x, y) -> cellsInsideBufferBorder.isCellComputed(x, y) && !cellsRejectedBecauseOfKnots.contains(x, y)
-			),
-			cellsInsideBufferBorder.getBounds()
-		).computeAll();
+		BitCellSet culledBufferBorder = new ChebyshovDistanceBufferBorder(
+			1,
+			(x, y) -> cellsInsideBufferBorder.isCellComputed(x, y) && !cellsRejectedBecauseOfKnots.contains(x, y)
+		).within(cellsInsideBufferBorder.getBounds());
 		return bufferBorderToGraph(culledBufferBorder, cellsInsideBufferBorder);
 	}
 
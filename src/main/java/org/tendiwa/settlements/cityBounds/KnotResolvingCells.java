@@ -2,7 +2,6 @@ package org.tendiwa.settlements.cityBounds;
 
 import org.tendiwa.core.meta.Cell;
 import org.tendiwa.geometry.*;
-import org.tendiwa.geometry.extensions.CachedCellSet;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -24,7 +23,7 @@ final class KnotResolvingCells implements CellSet {
 	private final CellSet cellsInsideBorder;
 	private Set<Cell> prohibitedCells;
 
-	public KnotResolvingCells(CachedCellSet border, CellSet cellsInsideBorder) {
+	public KnotResolvingCells(BoundedCellSet border, CellSet cellsInsideBorder) {
 		this.cellsInsideBorder = cellsInsideBorder;
 		this.prohibitedCells = new HashSet<>();
 		// Cells with 3 neighbors
@@ -5,11 +5,12 @@ import org.tendiwa.geometry.CrackedPolygon;
 import org.tendiwa.geometry.OrientedPolygon;
 import org.tendiwa.geometry.extensions.daveedvMaxRec.RectangleCoverage;
 import org.tendiwa.geometry.extensions.polygonRasterization.RasterizedPolygonGroup;
-import org.tendiwa.geometry.extensions.straightSkeleton.ShrinkedPolygon;
+import org.tendiwa.geometry.extensions.straightSkeleton.SuseikaStraightSkeleton;
 import org.tendiwa.geometry.smartMesh.MeshedNetwork;
 import org.tendiwa.graphs.graphs2d.BasicOrientedPolygon;
 
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.tendiwa.collections.Collectors.toImmutableList;
 import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
@@ -20,9 +21,9 @@ public final class RectangularBuildingLots {
 	}
 
 	public static Set<RectangleWithNeighbors> placeInside(MeshedNetwork network) {
-		return network.meshCells()
+		return SuseikaStraightSkeleton.computeAll(network.meshCells(), ForkJoinPool.commonPool())
 			.stream()
-			.flatMap(polygon -> new ShrinkedPolygon(polygon, 3.3).stream())
+			.flatMap(skeleton -> skeleton.cap(3.3).stream())
 			.map(shrinked ->
 					new CrackedPolygon(
 						shrinked,
@@ -0,0 +1,186 @@
+package org.tendiwa.core;
+
+import com.google.inject.Guice;
+import org.junit.Before;
+import org.junit.Test;
+import org.tendiwa.core.observation.Observable;
+import org.tendiwa.core.player.PlayerModule;
+import org.tendiwa.core.volition.RequestsModule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class RegionFileChunkStorageTest {
+	private static final int SIZE = Chunk.SIZE * 3;
+	private final TerrainTypeRegistry types = new TerrainTypeRegistry();
+	private final FloorType grass = floorType("grass");
+	private final FloorType water = floorType("water");
+	private final WallType stoneWall = wallType("stone_wall");
+	private final BorderObjectType door = borderObjectType("door");
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("regions").toFile();
+		types.addFloorType(grass);
+		types.addFloorType(water);
+		types.addGameObject(stoneWall);
+		types.addBorderObjectType(door);
+	}
+
+	@Test
+	public void terrain_survives_closing_and_reopening_world() {
+		World world = World.withRegionFiles(rectangle(SIZE, SIZE), directory, types, Integer.MAX_VALUE);
+		paint(world.getDefaultPlane());
+		world.close();
+
+		World reopened = World.withRegionFiles(rectangle(SIZE, SIZE), directory, types, Integer.MAX_VALUE);
+		assertPainted(reopened.getDefaultPlane());
+		reopened.close();
+	}
+
+	@Test
+	public void terrain_survives_unloading_least_recently_used_chunks() {
+		World world = World.withRegionFiles(rectangle(SIZE, SIZE), directory, types, 2);
+		HorizontalPlane plane = world.getDefaultPlane();
+		paint(plane);
+		assertPainted(plane);
+		world.close();
+	}
+
+	@Test
+	public void types_of_saved_chunks_can_be_resolved_by_injected_registry() {
+		TerrainTypes injected = Guice
+			.createInjector(new TendiwaBackendModule(), new PlayerModule(), new RequestsModule())
+			.getInstance(TerrainTypes.class);
+		World world = World.withRegionFiles(rectangle(SIZE, SIZE), directory, (TerrainTypeRegistry) injected, 2);
+		HorizontalPlane plane = world.getDefaultPlane();
+		paint(plane);
+		assertPainted(plane);
+		world.close();
+		assertSame(grass, injected.floorType("grass"));
+		assertSame(stoneWall, injected.gameObject("stone_wall"));
+		assertSame(door, injected.borderObjectType("door"));
+	}
+
+	@Test
+	public void chunks_that_were_never_saved_are_not_found() {
+		RegionFileChunkStorage storage = new RegionFileChunkStorage(directory, types);
+		World world = new World(rectangle(SIZE, SIZE), storage, Integer.MAX_VALUE);
+		assertNull(storage.load(world.getDefaultPlane(), 0, 0));
+		assertNull(storage.load(world.getDefaultPlane(), RegionFile.SIZE * 5, -RegionFile.SIZE));
+		world.close();
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void unknown_type_names_are_not_resolved() {
+		types.floorType("lava");
+	}
+
+	@Test
+	public void chunks_left_behind_by_a_time_stream_are_unloaded() {
+		int width = Chunk.SIZE * 16;
+		int maxLoadedChunks = 8;
+		World world = World.withRegionFiles(rectangle(width, Chunk.SIZE * 2), directory, types, maxLoadedChunks);
+		HorizontalPlane plane = world.getDefaultPlane();
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < Chunk.SIZE * 2; y++) {
+				plane.placeFloor(x < Chunk.SIZE ? water : grass, x, y);
+			}
+		}
+		CharacterType human = new CharacterType();
+		human.name("human");
+		human.maxHp(10);
+		Character walker = new Character(new Observable() {
+		}, 16, Chunk.SIZE, human, "Ivan", null);
+		plane.addCharacter(walker);
+		TimeStream timeStream = new TimeStream(null, null);
+		timeStream.addPlayerCharacter(walker);
+		timeStream.claimTerritoryAround(plane, walker.x, walker.y);
+		for (int x = walker.x + 1; x < width - 16; x++) {
+			walker.place(plane, x, Chunk.SIZE);
+			int loadedChunks = 0;
+			for (Chunk ignored : plane.getChunks()) {
+				loadedChunks++;
+			}
+			assertTrue(loadedChunks <= maxLoadedChunks);
+		}
+		assertFalse(plane.hasChunk(0, 0));
+		assertNull(plane.getChunkWithCell(0, 0).getTimeStream());
+		assertSame(water, plane.getFloor(0, Chunk.SIZE));
+		assertSame(grass, plane.getFloor(Chunk.SIZE, Chunk.SIZE));
+		world.close();
+	}
+
+	private void paint(HorizontalPlane plane) {
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				plane.placeFloor((x * 7 + y * 3) % 5 == 0 ? water : grass, x, y);
+				if ((x + y) % 11 == 0) {
+					plane.placeWall(stoneWall, x, y);
+				}
+				if ((x * y) % 13 == 1) {
+					plane.setBorderObject(x, y, Directions.N, door);
+				}
+			}
+		}
+	}
+
+	private void assertPainted(HorizontalPlane plane) {
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				assertSame((x * 7 + y * 3) % 5 == 0 ? water : grass, plane.getFloor(x, y));
+				assertSame((x + y) % 11 == 0 ? stoneWall : null, plane.getGameObject(x, y));
+				BorderObject border = plane.getBorderObject(x, y, Directions.N);
+				if ((x * y) % 13 == 1) {
+					assertSame(door, border.getType());
+				} else {
+					assertNull(border);
+				}
+			}
+		}
+	}
+
+	private static FloorType floorType(String name) {
+		return new FloorType() {
+			@Override
+			public boolean isLiquid() {
+				return false;
+			}
+
+			@Override
+			public String getResourceName() {
+				return name;
+			}
+		};
+	}
+
+	private static WallType wallType(String name) {
+		return new WallType() {
+			@Override
+			public ObjectType getType() {
+				return null;
+			}
+
+			@Override
+			public boolean isUsable() {
+				return false;
+			}
+
+			@Override
+			public String getResourceName() {
+				return name;
+			}
+		};
+	}
+
+	private static BorderObjectType borderObjectType(String name) {
+		BorderObjectType type = new BorderObjectType();
+		type.name(name);
+		return type;
+	}
+}
@@ -0,0 +1,232 @@
+package org.tendiwa.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tendiwa.core.events.EventDie;
+import org.tendiwa.core.net.*;
+import org.tendiwa.core.net.clientmessages.ClientMessageAuth;
+import org.tendiwa.core.net.clientmessages.ClientMessageLogin;
+import org.tendiwa.core.net.clientmessages.ClientMessageQueryChunks;
+import org.tendiwa.core.net.clientmessages.ClientMessageStep;
+import org.tendiwa.core.net.clientmessages.ServerMessageCharacterAuthInfo;
+import org.tendiwa.core.observation.Observable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class RemotePlayersTest {
+	private static final int WIDTH = Chunk.SIZE * 12;
+	private static final int HEIGHT = Chunk.SIZE * 2;
+	private static final int ROW = Chunk.SIZE;
+	private final Observable backend = new Observable() {
+	};
+	private final ByteBufferPool pool = new ByteBufferPool(256, 64);
+	private final BlockingQueue<Character> requesters = new LinkedBlockingQueue<>();
+	private final List<SocketChannel> clients = new ArrayList<>();
+	private TimeStreamScheduler scheduler;
+	private NetworkServer server;
+	private Character first;
+	private Character second;
+
+	@Before
+	public void setUp() {
+		backend.createEventEmitter(EventDie.class);
+		HorizontalPlane plane = new World(rectangle(WIDTH, HEIGHT)).getDefaultPlane();
+		FloorType grass = grass();
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				plane.placeFloor(grass, x, y);
+			}
+		}
+		TimeStreamManager manager = new TimeStreamManager(null, () -> new TimeStream(backend, null));
+		scheduler = new TimeStreamScheduler(manager, 2);
+		first = player(plane, manager.createTimeStream(), 16);
+		second = player(plane, manager.createTimeStream(), Chunk.SIZE * 6 + 16);
+		server = new NetworkServer(
+			new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+			new PlayerSession.Factory(
+				backend,
+				Arrays.asList(EventDie.class),
+				scheduler,
+				(login, password) -> "right".equals(password)
+					? Arrays.asList(first, second)
+					: Collections.<Character>emptyList(),
+				(character, message) -> () -> requesters.add(character),
+				pool
+			),
+			pool
+		);
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (SocketChannel client : clients) {
+			client.close();
+		}
+		server.stopServer();
+		server.join(5000);
+		scheduler.shutdown();
+	}
+
+	@Test(timeout = 10000)
+	public void login_lists_characters_of_the_account() throws Exception {
+		SocketChannel client = connect();
+		ClientMessageLogin login = new ClientMessageLogin();
+		login.l = "ivan";
+		login.p = "right";
+		send(client, login);
+		assertEquals(first.getId(), ((ServerMessageCharacterAuthInfo) receiveMessage(client)).characterId);
+		assertEquals(second.getId(), ((ServerMessageCharacterAuthInfo) receiveMessage(client)).characterId);
+	}
+
+	@Test(timeout = 10000)
+	public void requests_are_made_for_the_authenticated_character() throws Exception {
+		SocketChannel client = play(second);
+		send(client, new ClientMessageStep());
+		assertSame(second, requesters.poll(5, TimeUnit.SECONDS));
+	}
+
+	@Test(timeout = 10000)
+	public void events_go_only_to_clients_in_the_time_stream_that_emitted_them() throws Exception {
+		SocketChannel firstClient = play(first);
+		SocketChannel secondClient = play(second);
+		scheduler.submit(first.getTimeStream(), () -> backend.emitEvent(new EventDie(first)));
+		scheduler.submit(second.getTimeStream(), () -> backend.emitEvent(new EventDie(second)));
+		assertEquals(encode(new EventDie(first)), receiveFrame(firstClient));
+		assertEquals(encode(new EventDie(second)), receiveFrame(secondClient));
+		backend.emitEvent(new EventDie(first));
+		scheduler.submit(first.getTimeStream(), () -> backend.emitEvent(new EventDie(second)));
+		assertEquals(encode(new EventDie(second)), receiveFrame(firstClient));
+	}
+
+	@Test(timeout = 10000)
+	public void chunks_are_sent_only_to_authenticated_clients() throws Exception {
+		SocketChannel player = play(first);
+		ClientMessageQueryChunks query = new ClientMessageQueryChunks();
+		query.coords = new int[]{first.x, first.y};
+		send(player, query);
+		receiveFrame(player);
+
+		SocketChannel stranger = connect();
+		send(stranger, query);
+		assertClosed(stranger);
+	}
+
+	@Test(timeout = 10000)
+	public void a_character_is_played_by_one_client_at_a_time() throws Exception {
+		play(first);
+		SocketChannel other = connect();
+		send(other, auth(first, "right"));
+		assertClosed(other);
+	}
+
+	@Test(timeout = 10000)
+	public void wrong_password_closes_connection() throws Exception {
+		SocketChannel client = connect();
+		send(client, auth(first, "wrong"));
+		assertClosed(client);
+	}
+
+	private Character player(HorizontalPlane plane, TimeStream timeStream, int x) {
+		CharacterType type = new CharacterType();
+		type.name("human");
+		type.maxHp(10);
+		Character character = new Character(backend, x, ROW, type, "Ivan", null);
+		plane.addCharacter(character);
+		timeStream.addPlayerCharacter(character);
+		assertTrue(timeStream.claimTerritoryAround(plane, x, ROW));
+		return character;
+	}
+
+	private static FloorType grass() {
+		return new FloorType() {
+			@Override
+			public boolean isLiquid() {
+				return false;
+			}
+
+			@Override
+			public String getResourceName() {
+				return "grass";
+			}
+		};
+	}
+
+	/**
+	 * Connects a client that plays a character, and skips the terrain sent to it after authentication.
+	 */
+	private SocketChannel play(Character character) throws IOException {
+		SocketChannel client = connect();
+		send(client, auth(character, "right"));
+		receiveFrame(client);
+		return client;
+	}
+
+	private static ClientMessageAuth auth(Character character, String password) {
+		ClientMessageAuth auth = new ClientMessageAuth();
+		auth.login = "ivan";
+		auth.password = password;
+		auth.characterId = character.getId();
+		return auth;
+	}
+
+	private SocketChannel connect() throws IOException {
+		SocketChannel client = SocketChannel.open(server.getLocalAddress());
+		clients.add(client);
+		return client;
+	}
+
+	private void send(SocketChannel client, Object message) throws IOException {
+		WireWriter out = WireWriter.framed(pool);
+		MessageCodec.encode(message, out);
+		ByteBuffer frame = out.finish();
+		while (frame.hasRemaining()) {
+			client.write(frame);
+		}
+	}
+
+	private ByteBuffer encode(EventDie event) {
+		WireWriter out = new WireWriter(pool);
+		EventCodec.encode(event, out);
+		return out.finish();
+	}
+
+	private static Object receiveMessage(SocketChannel client) throws IOException {
+		return MessageCodec.decode(new WireReader(receiveFrame(client)));
+	}
+
+	private static ByteBuffer receiveFrame(SocketChannel client) throws IOException {
+		ByteBuffer header = readFully(client, WireWriter.FRAME_HEADER_SIZE);
+		return readFully(client, header.getInt());
+	}
+
+	private static ByteBuffer readFully(SocketChannel client, int size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		while (buffer.hasRemaining()) {
+			if (client.read(buffer) == -1) {
+				throw new IOException("Connection closed");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static void assertClosed(SocketChannel client) throws IOException {
+		assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+	}
+}
@@ -0,0 +1,166 @@
+package org.tendiwa.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.tendiwa.core.observation.Observable;
+import org.tendiwa.core.vision.Seer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class TimeStreamTest {
+	private static final int WIDTH = Chunk.SIZE * 12;
+	private static final int HEIGHT = Chunk.SIZE * 2;
+	private static final int ROW = Chunk.SIZE;
+	private final Observable backend = new Observable() {
+	};
+	private final CharacterType human = characterType();
+	private final WallType wall = new WallType() {
+		@Override
+		public ObjectType getType() {
+			return null;
+		}
+
+		@Override
+		public boolean isUsable() {
+			return false;
+		}
+
+		@Override
+		public String getResourceName() {
+			return "wall";
+		}
+	};
+	private HorizontalPlane plane;
+
+	@Before
+	public void setUp() {
+		plane = new World(rectangle(WIDTH, HEIGHT)).getDefaultPlane();
+	}
+
+	@Test
+	public void separated_players_stay_in_separate_time_streams() {
+		TimeStream first = timeStream();
+		TimeStream second = timeStream();
+		Character firstPlayer = player(first, 16, ROW);
+		Character secondPlayer = player(second, Chunk.SIZE * 3 + 16, ROW);
+		Chunk secondStart = plane.getChunkWithCell(secondPlayer.x, secondPlayer.y);
+		for (int x = secondPlayer.x + 1; x <= WIDTH - 24; x++) {
+			secondPlayer.place(plane, x, ROW);
+		}
+		for (int x = firstPlayer.x + 1; x <= WIDTH - 84; x++) {
+			firstPlayer.place(plane, x, ROW);
+		}
+		assertEquals(WIDTH - 84, firstPlayer.x);
+		assertEquals(WIDTH - 24, secondPlayer.x);
+		assertFalse(first.hasCollisions());
+		assertFalse(second.hasCollisions());
+		assertSame(first, firstPlayer.getTimeStream());
+		assertSame(second, secondPlayer.getTimeStream());
+		assertNull(secondStart.getTimeStream());
+		assertOnlyChunksAround(first, firstPlayer);
+		assertOnlyChunksAround(second, secondPlayer);
+	}
+
+	@Test
+	public void entering_a_chunk_of_another_time_stream_is_deferred_until_merge() {
+		TimeStream first = timeStream();
+		TimeStream second = timeStream();
+		Character firstPlayer = player(first, 16, ROW);
+		player(second, Chunk.SIZE * 2 + 16, ROW);
+		for (int x = firstPlayer.x + 1; x < Chunk.SIZE * 2; x++) {
+			firstPlayer.place(plane, x, ROW);
+		}
+		assertEquals(Chunk.SIZE * 2 - 1, firstPlayer.x);
+		assertTrue(first.hasCollisions());
+
+		firstPlayer.place(plane, Chunk.SIZE * 2, ROW);
+		assertEquals(Chunk.SIZE * 2 - 1, firstPlayer.x);
+
+		first.absorb(second);
+		for (Runnable work : first.takeDeferredWork()) {
+			work.run();
+		}
+		assertEquals(Chunk.SIZE * 2, firstPlayer.x);
+		assertSame(first, plane.getChunkWithCell(firstPlayer.x, firstPlayer.y).getTimeStream());
+		assertTrue(first.takeDeferredWork().isEmpty());
+	}
+
+	@Test
+	public void scheduler_resumes_deferred_work_after_merge() throws InterruptedException {
+		TimeStreamManager manager = new TimeStreamManager(null, this::timeStream);
+		TimeStreamScheduler scheduler = new TimeStreamScheduler(manager, 2);
+		try {
+			TimeStream first = manager.createTimeStream();
+			TimeStream second = manager.createTimeStream();
+			Character firstPlayer = player(first, 16, ROW);
+			Character secondPlayer = player(second, Chunk.SIZE * 2 + 16, ROW);
+			int goal = Chunk.SIZE * 2 + 8;
+			for (int x = firstPlayer.x + 1; x <= goal; x++) {
+				int step = x;
+				scheduler.submit(first, () -> firstPlayer.place(plane, step, ROW));
+			}
+			CountDownLatch done = new CountDownLatch(1);
+			scheduler.submit(first, done::countDown);
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			assertEquals(goal, firstPlayer.x);
+			assertSame(firstPlayer.getTimeStream(), secondPlayer.getTimeStream());
+			assertSame(
+				firstPlayer.getTimeStream(),
+				plane.getChunkWithCell(firstPlayer.x, firstPlayer.y).getTimeStream()
+			);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void work_of_a_time_stream_changes_only_its_own_chunks() {
+		TimeStream first = timeStream();
+		TimeStream second = timeStream();
+		player(first, 16, ROW);
+		player(second, Chunk.SIZE * 3 + 16, ROW);
+		first.run(() -> plane.placeWall(wall, 20, ROW));
+		assertTrue(plane.hasWall(20, ROW));
+		try {
+			first.run(() -> plane.placeWall(wall, Chunk.SIZE * 3 + 20, ROW));
+			fail();
+		} catch (IllegalStateException expected) {
+		}
+		assertFalse(plane.hasWall(Chunk.SIZE * 3 + 20, ROW));
+		plane.placeWall(wall, Chunk.SIZE * 3 + 20, ROW);
+		assertTrue(plane.hasWall(Chunk.SIZE * 3 + 20, ROW));
+	}
+
+	private TimeStream timeStream() {
+		return new TimeStream(backend, null);
+	}
+
+	private Character player(TimeStream timeStream, int x, int y) {
+		Character character = new Character(backend, x, y, human, "Ivan", null);
+		plane.addCharacter(character);
+		timeStream.addPlayerCharacter(character);
+		assertTrue(timeStream.claimTerritoryAround(plane, x, y));
+		return character;
+	}
+
+	/**
+	 * Checks that a TimeStream holds exactly the chunks its only character can see or reach in one turn.
+	 */
+	private void assertOnlyChunksAround(TimeStream timeStream, Character character) {
+		assertEquals(
+			plane.getChunksAroundCoordinate(character.x, character.y, Seer.VISION_RANGE * 2 + 1),
+			timeStream.chunks
+		);
+	}
+
+	private static CharacterType characterType() {
+		CharacterType type = new CharacterType();
+		type.name("human");
+		type.maxHp(10);
+		return type;
+	}
+}
@@ -0,0 +1,442 @@
+package org.tendiwa.core.net;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.tendiwa.core.*;
+import org.tendiwa.core.Character;
+import org.tendiwa.core.clients.RenderBorder;
+import org.tendiwa.core.clients.RenderCell;
+import org.tendiwa.core.events.*;
+import org.tendiwa.core.observation.Event;
+import org.tendiwa.core.observation.Observable;
+import org.tendiwa.core.vision.ObstacleFindingStrategy;
+import org.tendiwa.core.vision.Seer;
+import org.tendiwa.core.vision.VisionDelta;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+/**
+ * Encodes events with {@link EventCodec} and reads them back field by field, the way a client would.
+ */
+public final class EventCodecTest {
+	private static final int SIZE = 40;
+	private final ByteBufferPool pool = new ByteBufferPool(64, 4);
+	private final Observable backend = new Observable() {
+	};
+	private final CharacterType human = characterType("human");
+	private final ItemType sword = itemType("sword");
+	private final ItemType arrow = itemType("arrow");
+	private final FloorType grass = floorType("grass");
+	private final FloorType water = floorType("water");
+	private final WallType stoneWall = wallType("stone_wall");
+	private final WallType woodenWall = wallType("wooden_wall");
+	private final BorderObjectType door = borderObjectType("door");
+	private final BorderObjectType window = borderObjectType("window");
+	private World world;
+	private HorizontalPlane plane;
+
+	@Before
+	public void setUp() {
+		world = new World(rectangle(SIZE, SIZE));
+		plane = world.getDefaultPlane();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				plane.placeFloor((x * 7 + y * 3) % 5 == 0 ? water : grass, x, y);
+				if ((x * 3 + y * 5) % 17 == 0) {
+					plane.placeWall(x % 2 == 0 ? stoneWall : woodenWall, x, y);
+				}
+				if ((x * y) % 11 == 1) {
+					plane.setBorderObject(x, y, y % 2 == 0 ? Directions.N : Directions.W, x % 3 == 0 ? door : window);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void events_about_characters_are_encoded() {
+		Character attacker = character(3, 4);
+		Character aim = character(4, 4);
+
+		WireReader in = read(new EventAttack(attacker, aim), 0);
+		assertEquals(attacker.getId(), in.readInt());
+		assertEquals(aim.getId(), in.readInt());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventDie(aim), 1);
+		assertEquals(aim.getId(), in.readInt());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventGetDamage(aim, 12, attacker, DamageType.FIRE), 4);
+		assertEquals(aim.getId(), in.readInt());
+		assertEquals(12, in.readInt());
+		assertEquals(DamageSource.DamageSourceType.CHARACTER.ordinal(), in.readLength());
+		assertEquals(attacker.getLocalizationId(), in.readString());
+		assertEquals(DamageType.FIRE.ordinal(), in.readLength());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventMove(2, 5, attacker, MovingStyle.LEAP), 10);
+		assertEquals(attacker.getId(), in.readInt());
+		assertEquals(2, in.readInt());
+		assertEquals(5, in.readInt());
+		assertEquals(3, in.readInt());
+		assertEquals(4, in.readInt());
+		assertEquals(MovingStyle.LEAP.ordinal(), in.readLength());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventSay("Привет", attacker), 14);
+		assertEquals(attacker.getId(), in.readInt());
+		assertEquals("Привет", in.readString());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventSelectPlayerCharacter(attacker, world), 15);
+		assertEquals(attacker.getId(), in.readInt());
+		assertEquals(SIZE, in.readLength());
+		assertEquals(SIZE, in.readLength());
+		assertTrue(in.isAtEnd());
+	}
+
+	@Test
+	public void events_about_items_are_encoded() {
+		Character character = character(3, 4);
+		UniqueItem blade = new UniqueItem(sword);
+		ItemPile arrows = new ItemPile(arrow, 20);
+
+		WireReader in = read(new EventGetItem(arrows), 5);
+		assertItem(in, "arrow", 20);
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventItemAppear(blade, -3, 7), 7);
+		assertItem(in, "sword", 0);
+		assertEquals(-3, in.readInt());
+		assertEquals(7, in.readInt());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventItemDisappear(8, 9, arrows), 8);
+		assertItem(in, "arrow", 20);
+		assertEquals(8, in.readInt());
+		assertEquals(9, in.readInt());
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventLoseItem(blade), 9);
+		assertItem(in, "sword", 0);
+		assertTrue(in.isAtEnd());
+
+		in = read(new EventProjectileFly(arrows, 1, 2, 30, -4, EventProjectileFly.FlightStyle.CAST), 12);
+		assertEquals("arrow", in.readString());
+		assertEquals(1, in.readInt());
+		assertEquals(2, in.readInt());
+		assertEquals(30, in.readInt());
+		assertEquals(-4, in.readInt());
+		assertEquals(EventProjectileFly.FlightStyle.CAST.ordinal(), in.readLength());
+		assertTrue(in.isAtEnd());
+
+		Event[] equipmentEvents = {
+			new EventPutOn(character, blade),
+			new EventTakeOff(character, blade),
+			new EventUnwield(character, blade),
+			new EventWield(character, blade)
+		};
+		int[] equipmentTags = {13, 17, 18, 19};
+		for (int i = 0; i < equipmentEvents.length; i++) {
+			in = read(equipmentEvents[i], equipmentTags[i]);
+			assertEquals(character.getId(), in.readInt());
+			assertItem(in, "sword", 0);
+			assertTrue(in.isAtEnd());
+		}
+	}
+
+	@Test
+	public void events_about_places_are_encoded() {
+		WireReader in = read(new EventExplosion(-1, 300), 2);
+		assertEquals(-1, in.readInt());
+		assertEquals(300, in.readInt());
+		assertTrue(in.isAtEnd());
+
+		SoundType bang = new SoundType();
+		bang.name("bang");
+		in = read(new EventSound(bang, DamageType.COLD, 5, 6), 16);
+		assertEquals("bang", in.readString());
+		assertEquals(DamageType.COLD.getLocalizationId(), in.readString());
+		assertEquals(5, in.readInt());
+		assertEquals(6, in.readInt());
+		assertTrue(in.isAtEnd());
+	}
+
+	@Test
+	public void initial_terrain_is_encoded_with_palettes_and_border_rows() {
+		assertTerrain(new EventInitialTerrain(character(20, 20), world, plane, seer(20, 20)), 6);
+	}
+
+	@Test
+	public void terrain_of_another_plane_is_encoded_as_initial_terrain() {
+		assertTerrain(new EventMoveToPlane(character(2, 3), world, plane, seer(2, 3)), 11);
+	}
+
+	@Test
+	public void field_of_view_change_is_encoded_with_palettes_and_border_rows() {
+		Seer previous = seer(10, 10);
+		Seer current = seer(16, 13);
+		VisionDelta delta = new VisionDelta(
+			previous.getVisionCache(),
+			previous.getBorderVisionCache(),
+			10,
+			10,
+			current.getVisionCache(),
+			current.getBorderVisionCache(),
+			16,
+			13
+		);
+		List<BasicCell> seenCells = new ArrayList<>();
+		delta.forEachSeenCell((x, y, n) -> seenCells.add(new BasicCell(x, y)));
+		List<BasicCell> unseenCells = new ArrayList<>();
+		delta.forEachUnseenCell((x, y, n) -> unseenCells.add(new BasicCell(x, y)));
+		List<Border> seenBorders = new ArrayList<>();
+		delta.forEachSeenBorder((x, y, side, n) -> seenBorders.add(new Border(x, y, side)));
+		List<Border> unseenBorders = new ArrayList<>();
+		delta.forEachUnseenBorder((x, y, side, n) -> unseenBorders.add(new Border(x, y, side)));
+		FloorType[] floors = new FloorType[seenCells.size()];
+		GameObject[] objects = new GameObject[seenCells.size()];
+		for (int i = 0; i < floors.length; i++) {
+			floors[i] = plane.getFloor(seenCells.get(i).x(), seenCells.get(i).y());
+			objects[i] = plane.getGameObject(seenCells.get(i).x(), seenCells.get(i).y());
+		}
+		BorderObject[] borderObjects = new BorderObject[seenBorders.size()];
+		for (int i = 0; i < borderObjects.length; i++) {
+			borderObjects[i] = plane.getBorderObject(seenBorders.get(i));
+		}
+		assertFalse(unseenCells.isEmpty());
+		assertFalse(unseenBorders.isEmpty());
+		assertHasNullsAndNonNulls(objects);
+		assertHasNullsAndNonNulls(borderObjects);
+
+		WireReader in = read(
+			new EventFovChange(
+				delta,
+				floors,
+				objects,
+				ImmutableList.of(new ItemPile(arrow, 3), new UniqueItem(sword)),
+				borderObjects
+			),
+			3
+		);
+		assertEquals(seenCells, readCells(in));
+		assertCellContents(in, floors, objects);
+		assertEquals(unseenCells, readCells(in));
+		assertEquals(seenBorders, readBorders(in));
+		assertBorderObjects(in, borderObjects);
+		assertEquals(unseenBorders, readBorders(in));
+		assertEquals(2, in.readLength());
+		assertItem(in, "arrow", 3);
+		assertItem(in, "sword", 0);
+		assertTrue(in.isAtEnd());
+	}
+
+	private void assertTerrain(EventInitialTerrain event, int tag) {
+		FloorType[] floors = new FloorType[event.seenCells.size()];
+		GameObject[] objects = new GameObject[event.seenCells.size()];
+		List<BasicCell> cells = new ArrayList<>();
+		for (int i = 0; i < floors.length; i++) {
+			RenderCell cell = event.seenCells.get(i);
+			cells.add(new BasicCell(cell.x, cell.y));
+			floors[i] = cell.getFloor();
+			objects[i] = cell.getObject();
+		}
+		BorderObject[] borderObjects = new BorderObject[event.seenBorders.size()];
+		List<Border> borders = new ArrayList<>();
+		for (int i = 0; i < borderObjects.length; i++) {
+			RenderBorder border = event.seenBorders.get(i);
+			borders.add(new Border(border.x, border.y, border.side));
+			borderObjects[i] = border.getObject();
+		}
+		assertHasNullsAndNonNulls(objects);
+		assertHasNullsAndNonNulls(borderObjects);
+
+		WireReader in = read(event, tag);
+		assertEquals(event.player.getId(), in.readInt());
+		assertEquals(SIZE, in.readLength());
+		assertEquals(SIZE, in.readLength());
+		assertEquals(plane.getLevel(), in.readInt());
+		assertEquals(cells, readCells(in));
+		assertCellContents(in, floors, objects);
+		assertEquals(borders, readBorders(in));
+		assertBorderObjects(in, borderObjects);
+		assertTrue(in.isAtEnd());
+	}
+
+	private WireReader read(Event event, int tag) {
+		assertTrue(EventCodec.canEncode(event));
+		WireWriter out = new WireWriter(pool);
+		EventCodec.encode(event, out);
+		WireReader in = new WireReader(out.finish());
+		assertEquals(tag, Protocol.readHeader(in));
+		return in;
+	}
+
+	private static void assertItem(WireReader in, String name, int amount) {
+		assertEquals(name, in.readString());
+		assertEquals(amount, in.readLength());
+	}
+
+	private static List<BasicCell> readCells(WireReader in) {
+		int[] coordinates = CellRuns.read(in, SIZE * SIZE);
+		List<BasicCell> cells = new ArrayList<>();
+		for (int i = 0; i < coordinates.length; i += 2) {
+			cells.add(new BasicCell(coordinates[i], coordinates[i + 1]));
+		}
+		return cells;
+	}
+
+	private static List<Border> readBorders(WireReader in) {
+		int[] coordinates = CellRuns.read(in, SIZE * SIZE * 2);
+		List<Border> borders = new ArrayList<>();
+		for (int i = 0; i < coordinates.length; i += 2) {
+			int row = coordinates[i + 1];
+			borders.add(new Border(coordinates[i], row >> 1, row % 2 == 0 ? Directions.N : Directions.W));
+		}
+		return borders;
+	}
+
+	private static void assertCellContents(WireReader in, FloorType[] floors, GameObject[] objects) {
+		List<String> floorPalette = readPalette(in);
+		List<String> expectedFloorPalette = new ArrayList<>();
+		expectedFloorPalette.add(null);
+		for (FloorType floor : floors) {
+			String name = floor.getResourceName();
+			if (!expectedFloorPalette.contains(name)) {
+				expectedFloorPalette.add(name);
+			}
+			assertEquals(expectedFloorPalette.indexOf(name), in.readLength());
+		}
+		assertEquals(expectedFloorPalette, floorPalette);
+		List<String> objectPalette = readPalette(in);
+		List<String> expectedObjectPalette = new ArrayList<>();
+		expectedObjectPalette.add(null);
+		for (GameObject object : objects) {
+			String name = object == null ? null : ((Resourceable) object).getResourceName();
+			if (!expectedObjectPalette.contains(name)) {
+				expectedObjectPalette.add(name);
+			}
+			assertEquals(expectedObjectPalette.indexOf(name), in.readLength());
+		}
+		assertEquals(expectedObjectPalette, objectPalette);
+	}
+
+	private static void assertBorderObjects(WireReader in, BorderObject[] borderObjects) {
+		List<String> palette = readPalette(in);
+		for (BorderObject object : borderObjects) {
+			int index = in.readLength();
+			if (object == null) {
+				assertEquals(0, index);
+			} else {
+				assertEquals(object.getType().getResourceName(), palette.get(index));
+			}
+		}
+	}
+
+	/**
+	 * @return Names in a palette, with null at index 0.
+	 */
+	private static List<String> readPalette(WireReader in) {
+		int size = in.readLength();
+		List<String> names = new ArrayList<>(size + 1);
+		names.add(null);
+		for (int i = 0; i < size; i++) {
+			names.add(in.readString());
+		}
+		return names;
+	}
+
+	private static void assertHasNullsAndNonNulls(Object[] objects) {
+		int nulls = 0;
+		for (Object object : objects) {
+			if (object == null) {
+				nulls++;
+			}
+		}
+		assertTrue(nulls > 0);
+		assertTrue(nulls < objects.length);
+	}
+
+	private Character character(int x, int y) {
+		return new Character(backend, x, y, human, "Ivan", null);
+	}
+
+	private Seer seer(int x, int y) {
+		Seer seer = new Seer(
+			new BasicCell(x, y),
+			(endX, endY) -> plane.getGameObject(endX, endY) == null,
+			new ObstacleFindingStrategy() {
+				@Override
+				public boolean isCellBlockingVision(int x, int y) {
+					return plane.getGameObject(x, y) != null;
+				}
+
+				@Override
+				public boolean isBorderBlockingVision(Border border) {
+					return plane.getBorderObject(border) != null;
+				}
+			}
+		);
+		seer.setWorld(world);
+		seer.computeFullVisionCache();
+		return seer;
+	}
+
+	private static CharacterType characterType(String name) {
+		CharacterType type = new CharacterType();
+		type.name(name);
+		type.maxHp(10);
+		return type;
+	}
+
+	private static ItemType itemType(String name) {
+		ItemType type = new ItemType();
+		type.name(name);
+		return type;
+	}
+
+	private static FloorType floorType(String name) {
+		return new FloorType() {
+			@Override
+			public boolean isLiquid() {
+				return false;
+			}
+
+			@Override
+			public String getResourceName() {
+				return name;
+			}
+		};
+	}
+
+	private static WallType wallType(String name) {
+		return new WallType() {
+			@Override
+			public ObjectType getType() {
+				return null;
+			}
+
+			@Override
+			public boolean isUsable() {
+				return false;
+			}
+
+			@Override
+			public String getResourceName() {
+				return name;
+			}
+		};
+	}
+
+	private static BorderObjectType borderObjectType(String name) {
+		BorderObjectType type = new BorderObjectType();
+		type.name(name);
+		return type;
+	}
+}
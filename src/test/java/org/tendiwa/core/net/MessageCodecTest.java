@@ -0,0 +1,151 @@
+package org.tendiwa.core.net;
+
+import org.junit.Test;
+import org.tendiwa.core.net.clientmessages.ClientMessagePlayerCreate;
+import org.tendiwa.core.net.clientmessages.ClientMessageQueryChunks;
+import org.tendiwa.core.net.clientmessages.ClientMessageShootMissile;
+import org.tendiwa.core.net.clientmessages.ClientMessageStep;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class MessageCodecTest {
+	private final ByteBufferPool pool = new ByteBufferPool(16, 4);
+
+	@Test
+	public void integers_survive_encoding() {
+		int[] values = {0, 1, -1, 63, -64, 64, 127, 128, -129, 1 << 20, Integer.MAX_VALUE, Integer.MIN_VALUE};
+		WireWriter out = new WireWriter(pool);
+		for (int value : values) {
+			out.writeInt(value);
+			out.writeLength(Math.abs(value) & Integer.MAX_VALUE);
+		}
+		WireReader in = new WireReader(out.finish());
+		for (int value : values) {
+			assertEquals(value, in.readInt());
+			assertEquals(Math.abs(value) & Integer.MAX_VALUE, in.readLength());
+		}
+		assertTrue(in.isAtEnd());
+	}
+
+	@Test
+	public void small_integers_take_one_byte() {
+		WireWriter out = new WireWriter(pool);
+		out.writeInt(-64);
+		out.writeInt(63);
+		out.writeLength(127);
+		assertEquals(3, out.size());
+	}
+
+	@Test
+	public void messages_survive_encoding() {
+		ClientMessageStep step = new ClientMessageStep();
+		step.dir = 5;
+		ClientMessageQueryChunks query = new ClientMessageQueryChunks();
+		query.coords = new int[]{0, 0, -20, 40, 1000, 3000};
+		ClientMessagePlayerCreate create = new ClientMessagePlayerCreate();
+		create.account = "Лёша";
+		create.name = null;
+		create.race = 3;
+		create.cls = "";
+		create.skills = new int[0];
+		ClientMessageShootMissile shoot = new ClientMessageShootMissile();
+		shoot.x = 12;
+		shoot.y = -1;
+		shoot.unique = true;
+		shoot.missile = 77;
+
+		assertEquals(5, ((ClientMessageStep) roundTrip(step)).dir);
+		assertArrayEquals(query.coords, ((ClientMessageQueryChunks) roundTrip(query)).coords);
+		ClientMessagePlayerCreate decodedCreate = (ClientMessagePlayerCreate) roundTrip(create);
+		assertEquals("Лёша", decodedCreate.account);
+		assertNull(decodedCreate.name);
+		assertEquals(3, decodedCreate.race);
+		assertEquals("", decodedCreate.cls);
+		assertArrayEquals(new int[0], decodedCreate.skills);
+		ClientMessageShootMissile decodedShoot = (ClientMessageShootMissile) roundTrip(shoot);
+		assertEquals(12, decodedShoot.x);
+		assertEquals(-1, decodedShoot.y);
+		assertTrue(decodedShoot.unique);
+		assertEquals(77, decodedShoot.missile);
+	}
+
+	@Test
+	public void writer_grows_past_pooled_buffer_size() {
+		ClientMessageQueryChunks query = new ClientMessageQueryChunks();
+		query.coords = new int[1000];
+		for (int i = 0; i < query.coords.length; i++) {
+			query.coords[i] = i * 1000;
+		}
+		assertArrayEquals(query.coords, ((ClientMessageQueryChunks) roundTrip(query)).coords);
+	}
+
+	@Test(expected = MalformedMessageException.class)
+	public void unknown_version_is_rejected() {
+		ByteBuffer bytes = encode(new ClientMessageStep());
+		bytes.put(0, (byte) (Protocol.VERSION + 1));
+		MessageCodec.decode(new WireReader(bytes));
+	}
+
+	@Test(expected = MalformedMessageException.class)
+	public void truncated_message_is_rejected() {
+		ClientMessageQueryChunks query = new ClientMessageQueryChunks();
+		query.coords = new int[]{1, 2, 3};
+		ByteBuffer bytes = encode(query);
+		bytes.limit(bytes.limit() - 1);
+		MessageCodec.decode(new WireReader(bytes));
+	}
+
+	@Test(expected = MalformedMessageException.class)
+	public void too_long_array_is_rejected_before_allocation() {
+		WireWriter out = new WireWriter(pool);
+		Protocol.writeHeader(out, tagOf(new ClientMessageQueryChunks()));
+		out.writeLength(Integer.MAX_VALUE);
+		MessageCodec.decode(new WireReader(out.finish()));
+	}
+
+	@Test
+	public void cell_runs_survive_encoding() {
+		Random random = new Random(0);
+		CellRuns runs = new CellRuns();
+		int[] expected = new int[400];
+		int column = 10;
+		int row = 0;
+		for (int i = 0; i < expected.length; i += 2) {
+			if (random.nextInt(5) == 0) {
+				column += random.nextInt(3);
+				row = random.nextInt(30) - 10;
+			} else {
+				row += 1 + (random.nextInt(4) == 0 ? random.nextInt(5) : 0);
+			}
+			expected[i] = column;
+			expected[i + 1] = row;
+			runs.add(column, row);
+		}
+		WireWriter out = new WireWriter(pool);
+		runs.writeTo(out);
+		assertArrayEquals(expected, CellRuns.read(new WireReader(out.finish()), expected.length / 2));
+	}
+
+	private int tagOf(Object message) {
+		ByteBuffer bytes = encode(message);
+		WireReader in = new WireReader(bytes);
+		return Protocol.readHeader(in);
+	}
+
+	private ByteBuffer encode(Object message) {
+		WireWriter out = new WireWriter(pool);
+		MessageCodec.encode(message, out);
+		return out.finish();
+	}
+
+	private Object roundTrip(Object message) {
+		ByteBuffer bytes = encode(message);
+		Object decoded = MessageCodec.decode(new WireReader(bytes));
+		pool.release(bytes);
+		assertEquals(message.getClass(), decoded.getClass());
+		return decoded;
+	}
+}
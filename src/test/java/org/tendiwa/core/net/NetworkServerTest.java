@@ -0,0 +1,220 @@
+package org.tendiwa.core.net;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tendiwa.core.net.clientmessages.ClientMessageQueryChunks;
+import org.tendiwa.core.net.clientmessages.ClientMessageStep;
+import org.tendiwa.core.net.clientmessages.ServerMessageCharacterAuthInfo;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public final class NetworkServerTest {
+	private final ByteBufferPool pool = new ByteBufferPool(64, 64);
+	private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+	private final BlockingQueue<Connection> connections = new LinkedBlockingQueue<>();
+	private final AtomicInteger disconnections = new AtomicInteger();
+	private final List<SocketChannel> clients = new ArrayList<>();
+	private NetworkServer server;
+
+	@Before
+	public void setUp() {
+		server = new NetworkServer(
+			new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+			connection -> {
+				connections.add(connection);
+				return new Session() {
+					@Override
+					public void receive(Object message) {
+						received.add(message);
+					}
+
+					@Override
+					public void disconnected() {
+						disconnections.incrementAndGet();
+					}
+				};
+			},
+			pool
+		);
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (SocketChannel client : clients) {
+			client.close();
+		}
+		server.stopServer();
+		server.join(5000);
+	}
+
+	@Test
+	public void messages_go_both_ways() throws Exception {
+		SocketChannel client = connect();
+		send(client, step(3));
+		assertEquals(3, ((ClientMessageStep) next()).dir);
+
+		connections.poll(5, TimeUnit.SECONDS).sendMessage(
+			new ServerMessageCharacterAuthInfo(7, "Tendiwa", "warrior", 2, 10, new int[]{1, 2})
+		);
+		ServerMessageCharacterAuthInfo reply = (ServerMessageCharacterAuthInfo) receive(client);
+		assertEquals(7, reply.characterId);
+		assertEquals("Tendiwa", reply.name);
+		assertArrayEquals(new int[]{1, 2}, reply.equipment);
+	}
+
+	@Test
+	public void frames_queued_for_a_slow_client_are_all_written() throws Exception {
+		SocketChannel client = connect();
+		Connection connection = connections.poll(5, TimeUnit.SECONDS);
+		int numberOfReplies = 100000;
+		for (int i = 0; i < numberOfReplies; i++) {
+			connection.sendMessage(new ServerMessageCharacterAuthInfo(i, "Tendiwa", "warrior", 2, 10, null));
+		}
+		for (int i = 0; i < numberOfReplies; i++) {
+			assertEquals(i, ((ServerMessageCharacterAuthInfo) receive(client)).characterId);
+		}
+		assertTrue(connection.isOpen());
+	}
+
+	@Test
+	public void frames_are_found_regardless_of_how_bytes_arrive() throws Exception {
+		SocketChannel client = connect();
+		ByteBuffer first = frame(step(1));
+		ByteBuffer second = frame(step(2));
+		ByteBuffer both = ByteBuffer.allocate(first.remaining() + second.remaining());
+		both.put(first).put(second).flip();
+		client.write(both);
+		ByteBuffer third = frame(step(4));
+		while (third.hasRemaining()) {
+			ByteBuffer oneByte = ByteBuffer.allocate(1);
+			oneByte.put(third.get()).flip();
+			client.write(oneByte);
+			Thread.sleep(2);
+		}
+		assertEquals(1, ((ClientMessageStep) next()).dir);
+		assertEquals(2, ((ClientMessageStep) next()).dir);
+		assertEquals(4, ((ClientMessageStep) next()).dir);
+	}
+
+	@Test
+	public void frames_bigger_than_pooled_buffers_are_received() throws Exception {
+		ClientMessageQueryChunks query = new ClientMessageQueryChunks();
+		query.coords = new int[2000];
+		for (int i = 0; i < query.coords.length; i++) {
+			query.coords[i] = i * 31;
+		}
+		send(connect(), query);
+		assertArrayEquals(query.coords, ((ClientMessageQueryChunks) next()).coords);
+	}
+
+	@Test
+	public void many_idle_connections_are_kept() throws Exception {
+		int numberOfClients = 1000;
+		for (int i = 0; i < numberOfClients; i++) {
+			connect();
+		}
+		waitUntil(() -> server.getNumberOfConnections() == numberOfClients);
+		send(clients.get(numberOfClients / 2), step(6));
+		assertEquals(6, ((ClientMessageStep) next()).dir);
+		for (SocketChannel client : clients) {
+			client.close();
+		}
+		waitUntil(() -> server.getNumberOfConnections() == 0);
+		assertEquals(numberOfClients, disconnections.get());
+	}
+
+	@Test
+	public void malformed_frame_closes_only_its_connection() throws Exception {
+		SocketChannel bad = connect();
+		SocketChannel good = connect();
+		ByteBuffer header = ByteBuffer.allocate(WireWriter.FRAME_HEADER_SIZE);
+		header.putInt(NetworkServer.MAX_FRAME_SIZE + 1).flip();
+		bad.write(header);
+		assertEquals(-1, bad.read(ByteBuffer.allocate(1)));
+		waitUntil(() -> disconnections.get() == 1);
+
+		send(good, step(5));
+		assertEquals(5, ((ClientMessageStep) next()).dir);
+		assertEquals(1, server.getNumberOfConnections());
+	}
+
+	@Test
+	public void stopped_server_closes_connections() throws Exception {
+		SocketChannel client = connect();
+		waitUntil(() -> server.getNumberOfConnections() == 1);
+		server.stopServer();
+		server.join(5000);
+		assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+		assertEquals(1, disconnections.get());
+	}
+
+	private SocketChannel connect() throws IOException {
+		SocketChannel client = SocketChannel.open(server.getLocalAddress());
+		clients.add(client);
+		return client;
+	}
+
+	private static ClientMessageStep step(int dir) {
+		ClientMessageStep step = new ClientMessageStep();
+		step.dir = dir;
+		return step;
+	}
+
+	private ByteBuffer frame(Object message) {
+		WireWriter out = WireWriter.framed(pool);
+		MessageCodec.encode(message, out);
+		return out.finish();
+	}
+
+	private void send(SocketChannel client, Object message) throws IOException {
+		ByteBuffer frame = frame(message);
+		while (frame.hasRemaining()) {
+			client.write(frame);
+		}
+	}
+
+	private Object receive(SocketChannel client) throws IOException {
+		ByteBuffer header = readFully(client, WireWriter.FRAME_HEADER_SIZE);
+		return MessageCodec.decode(new WireReader(readFully(client, header.getInt())));
+	}
+
+	private static ByteBuffer readFully(SocketChannel client, int size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		while (buffer.hasRemaining()) {
+			if (client.read(buffer) == -1) {
+				throw new IOException("Connection closed");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private Object next() throws InterruptedException {
+		Object message = received.poll(5, TimeUnit.SECONDS);
+		assertNotNull(message);
+		return message;
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline);
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package org.tendiwa.core.observation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public final class EventBufferTest {
+	@Test
+	public void events_are_taken_in_order_across_the_end_of_ring() {
+		EventBuffer buffer = new EventBuffer(3);
+		List<Event> events = new ArrayList<>();
+		List<Event> taken = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			NumberedEvent first = new NumberedEvent(i * 2);
+			NumberedEvent second = new NumberedEvent(i * 2 + 1);
+			buffer.publish(first);
+			buffer.publish(second);
+			events.add(first);
+			events.add(second);
+			assertEquals(2, buffer.poll(taken));
+			buffer.acknowledge(2);
+		}
+		assertEquals(events, taken);
+	}
+
+	@Test
+	public void poll_takes_only_events_that_were_not_taken() {
+		EventBuffer buffer = new EventBuffer(4);
+		List<Event> taken = new ArrayList<>();
+		assertEquals(0, buffer.poll(taken));
+		buffer.publish(new NumberedEvent(0));
+		buffer.publish(new NumberedEvent(1));
+		assertEquals(2, buffer.poll(taken));
+		assertEquals(0, buffer.poll(taken));
+		buffer.publish(new NumberedEvent(2));
+		assertEquals(1, buffer.poll(taken));
+		assertEquals(3, taken.size());
+		assertEquals(2, ((NumberedEvent) taken.get(2)).number);
+	}
+
+	@Test
+	public void events_published_into_full_buffer_are_kept() {
+		EventBuffer buffer = new EventBuffer(2);
+		List<Event> taken = new ArrayList<>();
+		buffer.publish(new NumberedEvent(0));
+		buffer.poll(taken);
+		for (int i = 1; i < 6; i++) {
+			buffer.publish(new NumberedEvent(i));
+		}
+		buffer.acknowledge(1);
+		assertEquals(5, buffer.poll(taken));
+		for (int i = 0; i < 6; i++) {
+			assertEquals(i, ((NumberedEvent) taken.get(i)).number);
+		}
+	}
+
+	@Test
+	public void acknowledging_events_lets_waiting_actions_run() {
+		EventBuffer buffer = new EventBuffer(2);
+		List<Event> taken = new ArrayList<>();
+		AtomicInteger runs = new AtomicInteger();
+		buffer.whenHasSpace(runs::incrementAndGet);
+		assertEquals(1, runs.get());
+		buffer.publish(new NumberedEvent(0));
+		buffer.publish(new NumberedEvent(1));
+		buffer.whenHasSpace(runs::incrementAndGet);
+		assertEquals(1, runs.get());
+		buffer.poll(taken);
+		buffer.acknowledge(1);
+		assertEquals(2, runs.get());
+		buffer.acknowledge(1);
+		assertEquals(2, runs.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void events_that_were_not_taken_cant_be_acknowledged() {
+		EventBuffer buffer = new EventBuffer(2);
+		buffer.publish(new NumberedEvent(0));
+		buffer.acknowledge(1);
+	}
+
+	@Test
+	public void take_waits_for_an_event() throws InterruptedException {
+		EventBuffer buffer = new EventBuffer(2);
+		List<Event> taken = new ArrayList<>();
+		Thread subscriber = new Thread(() -> {
+			try {
+				buffer.take(taken);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		subscriber.start();
+		Thread.sleep(50);
+		assertTrue(subscriber.isAlive());
+		buffer.publish(new NumberedEvent(7));
+		subscriber.join(TimeUnit.SECONDS.toMillis(5));
+		assertFalse(subscriber.isAlive());
+		assertEquals(1, taken.size());
+		assertEquals(7, ((NumberedEvent) taken.get(0)).number);
+	}
+
+	@Test
+	public void subscriber_doesnt_hold_up_backend_while_buffer_has_space() {
+		Backend backend = new Backend();
+		EventBuffer buffer = backend.subscribeBuffered(4, NumberedEvent.class);
+		AtomicInteger received = new AtomicInteger();
+		backend.subscribe(new Observer<NumberedEvent>() {
+			@Override
+			public void update(NumberedEvent event, Finishable<NumberedEvent> emitter) {
+				received.incrementAndGet();
+				emitter.done(this);
+			}
+		}, NumberedEvent.class);
+		for (int i = 0; i < 3; i++) {
+			backend.emitEvent(new NumberedEvent(i));
+			backend.waitForAnimationToStartAndComplete();
+		}
+		assertEquals(3, received.get());
+		assertTrue(backend.areAllEmittersCheckedOut());
+		List<Event> taken = new ArrayList<>();
+		assertEquals(3, buffer.poll(taken));
+	}
+
+	@Test
+	public void full_buffer_holds_up_backend_until_subscriber_acknowledges() throws InterruptedException {
+		Backend backend = new Backend();
+		EventBuffer buffer = backend.subscribeBuffered(4, NumberedEvent.class);
+		AtomicInteger emitted = new AtomicInteger();
+		Thread game = new Thread(() -> {
+			for (int i = 0; i < 20; i++) {
+				backend.emitEvent(new NumberedEvent(i));
+				emitted.incrementAndGet();
+				backend.waitForAnimationToStartAndComplete();
+			}
+		});
+		game.start();
+		List<Event> taken = new ArrayList<>();
+		while (taken.size() < 4) {
+			buffer.take(taken);
+		}
+		Thread.sleep(50);
+		assertEquals(4, emitted.get());
+		assertTrue(game.isAlive());
+		int acknowledged = 0;
+		while (taken.size() < 20) {
+			buffer.acknowledge(taken.size() - acknowledged);
+			acknowledged = taken.size();
+			buffer.take(taken);
+			assertTrue(emitted.get() - acknowledged <= buffer.getCapacity());
+		}
+		buffer.acknowledge(taken.size() - acknowledged);
+		game.join(TimeUnit.SECONDS.toMillis(5));
+		assertFalse(game.isAlive());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, ((NumberedEvent) taken.get(i)).number);
+		}
+	}
+
+	private static final class NumberedEvent implements Event {
+		private final int number;
+
+		private NumberedEvent(int number) {
+			this.number = number;
+		}
+	}
+
+	private static final class Backend extends Observable {
+		private Backend() {
+			createEventEmitter(NumberedEvent.class);
+		}
+	}
+}
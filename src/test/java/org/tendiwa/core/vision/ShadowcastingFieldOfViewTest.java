@@ -0,0 +1,268 @@
+package org.tendiwa.core.vision;
+
+import org.junit.Test;
+import org.tendiwa.core.Border;
+import org.tendiwa.core.Directions;
+import org.tendiwa.core.World;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+/**
+ * Compares {@link ShadowcastingFieldOfView} with {@link Seer#OBSTACLE_TEST}.
+ */
+public final class ShadowcastingFieldOfViewTest {
+	@Test
+	public void open_field_is_seen_the_same() {
+		Layout layout = new Layout(40, 40);
+		assertEquals(new ArrayList<String>(), layout.differences(20, 20));
+	}
+
+	@Test
+	public void open_field_near_world_corner_is_seen_the_same() {
+		Layout layout = new Layout(40, 40);
+		assertEquals(new ArrayList<String>(), layout.differences(2, 3));
+	}
+
+	@Test
+	public void obstacle_hides_cells_behind_it() {
+		Layout layout = new Layout(40, 40);
+		layout.obstacles[22][20] = true;
+		for (FieldOfView fieldOfView : new FieldOfView[]{Seer.OBSTACLE_TEST, new ShadowcastingFieldOfView()}) {
+			Seer seer = layout.seer(20, 20, fieldOfView);
+			assertTrue(seer.canSee(21, 20));
+			assertTrue(seer.canSee(22, 20));
+			assertFalse(seer.canSee(23, 20));
+			assertFalse(seer.canSee(28, 20));
+		}
+	}
+
+	@Test
+	public void border_object_hides_cells_behind_it() {
+		Layout layout = new Layout(40, 40);
+		layout.borderObjects.add(new Border(20, 17, Directions.N));
+		for (FieldOfView fieldOfView : new FieldOfView[]{Seer.OBSTACLE_TEST, new ShadowcastingFieldOfView()}) {
+			Seer seer = layout.seer(20, 20, fieldOfView);
+			assertTrue(seer.canSee(20, 17));
+			assertFalse(seer.canSee(20, 16));
+			assertFalse(seer.canSee(20, 10));
+			assertEquals(Visibility.VISIBLE, seer.canSeeBorder(new Border(20, 17, Directions.N)));
+		}
+	}
+
+	@Test
+	public void walls_of_a_room_hide_cells_outside() {
+		Layout layout = new Layout(40, 40);
+		for (int i = 15; i <= 25; i++) {
+			layout.obstacles[i][15] = true;
+			layout.obstacles[i][25] = true;
+			layout.obstacles[15][i] = true;
+			layout.obstacles[25][i] = true;
+		}
+		for (FieldOfView fieldOfView : new FieldOfView[]{Seer.OBSTACLE_TEST, new ShadowcastingFieldOfView()}) {
+			Seer seer = layout.seer(20, 20, fieldOfView);
+			for (int x = 9; x <= 31; x++) {
+				for (int y = 9; y <= 31; y++) {
+					boolean inside = x > 15 && x < 25 && y > 15 && y < 25;
+					boolean outside = x < 15 || x > 25 || y < 15 || y > 25;
+					if (inside) {
+						assertTrue(x + ":" + y, seer.canSee(x, y));
+					} else if (outside) {
+						assertFalse(x + ":" + y, seer.canSee(x, y));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void free_neighbors_of_seer_are_always_seen() {
+		Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			Layout layout = randomLayout(random);
+			layout.obstacles[20][20] = false;
+			layout.borderObjects.clear();
+			for (FieldOfView fieldOfView : new FieldOfView[]{Seer.OBSTACLE_TEST, new ShadowcastingFieldOfView()}) {
+				Seer seer = layout.seer(20, 20, fieldOfView);
+				for (int x = 19; x <= 21; x++) {
+					for (int y = 19; y <= 21; y++) {
+						if (!layout.obstacles[x][y]) {
+							assertTrue(x + ":" + y, seer.canSee(x, y));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void cells_without_obstacles_between_them_and_seer_are_seen_the_same() {
+		Random random = new Random(1);
+		for (int i = 0; i < 50; i++) {
+			Layout layout = randomLayout(random);
+			layout.obstacles[20][20] = false;
+			Seer obstacleTest = layout.seer(20, 20, Seer.OBSTACLE_TEST);
+			Seer shadowcasting = layout.seer(20, 20, new ShadowcastingFieldOfView());
+			for (int x = 20 - Seer.VISION_RANGE; x <= 20 + Seer.VISION_RANGE; x++) {
+				for (int y = 20 - Seer.VISION_RANGE; y <= 20 + Seer.VISION_RANGE; y++) {
+					if (layout.isClearBetween(20, 20, x, y)) {
+						assertEquals(x + ":" + y, obstacleTest.canSee(x, y), shadowcasting.canSee(x, y));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void more_obstacles_never_reveal_free_cells() {
+		Random random = new Random(2);
+		for (int i = 0; i < 50; i++) {
+			Layout layout = randomLayout(random);
+			layout.obstacles[20][20] = false;
+			Seer before = layout.seer(20, 20, new ShadowcastingFieldOfView());
+			for (int j = 0; j < 10; j++) {
+				int x = 20 - Seer.VISION_RANGE + random.nextInt(Seer.VISION_RANGE * 2 + 1);
+				int y = 20 - Seer.VISION_RANGE + random.nextInt(Seer.VISION_RANGE * 2 + 1);
+				if (x != 20 || y != 20) {
+					layout.obstacles[x][y] = true;
+				}
+			}
+			Seer after = layout.seer(20, 20, new ShadowcastingFieldOfView());
+			for (int x = 20 - Seer.VISION_RANGE; x <= 20 + Seer.VISION_RANGE; x++) {
+				for (int y = 20 - Seer.VISION_RANGE; y <= 20 + Seer.VISION_RANGE; y++) {
+					if (!layout.obstacles[x][y] && after.canSee(x, y)) {
+						assertTrue(x + ":" + y, before.canSee(x, y));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void random_layouts_are_seen_the_same() {
+		Random random = new Random(3);
+		for (int i = 0; i < 100; i++) {
+			Layout layout = randomLayout(random);
+			int x = random.nextInt(40);
+			int y = random.nextInt(40);
+			layout.obstacles[x][y] = false;
+			assertEquals(x + ":" + y, new ArrayList<String>(), layout.differences(x, y));
+		}
+	}
+
+	@Test
+	public void dense_random_layouts_are_seen_the_same() {
+		Random random = new Random(4);
+		for (int i = 0; i < 100; i++) {
+			Layout layout = new Layout(40, 40);
+			for (int x = 0; x < 40; x++) {
+				for (int y = 0; y < 40; y++) {
+					layout.obstacles[x][y] = random.nextInt(3) == 0;
+					if (random.nextInt(3) == 0) {
+						layout.borderObjects.add(new Border(x, y, random.nextBoolean() ? Directions.N : Directions.W));
+					}
+				}
+			}
+			layout.obstacles[20][20] = false;
+			assertEquals(new ArrayList<String>(), layout.differences(20, 20));
+		}
+	}
+
+	private static Layout randomLayout(Random random) {
+		Layout layout = new Layout(40, 40);
+		for (int x = 0; x < 40; x++) {
+			for (int y = 0; y < 40; y++) {
+				layout.obstacles[x][y] = random.nextInt(8) == 0;
+				if (random.nextInt(16) == 0) {
+					layout.borderObjects.add(new Border(x, y, random.nextBoolean() ? Directions.N : Directions.W));
+				}
+			}
+		}
+		return layout;
+	}
+
+	private static final class Layout {
+		private final World world;
+		private final boolean[][] obstacles;
+		private final Set<Border> borderObjects = new HashSet<>();
+
+		private Layout(int width, int height) {
+			this.world = new World(rectangle(width, height));
+			this.obstacles = new boolean[width][height];
+		}
+
+		private Seer seer(int x, int y, FieldOfView fieldOfView) {
+			Seer seer = new Seer(
+				new BasicCell(x, y),
+				(endX, endY) -> !obstacles[endX][endY],
+				new ObstacleFindingStrategy() {
+					@Override
+					public boolean isCellBlockingVision(int x, int y) {
+						return obstacles[x][y];
+					}
+
+					@Override
+					public boolean isBorderBlockingVision(Border border) {
+						return borderObjects.contains(border);
+					}
+				},
+				fieldOfView
+			);
+			seer.setWorld(world);
+			seer.computeFullVisionCache();
+			return seer;
+		}
+
+		/**
+		 * @return true if there are no obstacles and border objects in the rectangle between cells x1:y1 and x2:y2,
+		 * except for an obstacle in x2:y2.
+		 */
+		private boolean isClearBetween(int x1, int y1, int x2, int y2) {
+			for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+				for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
+					if (obstacles[x][y] && (x != x2 || y != y2)) {
+						return false;
+					}
+					if (borderObjects.contains(new Border(x, y, Directions.N))
+						|| borderObjects.contains(new Border(x, y, Directions.W))) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return Cells and borders seen differently by the two algorithms from cell x:y.
+		 */
+		private List<String> differences(int x, int y) {
+			Seer obstacleTest = seer(x, y, Seer.OBSTACLE_TEST);
+			Seer shadowcasting = seer(x, y, new ShadowcastingFieldOfView());
+			List<String> differences = new ArrayList<>();
+			int minX = Math.max(0, x - Seer.VISION_RANGE);
+			int minY = Math.max(0, y - Seer.VISION_RANGE);
+			int maxX = Math.min(world.getWidth() - 1, x + Seer.VISION_RANGE);
+			int maxY = Math.min(world.getHeight() - 1, y + Seer.VISION_RANGE);
+			for (int i = minX; i <= maxX; i++) {
+				for (int j = minY; j <= maxY; j++) {
+					if (obstacleTest.canSee(i, j) != shadowcasting.canSee(i, j)) {
+						differences.add("cell " + i + ":" + j);
+					}
+					for (Border border : new Border[]{new Border(i, j, Directions.N), new Border(i, j, Directions.W)}) {
+						if (obstacleTest.canSeeBorder(border) != shadowcasting.canSeeBorder(border)) {
+							differences.add("border " + border.x + ":" + border.y + ":" + border.side);
+						}
+					}
+				}
+			}
+			return differences;
+		}
+	}
+}
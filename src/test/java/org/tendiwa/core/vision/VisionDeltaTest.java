@@ -0,0 +1,131 @@
+package org.tendiwa.core.vision;
+
+import org.junit.Test;
+import org.tendiwa.core.Border;
+import org.tendiwa.core.Directions;
+import org.tendiwa.core.World;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class VisionDeltaTest {
+	private static final int SIZE = 40;
+
+	@Test
+	public void delta_agrees_with_comparing_caches_cell_by_cell() {
+		Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			boolean[][] obstacles = new boolean[SIZE][SIZE];
+			Set<Border> borderObjects = new HashSet<>();
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					obstacles[x][y] = random.nextInt(6) == 0;
+					if (random.nextInt(10) == 0) {
+						borderObjects.add(new Border(x, y, random.nextBoolean() ? Directions.N : Directions.W));
+					}
+				}
+			}
+			int xPrev = random.nextInt(SIZE);
+			int yPrev = random.nextInt(SIZE);
+			int x = Math.max(0, Math.min(SIZE - 1, xPrev + random.nextInt(3) - 1));
+			int y = Math.max(0, Math.min(SIZE - 1, yPrev + random.nextInt(3) - 1));
+			if (i % 5 == 0) {
+				// Far jumps, so caches don't overlap.
+				x = random.nextInt(SIZE);
+				y = random.nextInt(SIZE);
+			}
+			obstacles[xPrev][yPrev] = false;
+			obstacles[x][y] = false;
+			Seer previous = seer(xPrev, yPrev, obstacles, borderObjects);
+			Seer current = seer(x, y, obstacles, borderObjects);
+			VisionDelta delta = new VisionDelta(
+				previous.getVisionCache(),
+				previous.getBorderVisionCache(),
+				xPrev,
+				yPrev,
+				current.getVisionCache(),
+				current.getBorderVisionCache(),
+				x,
+				y
+			);
+			Set<String> expectedSeen = new HashSet<>();
+			Set<String> expectedUnseen = new HashSet<>();
+			for (int cellX = 0; cellX < SIZE; cellX++) {
+				for (int cellY = 0; cellY < SIZE; cellY++) {
+					boolean before = previous.canSee(cellX, cellY);
+					boolean after = current.canSee(cellX, cellY);
+					if (after && !before) {
+						expectedSeen.add("cell " + cellX + ":" + cellY);
+					} else if (before && !after) {
+						expectedUnseen.add("cell " + cellX + ":" + cellY);
+					}
+					for (Border border : new Border[]{new Border(cellX, cellY, Directions.N), new Border(cellX, cellY, Directions.W)}) {
+						before = previous.canSeeBorder(border) == Visibility.VISIBLE;
+						after = current.canSeeBorder(border) == Visibility.VISIBLE;
+						if (after && !before) {
+							expectedSeen.add("border " + border.x + ":" + border.y + ":" + border.side);
+						} else if (before && !after) {
+							expectedUnseen.add("border " + border.x + ":" + border.y + ":" + border.side);
+						}
+					}
+				}
+			}
+			Set<String> seen = new HashSet<>();
+			Set<String> unseen = new HashSet<>();
+			delta.forEachSeenCell((cellX, cellY, n) -> seen.add("cell " + cellX + ":" + cellY));
+			delta.forEachUnseenCell((cellX, cellY, n) -> unseen.add("cell " + cellX + ":" + cellY));
+			delta.forEachSeenBorder((cellX, cellY, side, n) -> seen.add("border " + cellX + ":" + cellY + ":" + side));
+			delta.forEachUnseenBorder((cellX, cellY, side, n) -> unseen.add("border " + cellX + ":" + cellY + ":" + side));
+			assertEquals(expectedSeen, seen);
+			assertEquals(expectedUnseen, unseen);
+			assertEquals(seen.size(), delta.seenCellsCount() + delta.seenBordersCount());
+		}
+	}
+
+	@Test
+	public void seen_cells_are_visited_in_order() {
+		Seer previous = seer(10, 10, new boolean[SIZE][SIZE], new HashSet<>());
+		Seer current = seer(11, 10, new boolean[SIZE][SIZE], new HashSet<>());
+		VisionDelta delta = new VisionDelta(
+			previous.getVisionCache(),
+			previous.getBorderVisionCache(),
+			10,
+			10,
+			current.getVisionCache(),
+			current.getBorderVisionCache(),
+			11,
+			10
+		);
+		int[] count = {0};
+		delta.forEachSeenCell((x, y, n) -> assertEquals(count[0]++, n));
+		assertEquals(delta.seenCellsCount(), count[0]);
+		assertFalse(delta.isEmpty());
+	}
+
+	private static Seer seer(int x, int y, boolean[][] obstacles, Set<Border> borderObjects) {
+		Seer seer = new Seer(
+			new BasicCell(x, y),
+			(endX, endY) -> !obstacles[endX][endY],
+			new ObstacleFindingStrategy() {
+				@Override
+				public boolean isCellBlockingVision(int x, int y) {
+					return obstacles[x][y];
+				}
+
+				@Override
+				public boolean isBorderBlockingVision(Border border) {
+					return borderObjects.contains(border);
+				}
+			},
+			new ShadowcastingFieldOfView()
+		);
+		seer.setWorld(new World(rectangle(SIZE, SIZE)));
+		seer.computeFullVisionCache();
+		return seer;
+	}
+}
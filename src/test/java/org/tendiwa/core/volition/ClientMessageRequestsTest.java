@@ -0,0 +1,65 @@
+package org.tendiwa.core.volition;
+
+import org.junit.Test;
+import org.tendiwa.core.Direction;
+import org.tendiwa.core.Directions;
+import org.tendiwa.core.net.MalformedMessageException;
+import org.tendiwa.core.net.UnsupportedMessageException;
+import org.tendiwa.core.net.clientmessages.ClientMessageChatMessage;
+import org.tendiwa.core.net.clientmessages.ClientMessagePickUpPile;
+import org.tendiwa.core.net.clientmessages.ClientMessagePickUpUnique;
+import org.tendiwa.core.net.clientmessages.ClientMessageStep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public final class ClientMessageRequestsTest {
+	private final List<Direction> directions = new ArrayList<>();
+	private final ClientMessageRequests requests = new ClientMessageRequests(
+		(direction, player) -> {
+			directions.add(direction);
+			return null;
+		}
+	);
+
+	@Test
+	public void step_is_a_move_in_its_direction() {
+		for (int dir = 0; dir < 8; dir++) {
+			requests.apply(null, step(dir));
+			assertEquals(Directions.intToDirection(dir), directions.get(dir));
+		}
+	}
+
+	@Test(expected = MalformedMessageException.class)
+	public void step_in_wrong_direction_is_malformed() {
+		requests.apply(null, step(8));
+	}
+
+	@Test(expected = UnsupportedMessageException.class)
+	public void picking_up_unique_item_by_id_is_rejected() {
+		ClientMessagePickUpUnique message = new ClientMessagePickUpUnique();
+		message.itemId = 3;
+		requests.apply(null, message);
+	}
+
+	@Test(expected = UnsupportedMessageException.class)
+	public void picking_up_pile_by_type_id_is_rejected() {
+		ClientMessagePickUpPile message = new ClientMessagePickUpPile();
+		message.typeId = 2;
+		message.amount = 5;
+		requests.apply(null, message);
+	}
+
+	@Test(expected = UnsupportedMessageException.class)
+	public void messages_that_are_not_requests_are_rejected() {
+		requests.apply(null, new ClientMessageChatMessage());
+	}
+
+	private static ClientMessageStep step(int dir) {
+		ClientMessageStep step = new ClientMessageStep();
+		step.dir = dir;
+		return step;
+	}
+}
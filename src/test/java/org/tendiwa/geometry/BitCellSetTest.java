@@ -0,0 +1,107 @@
+package org.tendiwa.geometry;
+
+import org.junit.Test;
+import org.tendiwa.core.meta.Cell;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class BitCellSetTest {
+	@Test
+	public void set_algebra_agrees_with_composed_cell_sets() {
+		Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			BitCellSet a = randomSet(random);
+			BitCellSet b = randomSet(random);
+			BitCellSet and = new BitCellSet(a);
+			and.retainAll(b);
+			assertSameCells(a.and(b), and);
+			BitCellSet or = new BitCellSet(a);
+			or.addAllAnyway(b);
+			assertSameCells((x, y) -> a.getBounds().contains(x, y) && (a.contains(x, y) || b.contains(x, y)), or);
+			BitCellSet xor = new BitCellSet(a);
+			xor.toggleAll(b);
+			assertSameCells((x, y) -> a.getBounds().contains(x, y) && (a.contains(x, y) ^ b.contains(x, y)), xor);
+			BitCellSet without = new BitCellSet(a);
+			without.removeAll(b);
+			assertSameCells(a.without(b), without);
+		}
+	}
+
+	@Test
+	public void iterates_over_all_cells_and_counts_them() {
+		Random random = new Random(1);
+		for (int i = 0; i < 50; i++) {
+			BitCellSet cells = randomSet(random);
+			List<Cell> iterated = new ArrayList<>();
+			cells.forEach(iterated::add);
+			List<Cell> expected = new ArrayList<>();
+			Rectangle bounds = cells.getBounds();
+			for (int y = bounds.y(); y <= bounds.maxY(); y++) {
+				for (int x = bounds.x(); x <= bounds.maxX(); x++) {
+					if (cells.contains(x, y)) {
+						expected.add(new BasicCell(x, y));
+					}
+				}
+			}
+			assertEquals(expected, iterated);
+			List<Cell> fromIterator = new ArrayList<>();
+			for (Cell cell : cells) {
+				fromIterator.add(cell);
+			}
+			assertEquals(expected, fromIterator);
+			assertEquals(expected.size(), cells.size());
+		}
+	}
+
+	@Test
+	public void copies_bounded_cell_sets() {
+		Rectangle bounds = rectangle(-5, 3, 70, 9);
+		Mutable2DCellSet array = new Mutable2DCellSet(bounds);
+		array.add(-5, 3);
+		array.add(64, 11);
+		array.add(10, 7);
+		BitCellSet copy = BitCellSet.from(array);
+		assertSameCells(array, copy);
+		assertSameCells(array, BitCellSet.from(new BasicBoundedCells(array, bounds)));
+	}
+
+	@Test
+	public void excludes_rectangle() {
+		int width = 130;
+		int height = 10;
+		Rectangle rectangle = rectangle(width, height);
+		BitCellSet cells = BitCellSet.from((x, y) -> true, rectangle);
+		cells.excludeRectangle(rectangle.shrink(1));
+		assertEquals(width * 2 + (height - 2) * 2, cells.size());
+		cells.excludeRectangle(rectangle);
+		assertTrue(cells.isEmpty());
+	}
+
+	private static BitCellSet randomSet(Random random) {
+		Rectangle bounds = rectangle(random.nextInt(100) - 50, random.nextInt(20) - 10, random.nextInt(150) + 1, random.nextInt(20) + 1);
+		int density = random.nextInt(4) + 1;
+		BitCellSet answer = new BitCellSet(bounds);
+		for (int y = bounds.y(); y <= bounds.maxY(); y++) {
+			for (int x = bounds.x(); x <= bounds.maxX(); x++) {
+				if (random.nextInt(density) == 0) {
+					answer.add(x, y);
+				}
+			}
+		}
+		return answer;
+	}
+
+	private static void assertSameCells(CellSet expected, BitCellSet actual) {
+		Rectangle bounds = actual.getBounds();
+		for (int y = bounds.y() - 2; y <= bounds.maxY() + 2; y++) {
+			for (int x = bounds.x() - 2; x <= bounds.maxX() + 2; x++) {
+				assertEquals(x + ":" + y, expected.contains(x, y), actual.contains(x, y));
+			}
+		}
+	}
+}
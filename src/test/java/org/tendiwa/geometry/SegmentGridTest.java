@@ -0,0 +1,128 @@
+package org.tendiwa.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle2D;
+import static org.tendiwa.geometry.GeometryPrimitives.segment2D;
+
+public final class SegmentGridTest {
+	private static final double BUCKET_SIZE = 10;
+
+	@Test
+	public void finds_the_same_segments_as_exhaustive_search() {
+		Random random = new Random(0);
+		List<Segment2D> segments = randomSegments(random, 500);
+		SegmentGrid grid = new SegmentGrid(BUCKET_SIZE);
+		segments.forEach(grid::add);
+		for (int i = 0; i < 500; i++) {
+			RectangularHull hull = randomHull(random);
+			assertEquals(exhaustiveSearch(segments, hull), grid.segmentsIntersectingHull(hull));
+		}
+	}
+
+	@Test
+	public void removed_segments_are_not_found() {
+		Random random = new Random(1);
+		List<Segment2D> segments = randomSegments(random, 300);
+		SegmentGrid grid = new SegmentGrid(BUCKET_SIZE);
+		segments.forEach(grid::add);
+		List<Segment2D> kept = new ArrayList<>();
+		for (Segment2D segment : segments) {
+			if (random.nextBoolean()) {
+				grid.remove(segment);
+			} else {
+				kept.add(segment);
+			}
+		}
+		for (int i = 0; i < 300; i++) {
+			RectangularHull hull = randomHull(random);
+			assertEquals(exhaustiveSearch(kept, hull), grid.segmentsIntersectingHull(hull));
+		}
+	}
+
+	@Test
+	public void segments_on_bucket_borders_are_found_from_both_sides() {
+		List<Segment2D> segments = new ArrayList<>();
+		segments.add(segment2D(BUCKET_SIZE, -BUCKET_SIZE * 2, BUCKET_SIZE, BUCKET_SIZE * 2));
+		segments.add(segment2D(-BUCKET_SIZE * 3, 0, BUCKET_SIZE * 3, 0));
+		segments.add(segment2D(-BUCKET_SIZE, -BUCKET_SIZE, BUCKET_SIZE, BUCKET_SIZE));
+		segments.add(segment2D(BUCKET_SIZE * 1000, -BUCKET_SIZE * 1000, -BUCKET_SIZE * 1000, BUCKET_SIZE * 1000));
+		SegmentGrid grid = new SegmentGrid(BUCKET_SIZE);
+		segments.forEach(grid::add);
+		for (double x = -BUCKET_SIZE * 2; x <= BUCKET_SIZE * 2; x += BUCKET_SIZE / 2) {
+			for (double y = -BUCKET_SIZE * 2; y <= BUCKET_SIZE * 2; y += BUCKET_SIZE / 2) {
+				RectangularHull hull = rectangle2D(x - 1, y - 1, 2, 2);
+				assertEquals(exhaustiveSearch(segments, hull), grid.segmentsIntersectingHull(hull));
+			}
+		}
+	}
+
+	@Test
+	public void grid_made_of_segments_finds_them() {
+		Random random = new Random(2);
+		List<Segment2D> segments = randomSegments(random, 200);
+		SegmentGrid grid = new SegmentGrid(segments);
+		for (int i = 0; i < 200; i++) {
+			RectangularHull hull = randomHull(random);
+			assertEquals(exhaustiveSearch(segments, hull), grid.segmentsIntersectingHull(hull));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bucket_size_must_be_positive() {
+		new SegmentGrid(0);
+	}
+
+	/**
+	 * Mostly short segments, many of them crossing bucket borders, some axis-parallel ones, and a few long enough to
+	 * be kept out of buckets.
+	 */
+	private static List<Segment2D> randomSegments(Random random, int number) {
+		List<Segment2D> segments = new ArrayList<>();
+		for (int i = 0; i < number; i++) {
+			double x = random.nextDouble() * 400 - 200;
+			double y = random.nextDouble() * 400 - 200;
+			double length;
+			switch (random.nextInt(10)) {
+				case 0:
+					length = BUCKET_SIZE * (20 + random.nextInt(100));
+					break;
+				case 1:
+					length = BUCKET_SIZE * (1 + random.nextInt(5));
+					break;
+				default:
+					length = random.nextDouble() * BUCKET_SIZE * 2;
+			}
+			double angle = random.nextInt(4) == 0
+				? random.nextInt(4) * Math.PI / 2
+				: random.nextDouble() * Math.PI * 2;
+			segments.add(segment2D(x, y, x + Math.cos(angle) * length, y + Math.sin(angle) * length));
+		}
+		return segments;
+	}
+
+	private static RectangularHull randomHull(Random random) {
+		double size = random.nextInt(10) == 0 ? random.nextDouble() * 600 : random.nextDouble() * BUCKET_SIZE * 3;
+		return rectangle2D(
+			random.nextDouble() * 500 - 250,
+			random.nextDouble() * 500 - 250,
+			size + 0.1,
+			random.nextDouble() * size + 0.1
+		);
+	}
+
+	private static List<Segment2D> exhaustiveSearch(List<Segment2D> segments, RectangularHull hull) {
+		List<Segment2D> answer = new ArrayList<>();
+		for (Segment2D segment : segments) {
+			if (hull.intersectsHull(segment)) {
+				answer.add(segment);
+			}
+		}
+		return answer;
+	}
+}
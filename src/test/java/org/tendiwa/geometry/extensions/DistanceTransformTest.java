@@ -0,0 +1,86 @@
+package org.tendiwa.geometry.extensions;
+
+import org.junit.Test;
+import org.tendiwa.geometry.BitCellSet;
+import org.tendiwa.geometry.CellSet;
+import org.tendiwa.geometry.Rectangle;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class DistanceTransformTest {
+	@Test
+	public void chebyshov_buffers_agree_with_cell_by_cell_checks() {
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			CellSet cells = randomCells(random);
+			Rectangle bounds = rectangle(random.nextInt(10) - 5, random.nextInt(10) - 5, random.nextInt(30) + 1, random.nextInt(30) + 1);
+			int distance = random.nextInt(4) + 1;
+			assertSameCells(new ChebyshovDistanceBuffer(distance, cells), new ChebyshovDistanceBuffer(distance, cells).within(bounds));
+			assertSameCells(new ChebyshovDistanceBufferBorder(distance, cells), new ChebyshovDistanceBufferBorder(distance, cells).within(bounds));
+		}
+	}
+
+	@Test
+	public void manhattan_and_euclidean_distances_are_exact() {
+		Random random = new Random(1);
+		for (int i = 0; i < 100; i++) {
+			CellSet cells = randomCells(random);
+			Rectangle bounds = rectangle(random.nextInt(10) - 5, random.nextInt(10) - 5, random.nextInt(30) + 1, random.nextInt(30) + 1);
+			int maxDistance = random.nextInt(6);
+			DistanceTransform manhattan = new DistanceTransform(cells, bounds, maxDistance, DistanceTransform.Metric.MANHATTAN);
+			DistanceTransform euclidean = new DistanceTransform(cells, bounds, maxDistance, DistanceTransform.Metric.EUCLIDEAN);
+			for (int x = bounds.x(); x <= bounds.maxX(); x++) {
+				for (int y = bounds.y(); y <= bounds.maxY(); y++) {
+					for (int distance = 0; distance <= maxDistance; distance++) {
+						assertEquals(hasCellWithin(cells, x, y, distance, false), manhattan.isWithin(x, y, distance));
+						assertEquals(hasCellWithin(cells, x, y, distance, true), euclidean.isWithin(x, y, distance));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void buffer_of_a_rectangle() {
+		Rectangle shape = rectangle(5, 5, 5, 5);
+		assertEquals(96, new ChebyshovDistanceBuffer(3, shape::contains).within(rectangle(15, 15)).size());
+		assertEquals(200, new ChebyshovDistanceBuffer(5, shape::contains).within(rectangle(15, 15)).size());
+	}
+
+	private static CellSet randomCells(Random random) {
+		boolean[][] cells = new boolean[40][40];
+		int density = random.nextInt(30) + 1;
+		for (boolean[] column : cells) {
+			for (int y = 0; y < column.length; y++) {
+				column[y] = random.nextInt(density) == 0;
+			}
+		}
+		return (x, y) -> x >= -10 && y >= -10 && x < 30 && y < 30 && cells[x + 10][y + 10];
+	}
+
+	private static boolean hasCellWithin(CellSet cells, int x, int y, int distance, boolean euclidean) {
+		for (int dx = -distance; dx <= distance; dx++) {
+			for (int dy = -distance; dy <= distance; dy++) {
+				boolean close = euclidean
+					? dx * dx + dy * dy <= distance * distance
+					: Math.abs(dx) + Math.abs(dy) <= distance;
+				if (close && cells.contains(x + dx, y + dy)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void assertSameCells(CellSet expected, BitCellSet actual) {
+		Rectangle bounds = actual.getBounds();
+		for (int x = bounds.x(); x <= bounds.maxX(); x++) {
+			for (int y = bounds.y(); y <= bounds.maxY(); y++) {
+				assertEquals(x + ":" + y, expected.contains(x, y), actual.contains(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package org.tendiwa.geometry.extensions.daveedvMaxRec;
+
+import org.junit.Test;
+import org.tendiwa.geometry.Mutable2DCellSet;
+import org.tendiwa.geometry.Rectangle;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class MaximalRectanglesTest {
+	@Test
+	public void finds_same_rectangles_as_search_from_scratch() {
+		Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			Rectangle bounds = rectangle(random.nextInt(20) - 10, random.nextInt(20) - 10, random.nextInt(40) + 1, random.nextInt(40) + 1);
+			Mutable2DCellSet raster = new Mutable2DCellSet(bounds);
+			int density = random.nextInt(10) + 2;
+			for (int x = bounds.x(); x <= bounds.maxX(); x++) {
+				for (int y = bounds.y(); y <= bounds.maxY(); y++) {
+					if (random.nextInt(density) != 0) {
+						raster.add(x, y);
+					}
+				}
+			}
+			MaximalRectangles maximalRectangles = new MaximalRectangles(raster);
+			while (true) {
+				Optional<Rectangle> expected = raster.maximalRectangle()
+					.map(r -> r.translate(bounds.x(), bounds.y()));
+				Optional<Rectangle> actual = maximalRectangles.find();
+				assertEquals(expected.isPresent(), actual.isPresent());
+				if (!expected.isPresent()) {
+					break;
+				}
+				assertEquals(expected.get().x(), actual.get().x());
+				assertEquals(expected.get().y(), actual.get().y());
+				assertEquals(expected.get().width(), actual.get().width());
+				assertEquals(expected.get().height(), actual.get().height());
+				raster.excludeRectangle(expected.get());
+				maximalRectangles.exclude(actual.get());
+			}
+		}
+	}
+}
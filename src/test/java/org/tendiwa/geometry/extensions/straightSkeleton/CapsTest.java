@@ -0,0 +1,127 @@
+package org.tendiwa.geometry.extensions.straightSkeleton;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.Polygon;
+import org.tendiwa.geometry.extensions.WobblingPolygon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.point2D;
+
+public final class CapsTest {
+	@Test
+	public void caps_are_the_same_as_single_caps_and_fronts_over_all_faces() {
+		Random random = new Random(0);
+		new WobblingTestPolygon(60).polygonStream().forEach(polygon -> {
+			SuseikaStraightSkeleton skeleton = new SuseikaStraightSkeleton(polygon);
+			double[] depths = randomDepths(random, skeleton.vanishDepth());
+			ImmutableList<ImmutableSet<Polygon>> caps = skeleton.caps(depths);
+			assertEquals(depths.length, caps.size());
+			for (int i = 0; i < depths.length; i++) {
+				double depth = depths[i];
+				assertSamePolygons(new SuseikaStraightSkeleton(polygon).cap(depth), caps.get(i));
+				if (depth > 0) {
+					assertSamePolygons(
+						new ShrinkedFront(new SuseikaStraightSkeleton(polygon).sweptFaces(), depth).polygons(),
+						caps.get(i)
+					);
+				}
+			}
+		});
+	}
+
+	@Test
+	public void face_reaches_depths_up_to_its_deepest_point() {
+		new WobblingTestPolygon(20).polygonStream().forEach(polygon -> {
+			SuseikaStraightSkeleton skeleton = new SuseikaStraightSkeleton(polygon);
+			for (SweptFace face : skeleton.sweptFaces()) {
+				double deepest = face.face.stream()
+					.mapToDouble(point -> point.distanceToLine(face.face.front()))
+					.max()
+					.getAsDouble();
+				assertTrue(face.reaches(0));
+				assertTrue(face.reaches(deepest));
+				assertFalse(face.reaches(deepest + 1));
+			}
+			assertTrue(skeleton.sweptFaces().stream().anyMatch(face -> face.reaches(skeleton.vanishDepth())));
+		});
+	}
+
+	/**
+	 * Unordered depths from 0 to beyond the vanish depth, with a repeated one.
+	 */
+	private static double[] randomDepths(Random random, double vanishDepth) {
+		double[] depths = new double[8];
+		depths[0] = 0;
+		depths[1] = vanishDepth * 1.5;
+		for (int i = 2; i < depths.length - 1; i++) {
+			depths[i] = random.nextDouble() * vanishDepth;
+		}
+		depths[depths.length - 1] = depths[2];
+		return depths;
+	}
+
+	private static final class WobblingTestPolygon extends WobblingPolygon {
+		private WobblingTestPolygon(int parts) {
+			super(20, parts);
+			add(point2D(11, 14));
+			add(point2D(26, 61));
+			add(point2D(12, 92));
+			add(point2D(78, 102));
+			add(point2D(8, 166));
+			add(point2D(62, 161));
+			add(point2D(93, 185));
+			add(point2D(125, 168));
+			add(point2D(177, 186));
+			add(point2D(160, 138));
+			add(point2D(193, 122));
+			add(point2D(142, 101));
+			add(point2D(179, 91));
+			add(point2D(147, 59));
+			add(point2D(178, 6));
+			add(point2D(89, 54));
+			add(point2D(100, 13));
+		}
+	}
+
+	/**
+	 * Polygons don't define equality, and the same cap may start its polygons at different points or compute
+	 * intersection points from a segment or from its reverse. So polygons are compared as cycles of nearly equal
+	 * points.
+	 */
+	private static void assertSamePolygons(ImmutableSet<Polygon> expected, ImmutableSet<Polygon> actual) {
+		List<List<Point2D>> expectedCycles = canonicalCycles(expected);
+		List<List<Point2D>> actualCycles = canonicalCycles(actual);
+		assertEquals(expectedCycles.size(), actualCycles.size());
+		for (int i = 0; i < expectedCycles.size(); i++) {
+			List<Point2D> expectedCycle = expectedCycles.get(i);
+			List<Point2D> actualCycle = actualCycles.get(i);
+			assertEquals(expectedCycle.size(), actualCycle.size());
+			for (int j = 0; j < expectedCycle.size(); j++) {
+				assertEquals(expectedCycle.get(j).x(), actualCycle.get(j).x(), 1e-6);
+				assertEquals(expectedCycle.get(j).y(), actualCycle.get(j).y(), 1e-6);
+			}
+		}
+	}
+
+	private static List<List<Point2D>> canonicalCycles(ImmutableSet<Polygon> polygons) {
+		Comparator<Point2D> byCoordinates = Comparator.<Point2D>comparingDouble(Point2D::x)
+			.thenComparingDouble(Point2D::y);
+		List<List<Point2D>> cycles = new ArrayList<>();
+		for (Polygon polygon : polygons) {
+			List<Point2D> cycle = new ArrayList<>(polygon);
+			Collections.rotate(cycle, -cycle.indexOf(Collections.min(cycle, byCoordinates)));
+			cycles.add(cycle);
+		}
+		cycles.sort(Comparator.comparing(cycle -> cycle.get(0), byCoordinates));
+		return cycles;
+	}
+}
@@ -0,0 +1,52 @@
+package org.tendiwa.geometry.extensions.straightSkeleton;
+
+import org.jgrapht.UndirectedGraph;
+import org.junit.Test;
+import org.tendiwa.geometry.BasicPolygon;
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.Polygon;
+import org.tendiwa.geometry.Segment2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.point2D;
+
+public final class SplitEventSearchTest {
+	/**
+	 * Star-shaped polygons have a reflex vertex between each two spikes, and each of them searches for split events
+	 * among many edges, most of which are cut off by the bound.
+	 */
+	@Test
+	public void bounded_search_finds_the_same_events_as_testing_every_edge() {
+		Random random = new Random(0);
+		int skeletons = 0;
+		for (int i = 0; i < 200; i++) {
+			Polygon polygon = starPolygon(random, 8 + random.nextInt(16));
+			UndirectedGraph<Point2D, Segment2D> exhaustive;
+			try {
+				exhaustive = SuseikaStraightSkeleton.withExhaustiveSplitEventSearch(polygon).graph();
+			} catch (RuntimeException e) {
+				// SuseikaStraightSkeleton can't handle some polygons
+				continue;
+			}
+			UndirectedGraph<Point2D, Segment2D> bounded = new SuseikaStraightSkeleton(polygon).graph();
+			assertEquals(polygon.toString(), exhaustive.vertexSet(), bounded.vertexSet());
+			assertEquals(polygon.toString(), exhaustive.edgeSet(), bounded.edgeSet());
+			skeletons++;
+		}
+		assertTrue(skeletons > 100);
+	}
+
+	private static Polygon starPolygon(Random random, int numberOfVertices) {
+		List<Point2D> points = new ArrayList<>(numberOfVertices);
+		for (int i = 0; i < numberOfVertices; i++) {
+			double angle = Math.PI * 2 * i / numberOfVertices;
+			double radius = i % 2 == 0 ? 60 + random.nextDouble() * 60 : 10 + random.nextDouble() * 40;
+			points.add(point2D(100 + Math.cos(angle) * radius, 100 + Math.sin(angle) * radius));
+		}
+		return new BasicPolygon(points);
+	}
+}
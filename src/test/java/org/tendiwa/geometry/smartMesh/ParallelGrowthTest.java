@@ -0,0 +1,102 @@
+package org.tendiwa.geometry.smartMesh;
+
+import org.junit.Test;
+import org.tendiwa.data.FourCyclePenisGraph;
+import org.tendiwa.geometry.Point2D;
+import org.tendiwa.geometry.Segment2D;
+import org.tendiwa.geometry.graphs2d.Graph2D;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.graph2D;
+import static org.tendiwa.geometry.GeometryPrimitives.graphConstructor;
+import static org.tendiwa.geometry.GeometryPrimitives.point2D;
+
+public final class ParallelGrowthTest {
+	@Test
+	public void network_is_the_same_for_any_number_of_threads() {
+		for (Graph2D graph : Arrays.asList(new FourCyclePenisGraph(), twoSquaresWithSharedEdge())) {
+			for (int seed = 0; seed < 4; seed++) {
+				SmartMeshedNetwork sequential = builder(graph, seed).build();
+				ForkJoinPool onePool = new ForkJoinPool(1);
+				ForkJoinPool manyPool = new ForkJoinPool(4);
+				try {
+					SmartMeshedNetwork oneThread = builder(graph, seed).withParallelGrowth(onePool).build();
+					SmartMeshedNetwork manyThreads = builder(graph, seed).withParallelGrowth(manyPool).build();
+					assertSameGraph(sequential, oneThread);
+					assertSameGraph(sequential, manyThreads);
+				} finally {
+					onePool.shutdown();
+					manyPool.shutdown();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void different_seeds_grow_different_networks() {
+		Graph2D graph = new FourCyclePenisGraph();
+		assertNotEquals(
+			builder(graph, 0).build().edgeSet(),
+			builder(graph, 1).build().edgeSet()
+		);
+	}
+
+	/**
+	 * Roads of each cycle grow without seeing roads of other cycles. Where they end on the edge between two cycles,
+	 * that edge is split at points of both cycles.
+	 */
+	@Test
+	public void edge_between_cycles_is_split_where_roads_of_both_cycles_end() {
+		Graph2D graph = twoSquaresWithSharedEdge();
+		for (int seed = 0; seed < 4; seed++) {
+			SmartMeshedNetwork network = builder(graph, seed).build();
+			Set<Point2D> pointsOnSharedEdge = network.vertexSet().stream()
+				.filter(point -> point.x() == 200)
+				.collect(toSet());
+			Set<Segment2D> partsOfSharedEdge = network.edgeSet().stream()
+				.filter(edge -> edge.start().x() == 200 && edge.end().x() == 200)
+				.collect(toSet());
+			assertEquals(pointsOnSharedEdge.size() - 1, partsOfSharedEdge.size());
+			assertTrue(hasRoadFromSide(network, pointsOnSharedEdge, -1));
+			assertTrue(hasRoadFromSide(network, pointsOnSharedEdge, 1));
+		}
+	}
+
+	private static boolean hasRoadFromSide(Graph2D network, Set<Point2D> pointsOnEdge, int side) {
+		return pointsOnEdge.stream()
+			.filter(point -> point.y() != 0 && point.y() != 200)
+			.flatMap(point -> network.edgesOf(point).stream().map(edge -> edge.anotherEnd(point)))
+			.anyMatch(neighbour -> Math.signum(neighbour.x() - 200) == side);
+	}
+
+	private static Graph2D twoSquaresWithSharedEdge() {
+		return graph2D(
+			graphConstructor()
+				.vertex(0, point2D(0, 0))
+				.vertex(1, point2D(200, 0))
+				.vertex(2, point2D(400, 0))
+				.vertex(3, point2D(400, 200))
+				.vertex(4, point2D(200, 200))
+				.vertex(5, point2D(0, 200))
+				.cycle(0, 1, 2, 3, 4, 5)
+				.edge(1, 4)
+				.graph()
+		);
+	}
+
+	private static MeshedNetworkBuilder builder(Graph2D graph, int seed) {
+		return new MeshedNetworkBuilder(graph)
+			.withDefaults()
+			.withSeed(seed);
+	}
+
+	private static void assertSameGraph(Graph2D expected, Graph2D actual) {
+		assertEquals(expected.vertexSet(), actual.vertexSet());
+		assertEquals(expected.edgeSet(), actual.edgeSet());
+	}
+}
@@ -0,0 +1,188 @@
+package org.tendiwa.pathfinding.astar;
+
+import org.junit.Test;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class AStarTest {
+	private static final int SIZE = 30;
+
+	@Test
+	public void finds_paths_as_cheap_as_exhaustive_search() {
+		Random random = new Random(0);
+		AStar engine = new AStar();
+		for (int i = 0; i < 100; i++) {
+			boolean[][] walls = randomWalls(random);
+			MovementCost cost = movementCost(walls);
+			Cell start = freeCell(random, walls);
+			Cell goal = freeCell(random, walls);
+			double expected = cheapestCost(walls, start, goal);
+			List<Cell> path = engine.findPath(start, goal, cost, 0, 0, SIZE, SIZE);
+			if (expected == Double.POSITIVE_INFINITY) {
+				assertNull(path);
+			} else {
+				assertEquals(expected, costOf(path, start, goal, cost), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void searches_in_different_windows_dont_affect_each_other() {
+		Random random = new Random(1);
+		AStar engine = new AStar();
+		boolean[][] walls = randomWalls(random);
+		MovementCost cost = movementCost(walls);
+		for (int i = 0; i < 200; i++) {
+			int minX = random.nextInt(SIZE / 2);
+			int minY = random.nextInt(SIZE / 2);
+			int width = SIZE / 2 + random.nextInt(SIZE / 2 - minX + 1);
+			int height = SIZE / 2 + random.nextInt(SIZE / 2 - minY + 1);
+			Cell start = new BasicCell(minX + random.nextInt(width), minY + random.nextInt(height));
+			Cell goal = new BasicCell(minX + random.nextInt(width), minY + random.nextInt(height));
+			if (walls[start.x()][start.y()] || walls[goal.x()][goal.y()]) {
+				continue;
+			}
+			List<Cell> path = engine.findPath(start, goal, cost, minX, minY, width, height);
+			List<Cell> fresh = new AStar().findPath(start, goal, cost, minX, minY, width, height);
+			assertEquals(fresh, path);
+			if (path != null) {
+				for (Cell cell : path) {
+					assertTrue(cell.x() >= minX && cell.x() < minX + width);
+					assertTrue(cell.y() >= minY && cell.y() < minY + height);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void path_is_as_cheap_as_exhaustive_search() {
+		Random random = new Random(2);
+		for (int i = 0; i < 100; i++) {
+			boolean[][] walls = randomWalls(random);
+			MovementCost cost = movementCost(walls);
+			Cell start = freeCell(random, walls);
+			Cell goal = freeCell(random, walls);
+			double expected = cheapestCost(walls, start, goal);
+			Path path = new Path(start, goal, cost);
+			if (expected == Double.POSITIVE_INFINITY) {
+				assertTrue(path.isEmpty());
+			} else {
+				assertEquals(expected, costOf(path, start, goal, cost), 1e-9);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void goal_must_be_inside_window() {
+		new AStar().findPath(new BasicCell(1, 1), new BasicCell(10, 1), (a, b) -> 1, 0, 0, 5, 5);
+	}
+
+	private static boolean[][] randomWalls(Random random) {
+		boolean[][] walls = new boolean[SIZE][SIZE];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				walls[x][y] = random.nextInt(3) == 0;
+			}
+		}
+		return walls;
+	}
+
+	private static Cell freeCell(Random random, boolean[][] walls) {
+		while (true) {
+			int x = random.nextInt(SIZE);
+			int y = random.nextInt(SIZE);
+			if (!walls[x][y]) {
+				return new BasicCell(x, y);
+			}
+		}
+	}
+
+	/**
+	 * Steps between free cells cost 1, or the square root of 2 if they are diagonal. Cells outside the grid are walls.
+	 */
+	private static MovementCost movementCost(boolean[][] walls) {
+		return (current, neighbor) -> {
+			if (isWall(walls, neighbor.x(), neighbor.y())) {
+				return Integer.MAX_VALUE;
+			}
+			return current.x() == neighbor.x() || current.y() == neighbor.y() ? 1 : Math.sqrt(2);
+		};
+	}
+
+	private static boolean isWall(boolean[][] walls, int x, int y) {
+		return x < 0 || y < 0 || x >= SIZE || y >= SIZE || walls[x][y];
+	}
+
+	/**
+	 * Checks that the path is a chain of possible steps from start to goal, and sums their costs.
+	 *
+	 * @param path
+	 * 	Cells from goal to start, not including start.
+	 */
+	private static double costOf(List<Cell> path, Cell start, Cell goal, MovementCost movementCost) {
+		if (start.equals(goal)) {
+			assertTrue(path.isEmpty());
+			return 0;
+		}
+		assertEquals(goal, path.get(0));
+		double answer = 0;
+		Cell previous = start;
+		for (int i = path.size() - 1; i >= 0; i--) {
+			Cell cell = path.get(i);
+			assertTrue(Math.abs(cell.x() - previous.x()) <= 1 && Math.abs(cell.y() - previous.y()) <= 1);
+			double cost = movementCost.cost(previous, cell);
+			assertTrue(cost != Integer.MAX_VALUE);
+			answer += cost;
+			previous = cell;
+		}
+		return answer;
+	}
+
+	/**
+	 * Dijkstra's algorithm that scans all cells for the closest one on each step.
+	 */
+	private static double cheapestCost(boolean[][] walls, Cell start, Cell goal) {
+		double[][] distances = new double[SIZE][SIZE];
+		boolean[][] done = new boolean[SIZE][SIZE];
+		for (double[] column : distances) {
+			Arrays.fill(column, Double.POSITIVE_INFINITY);
+		}
+		distances[start.x()][start.y()] = 0;
+		while (true) {
+			int closestX = -1;
+			int closestY = -1;
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					if (!done[x][y] && distances[x][y] < Double.POSITIVE_INFINITY
+						&& (closestX == -1 || distances[x][y] < distances[closestX][closestY])) {
+						closestX = x;
+						closestY = y;
+					}
+				}
+			}
+			if (closestX == -1) {
+				return Double.POSITIVE_INFINITY;
+			}
+			if (closestX == goal.x() && closestY == goal.y()) {
+				return distances[closestX][closestY];
+			}
+			done[closestX][closestY] = true;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int x = closestX + dx;
+					int y = closestY + dy;
+					if ((dx != 0 || dy != 0) && !isWall(walls, x, y)) {
+						double distance = distances[closestX][closestY] + (dx == 0 || dy == 0 ? 1 : Math.sqrt(2));
+						distances[x][y] = Math.min(distances[x][y], distance);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package org.tendiwa.pathfinding.dijkstra;
+
+import org.junit.Test;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.geometry.CellSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class DistanceFieldTest {
+	private static final int SIZE = 40;
+	private static final int RADIUS = 12;
+
+	@Test
+	public void repaired_field_equals_recomputed_field() {
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			boolean[][] walls = new boolean[SIZE][SIZE];
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					walls[x][y] = random.nextInt(3) == 0;
+				}
+			}
+			CellSet passable = (x, y) -> x >= 0 && y >= 0 && x < SIZE && y < SIZE && !walls[x][y];
+			List<Cell> sources = new ArrayList<>();
+			for (int j = random.nextInt(3); j >= 0; j--) {
+				sources.add(new BasicCell(RADIUS + random.nextInt(SIZE - RADIUS * 2), RADIUS + random.nextInt(SIZE - RADIUS * 2)));
+			}
+			DistanceField field = new DistanceField(sources, passable, RADIUS);
+			for (int j = 0; j < 10; j++) {
+				int changeX = random.nextInt(SIZE - 4);
+				int changeY = random.nextInt(SIZE - 4);
+				for (int x = changeX; x < changeX + 4; x++) {
+					for (int y = changeY; y < changeY + 4; y++) {
+						if (random.nextInt(3) == 0) {
+							walls[x][y] = !walls[x][y];
+						}
+					}
+				}
+				field.repair(changeX, changeY, 4, 4);
+				assertSameDistances(new DistanceField(sources, passable, RADIUS), field);
+			}
+		}
+	}
+
+	@Test
+	public void counts_steps_to_closest_source() {
+		DistanceField field = new DistanceField(
+			Collections.singletonList(new BasicCell(5, 5)),
+			(x, y) -> x != 6 || y > 8,
+			5
+		);
+		assertEquals(0, field.distance(5, 5));
+		assertEquals(1, field.distance(4, 6));
+		assertEquals(8, field.distance(10, 5));
+		assertEquals(DistanceField.UNREACHABLE, field.distance(6, 5));
+		assertEquals(DistanceField.UNREACHABLE, field.distance(11, 5));
+	}
+
+	@Test
+	public void next_step_goes_downhill() {
+		DistanceField field = new DistanceField(
+			Collections.singletonList(new BasicCell(0, 0)),
+			(x, y) -> true,
+			10
+		);
+		Cell step = field.nextStep(5, 0, (x, y) -> true);
+		assertEquals(4, step.x());
+		assertEquals(0, step.y());
+		assertNull(field.nextStep(0, 0, (x, y) -> true));
+		assertNull(field.nextStep(5, 0, (x, y) -> false));
+	}
+
+	private static void assertSameDistances(DistanceField expected, DistanceField actual) {
+		for (int x = expected.getMinX(); x < expected.getMinX() + expected.getWidth(); x++) {
+			for (int y = expected.getMinY(); y < expected.getMinY() + expected.getHeight(); y++) {
+				assertEquals(x + ":" + y, expected.distance(x, y), actual.distance(x, y));
+			}
+		}
+	}
+}
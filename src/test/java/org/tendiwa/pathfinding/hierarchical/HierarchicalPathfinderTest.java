@@ -0,0 +1,255 @@
+package org.tendiwa.pathfinding.hierarchical;
+
+import org.junit.Test;
+import org.tendiwa.core.Chunk;
+import org.tendiwa.core.HorizontalPlane;
+import org.tendiwa.core.ObjectType;
+import org.tendiwa.core.WallType;
+import org.tendiwa.core.World;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+import org.tendiwa.pathfinding.astar.AStar;
+import org.tendiwa.pathfinding.astar.MovementCost;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.tendiwa.geometry.GeometryPrimitives.rectangle;
+
+public final class HierarchicalPathfinderTest {
+	private static final int SIZE = Chunk.SIZE * 4;
+	private static final WallType WALL = new WallType() {
+		@Override
+		public ObjectType getType() {
+			return null;
+		}
+
+		@Override
+		public boolean isUsable() {
+			return false;
+		}
+
+		@Override
+		public String getResourceName() {
+			return "wall";
+		}
+	};
+
+	@Test
+	public void finds_paths_where_flat_search_does_on_random_planes() {
+		Random random = new Random(0);
+		for (int i = 0; i < 10; i++) {
+			HorizontalPlane plane = emptyPlane();
+			int density = 2 + random.nextInt(4);
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					if (random.nextInt(density) == 0) {
+						plane.placeWall(WALL, x, y);
+					}
+				}
+			}
+			HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(plane);
+			for (int j = 0; j < 20; j++) {
+				assertSameAsFlatSearch(plane, pathfinder, freeCell(random, plane), freeCell(random, plane));
+			}
+		}
+	}
+
+	@Test
+	public void crosses_chunk_corners_diagonally() {
+		HorizontalPlane plane = emptyPlane();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x != y) {
+					plane.placeWall(WALL, x, y);
+				}
+			}
+		}
+		List<Cell> path = assertSameAsFlatSearch(
+			plane,
+			new HierarchicalPathfinder(plane),
+			new BasicCell(1, 1),
+			new BasicCell(SIZE - 2, SIZE - 2)
+		);
+		assertFalse(path.isEmpty());
+	}
+
+	@Test
+	public void crosses_chunk_edges_diagonally() {
+		HorizontalPlane plane = emptyPlane();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (y != x + 5) {
+					plane.placeWall(WALL, x, y);
+				}
+			}
+		}
+		List<Cell> path = assertSameAsFlatSearch(
+			plane,
+			new HierarchicalPathfinder(plane),
+			new BasicCell(0, 5),
+			new BasicCell(SIZE - 6, SIZE - 1)
+		);
+		assertFalse(path.isEmpty());
+	}
+
+	@Test
+	public void notices_changed_objects() {
+		HorizontalPlane plane = emptyPlane();
+		HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(plane);
+		Cell start = new BasicCell(5, 5);
+		Cell goal = new BasicCell(SIZE - 5, 5);
+		assertSameAsFlatSearch(plane, pathfinder, start, goal);
+		for (int y = 0; y < SIZE; y++) {
+			plane.placeWall(WALL, Chunk.SIZE * 2, y);
+		}
+		assertTrue(pathfinder.findPath(start, goal).isEmpty());
+		assertSameAsFlatSearch(plane, pathfinder, start, goal);
+	}
+
+	@Test
+	public void finds_the_same_paths_in_several_threads() throws Exception {
+		Random random = new Random(1);
+		HorizontalPlane plane = emptyPlane();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (random.nextInt(4) == 0) {
+					plane.placeWall(WALL, x, y);
+				}
+			}
+		}
+		List<Cell[]> ends = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ends.add(new Cell[]{freeCell(random, plane), freeCell(random, plane)});
+		}
+		HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(plane);
+		List<List<Cell>> expected = new ArrayList<>();
+		for (Cell[] pair : ends) {
+			expected.add(new HierarchicalPathfinder(plane).findPath(pair[0], pair[1]));
+		}
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<Cell>>> paths = new ArrayList<>();
+			for (Cell[] pair : ends) {
+				paths.add(threads.submit(() -> pathfinder.findPath(pair[0], pair[1])));
+			}
+			for (int i = 0; i < ends.size(); i++) {
+				assertEquals(expected.get(i), paths.get(i).get());
+			}
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	@Test
+	public void finds_paths_while_objects_change() throws Exception {
+		Random random = new Random(2);
+		HorizontalPlane plane = emptyPlane();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (random.nextInt(8) == 0) {
+					plane.placeWall(WALL, x, y);
+				}
+			}
+		}
+		HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(plane);
+		ExecutorService thread = Executors.newSingleThreadExecutor();
+		try {
+			Future<Void> changes = thread.submit(() -> {
+				Random changesRandom = new Random(3);
+				for (int i = 0; i < SIZE * SIZE / 8; i++) {
+					plane.placeWall(WALL, changesRandom.nextInt(SIZE), changesRandom.nextInt(SIZE));
+					if (i % 8 == 0) {
+						Thread.sleep(1);
+					}
+				}
+				return null;
+			});
+			while (!changes.isDone()) {
+				Cell start = new BasicCell(random.nextInt(SIZE), random.nextInt(SIZE));
+				Cell goal = new BasicCell(random.nextInt(SIZE), random.nextInt(SIZE));
+				List<Cell> path = pathfinder.findPath(start, goal);
+				if (!path.isEmpty()) {
+					assertEquals(goal, path.get(path.size() - 1));
+					Cell previous = start;
+					for (Cell cell : path) {
+						assertTrue(Math.abs(cell.x() - previous.x()) <= 1 && Math.abs(cell.y() - previous.y()) <= 1);
+						previous = cell;
+					}
+				}
+			}
+			changes.get();
+		} finally {
+			thread.shutdown();
+		}
+		for (int i = 0; i < 20; i++) {
+			assertSameAsFlatSearch(plane, pathfinder, freeCell(random, plane), freeCell(random, plane));
+		}
+	}
+
+	private static HorizontalPlane emptyPlane() {
+		return new World(rectangle(SIZE, SIZE)).getDefaultPlane();
+	}
+
+	private static Cell freeCell(Random random, HorizontalPlane plane) {
+		while (true) {
+			int x = random.nextInt(SIZE);
+			int y = random.nextInt(SIZE);
+			if (!plane.hasObject(x, y)) {
+				return new BasicCell(x, y);
+			}
+		}
+	}
+
+	/**
+	 * Checks that the hierarchical path exists if and only if there is a path found by {@link AStar} over the whole
+	 * plane, and that it is not much longer.
+	 *
+	 * @return The hierarchical path.
+	 */
+	private static List<Cell> assertSameAsFlatSearch(
+		HorizontalPlane plane,
+		HierarchicalPathfinder pathfinder,
+		Cell start,
+		Cell goal
+	) {
+		MovementCost cost = (current, neighbor) -> {
+			if (plane.hasObject(neighbor.x(), neighbor.y())) {
+				return Integer.MAX_VALUE;
+			}
+			return current.x() == neighbor.x() || current.y() == neighbor.y() ? 1 : Cell.SQRT_2;
+		};
+		List<Cell> flat = new AStar().findPath(start, goal, cost, 0, 0, SIZE, SIZE);
+		List<Cell> path = pathfinder.findPath(start, goal);
+		String ends = start + " " + goal;
+		if (flat == null || start.equals(goal)) {
+			assertTrue(ends, path.isEmpty());
+			return path;
+		}
+		assertFalse(ends, path.isEmpty());
+		assertEquals(ends, goal, path.get(path.size() - 1));
+		double length = 0;
+		Cell previous = start;
+		for (Cell cell : path) {
+			assertTrue(ends, Math.abs(cell.x() - previous.x()) <= 1 && Math.abs(cell.y() - previous.y()) <= 1);
+			double step = cost.cost(previous, cell);
+			assertTrue(ends, step != Integer.MAX_VALUE);
+			length += step;
+			previous = cell;
+		}
+		double optimal = 0;
+		previous = start;
+		for (int i = flat.size() - 1; i >= 0; i--) {
+			optimal += cost.cost(previous, flat.get(i));
+			previous = flat.get(i);
+		}
+		assertTrue(ends + " " + length + " " + optimal, length >= optimal - 1e-9);
+		assertTrue(ends + " " + length + " " + optimal, length <= optimal * 1.2 + 4);
+		return path;
+	}
+}
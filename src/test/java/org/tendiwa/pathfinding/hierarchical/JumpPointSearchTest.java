@@ -0,0 +1,117 @@
+package org.tendiwa.pathfinding.hierarchical;
+
+import org.junit.Test;
+import org.tendiwa.core.meta.Cell;
+import org.tendiwa.geometry.BasicCell;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class JumpPointSearchTest {
+	private static final int SIZE = 32;
+
+	@Test
+	public void finds_shortest_paths_on_random_grids() {
+		Random random = new Random(0);
+		JumpPointSearch search = new JumpPointSearch();
+		for (int i = 0; i < 300; i++) {
+			boolean[][] walls = new boolean[SIZE][SIZE];
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					walls[x][y] = random.nextInt(4) == 0;
+				}
+			}
+			Cell start = new BasicCell(random.nextInt(SIZE), random.nextInt(SIZE));
+			Cell goal = new BasicCell(random.nextInt(SIZE), random.nextInt(SIZE));
+			walls[start.x()][start.y()] = false;
+			walls[goal.x()][goal.y()] = false;
+			List<Cell> path = search.findPath(start, goal, (x, y) -> !walls[x][y], 0, 0, SIZE, SIZE);
+			double expected = shortestDistance(walls, start, goal);
+			if (expected == Double.POSITIVE_INFINITY) {
+				assertNull(path);
+			} else {
+				assertNotNull(path);
+				assertEquals(expected, lengthOf(path, start, goal, walls), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void path_to_start_is_empty() {
+		Cell cell = new BasicCell(3, 4);
+		List<Cell> path = new JumpPointSearch().findPath(cell, cell, (x, y) -> true, 0, 0, 8, 8);
+		assertTrue(path.isEmpty());
+	}
+
+	@Test
+	public void goes_around_a_wall() {
+		boolean[][] walls = new boolean[SIZE][SIZE];
+		for (int y = 0; y < SIZE - 1; y++) {
+			walls[10][y] = true;
+		}
+		Cell start = new BasicCell(5, 5);
+		Cell goal = new BasicCell(15, 5);
+		List<Cell> path = new JumpPointSearch().findPath(start, goal, (x, y) -> !walls[x][y], 0, 0, SIZE, SIZE);
+		assertEquals(shortestDistance(walls, start, goal), lengthOf(path, start, goal, walls), 1e-9);
+	}
+
+	/**
+	 * Checks that the path is made of steps to free neighbor cells and ends at the goal.
+	 *
+	 * @return Length of the path.
+	 */
+	private static double lengthOf(List<Cell> path, Cell start, Cell goal, boolean[][] walls) {
+		double length = 0;
+		Cell previous = start;
+		for (Cell cell : path) {
+			int dx = Math.abs(cell.x() - previous.x());
+			int dy = Math.abs(cell.y() - previous.y());
+			assertTrue(previous + " -> " + cell, dx <= 1 && dy <= 1 && dx + dy > 0);
+			assertFalse(walls[cell.x()][cell.y()]);
+			length += dx + dy == 2 ? Cell.SQRT_2 : 1;
+			previous = cell;
+		}
+		assertEquals(goal.x(), previous.x());
+		assertEquals(goal.y(), previous.y());
+		return length;
+	}
+
+	private static double shortestDistance(boolean[][] walls, Cell start, Cell goal) {
+		double[][] distances = new double[SIZE][SIZE];
+		for (double[] column : distances) {
+			Arrays.fill(column, Double.POSITIVE_INFINITY);
+		}
+		distances[start.x()][start.y()] = 0;
+		PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+		open.add(new double[]{0, start.x(), start.y()});
+		while (!open.isEmpty()) {
+			double[] current = open.poll();
+			int x = (int) current[1];
+			int y = (int) current[2];
+			if (current[0] > distances[x][y]) {
+				continue;
+			}
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int neighborX = x + dx;
+					int neighborY = y + dy;
+					if (dx == 0 && dy == 0
+						|| neighborX < 0 || neighborY < 0 || neighborX >= SIZE || neighborY >= SIZE
+						|| walls[neighborX][neighborY]) {
+						continue;
+					}
+					double distance = current[0] + (dx != 0 && dy != 0 ? Cell.SQRT_2 : 1);
+					if (distance < distances[neighborX][neighborY] - 1e-9) {
+						distances[neighborX][neighborY] = distance;
+						open.add(new double[]{distance, neighborX, neighborY});
+					}
+				}
+			}
+		}
+		return distances[goal.x()][goal.y()];
+	}
+}